@@ -1,16 +1,23 @@
 package com.varela.foro;
 
+import com.varela.foro.infra.nativo.ForoRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación Spring Boot para el foro.
  * La anotación @SpringBootApplication indica que esta clase es la clase principal que inicializa la aplicación Spring Boot.
  * La anotación @EntityScan escanea las entidades dentro del paquete "com.varela.foro.modelo".
+ * La anotación @EnableScheduling habilita las tareas programadas en segundo plano.
+ * La anotación @ImportRuntimeHints añade las pistas de reflexión y recursos para la imagen nativa de GraalVM.
  */
 @SpringBootApplication
 @EntityScan("com.varela.foro.modelo")
+@EnableScheduling
+@ImportRuntimeHints(ForoRuntimeHints.class)
 public class ForoApplication {
 
     /**
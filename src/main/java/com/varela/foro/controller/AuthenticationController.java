@@ -1,6 +1,8 @@
 package com.varela.foro.controller;
 
 import com.varela.foro.infra.security.DatosJWTToken;
+import com.varela.foro.infra.security.DatosRefrescoToken;
+import com.varela.foro.infra.security.ServicioSesiones;
 import com.varela.foro.infra.security.TokenService;
 import jakarta.validation.Valid;
 import com.varela.foro.modelo.usuario.DatosUsuario;
@@ -12,6 +14,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -38,6 +41,12 @@ public class AuthenticationController {
     @Autowired
     private TokenService tokenService;
 
+    /**
+     * El ServicioSesiones responsable de emitir, rotar y revocar los tokens de refresco.
+     */
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
     /**
      * Construye una instancia de AuthenticationController con el AuthenticationManager y el TokenService especificados.
      */
@@ -48,10 +57,10 @@ public class AuthenticationController {
 
     /**
      * Maneja la autenticación de un usuario utilizando las credenciales de usuario proporcionadas.
-     * Tras una autenticación exitosa, genera un token JWT para el usuario autenticado.
+     * Tras una autenticación exitosa, genera un token JWT de corta duración y un token de refresco para el usuario autenticado.
      *
      * @param datosAutenticacionUsuario Las credenciales de usuario para la autenticación.
-     * @return ResponseEntity Contiene el token JWT en el cuerpo de la respuesta.
+     * @return ResponseEntity Contiene el token JWT y el token de refresco en el cuerpo de la respuesta.
      */
     @PostMapping
     public ResponseEntity<DatosJWTToken> autenticarUsuario(@RequestBody @Valid DatosUsuario datosAutenticacionUsuario) {
@@ -60,9 +69,33 @@ public class AuthenticationController {
                 datosAutenticacionUsuario.contrasena());
         //Autenticar al usuario mediante AuthenticationManager
         var usuarioAutenticado = authenticationManager.authenticate(authToken);
-        //Generar un token JWT para el usuario autenticado
-        var JWTtoken = tokenService.generarToken((Usuario) usuarioAutenticado.getPrincipal());
-        //Devuelve el token JWT en el cuerpo de la respuesta.
-        return ResponseEntity.ok(new DatosJWTToken(JWTtoken));
+        //Generar un token JWT y un token de refresco para el usuario autenticado
+        var tokens = servicioSesiones.iniciar((Usuario) usuarioAutenticado.getPrincipal());
+        //Devuelve los tokens en el cuerpo de la respuesta.
+        return ResponseEntity.ok(tokens);
+    }
+
+    /**
+     * Canjea un token de refresco por un nuevo token JWT y un nuevo token de refresco.
+     * El token canjeado queda consumido; volver a usarlo revoca toda la sesión.
+     *
+     * @param datosRefrescoToken El token de refresco.
+     * @return ResponseEntity Contiene los nuevos tokens, o 401 si el token de refresco no es válido.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<DatosJWTToken> refrescarToken(@RequestBody @Valid DatosRefrescoToken datosRefrescoToken) {
+        return ResponseEntity.ok(servicioSesiones.refrescar(datosRefrescoToken.tokenRefresco()));
+    }
+
+    /**
+     * Cierra la sesión actual: revoca el token JWT usado en la petición y sus tokens de refresco.
+     *
+     * @param authHeader El encabezado Authorization con el token JWT.
+     * @return ResponseEntity 204 No Content.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity cerrarSesion(@RequestHeader("Authorization") String authHeader) {
+        servicioSesiones.cerrarSesion(tokenService.verificar(authHeader.replace("Bearer", "").trim()));
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,62 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.modelo.DatosLote;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utilidades compartidas por los endpoints de consulta por lote de los controladores.
+ */
+final class ConsultaPorLote {
+
+    private ConsultaPorLote() {
+    }
+
+    /**
+     * Elimina los IDs repetidos o nulos conservando el orden de la solicitud.
+     *
+     * @param ids Los IDs solicitados.
+     * @return Los IDs distintos, en el orden original.
+     */
+    static List<Long> distintos(List<Long> ids) {
+        var distintos = new LinkedHashSet<Long>();
+        for (Long id : ids) {
+            if (id != null) {
+                distintos.add(id);
+            }
+        }
+        return new ArrayList<>(distintos);
+    }
+
+    /**
+     * Ordena los elementos encontrados según los IDs solicitados e informa los que faltan.
+     *
+     * @param ids         Los IDs solicitados, sin repetidos.
+     * @param encontrados Los elementos devueltos por la consulta IN.
+     * @param obtenerId   Función para obtener el ID de cada elemento.
+     * @return El lote ordenado con los IDs no encontrados.
+     */
+    static <T> DatosLote<T> ordenar(List<Long> ids, Collection<T> encontrados, Function<T, Long> obtenerId) {
+        Map<Long, T> porId = new HashMap<>();
+        for (T elemento : encontrados) {
+            porId.put(obtenerId.apply(elemento), elemento);
+        }
+        var resultados = new ArrayList<T>(ids.size());
+        var noEncontrados = new ArrayList<Long>();
+        for (Long id : ids) {
+            T elemento = porId.get(id);
+            if (elemento != null) {
+                resultados.add(elemento);
+            } else {
+                noEncontrados.add(id);
+            }
+        }
+        return new DatosLote<>(resultados, noEncontrados);
+    }
+}
@@ -0,0 +1,73 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.infra.consultas.PresupuestoConsultas;
+import com.varela.foro.modelo.curso.CursoRepository;
+import com.varela.foro.modelo.curso.DatosEstadisticasCurso;
+import com.varela.foro.modelo.curso.DatosFacetaCategoria;
+import com.varela.foro.modelo.curso.DatosListadoCurso;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * CursoController es un controlador Spring MVC que maneja solicitudes relacionadas con los cursos y sus estadísticas.
+ * Los conteos de tópicos se sirven desde curso_stats, mantenida de forma incremental, sin agrupar la tabla topico.
+ *
+ * @RestController Indica que esta clase es un controlador Spring MVC e incluye automáticamente las anotaciones @Controller y @ResponseBody.
+ * @RequestMapping("/curso") Define la ruta URI base para el controlador.
+ */
+@RestController
+@RequestMapping("/curso")
+public class CursoController {
+
+    /**
+     * El CursoRepository utilizado para acceder a los cursos y a sus estadísticas.
+     */
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    /**
+     * Maneja el listado de cursos con paginación, cada uno con el conteo de sus tópicos por estado.
+     *
+     * @param paginacion La información de paginación.
+     * @param categoria  Categoría por la que filtrar (opcional).
+     * @return ResponseEntity Contiene una página de cursos con sus estadísticas.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping
+    public ResponseEntity<Page<DatosListadoCurso>> listarCursos(@PageableDefault(size = 10, sort = "id", direction = Sort.Direction.ASC) Pageable paginacion,
+                                                                @RequestParam(required = false) String categoria) {
+        return ResponseEntity.ok(cursoRepository.listarConEstadisticas(categoria, paginacion));
+    }
+
+    /**
+     * Maneja la consulta del conteo de tópicos por estado de un curso.
+     *
+     * @param id El ID del curso.
+     * @return ResponseEntity Contiene las estadísticas del curso, o 404 si no existe.
+     */
+    @PresupuestoConsultas(sentencias = 1)
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<DatosEstadisticasCurso> estadisticasCurso(@PathVariable Long id) {
+        return cursoRepository.buscarEstadisticas(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Maneja la consulta de facetas por categoría: número de cursos y de tópicos por estado de cada categoría.
+     *
+     * @return ResponseEntity Contiene las facetas de todas las categorías.
+     */
+    @PresupuestoConsultas(sentencias = 1)
+    @GetMapping("/categorias")
+    public ResponseEntity<List<DatosFacetaCategoria>> facetasPorCategoria() {
+        return ResponseEntity.ok(cursoRepository.facetasPorCategoria());
+    }
+}
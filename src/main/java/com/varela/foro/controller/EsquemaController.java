@@ -0,0 +1,49 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.infra.serializacion.ProtobufHttpMessageConverter;
+import com.varela.foro.modelo.DatosPagina;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.usuario.DatosListadoUsuarios;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * EsquemaController publica los esquemas .proto de las respuestas application/x-protobuf.
+ * Los números de campo se generan a partir de los records, así que los clientes deben compilar contra este esquema
+ * y no suponer un orden de campos.
+ *
+ * @RestController Indica que esta clase es un controlador Spring MVC e incluye automáticamente las anotaciones @Controller y @ResponseBody.
+ * @RequestMapping("/esquemas") Define la ruta URI base para el controlador.
+ */
+@RestController
+@RequestMapping("/esquemas")
+public class EsquemaController {
+
+    private final ProtobufHttpMessageConverter protobuf = new ProtobufHttpMessageConverter();
+
+    /**
+     * Esquema del listado compacto de tópicos (GET /topico con Accept: application/x-protobuf).
+     *
+     * @return ResponseEntity Contiene el .proto como texto.
+     */
+    @GetMapping(path = "/topico.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> esquemaTopicos() {
+        return ResponseEntity.ok(protobuf.esquemaProto(new ParameterizedTypeReference<DatosPagina<DatosListadoTopico>>() {
+        }.getType()));
+    }
+
+    /**
+     * Esquema del listado compacto de usuarios (GET /usuario con Accept: application/x-protobuf).
+     *
+     * @return ResponseEntity Contiene el .proto como texto.
+     */
+    @GetMapping(path = "/usuario.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> esquemaUsuarios() {
+        return ResponseEntity.ok(protobuf.esquemaProto(new ParameterizedTypeReference<DatosPagina<DatosListadoUsuarios>>() {
+        }.getType()));
+    }
+}
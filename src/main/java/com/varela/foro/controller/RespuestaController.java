@@ -0,0 +1,151 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.infra.consultas.PresupuestoConsultas;
+import com.varela.foro.modelo.respuesta.DatosNuevaRespuesta;
+import com.varela.foro.modelo.respuesta.DatosPaginaHilo;
+import com.varela.foro.modelo.respuesta.DatosRespuestaHilo;
+import com.varela.foro.modelo.respuesta.Respuesta;
+import com.varela.foro.modelo.respuesta.RespuestaCreada;
+import com.varela.foro.modelo.respuesta.RespuestaRepository;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * RespuestaController maneja las respuestas anidadas de un tópico.
+ * Los hilos se leen por tramos de ruta materializada, ya en orden de lectura, sin construir el árbol en memoria.
+ * Con foro.fragmentos.habilitado=true lo sustituye TopicoFragmentadoController.
+ *
+ * @RestController Indica que esta clase es un controlador Spring MVC e incluye automáticamente las anotaciones @Controller y @ResponseBody.
+ * @RequestMapping("/topico/{topicoId}/respuestas") Define la ruta URI base para el controlador.
+ */
+@RestController
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/topico/{topicoId}/respuestas")
+public class RespuestaController {
+
+    /**
+     * Límite superior de cualquier ruta: las rutas solo tienen dígitos y ':' va después de '9'.
+     */
+    private static final String FIN_DE_RUTA = ":";
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    /**
+     * Publica cada respuesta nueva y el cambio de estado del tópico al recibir su primera respuesta.
+     */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Número máximo de respuestas por página.
+     */
+    @Value("${foro.respuestas.max-pagina:200}")
+    private int maxPagina;
+
+    /**
+     * Maneja la creación de una respuesta a un tópico o a otra respuesta del mismo tópico.
+     *
+     * @param topicoId             El ID del tópico.
+     * @param datosNuevaRespuesta  El mensaje y, opcionalmente, la respuesta a la que se responde.
+     * @param uriComponentsBuilder Generador para crear la URI del hilo de la respuesta.
+     * @return ResponseEntity Contiene la respuesta creada, 404 si el tópico o el padre no existen,
+     * o 400 si se supera la profundidad máxima.
+     */
+    @PostMapping
+    @Transactional
+    public ResponseEntity responder(@PathVariable Long topicoId, @RequestBody @Valid DatosNuevaRespuesta datosNuevaRespuesta,
+                                    UriComponentsBuilder uriComponentsBuilder) {
+        var optionalTopico = topicoRepository.findById(topicoId);
+        if (optionalTopico.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Respuesta padre = null;
+        if (datosNuevaRespuesta.respuestaPadreId() != null) {
+            var optionalPadre = respuestaRepository.findByIdAndTopicoId(datosNuevaRespuesta.respuestaPadreId(), topicoId);
+            if (optionalPadre.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            padre = optionalPadre.get();
+            if (padre.getProfundidad() >= Respuesta.PROFUNDIDAD_MAXIMA) {
+                return ResponseEntity.badRequest().body("Se permiten como maximo " + Respuesta.PROFUNDIDAD_MAXIMA + " niveles de respuestas anidadas");
+            }
+        }
+        var topico = optionalTopico.get();
+        var autor = (Usuario) usuarioRepository.findByEmail(SecurityContextHolder.getContext().getAuthentication().getName());
+        var respuesta = respuestaRepository.save(new Respuesta(datosNuevaRespuesta.mensaje(), topico, autor, padre));
+        respuesta.asignarRuta(padre);
+        eventPublisher.publishEvent(new RespuestaCreada(respuesta));
+
+        var anterior = TopicoModificado.Estado.de(topico);
+        topico.registrarRespuesta();
+        if (topico.getStatus() != anterior.status()) {
+            eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.ACTUALIZADO, topico, anterior));
+        }
+        URI url = uriComponentsBuilder.path("/topico/{topicoId}/respuestas").queryParam("parent", respuesta.getId())
+                .buildAndExpand(topicoId).toUri();
+        return ResponseEntity.created(url).body(new DatosRespuestaHilo(respuesta));
+    }
+
+    /**
+     * Maneja la lectura de un hilo de respuestas, completo o a partir de una respuesta, paginado por cursor.
+     *
+     * @param topicoId El ID del tópico.
+     * @param parent   La respuesta cuyo subárbol se lee (sin incluirla); si se omite, se lee el hilo completo.
+     * @param depth    Niveles a incluir por debajo de parent (o desde la raíz); si se omite, todos.
+     * @param despues  Cursor devuelto en la página anterior (opcional).
+     * @param size     Tamaño de la página.
+     * @return ResponseEntity Contiene las respuestas en orden de lectura y el cursor de la página siguiente,
+     * o 404 si parent no pertenece al tópico.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping
+    public ResponseEntity<DatosPaginaHilo> leerHilo(@PathVariable Long topicoId,
+                                                    @RequestParam(required = false) Long parent,
+                                                    @RequestParam(required = false) Integer depth,
+                                                    @RequestParam(required = false) String despues,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        String desde = "";
+        String hasta = FIN_DE_RUTA;
+        int profundidadMaxima = depth != null ? depth - 1 : Respuesta.PROFUNDIDAD_MAXIMA;
+        if (parent != null) {
+            var optionalPadre = respuestaRepository.buscarPosicion(parent, topicoId);
+            if (optionalPadre.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            var padre = optionalPadre.get();
+            desde = padre.ruta();
+            hasta = padre.ruta() + FIN_DE_RUTA;
+            profundidadMaxima = depth != null ? padre.profundidad() + depth : Respuesta.PROFUNDIDAD_MAXIMA;
+        }
+        if (despues != null && despues.compareTo(desde) > 0) {
+            desde = despues;
+        }
+        int tamano = Math.max(1, Math.min(size, maxPagina));
+        var respuestas = respuestaRepository.buscarTramoDeHilo(topicoId, desde, hasta, profundidadMaxima, PageRequest.of(0, tamano));
+        var siguiente = respuestas.size() == tamano ? respuestas.get(respuestas.size() - 1).ruta() : null;
+        return ResponseEntity.ok(new DatosPaginaHilo(respuestas, siguiente));
+    }
+}
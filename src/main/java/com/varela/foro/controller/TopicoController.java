@@ -3,37 +3,172 @@ package com.varela.foro.controller;
 import com.varela.foro.modelo.curso.DatosCurso;
 import com.varela.foro.modelo.topico.*;
 import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import com.varela.foro.infra.archivo.ArchivoTopicos;
+import com.varela.foro.infra.coalescencia.CoalescedorDeCargas;
+import com.varela.foro.infra.consultas.PresupuestoConsultas;
+import com.varela.foro.infra.duplicados.DetectorDuplicados;
+import com.varela.foro.infra.eventos.BusDeEventosTopico;
+import com.varela.foro.infra.lecturas.DatosNoLeidos;
+import com.varela.foro.infra.lecturas.RegistroDeLecturas;
+import com.varela.foro.infra.moderacion.ModeracionTopicos;
+import com.varela.foro.infra.portada.PortadaTopicos;
+import com.varela.foro.infra.proyeccion.ConsultaProyectada;
+import com.varela.foro.infra.serializacion.ProtobufHttpMessageConverter;
+import com.varela.foro.modelo.DatosLote;
+import com.varela.foro.modelo.DatosPagina;
+import com.varela.foro.modelo.respuesta.RespuestaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * TopicoController es un controlador Spring MVC que maneja solicitudes relacionadas con temas en el foro.
+ * Con foro.fragmentos.habilitado=true lo sustituye TopicoFragmentadoController.
  *
  * @RestController Indica que esta clase es un controlador Spring MVC e incluye automáticamente las anotaciones @Controller y @ResponseBody.
  * @RequestMapping("/topico") Define la ruta URI base para el controlador.
  */
 @RestController
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "false", matchIfMissing = true)
 @RequestMapping("/topico")
 public class TopicoController {
 
+    /**
+     * Campos que pueden pedirse con fields= y su ruta en la entidad Topico.
+     */
+    private static final Map<String, String> CAMPOS = new LinkedHashMap<>();
+
+    static {
+        CAMPOS.put("id", "id");
+        CAMPOS.put("titulo", "titulo");
+        CAMPOS.put("mensaje", "mensaje");
+        CAMPOS.put("fechaCreacion", "fechaCreacion");
+        CAMPOS.put("status", "status");
+        CAMPOS.put("autor", "autor.nombre");
+        CAMPOS.put("nombreCurso", "curso.nombre");
+        CAMPOS.put("categoriaCurso", "curso.categoria");
+    }
+
     /**
      * El TopicoRepository utilizado para acceder y administrar datos de temas en la base de datos.
      */
     @Autowired
     private TopicoRepository topicoRepository;
 
+    /**
+     * Coalescedor que agrupa las lecturas concurrentes del mismo tópico en una sola consulta.
+     */
+    @Autowired
+    private CoalescedorDeCargas<Long, Optional<DatosListadoTopicoID>> coalescedorTopicos;
+
+    /**
+     * Publica los eventos TopicoModificado consumidos por el stream y demás efectos secundarios.
+     */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * El bus que alimenta el stream SSE de tópicos.
+     */
+    @Autowired
+    private BusDeEventosTopico busDeEventosTopico;
+
+    /**
+     * El UsuarioRepository utilizado para resolver el usuario autenticado.
+     */
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    /**
+     * Registro en memoria de los tópicos leídos por cada usuario.
+     */
+    @Autowired
+    private RegistroDeLecturas registroDeLecturas;
+
+    /**
+     * Detector de tópicos casi duplicados basado en un índice LSH en memoria.
+     */
+    @Autowired
+    private DetectorDuplicados detectorDuplicados;
+
+    /**
+     * Ejecuta los listados con solo las columnas pedidas.
+     */
+    @Autowired
+    private ConsultaProyectada consultaProyectada;
+
+    /**
+     * Archivo frío donde se buscan los tópicos que ya no están en las tablas calientes.
+     */
+    @Autowired
+    private ArchivoTopicos archivoTopicos;
+
+    /**
+     * El RespuestaRepository utilizado para borrar las respuestas de un tópico eliminado.
+     */
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    /**
+     * Aplica cambios de estado masivos por lotes, sin cargar los tópicos.
+     */
+    @Autowired
+    private ModeracionTopicos moderacionTopicos;
+
+    /**
+     * Primeras páginas del listado por defecto, precalculadas y ya serializadas.
+     */
+    @Autowired
+    private PortadaTopicos portadaTopicos;
+
+    /**
+     * Antigüedad máxima de los tópicos del listado por defecto; limita la consulta a las particiones recientes.
+     */
+    @Value("${foro.particiones.ventana-listado:P6M}")
+    private Period ventanaListado;
+
+    /**
+     * Número máximo de IDs aceptados por una consulta por lote.
+     */
+    @Value("${foro.lote.max-ids:100}")
+    private int maxIdsPorLote;
+
+    /**
+     * Número máximo de IDs aceptados por una moderación masiva; para más, se usa un filtro.
+     */
+    @Value("${foro.moderacion.max-ids:1000}")
+    private int maxIdsModeracion;
+
     /**
      * Se encarga de la creación de un nuevo topico.
      *
@@ -42,13 +177,16 @@ public class TopicoController {
      * @return ResponseEntity Contiene los detalles del tema recién creado en el cuerpo de la respuesta.
      */
     @PostMapping
+    @Transactional
     public ResponseEntity nuevoTopico(@RequestBody @Valid DatosNuevoTopico datosNuevoTopico, UriComponentsBuilder uriComponentsBuilder) {
-        // Verifica datos duplicados (Titulo, Mensaje).
-        if (existeTopicoDuplicado(datosNuevoTopico.titulo(), datosNuevoTopico.mensaje())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Registro duplicado no permitido");
+        // Verifica datos duplicados o casi duplicados (Titulo, Mensaje).
+        List<Long> duplicados = buscarDuplicados(datosNuevoTopico.titulo(), datosNuevoTopico.mensaje(), null);
+        if (!duplicados.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new DatosTopicoDuplicado("Registro duplicado no permitido", duplicados));
         }
         // Guardar en la base de datos los datos del nuevo topico.
         Topico topico = topicoRepository.save(new Topico(datosNuevoTopico));
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.CREADO, topico));
         var datosIDTopico = new DatosListadoTopicoID(topico.getId(), topico.getTitulo(), topico.getMensaje(), topico.getFechaCreacion(),
                 topico.getStatus(), topico.getAutor().getNombre(), topico.getCurso().getNombre(), topico.getCurso().getCategoria());
         URI url = uriComponentsBuilder.path("/topico/{id}").buildAndExpand(topico.getId()).toUri();
@@ -56,30 +194,179 @@ public class TopicoController {
     }
 
     /**
-     * Método para comprobar si ya existe un topico con el mismo título y mensaje.
+     * Método para buscar los topicos duplicados o casi duplicados de un título y mensaje.
+     * La comprobación exacta en la base de datos se hace siempre: el índice MinHash es aproximado y en memoria,
+     * así que solo añade los casi duplicados.
+     *
+     * @param titulo  El título del topico.
+     * @param mensaje El mensaje del topico.
+     * @param excluir ID del topico a excluir (el propio topico al actualizarlo), o nulo.
+     * @return Los IDs de los topicos duplicados, primero los exactos; vacío si no hay ninguno.
      */
-    private boolean existeTopicoDuplicado(String titulo, String mensaje) {
-        // Consultamos el repositorio para buscar tópicos con el mismo título y mensaje
-        List<Topico> topicos = topicoRepository.findByTituloAndMensaje(titulo, mensaje);
-        return !topicos.isEmpty();
+    private List<Long> buscarDuplicados(String titulo, String mensaje, Long excluir) {
+        var duplicados = new LinkedHashSet<Long>();
+        topicoRepository.buscarIdsPorTituloYMensaje(titulo, mensaje).stream()
+                .filter(topicoId -> !topicoId.equals(excluir)).forEach(duplicados::add);
+        if (detectorDuplicados.isListo()) {
+            duplicados.addAll(detectorDuplicados.buscarDuplicados(titulo, mensaje, excluir));
+        }
+        return List.copyOf(duplicados);
     }
 
     /**
      * Maneja el listado de topicos con paginación.
+     * Las primeras páginas del listado por defecto se sirven ya serializadas desde la portada, sin consultas.
      *
      * @param paginacion Información de paginación.
-     * @return ResponseEntity Contiene una página de detalles del topico en el cuerpo de la respuesta.
+     * @param noLeidos   Si es verdadero, la página se filtra en memoria a los tópicos no leídos por el usuario autenticado.
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los creados dentro de la ventana reciente.
+     * @return ResponseEntity Contiene una página de detalles del topico en el cuerpo de la respuesta, con ETag si viene de la portada.
      */
+    @PresupuestoConsultas(sentencias = 2)
     @GetMapping
-    public ResponseEntity<Page<DatosListadoTopico>> listarTopicos(@PageableDefault(size = 10) Pageable paginacion) {
-        Page<Topico> paginaTopicos = topicoRepository.findAll(paginacion);
-        Page<DatosListadoTopico> paginaDatosTopico = paginaTopicos.map(topico -> {
-            String nombreAutor = (topico.getAutor() != null) ? topico.getAutor().getNombre() : null;
-            return new DatosListadoTopico(topico.getId(), topico.getTitulo(), topico.getMensaje(), topico.getFechaCreacion(),
-                    topico.getStatus(), nombreAutor, topico.getCurso().getNombre(), topico.getCurso().getCategoria()
-            );
-        });
-        return ResponseEntity.ok(paginaDatosTopico);
+    public ResponseEntity listarTopicos(@PageableDefault(size = 10) Pageable paginacion,
+                                        @RequestParam(name = "unread", defaultValue = "false") boolean noLeidos,
+                                        @RequestParam(defaultValue = "false") boolean historico) {
+        if (!noLeidos && !historico) {
+            var portada = portadaTopicos.buscar(paginacion);
+            if (portada.isPresent()) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(portada.get().etag())
+                        .body(portada.get().cuerpo());
+            }
+        }
+        return ResponseEntity.ok(paginaTopicos(paginacion, noLeidos, historico));
+    }
+
+    /**
+     * Consulta una página del listado de topicos.
+     *
+     * @param paginacion Información de paginación.
+     * @param noLeidos   Si es verdadero, la página se filtra en memoria a los tópicos no leídos por el usuario autenticado.
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los creados dentro de la ventana reciente.
+     * @return La página de topicos.
+     */
+    private Page<DatosListadoTopico> paginaTopicos(Pageable paginacion, boolean noLeidos, boolean historico) {
+        Page<Topico> paginaTopicos = historico
+                ? topicoRepository.findAll(paginacion)
+                : topicoRepository.findByFechaCreacionGreaterThanEqual(LocalDateTime.now().minus(ventanaListado), paginacion);
+        if (noLeidos) {
+            var filtro = registroDeLecturas.noLeidos(usuarioActualId());
+            paginaTopicos = new PageImpl<>(paginaTopicos.getContent().stream().filter(topico -> filtro.test(topico.getId())).toList(),
+                    paginacion, paginaTopicos.getTotalElements());
+        }
+        return paginaTopicos.map(DatosListadoTopico::new);
+    }
+
+    /**
+     * Maneja el listado de topicos en formato binario (CBOR o Protobuf) con un sobre de página compacto.
+     *
+     * @param paginacion Información de paginación.
+     * @param noLeidos   Si es verdadero, la página se filtra a los tópicos no leídos por el usuario autenticado.
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los recientes.
+     * @return ResponseEntity Contiene la página compacta de topicos.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, ProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE})
+    public ResponseEntity<DatosPagina<DatosListadoTopico>> listarTopicosCompacto(@PageableDefault(size = 10) Pageable paginacion,
+                                                                                @RequestParam(name = "unread", defaultValue = "false") boolean noLeidos,
+                                                                                @RequestParam(defaultValue = "false") boolean historico) {
+        return ResponseEntity.ok(new DatosPagina<>(paginaTopicos(paginacion, noLeidos, historico)));
+    }
+
+    /**
+     * Maneja el listado de topicos con solo los campos pedidos (fields=) y, opcionalmente, un extracto del mensaje.
+     * La selección de columnas y el recorte del mensaje se hacen en la propia consulta SQL.
+     *
+     * @param paginacion Información de paginación.
+     * @param campos     Campos a devolver, por ejemplo fields=titulo,status. El id siempre se incluye.
+     * @param extracto   Longitud máxima del mensaje (opcional).
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los creados dentro de la ventana reciente.
+     * @return ResponseEntity Contiene una página con los campos pedidos de cada topico.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping(params = "fields")
+    public ResponseEntity listarTopicosCampos(@PageableDefault(size = 10) Pageable paginacion,
+                                              @RequestParam("fields") Set<String> campos,
+                                              @RequestParam(required = false) Integer extracto,
+                                              @RequestParam(defaultValue = "false") boolean historico) {
+        if (extracto != null && extracto < 1) {
+            return ResponseEntity.badRequest().body("El extracto debe ser mayor que 0");
+        }
+        consultaProyectada.validar(CAMPOS, campos);
+        // La misma ventana que el listado completo: sin ella, la consulta recorre toda la tabla para contar.
+        BiFunction<Root<Topico>, CriteriaBuilder, Predicate> filtro = historico ? null
+                : (raiz, cb) -> cb.greaterThanOrEqualTo(raiz.get("fechaCreacion"), LocalDateTime.now().minus(ventanaListado));
+        return ResponseEntity.ok(consultaProyectada.listar(Topico.class, CAMPOS, campos, "mensaje", extracto, filtro, paginacion));
+    }
+
+    /**
+     * Maneja el listado de topicos con todos los campos y el mensaje recortado en SQL.
+     *
+     * @param paginacion Información de paginación.
+     * @param extracto   Longitud máxima del mensaje.
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los recientes.
+     * @return ResponseEntity Contiene una página de topicos con el mensaje recortado.
+     */
+    @GetMapping(params = {"extracto", "!fields"})
+    public ResponseEntity listarTopicosConExtracto(@PageableDefault(size = 10) Pageable paginacion, @RequestParam Integer extracto,
+                                                   @RequestParam(defaultValue = "false") boolean historico) {
+        return listarTopicosCampos(paginacion, null, extracto, historico);
+    }
+
+    /**
+     * Cuenta los topicos no leídos por el usuario autenticado, en total y por curso.
+     *
+     * @return ResponseEntity Contiene los conteos de no leídos.
+     */
+    @GetMapping("/no-leidos")
+    public ResponseEntity<DatosNoLeidos> contarNoLeidos() {
+        return ResponseEntity.ok(registroDeLecturas.contarNoLeidos(usuarioActualId()));
+    }
+
+    /**
+     * Obtiene el ID del usuario autenticado en la solicitud actual, del claim "id" de su token (sin consultas).
+     * Solo los tokens sin ese claim obligan a buscar al usuario por su email.
+     */
+    private Long usuarioActualId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getDetails() instanceof Long id) {
+            return id;
+        }
+        return ((Usuario) usuarioRepository.findByEmail(authentication.getName())).getId();
+    }
+
+    /**
+     * Abre un stream Server-Sent Events con los topicos creados, actualizados y eliminados.
+     * Sustituye el sondeo periódico de GET /topico.
+     *
+     * @param curso        ID del curso para filtrar los eventos (opcional).
+     * @param ultimoEvento Cabecera Last-Event-ID para reanudar tras una reconexión (opcional).
+     * @return El emisor SSE de la suscripción.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTopicos(@RequestParam(required = false) Long curso,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEvento) {
+        return busDeEventosTopico.suscribir(curso, ultimoEvento);
+    }
+
+    /**
+     * Maneja el listado de varios topicos por sus IDs en una sola consulta.
+     *
+     * @param ids IDs de los topicos, en el orden en que se desean recibir.
+     * @return ResponseEntity Contiene los topicos encontrados en el orden solicitado y los IDs inexistentes.
+     */
+    @PresupuestoConsultas(sentencias = 1)
+    @GetMapping("/batch")
+    public ResponseEntity listarTopicosPorIds(@RequestParam List<Long> ids) {
+        List<Long> distintos = ConsultaPorLote.distintos(ids);
+        if (distintos.size() > maxIdsPorLote) {
+            return ResponseEntity.badRequest().body("Se permiten como maximo " + maxIdsPorLote + " IDs por consulta");
+        }
+        if (distintos.isEmpty()) {
+            return ResponseEntity.ok(new DatosLote<DatosListadoTopicoID>(List.of(), List.of()));
+        }
+        var encontrados = topicoRepository.buscarDatosPorIds(distintos);
+        return ResponseEntity.ok(ConsultaPorLote.ordenar(distintos, encontrados, DatosListadoTopicoID::id));
     }
 
     /**
@@ -88,16 +375,40 @@ public class TopicoController {
      * @param id ID del topico.
      * @return ResponseEntity Contiene los detalles del tema solicitado en el cuerpo de la respuesta.
      */
+    @PresupuestoConsultas(sentencias = 1)
     @GetMapping("/{id}")
     public ResponseEntity<DatosListadoTopicoID> listarTopicoPorId(@PathVariable Long id) {
-        Optional<Topico> optionalTopico = topicoRepository.findById(id);
-        if (optionalTopico.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        // Las lecturas concurrentes del mismo ID comparten una única consulta con autor y curso ya unidos.
+        // Si el tópico ya no está en las tablas calientes, se busca en el archivo.
+        Optional<DatosListadoTopicoID> optionalTopico = coalescedorTopicos.cargar(id,
+                () -> topicoRepository.buscarDatosPorIds(List.of(id)).stream().findFirst().or(() -> archivoTopicos.buscar(id)));
+        optionalTopico.ifPresent(topico -> registroDeLecturas.marcarLeido(usuarioActualId(), topico.id()));
+        return optionalTopico.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Maneja la moderación masiva: cambia el estado de los tópicos indicados por IDs o por un filtro
+     * (curso, estado, antigüedad) con UPDATE por lotes, sin cargar ni validar cada tópico. Solo para ROLE_MODERADOR.
+     * Cada llamada procesa como mucho foro.moderacion.max-filas tópicos; si el filtro abarca más, la respuesta trae
+     * el siguienteId y se continúa repitiendo la llamada con filtro.desdeId.
+     *
+     * @param datosModeracion Los tópicos a moderar y el estado nuevo.
+     * @return ResponseEntity Contiene el número de tópicos actualizados y de lotes ejecutados.
+     */
+    @PostMapping("/moderation")
+    public ResponseEntity moderarTopicos(@RequestBody @Valid DatosModeracion datosModeracion) {
+        boolean hayIds = datosModeracion.ids() != null && !datosModeracion.ids().isEmpty();
+        boolean hayFiltro = datosModeracion.filtro() != null && !datosModeracion.filtro().isVacio();
+        if (hayIds == hayFiltro) {
+            return ResponseEntity.badRequest().body("Se debe indicar una lista de IDs o un filtro, no ambos");
         }
-        Topico topico = optionalTopico.get();
-        var datosIDTopico = new DatosListadoTopicoID(topico.getId(), topico.getTitulo(), topico.getMensaje(), topico.getFechaCreacion(),
-                topico.getStatus(), topico.getAutor().getNombre(), topico.getCurso().getNombre(), topico.getCurso().getCategoria());
-        return ResponseEntity.ok(datosIDTopico);
+        if (hayIds && datosModeracion.ids().size() > maxIdsModeracion) {
+            return ResponseEntity.badRequest().body("Se permiten como maximo " + maxIdsModeracion + " IDs por moderacion");
+        }
+        var resultado = hayIds
+                ? moderacionTopicos.moderar(datosModeracion.ids(), datosModeracion.status())
+                : moderacionTopicos.moderar(datosModeracion.filtro(), datosModeracion.status());
+        return ResponseEntity.ok(resultado);
     }
 
     /**
@@ -115,27 +426,18 @@ public class TopicoController {
             return ResponseEntity.notFound().build();
         }
         Topico topico = optionalTopico.get();
-        if (existeTopicoDuplicado(datosActualizarTopico.titulo(), datosActualizarTopico.mensaje())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Actualizacion duplicada no permitida");
+        List<Long> duplicados = buscarDuplicados(datosActualizarTopico.titulo(), datosActualizarTopico.mensaje(), id);
+        if (!duplicados.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new DatosTopicoDuplicado("Actualizacion duplicada no permitida", duplicados));
         }
+        var anterior = TopicoModificado.Estado.de(topico);
         topico.actualizarTopico(datosActualizarTopico);
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.ACTUALIZADO, topico, anterior));
         return ResponseEntity.ok(new DatosActualizarTopico(topico.getTitulo(), topico.getMensaje(),
                 new DatosUsuario(topico.getAutor().getNombre(), topico.getAutor().getEmail(), topico.getAutor().getContrasena()),
                 new DatosCurso(topico.getCurso().getNombre(), topico.getCurso().getCategoria())));
     }
 
-    /**
-     * Método para comprobar si ya existe un tema actualizado con el mismo título y mensaje.
-     *
-     * @param titulo  El título del tema actualizado.
-     * @param mensaje El mensaje del tema actualizado.
-     * @return Es verdadero si existe un tema actualizado duplicado; falso en caso contrario.
-     */
-    private boolean existeTopicoActualizadoDuplicado(String titulo, String mensaje) {
-        List<Topico> topicos = topicoRepository.findByTituloAndMensaje(titulo, mensaje);
-        return !topicos.isEmpty();
-    }
-
     /**
      * Maneja la eliminación de un tema por su ID.
      *
@@ -150,7 +452,11 @@ public class TopicoController {
             return ResponseEntity.notFound().build();
         }
         Topico topico = optionalTopico.get();
+        // Sin claves foráneas en las tablas particionadas, las respuestas se borran explícitamente antes del tópico.
+        respuestaRepository.eliminarEnlacesPorTopico(id);
+        respuestaRepository.eliminarPorTopico(id);
         topicoRepository.delete(topico);
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.ELIMINADO, topico));
         return ResponseEntity.noContent().build();
     }
 }
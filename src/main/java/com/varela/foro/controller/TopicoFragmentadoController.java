@@ -0,0 +1,208 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.infra.fragmentos.DatosRespuestaFragmentada;
+import com.varela.foro.infra.fragmentos.DatosTopicoFragmentado;
+import com.varela.foro.infra.fragmentos.TopicosFragmentados;
+import com.varela.foro.modelo.curso.Curso;
+import com.varela.foro.modelo.curso.CursoRepository;
+import com.varela.foro.modelo.respuesta.DatosNuevaRespuesta;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Endpoints de tópicos y respuestas cuando están repartidos entre fragmentos (foro.fragmentos.habilitado=true).
+ * Sustituye a TopicoController y RespuestaController: crea, lista, lee y elimina en TopicosFragmentados, y resuelve
+ * los nombres de autores y cursos en la base de datos principal con una consulta por página.
+ * Las respuestas de un fragmento no se anidan: solo se responde al tópico.
+ * No cubre el resto de TopicoController (actualizar, moderar, stream, batch, no-leidos, proyecciones, CBOR y
+ * Protobuf) ni publica TopicoModificado, así que ConfiguracionFragmentos no arranca sin
+ * foro.fragmentos.aceptar-funciones-limitadas=true.
+ *
+ * @RestController Indica que esta clase es un controlador Spring MVC e incluye automáticamente las anotaciones @Controller y @ResponseBody.
+ * @RequestMapping("/topico") Define la ruta URI base para el controlador.
+ */
+@RestController
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+@RequestMapping("/topico")
+public class TopicoFragmentadoController {
+
+    @Autowired
+    private TopicosFragmentados topicosFragmentados;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    /**
+     * Número máximo de respuestas por página.
+     */
+    @Value("${foro.respuestas.max-pagina:200}")
+    private int maxPagina;
+
+    /**
+     * Crea un tópico en el fragmento de su curso, que se busca por nombre y categoría o se crea si no existe.
+     * El autor es el usuario autenticado.
+     *
+     * @param datosNuevoTopico     Los datos para crear un nuevo topico.
+     * @param uriComponentsBuilder Generador para crear URI para el recurso recién creado.
+     * @return ResponseEntity Contiene el tópico creado, o 400 si no trae curso.
+     */
+    @PostMapping
+    public ResponseEntity nuevoTopico(@RequestBody @Valid DatosNuevoTopico datosNuevoTopico, UriComponentsBuilder uriComponentsBuilder) {
+        if (datosNuevoTopico.curso() == null) {
+            return ResponseEntity.badRequest().body("El curso no debe ser nulo");
+        }
+        // El curso se reutiliza: uno nuevo por tópico tendría otro ID y el tópico iría a otra cubeta.
+        var datosCurso = datosNuevoTopico.curso();
+        var curso = cursoRepository.findFirstByNombreAndCategoriaOrderByIdAsc(datosCurso.nombre(), datosCurso.categoria())
+                .orElseGet(() -> cursoRepository.save(new Curso(datosCurso)));
+        var topico = topicosFragmentados.crear(curso.getId(), usuarioActualId(), datosNuevoTopico.titulo(), datosNuevoTopico.mensaje());
+        URI url = uriComponentsBuilder.path("/topico/{id}").buildAndExpand(topico.id()).toUri();
+        return ResponseEntity.created(url).body(aListadoID(topico));
+    }
+
+    /**
+     * Lista los tópicos de todos los fragmentos, o solo los de un curso, del más reciente al más antiguo.
+     *
+     * @param paginacion Información de paginación; "sort=id,asc" invierte el orden.
+     * @param curso      ID del curso para filtrar (opcional); se lee de un solo fragmento.
+     * @return ResponseEntity Contiene la página de tópicos, o 400 si pasa de foro.fragmentos.max-resultados.
+     */
+    @GetMapping
+    public ResponseEntity listarTopicos(@PageableDefault(size = 10) Pageable paginacion, @RequestParam(required = false) Long curso) {
+        Page<DatosTopicoFragmentado> pagina;
+        try {
+            pagina = curso != null ? topicosFragmentados.listarPorCurso(curso, paginacion) : topicosFragmentados.listar(paginacion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(new PageImpl<>(aListado(pagina.getContent()), paginacion, pagina.getTotalElements()));
+    }
+
+    /**
+     * Lista los tópicos anteriores a un ID, sin límite de profundidad.
+     *
+     * @param antesDe ID del último tópico de la página anterior.
+     * @param size    Tamaño de la página.
+     * @return ResponseEntity Contiene los tópicos, del más reciente al más antiguo.
+     */
+    @GetMapping(params = "antesDe")
+    public ResponseEntity<List<DatosListadoTopico>> listarTopicosAnteriores(@RequestParam Long antesDe,
+                                                                            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(aListado(topicosFragmentados.listarAnteriores(antesDe, Math.max(1, Math.min(size, maxPagina)))));
+    }
+
+    /**
+     * Busca un tópico por su ID en el fragmento de su cubeta.
+     *
+     * @param id ID del topico.
+     * @return ResponseEntity Contiene el tópico, o 404 si no existe.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<DatosListadoTopicoID> listarTopicoPorId(@PathVariable Long id) {
+        return topicosFragmentados.buscar(id).map(this::aListadoID).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Elimina un tópico y sus respuestas.
+     *
+     * @param id El ID del tópico.
+     * @return ResponseEntity 204, o 404 si no existe.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity eliminarTopico(@PathVariable Long id) {
+        return topicosFragmentados.eliminar(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Responde a un tópico. Si no existe, TopicosFragmentados lanza EntityNotFoundException (404).
+     *
+     * @param topicoId             El ID del tópico.
+     * @param datosNuevaRespuesta  El mensaje; respuestaPadreId debe ser nulo.
+     * @param uriComponentsBuilder Generador para crear la URI de las respuestas del tópico.
+     * @return ResponseEntity Contiene la respuesta creada, o 400 si se intenta anidar.
+     */
+    @PostMapping("/{topicoId}/respuestas")
+    public ResponseEntity responder(@PathVariable Long topicoId, @RequestBody @Valid DatosNuevaRespuesta datosNuevaRespuesta,
+                                    UriComponentsBuilder uriComponentsBuilder) {
+        if (datosNuevaRespuesta.respuestaPadreId() != null) {
+            return ResponseEntity.badRequest().body("Las respuestas de un foro fragmentado no se anidan");
+        }
+        var respuesta = topicosFragmentados.responder(topicoId, usuarioActualId(), datosNuevaRespuesta.mensaje());
+        URI url = uriComponentsBuilder.path("/topico/{topicoId}/respuestas").buildAndExpand(topicoId).toUri();
+        return ResponseEntity.created(url).body(respuesta);
+    }
+
+    /**
+     * Respuestas de un tópico en orden de creación.
+     *
+     * @param topicoId El ID del tópico.
+     * @param size     Número máximo de respuestas.
+     * @return ResponseEntity Contiene las respuestas.
+     */
+    @GetMapping("/{topicoId}/respuestas")
+    public ResponseEntity<List<DatosRespuestaFragmentada>> leerRespuestas(@PathVariable Long topicoId,
+                                                                          @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(topicosFragmentados.respuestas(topicoId, Math.max(1, Math.min(size, maxPagina))));
+    }
+
+    /**
+     * Obtiene el ID del usuario autenticado, del claim "id" de su token o, si no lo trae, por su email.
+     */
+    private Long usuarioActualId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getDetails() instanceof Long id) {
+            return id;
+        }
+        return ((Usuario) usuarioRepository.findByEmail(authentication.getName())).getId();
+    }
+
+    private DatosListadoTopicoID aListadoID(DatosTopicoFragmentado topico) {
+        var datos = aListado(List.of(topico)).get(0);
+        return new DatosListadoTopicoID(datos.id(), datos.titulo(), datos.mensaje(), datos.fechaCreacion(), datos.status(),
+                datos.autor(), datos.nombreCurso(), datos.categoriaCurso());
+    }
+
+    /**
+     * Convierte tópicos de los fragmentos al listado, con los autores y cursos leídos de una vez.
+     */
+    private List<DatosListadoTopico> aListado(List<DatosTopicoFragmentado> topicos) {
+        Map<Long, Usuario> autores = usuarioRepository.findAllById(topicos.stream().map(DatosTopicoFragmentado::autorId)
+                        .filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Usuario::getId, Function.identity()));
+        Map<Long, Curso> cursos = cursoRepository.findAllById(topicos.stream().map(DatosTopicoFragmentado::cursoId)
+                        .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Curso::getId, Function.identity()));
+        return topicos.stream().map(topico -> {
+            var autor = autores.get(topico.autorId());
+            var curso = cursos.get(topico.cursoId());
+            return new DatosListadoTopico(topico.id(), topico.titulo(), topico.mensaje(), topico.fechaCreacion(), topico.status(),
+                    autor != null ? autor.getNombre() : null, curso != null ? curso.getNombre() : null,
+                    curso != null ? curso.getCategoria() : null);
+        }).toList();
+    }
+}
@@ -1,21 +1,33 @@
 package com.varela.foro.controller;
 
+import com.varela.foro.infra.consultas.PresupuestoConsultas;
+import com.varela.foro.infra.proyeccion.ConsultaProyectada;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.infra.serializacion.ProtobufHttpMessageConverter;
+import com.varela.foro.modelo.DatosLote;
+import com.varela.foro.modelo.DatosPagina;
 import com.varela.foro.modelo.usuario.*;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * UsuarioController es un controlador Spring MVC que maneja solicitudes relacionadas con las operaciones del usuario.
@@ -27,6 +39,17 @@ import java.util.Optional;
 @RequestMapping("/usuario")
 public class UsuarioController {
 
+    /**
+     * Campos que pueden pedirse con fields= y su ruta en la entidad Usuario.
+     */
+    private static final Map<String, String> CAMPOS = new LinkedHashMap<>();
+
+    static {
+        CAMPOS.put("id", "id");
+        CAMPOS.put("nombre", "nombre");
+        CAMPOS.put("email", "email");
+    }
+
     /**
      * El UsuarioRepository utilizado para acceder y administrar los datos del usuario en la base de datos.
      */
@@ -34,10 +57,40 @@ public class UsuarioController {
     private UsuarioRepository usuarioRepository;
 
     /**
-     * BCryptPasswordEncoder se utiliza para codificar y decodificar contraseñas de usuario.
+     * El PasswordEncoder (BCrypt) se utiliza para codificar y decodificar contraseñas de usuario.
+     */
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * El PurgaUsuarioRepository utilizado para registrar y consultar las purgas de usuarios eliminados.
+     */
+    @Autowired
+    private PurgaUsuarioRepository purgaUsuarioRepository;
+
+    /**
+     * Ejecuta los listados con solo las columnas pedidas.
      */
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private ConsultaProyectada consultaProyectada;
+
+    /**
+     * Revoca las sesiones abiertas de un usuario eliminado o actualizado.
+     */
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    /**
+     * Publica los eventos UsuarioModificado consumidos por la auditoría.
+     */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Número máximo de IDs aceptados por una consulta por lote.
+     */
+    @Value("${foro.lote.max-ids:100}")
+    private int maxIdsPorLote;
 
     /**
      * Maneja la creación de un nuevo usuario.
@@ -55,6 +108,7 @@ public class UsuarioController {
 
         // Guarda en la base de datos
         Usuario usuario = usuarioRepository.save(new Usuario(datosUsuario, passwordEncoder));
+        eventPublisher.publishEvent(new UsuarioModificado(TipoModificacionUsuario.CREADO, usuario));
 
         var datosIDUsuario = new DatosListadoUsuarios(usuario.getId(), usuario.getNombre(), usuario.getEmail());
         URI url = uriComponentsBuilder.path("/usuario/{id}").buildAndExpand(usuario.getId()).toUri();
@@ -80,24 +134,74 @@ public class UsuarioController {
      * @param paginacion La información de paginación.
      * @return ResponseEntity Contiene una página de detalles del usuario en el cuerpo de la respuesta.
      */
+    @PresupuestoConsultas(sentencias = 2)
     @GetMapping
     public ResponseEntity<Page<DatosListadoUsuarios>> listarUsuarios(@PageableDefault(size = 10) Pageable paginacion) {
-        Page<Usuario> paginaUsuarios = usuarioRepository.findAll(paginacion);
+        Page<Usuario> paginaUsuarios = usuarioRepository.findAllByActivoTrue(paginacion);
         Page<DatosListadoUsuarios> paginaDatosUsuarios = paginaUsuarios.map(usuario -> {
             return new DatosListadoUsuarios(usuario.getId(), usuario.getNombre(), usuario.getEmail());
         });
         return ResponseEntity.ok(paginaDatosUsuarios);
     }
 
+    /**
+     * Maneja el listado de usuarios con solo los campos pedidos (fields=), seleccionados en la propia consulta SQL.
+     *
+     * @param paginacion La información de paginación.
+     * @param campos     Campos a devolver, por ejemplo fields=nombre. El id siempre se incluye.
+     * @return ResponseEntity Contiene una página con los campos pedidos de cada usuario.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping(params = "fields")
+    public ResponseEntity<Page<Map<String, Object>>> listarUsuariosCampos(@PageableDefault(size = 10) Pageable paginacion,
+                                                                         @RequestParam("fields") Set<String> campos) {
+        consultaProyectada.validar(CAMPOS, campos);
+        return ResponseEntity.ok(consultaProyectada.listar(Usuario.class, CAMPOS, campos, null, null,
+                (usuario, cb) -> cb.isTrue(usuario.get("activo")), paginacion));
+    }
+
+    /**
+     * Maneja el listado de usuarios en formato binario (CBOR o Protobuf) con un sobre de página compacto.
+     *
+     * @param paginacion La información de paginación.
+     * @return ResponseEntity Contiene la página compacta de usuarios.
+     */
+    @PresupuestoConsultas(sentencias = 2)
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, ProtobufHttpMessageConverter.APPLICATION_PROTOBUF_VALUE})
+    public ResponseEntity<DatosPagina<DatosListadoUsuarios>> listarUsuariosCompacto(@PageableDefault(size = 10) Pageable paginacion) {
+        return ResponseEntity.ok(new DatosPagina<>(listarUsuarios(paginacion).getBody()));
+    }
+
+    /**
+     * Maneja la recuperación de varios usuarios por sus IDs en una sola consulta.
+     *
+     * @param ids IDs de los usuarios, en el orden en que se desean recibir.
+     * @return ResponseEntity Contiene los usuarios encontrados en el orden solicitado y los IDs inexistentes.
+     */
+    @PresupuestoConsultas(sentencias = 1)
+    @GetMapping("/batch")
+    public ResponseEntity listarUsuariosPorIds(@RequestParam List<Long> ids) {
+        List<Long> distintos = ConsultaPorLote.distintos(ids);
+        if (distintos.size() > maxIdsPorLote) {
+            return ResponseEntity.badRequest().body("Se permiten como maximo " + maxIdsPorLote + " IDs por consulta");
+        }
+        if (distintos.isEmpty()) {
+            return ResponseEntity.ok(new DatosLote<DatosListadoUsuarios>(List.of(), List.of()));
+        }
+        var encontrados = usuarioRepository.buscarDatosPorIds(distintos);
+        return ResponseEntity.ok(ConsultaPorLote.ordenar(distintos, encontrados, DatosListadoUsuarios::id));
+    }
+
     /**
      * Maneja la recuperación de un usuario por su ID.
      *
      * @param id ID de usuario.
      * @return ResponseEntity Contiene los detalles del usuario solicitado en el cuerpo de la respuesta.
      */
+    @PresupuestoConsultas(sentencias = 1)
     @GetMapping("/{id}")
     public ResponseEntity<DatosListadoUsuarios> listarUsuariosPorId(@PathVariable Long id) {
-        Optional<Usuario> optionalUsaurio = usuarioRepository.findById(id);
+        Optional<Usuario> optionalUsaurio = usuarioRepository.findByIdAndActivoTrue(id);
         if (optionalUsaurio.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -116,7 +220,7 @@ public class UsuarioController {
     @PutMapping("/{id}")
     @Transactional
     public ResponseEntity actualizarUsuario(@PathVariable Long id, @RequestBody @Valid DatosNuevoUsuario datosNuevoUsuario) {
-        Optional<Usuario> optionalUsuario = usuarioRepository.findById(id);
+        Optional<Usuario> optionalUsuario = usuarioRepository.findByIdAndActivoTrue(id);
         if (optionalUsuario.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -125,6 +229,9 @@ public class UsuarioController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body("Actualizacion duplicada no permitida");
         }
         usuario.actualizarDatos(datosNuevoUsuario);
+        // La actualización reemplaza el correo (sujeto de los tokens) y la contraseña: se cierran las sesiones abiertas
+        servicioSesiones.revocarUsuario(usuario.getId());
+        eventPublisher.publishEvent(new UsuarioModificado(TipoModificacionUsuario.ACTUALIZADO, usuario));
         return ResponseEntity.ok(new DatosUsuario(usuario.getNombre(), usuario.getEmail(), usuario.getContrasena()));
     }
 
@@ -142,20 +249,39 @@ public class UsuarioController {
 
     /**
      * Maneja la eliminación de un usuario por su ID.
+     * El usuario se oculta de inmediato (borrado lógico) y su contenido se purga después en segundo plano por lotes.
      *
-     * @param id El ID del usuario que se va a eliminar.
-     * @return ResponseEntity Indica el éxito de la eliminación.
+     * @param id                   El ID del usuario que se va a eliminar.
+     * @param uriComponentsBuilder Generador para crear la URI de consulta del estado de la purga.
+     * @return ResponseEntity 202 Accepted con el estado inicial de la purga.
      */
     @DeleteMapping("/{id}")
     @Transactional
-    public ResponseEntity eliminarUsuario(@PathVariable Long id) {
-        Optional<Usuario> optionalUsuario = usuarioRepository.findById(id);
+    public ResponseEntity eliminarUsuario(@PathVariable Long id, UriComponentsBuilder uriComponentsBuilder) {
+        Optional<Usuario> optionalUsuario = usuarioRepository.findByIdAndActivoTrue(id);
         if (optionalUsuario.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         Usuario usuario = optionalUsuario.get();
-        usuarioRepository.delete(usuario);
-        return ResponseEntity.noContent().build();
+        usuario.desactivar();
+        servicioSesiones.revocarUsuario(usuario.getId());
+        PurgaUsuario purga = purgaUsuarioRepository.save(new PurgaUsuario(usuario.getId()));
+        eventPublisher.publishEvent(new UsuarioModificado(TipoModificacionUsuario.ELIMINADO, usuario));
+        URI url = uriComponentsBuilder.path("/usuario/{id}/purga").buildAndExpand(usuario.getId()).toUri();
+        return ResponseEntity.accepted().location(url).body(new DatosPurgaUsuario(purga));
     }
-}
 
+    /**
+     * Consulta el estado y el progreso de la purga del contenido de un usuario eliminado.
+     *
+     * @param id El ID del usuario eliminado.
+     * @return ResponseEntity Contiene el estado de la purga más reciente del usuario.
+     */
+    @PresupuestoConsultas(sentencias = 1)
+    @GetMapping("/{id}/purga")
+    public ResponseEntity<DatosPurgaUsuario> consultarPurga(@PathVariable Long id) {
+        return purgaUsuarioRepository.findFirstByUsuarioIdOrderByIdDesc(id)
+                .map(purga -> ResponseEntity.ok(new DatosPurgaUsuario(purga)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,161 @@
+package com.varela.foro.infra.archivo;
+
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Archivo frío de tópicos: mueve los tópicos CERRADO antiguos (y sus respuestas) de las tablas calientes a
+ * topico_archivo y respuesta_archivo, con el autor y el curso ya desnormalizados, y permite consultarlos por ID.
+ * Así las particiones recientes de topico se mantienen pequeñas y los listados no recorren datos históricos.
+ */
+@Component
+public class ArchivoTopicos {
+
+    private static final String SELECCIONAR_ARCHIVABLES =
+            "SELECT id FROM topico WHERE status = ? AND fecha_creacion < ? ORDER BY fecha_creacion LIMIT ?";
+
+    /**
+     * Vuelve a comprobar, bloqueando las filas, que los tópicos del lote siguen siendo archivables: entre la selección
+     * y la transacción del lote un tópico pudo reabrirse.
+     */
+    private static final String BLOQUEAR_ARCHIVABLES =
+            "SELECT id FROM topico WHERE id IN (%s) AND status = ? AND fecha_creacion < ? FOR UPDATE";
+
+    /**
+     * Bloquea las respuestas de los tópicos del lote (y el hueco del índice) para que no entre una respuesta nueva
+     * entre la copia y el borrado.
+     */
+    private static final String BLOQUEAR_RESPUESTAS = "SELECT id FROM respuesta WHERE topico_id IN (%s) FOR UPDATE";
+
+    private static final String COPIAR_TOPICOS = """
+            INSERT INTO topico_archivo (id, titulo, mensaje, fecha_creacion, status, autor_nombre, curso_id, curso_nombre, curso_categoria, fecha_archivo)
+            SELECT t.id, t.titulo, t.mensaje, t.fecha_creacion, t.status, u.nombre, c.id, c.nombre, c.categoria, ?
+            FROM topico t LEFT JOIN usuario u ON u.id = t.autor_id LEFT JOIN curso c ON c.id = t.curso_id
+            WHERE t.id IN (%s)
+            """;
+
+    private static final String COPIAR_RESPUESTAS = """
+            INSERT INTO respuesta_archivo (id, topico_id, mensaje, fecha_creacion, autor_nombre, solucion, respuesta_padre_id, ruta, profundidad)
+            SELECT r.id, r.topico_id, r.mensaje, r.fecha_creacion, u.nombre, r.solucion, r.respuesta_padre_id, r.ruta, r.profundidad
+            FROM respuesta r LEFT JOIN usuario u ON u.id = r.autor_id
+            WHERE r.topico_id IN (%s)
+            """;
+
+    /**
+     * Borrados de las tablas calientes, en orden de dependencias: las tablas particionadas no tienen claves foráneas.
+     */
+    private static final List<String> BORRADOS = List.of(
+            "DELETE FROM topico_respuestas WHERE topico_id IN (%s)",
+            "DELETE FROM respuesta WHERE topico_id IN (%s)",
+            "DELETE FROM topico WHERE id IN (%s)"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Meses desde su creación a partir de los cuales un tópico cerrado se archiva.
+     */
+    @Value("${foro.archivo.antiguedad-meses:6}")
+    private int antiguedadMeses;
+
+    @Value("${foro.archivo.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Value("${foro.archivo.pausa-ms:100}")
+    private long pausaMs;
+
+    /**
+     * Archiva por lotes los tópicos cerrados más antiguos que el umbral. Cada lote se copia y se borra en su propia
+     * transacción, de modo que un tópico nunca queda a la vez en ambas tablas ni en ninguna.
+     */
+    @Scheduled(fixedDelayString = "${foro.archivo.intervalo-ms:3600000}")
+    public void archivar() {
+        var limite = Timestamp.valueOf(LocalDateTime.now().minusMonths(antiguedadMeses));
+        List<Long> lote;
+        do {
+            lote = jdbcTemplate.queryForList(SELECCIONAR_ARCHIVABLES, Long.class, StatusTopico.CERRADO.ordinal(), limite, tamanoLote);
+            if (lote.isEmpty()) {
+                return;
+            }
+            archivarLote(lote, limite);
+            try {
+                if (pausaMs > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        } while (lote.size() == tamanoLote);
+    }
+
+    /**
+     * Copia un lote de tópicos y sus respuestas al archivo y los elimina de las tablas calientes.
+     * Dentro de la transacción se bloquean los tópicos que siguen cerrados y antiguos, y solo esos se archivan.
+     *
+     * @param candidatos Los IDs de los tópicos seleccionados para el lote.
+     * @param limite     Fecha de creación a partir de la cual un tópico ya no se archiva.
+     * @return El número de tópicos archivados.
+     */
+    int archivarLote(List<Long> candidatos, Timestamp limite) {
+        return transactionTemplate.execute(estado -> {
+            Object[] comprobacion = new Object[candidatos.size() + 2];
+            System.arraycopy(candidatos.toArray(), 0, comprobacion, 0, candidatos.size());
+            comprobacion[candidatos.size()] = StatusTopico.CERRADO.ordinal();
+            comprobacion[candidatos.size() + 1] = limite;
+            List<Long> ids = jdbcTemplate.queryForList(BLOQUEAR_ARCHIVABLES.formatted(marcadores(candidatos.size())), Long.class, comprobacion);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String marcadores = marcadores(ids.size());
+            Object[] parametros = ids.toArray();
+            jdbcTemplate.queryForList(BLOQUEAR_RESPUESTAS.formatted(marcadores), Long.class, parametros);
+            Object[] conFecha = new Object[parametros.length + 1];
+            conFecha[0] = Timestamp.valueOf(LocalDateTime.now());
+            System.arraycopy(parametros, 0, conFecha, 1, parametros.length);
+            jdbcTemplate.update(COPIAR_TOPICOS.formatted(marcadores), conFecha);
+            jdbcTemplate.update(COPIAR_RESPUESTAS.formatted(marcadores), parametros);
+            for (String borrado : BORRADOS) {
+                jdbcTemplate.update(borrado.formatted(marcadores), parametros);
+            }
+            return ids.size();
+        });
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(", ", Collections.nCopies(cantidad, "?"));
+    }
+
+    /**
+     * Busca un tópico archivado por su ID.
+     *
+     * @param id El ID del tópico.
+     * @return Los datos del tópico archivado, o vacío si no está en el archivo.
+     */
+    public Optional<DatosListadoTopicoID> buscar(Long id) {
+        return jdbcTemplate.query("""
+                        SELECT id, titulo, mensaje, fecha_creacion, status, autor_nombre, curso_nombre, curso_categoria
+                        FROM topico_archivo WHERE id = ?
+                        """,
+                (rs, fila) -> new DatosListadoTopicoID(rs.getLong("id"), rs.getString("titulo"), rs.getString("mensaje"),
+                        rs.getTimestamp("fecha_creacion").toLocalDateTime(), StatusTopico.values()[rs.getInt("status")],
+                        rs.getString("autor_nombre"), rs.getString("curso_nombre"), rs.getString("curso_categoria")),
+                id).stream().findFirst();
+    }
+}
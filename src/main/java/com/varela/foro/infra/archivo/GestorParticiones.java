@@ -0,0 +1,87 @@
+package com.varela.foro.infra.archivo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene por adelantado las particiones mensuales de topico y respuesta en MySQL.
+ * La migración deja una partición p_futuro (MAXVALUE); este gestor la divide periódicamente para que siempre existan
+ * particiones para los próximos meses y las filas nuevas no se acumulen en p_futuro.
+ * En otras bases de datos (por ejemplo H2 en las pruebas) las tablas no están particionadas y no hace nada.
+ */
+@Component
+public class GestorParticiones {
+
+    private static final List<String> TABLAS = List.of("topico", "respuesta");
+
+    private static final String PARTICION_FUTURO = "p_futuro";
+
+    private static final DateTimeFormatter NOMBRE = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Número de meses futuros para los que debe existir partición.
+     */
+    @Value("${foro.particiones.meses-adelantados:3}")
+    private int mesesAdelantados;
+
+    /**
+     * Crea las particiones que falten al arrancar y después una vez al día.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${foro.particiones.cron:0 0 3 * * *}")
+    public void mantener() {
+        if (!esMySql()) {
+            return;
+        }
+        LocalDate hasta = LocalDate.now().withDayOfMonth(1).plusMonths(mesesAdelantados + 1L);
+        for (String tabla : TABLAS) {
+            mantener(tabla, hasta);
+        }
+    }
+
+    private void mantener(String tabla, LocalDate hasta) {
+        List<Map<String, Object>> particiones = jdbcTemplate.queryForList("""
+                SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL
+                ORDER BY PARTITION_ORDINAL_POSITION
+                """, tabla);
+        if (particiones.size() < 2 || !PARTICION_FUTURO.equals(particiones.get(particiones.size() - 1).get("PARTITION_NAME"))) {
+            return;
+        }
+        // Límite superior de la última partición acotada, por ejemplo '2026-01-01 00:00:00'.
+        String descripcion = particiones.get(particiones.size() - 2).get("PARTITION_DESCRIPTION").toString().replace("'", "");
+        LocalDate limite = LocalDate.parse(descripcion.substring(0, 10));
+        List<String> nuevas = new ArrayList<>();
+        while (limite.isBefore(hasta)) {
+            LocalDate siguiente = limite.plusMonths(1);
+            nuevas.add("PARTITION " + NOMBRE.format(limite) + " VALUES LESS THAN ('" + siguiente + "')");
+            limite = siguiente;
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+        nuevas.add("PARTITION " + PARTICION_FUTURO + " VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + tabla + " REORGANIZE PARTITION " + PARTICION_FUTURO + " INTO ("
+                + String.join(", ", nuevas) + ")");
+    }
+
+    private boolean esMySql() {
+        String producto = jdbcTemplate.execute((ConnectionCallback<String>) conexion -> conexion.getMetaData().getDatabaseProductName());
+        return "MySQL".equalsIgnoreCase(producto);
+    }
+}
@@ -0,0 +1,42 @@
+package com.varela.foro.infra.arranque;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+
+/**
+ * Ajustes de arranque para el perfil "rapido" (application-rapido.properties).
+ * Con spring.main.lazy-initialization=true los beans se crean en la primera petición que los usa; estos beans
+ * indican qué debe seguir creándose al arrancar y cómo tratar Flyway cuando el esquema ya está al día.
+ */
+@Configuration
+public class ConfiguracionArranque {
+
+    /**
+     * Excluye de la inicialización diferida los beans con métodos @Scheduled: las tareas programadas solo se
+     * registran cuando el bean se crea, por lo que un bean diferido nunca las ejecutaría.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter excluirTareasProgramadas() {
+        return (nombre, definicion, tipo) -> Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(tipo))
+                .anyMatch(metodo -> AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class));
+    }
+
+    /**
+     * Con foro.flyway.solo-validar=true, Flyway solo valida el esquema en lugar de migrarlo: evita tomar el bloqueo
+     * de migración en cada arranque. Si hay migraciones pendientes la validación falla y la instancia no arranca;
+     * las migraciones se aplican antes con un arranque normal (sin el perfil "rapido").
+     */
+    @Bean
+    @ConditionalOnProperty(name = "foro.flyway.solo-validar", havingValue = "true")
+    FlywayMigrationStrategy flywaySoloValidar() {
+        return flyway -> flyway.validate();
+    }
+}
@@ -0,0 +1,12 @@
+package com.varela.foro.infra.auditoria;
+
+/**
+ * Acciones registradas en el diario de auditoría. El ordinal se guarda en los segmentos: solo se añaden al final.
+ */
+public enum AccionAuditada {
+
+    CREAR,
+    ACTUALIZAR,
+    ELIMINAR,
+    MODERAR;
+}
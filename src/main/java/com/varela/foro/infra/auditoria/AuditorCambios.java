@@ -0,0 +1,108 @@
+package com.varela.foro.infra.auditoria;
+
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicosModerados;
+import com.varela.foro.modelo.usuario.TipoModificacionUsuario;
+import com.varela.foro.modelo.usuario.UsuarioModificado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra en el diario de auditoría cada modificación confirmada de tópicos y usuarios, con el sujeto del JWT de la
+ * solicitud. Espera a que el grupo del registro llegue a disco, con un máximo: un diario lento o caído se cuenta en
+ * foro.auditoria.perdidos, pero no hace fallar una solicitud cuyo cambio ya está confirmado.
+ */
+@Component
+public class AuditorCambios {
+
+    static final String TOPICO = "topico";
+    static final String USUARIO = "usuario";
+    private static final String SISTEMA = "sistema";
+
+    @Autowired
+    private DiarioAuditoria diarioAuditoria;
+
+    /**
+     * Tiempo máximo de espera a que el registro esté en disco.
+     */
+    @Value("${foro.auditoria.espera-maxima:PT1S}")
+    private Duration esperaMaxima;
+
+    private final Counter perdidos;
+
+    public AuditorCambios(MeterRegistry meterRegistry) {
+        this.perdidos = Counter.builder("foro.auditoria.perdidos")
+                .description("Modificaciones que no se pudieron registrar en el diario a tiempo")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTopico(TopicoModificado modificacion) {
+        var topico = modificacion.topico();
+        esperar(diarioAuditoria.registrar(accion(modificacion.tipo()), TOPICO, topico.getId(), sujeto(),
+                modificacion.tipo() == TipoModificacionTopico.ELIMINADO ? null
+                        : "titulo=" + topico.getTitulo() + ";status=" + topico.getStatus(), esperaMaxima));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModerarTopicos(TopicosModerados moderados) {
+        var sujeto = sujeto();
+        var registros = new ArrayList<CompletableFuture<Long>>();
+        for (Long id : moderados.ids()) {
+            registros.add(diarioAuditoria.registrar(AccionAuditada.MODERAR, TOPICO, id, sujeto,
+                    "status=" + moderados.status(), esperaMaxima));
+        }
+        esperar(CompletableFuture.allOf(registros.toArray(CompletableFuture[]::new)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarUsuario(UsuarioModificado modificacion) {
+        var usuario = modificacion.usuario();
+        var accion = switch (modificacion.tipo()) {
+            case CREADO -> AccionAuditada.CREAR;
+            case ACTUALIZADO -> AccionAuditada.ACTUALIZAR;
+            case ELIMINADO -> AccionAuditada.ELIMINAR;
+        };
+        esperar(diarioAuditoria.registrar(accion, USUARIO, usuario.getId(), sujeto(),
+                modificacion.tipo() == TipoModificacionUsuario.ELIMINADO ? null : "activo=" + usuario.getActivo(),
+                esperaMaxima));
+    }
+
+    private static AccionAuditada accion(TipoModificacionTopico tipo) {
+        return switch (tipo) {
+            case CREADO -> AccionAuditada.CREAR;
+            case ACTUALIZADO -> AccionAuditada.ACTUALIZAR;
+            case ELIMINADO -> AccionAuditada.ELIMINAR;
+        };
+    }
+
+    /**
+     * Sujeto autenticado de la solicitud (el email del JWT), o "sistema" para los trabajos programados.
+     */
+    private static String sujeto() {
+        var autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.isAuthenticated() ? autenticacion.getName() : SISTEMA;
+    }
+
+    private void esperar(CompletableFuture<?> registro) {
+        try {
+            registro.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            perdidos.increment();
+        } catch (Exception e) {
+            perdidos.increment();
+        }
+    }
+}
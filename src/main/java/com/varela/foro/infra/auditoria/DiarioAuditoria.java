@@ -0,0 +1,386 @@
+package com.varela.foro.infra.auditoria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Diario de auditoría de solo anexado, fuera de la base de datos.
+ * Los registros se encolan y un único hilo escritor los anexa al segmento activo, mapeado en memoria, en grupos:
+ * cada grupo se lleva a disco con un solo force, y las confirmaciones de todo el grupo se completan a la vez
+ * (group commit). Cuando un registro no cabe, el segmento se sella y se abre otro.
+ * Al arrancar, los segmentos existentes se recorren y se recortan tras su último registro con CRC válido, y la
+ * escritura continúa en un segmento nuevo. La retención borra los segmentos antiguos o que superan el tamaño máximo,
+ * y la compactación une segmentos sellados pequeños consecutivos (por ejemplo, los que dejan los reinicios).
+ * Un fichero de bloqueo impide que dos procesos escriban en el mismo directorio.
+ */
+@Component
+public class DiarioAuditoria {
+
+    private static final int MAX_ENTIDAD = 100;
+    private static final int MAX_SUJETO = 255;
+    private static final int MAX_DETALLE = 1024;
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final int maxGrupo;
+    private final Duration retencion;
+    private final long maxBytes;
+    private final BlockingQueue<Pendiente> cola;
+    private final List<SegmentoAuditoria> sellados = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock archivos = new ReentrantReadWriteLock();
+    private volatile SegmentoAuditoria activo;
+    private volatile boolean abierto;
+    private long siguienteSecuencia = 1;
+    private Thread escritor;
+    private FileChannel canalBloqueo;
+    private FileLock bloqueo;
+
+    private final Counter registros;
+    private final Counter errores;
+    private final DistributionSummary tamanoGrupo;
+    private final Timer sincronizacion;
+
+    public DiarioAuditoria(@Value("${foro.auditoria.directorio:${java.io.tmpdir}/foro-auditoria}") Path directorio,
+                           @Value("${foro.auditoria.tamano-segmento:67108864}") int tamanoSegmento,
+                           @Value("${foro.auditoria.max-grupo:512}") int maxGrupo,
+                           @Value("${foro.auditoria.capacidad-cola:10000}") int capacidadCola,
+                           @Value("${foro.auditoria.retencion:P365D}") Duration retencion,
+                           @Value("${foro.auditoria.max-bytes:10737418240}") long maxBytes,
+                           MeterRegistry meterRegistry) {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.maxGrupo = maxGrupo;
+        this.retencion = retencion;
+        this.maxBytes = maxBytes;
+        this.cola = new LinkedBlockingQueue<>(capacidadCola);
+        this.registros = meterRegistry.counter("foro.auditoria.registros");
+        this.errores = meterRegistry.counter("foro.auditoria.errores");
+        this.tamanoGrupo = DistributionSummary.builder("foro.auditoria.grupo")
+                .description("Registros llevados a disco con un mismo force")
+                .register(meterRegistry);
+        this.sincronizacion = Timer.builder("foro.auditoria.sincronizacion").register(meterRegistry);
+        meterRegistry.gaugeCollectionSize("foro.auditoria.segmentos", List.of(), sellados);
+    }
+
+    /**
+     * Recupera los segmentos existentes y arranca el hilo escritor.
+     */
+    @PostConstruct
+    public void abrir() throws IOException {
+        Files.createDirectories(directorio);
+        canalBloqueo = FileChannel.open(directorio.resolve("auditoria.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            bloqueo = canalBloqueo.tryLock();
+        } catch (OverlappingFileLockException e) {
+            bloqueo = null;
+        }
+        if (bloqueo == null) {
+            canalBloqueo.close();
+            throw new IllegalStateException("Otro proceso está escribiendo el diario de auditoría en " + directorio);
+        }
+        try (var restos = Files.list(directorio)) {
+            for (Path resto : restos.filter(p -> p.getFileName().toString().endsWith(".compactando")).toList()) {
+                Files.delete(resto);
+            }
+        }
+        List<Path> archivos;
+        try (var listado = Files.list(directorio)) {
+            archivos = listado.filter(SegmentoAuditoria::esSegmento).sorted().toList();
+        }
+        for (Path archivo : archivos) {
+            long primera = primeraSecuencia(archivo);
+            siguienteSecuencia = Math.max(siguienteSecuencia, primera);
+            var segmento = SegmentoAuditoria.cargar(archivo, primera);
+            if (segmento == null) {
+                Files.move(archivo, archivo.resolveSibling(archivo.getFileName() + ".corrupto"));
+                continue;
+            }
+            var anterior = sellados.isEmpty() ? null : sellados.get(sellados.size() - 1);
+            if (segmento.vacio() || (anterior != null && segmento.primeraSecuencia() <= anterior.ultimaSecuencia())) {
+                // Vacío, o ya incluido en un segmento compactado cuya sustitución se interrumpió.
+                Files.delete(archivo);
+                continue;
+            }
+            sellados.add(segmento);
+            siguienteSecuencia = Math.max(siguienteSecuencia, segmento.ultimaSecuencia() + 1);
+        }
+        activo = SegmentoAuditoria.crear(directorio, siguienteSecuencia, tamanoSegmento);
+        abierto = true;
+        escritor = new Thread(this::escribir, "diario-auditoria");
+        escritor.start();
+    }
+
+    /**
+     * Escribe los registros pendientes, sella el segmento activo y libera el directorio.
+     */
+    @PreDestroy
+    public void cerrar() throws IOException, InterruptedException {
+        abierto = false;
+        escritor.join();
+        activo.sellar();
+        if (activo.vacio()) {
+            Files.deleteIfExists(activo.archivo());
+        }
+        bloqueo.release();
+        canalBloqueo.close();
+    }
+
+    /**
+     * Encola un registro para anexarlo al diario.
+     *
+     * @param accion    La acción.
+     * @param entidad   El tipo de entidad.
+     * @param entidadId El ID de la entidad.
+     * @param sujeto    El sujeto que hizo el cambio.
+     * @param detalle   Datos adicionales (opcional).
+     * @param espera    Tiempo máximo de espera si la cola está llena.
+     * @return Se completa con la secuencia del registro cuando está en disco.
+     */
+    public CompletableFuture<Long> registrar(AccionAuditada accion, String entidad, Long entidadId, String sujeto,
+                                             String detalle, Duration espera) {
+        var pendiente = new Pendiente(Instant.now(), accion, recortar(entidad, MAX_ENTIDAD), entidadId,
+                recortar(sujeto, MAX_SUJETO), recortar(detalle, MAX_DETALLE), new CompletableFuture<>());
+        try {
+            if (!abierto || !cola.offer(pendiente, espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                errores.increment();
+                pendiente.confirmacion().completeExceptionally(new IllegalStateException("Diario de auditoría no disponible"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendiente.confirmacion().completeExceptionally(e);
+        }
+        return pendiente.confirmacion();
+    }
+
+    /**
+     * Busca los registros de una entidad, en orden de secuencia. Solo se recorren los segmentos cuyo filtro Bloom
+     * puede contener la entidad.
+     *
+     * @param entidad   El tipo de entidad.
+     * @param entidadId El ID de la entidad.
+     * @return Los registros de la entidad.
+     */
+    public List<RegistroAuditoria> buscarPorEntidad(String entidad, Long entidadId) {
+        return buscar(segmento -> segmento.puedeContener(entidad, entidadId),
+                registro -> entidad.equals(registro.entidad()) && entidadId.equals(registro.entidadId()), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Busca los registros de un intervalo de tiempo, en orden de secuencia.
+     *
+     * @param desde  Inicio del intervalo, inclusivo.
+     * @param hasta  Fin del intervalo, inclusivo.
+     * @param limite Número máximo de registros.
+     * @return Los registros del intervalo.
+     */
+    public List<RegistroAuditoria> buscarPorFechas(Instant desde, Instant hasta, int limite) {
+        long inicio = desde.toEpochMilli();
+        long fin = hasta.toEpochMilli();
+        return buscar(segmento -> segmento.solapa(desde, hasta),
+                registro -> registro.fecha().toEpochMilli() >= inicio && registro.fecha().toEpochMilli() <= fin, limite);
+    }
+
+    private List<RegistroAuditoria> buscar(Predicate<SegmentoAuditoria> segmentos, Predicate<RegistroAuditoria> filtro, int limite) {
+        var resultado = new ArrayList<RegistroAuditoria>();
+        archivos.readLock().lock();
+        try {
+            var candidatos = new ArrayList<>(sellados);
+            candidatos.add(activo);
+            for (SegmentoAuditoria segmento : candidatos) {
+                if (resultado.size() >= limite) {
+                    break;
+                }
+                if (segmentos.test(segmento)) {
+                    segmento.leer(registro -> {
+                        if (resultado.size() < limite && filtro.test(registro)) {
+                            resultado.add(registro);
+                        }
+                    });
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            archivos.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    /**
+     * Borra los segmentos sellados más antiguos que la retención y, si el diario supera su tamaño máximo,
+     * los más antiguos hasta volver a él.
+     */
+    @Scheduled(fixedDelayString = "${foro.auditoria.intervalo-mantenimiento-ms:3600000}")
+    public void aplicarRetencion() throws IOException {
+        var limite = Instant.now().minus(retencion);
+        long total = sellados.stream().mapToLong(SegmentoAuditoria::bytesDeRegistros).sum() + activo.bytesDeRegistros();
+        archivos.writeLock().lock();
+        try {
+            while (!sellados.isEmpty() && (sellados.get(0).ultimaFecha().isBefore(limite) || total > maxBytes)) {
+                var antiguo = sellados.remove(0);
+                total -= antiguo.bytesDeRegistros();
+                Files.deleteIfExists(antiguo.archivo());
+            }
+        } finally {
+            archivos.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Une segmentos sellados consecutivos mientras quepan en un segmento. Los registros se copian tal cual, con su
+     * longitud y su CRC; el resultado reemplaza al primero del grupo y los demás se borran.
+     */
+    @Scheduled(fixedDelayString = "${foro.auditoria.intervalo-mantenimiento-ms:3600000}")
+    public void compactar() throws IOException {
+        var lista = new ArrayList<>(sellados);
+        int inicio = 0;
+        while (inicio < lista.size()) {
+            int fin = inicio;
+            long bytes = lista.get(inicio).bytesDeRegistros();
+            while (fin + 1 < lista.size() && bytes + lista.get(fin + 1).bytesDeRegistros() + SegmentoAuditoria.CABECERA <= tamanoSegmento) {
+                fin++;
+                bytes += lista.get(fin).bytesDeRegistros();
+            }
+            if (fin > inicio) {
+                unir(lista.subList(inicio, fin + 1));
+            }
+            inicio = fin + 1;
+        }
+    }
+
+    private void unir(List<SegmentoAuditoria> grupo) throws IOException {
+        var primero = grupo.get(0);
+        var temporal = directorio.resolve(primero.archivo().getFileName() + ".compactando");
+        try (var destino = FileChannel.open(temporal, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            destino.write(SegmentoAuditoria.cabecera());
+            for (SegmentoAuditoria segmento : grupo) {
+                try (var origen = FileChannel.open(segmento.archivo(), StandardOpenOption.READ)) {
+                    long posicion = SegmentoAuditoria.CABECERA;
+                    long fin = SegmentoAuditoria.CABECERA + segmento.bytesDeRegistros();
+                    while (posicion < fin) {
+                        posicion += origen.transferTo(posicion, fin - posicion, destino);
+                    }
+                }
+            }
+            destino.force(true);
+        }
+        var unido = SegmentoAuditoria.cargar(temporal, primero.primeraSecuencia());
+        archivos.writeLock().lock();
+        try {
+            unido.mover(primero.archivo());
+            for (SegmentoAuditoria segmento : grupo.subList(1, grupo.size())) {
+                Files.deleteIfExists(segmento.archivo());
+            }
+            int posicion = sellados.indexOf(primero);
+            sellados.removeAll(grupo);
+            sellados.add(posicion, unido);
+        } finally {
+            archivos.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: toma de la cola todo lo pendiente (hasta maxGrupo), lo anexa y lo lleva a disco de una vez.
+     */
+    private void escribir() {
+        var grupo = new ArrayList<Pendiente>(maxGrupo);
+        while (abierto || !cola.isEmpty()) {
+            try {
+                var primero = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                grupo.add(primero);
+                cola.drainTo(grupo, maxGrupo - 1);
+                escribirGrupo(grupo);
+            } catch (InterruptedException e) {
+                // Se sigue drenando hasta que el diario se cierra.
+            } catch (RuntimeException | IOException e) {
+                errores.increment(grupo.size());
+                grupo.forEach(pendiente -> pendiente.confirmacion().completeExceptionally(e));
+            }
+            grupo.clear();
+        }
+    }
+
+    private void escribirGrupo(List<Pendiente> grupo) throws IOException {
+        var segmento = activo;
+        int desde = segmento.posicion();
+        var secuencias = new long[grupo.size()];
+        for (int i = 0; i < grupo.size(); i++) {
+            var pendiente = grupo.get(i);
+            var registro = new RegistroAuditoria(siguienteSecuencia, pendiente.fecha(), pendiente.accion(), pendiente.entidad(),
+                    pendiente.entidadId(), pendiente.sujeto(), pendiente.detalle());
+            byte[] bytes = SegmentoAuditoria.codificar(registro);
+            if (!segmento.cabe(bytes.length)) {
+                segmento.sincronizar(desde);
+                segmento = rotar();
+                desde = segmento.posicion();
+            }
+            segmento.escribir(bytes, registro);
+            secuencias[i] = siguienteSecuencia++;
+        }
+        var actual = segmento;
+        int inicio = desde;
+        sincronizacion.record(() -> actual.sincronizar(inicio));
+        tamanoGrupo.record(grupo.size());
+        registros.increment(grupo.size());
+        for (int i = 0; i < grupo.size(); i++) {
+            grupo.get(i).confirmacion().complete(secuencias[i]);
+        }
+    }
+
+    private SegmentoAuditoria rotar() throws IOException {
+        var nuevo = SegmentoAuditoria.crear(directorio, siguienteSecuencia, tamanoSegmento);
+        var anterior = activo;
+        anterior.sellar();
+        archivos.writeLock().lock();
+        try {
+            sellados.add(anterior);
+            activo = nuevo;
+        } finally {
+            archivos.writeLock().unlock();
+        }
+        return nuevo;
+    }
+
+    private static long primeraSecuencia(Path archivo) {
+        var nombre = archivo.getFileName().toString();
+        return Long.parseLong(nombre.substring("auditoria-".length(), nombre.length() - ".seg".length()));
+    }
+
+    private static String recortar(String texto, int maximo) {
+        return texto != null && texto.length() > maximo ? texto.substring(0, maximo) : texto;
+    }
+
+    private record Pendiente(Instant fecha, AccionAuditada accion, String entidad, Long entidadId, String sujeto,
+                             String detalle, CompletableFuture<Long> confirmacion) {
+    }
+}
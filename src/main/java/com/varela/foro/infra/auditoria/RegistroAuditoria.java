@@ -0,0 +1,24 @@
+package com.varela.foro.infra.auditoria;
+
+import java.time.Instant;
+
+/**
+ * Entrada del diario de auditoría.
+ *
+ * @param secuencia Número de secuencia, creciente y sin huecos dentro del diario.
+ * @param fecha     Momento en que se registró el cambio (precisión de milisegundos).
+ * @param accion    La acción.
+ * @param entidad   El tipo de entidad, por ejemplo "topico" o "usuario".
+ * @param entidadId El ID de la entidad.
+ * @param sujeto    El sujeto del JWT que hizo el cambio, o "anonimo".
+ * @param detalle   Datos adicionales del cambio (opcional).
+ */
+public record RegistroAuditoria(
+        long secuencia,
+        Instant fecha,
+        AccionAuditada accion,
+        String entidad,
+        Long entidadId,
+        String sujeto,
+        String detalle) {
+}
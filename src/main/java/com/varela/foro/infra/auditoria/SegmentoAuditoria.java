@@ -0,0 +1,317 @@
+package com.varela.foro.infra.auditoria;
+
+import com.varela.foro.infra.security.FiltroBloom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Fichero de segmento del diario de auditoría.
+ * Formato: una cabecera (número mágico y versión) seguida de registros [longitud][CRC32C][contenido], con la longitud
+ * y el CRC del contenido en 4 bytes cada uno. El segmento activo se preasigna con su capacidad y se escribe a través
+ * de un MappedByteBuffer; una longitud 0 marca el final. Al sellarlo se recorta a los bytes usados.
+ * Al leer, el primer registro con una longitud imposible o un CRC que no coincide (una escritura incompleta) se
+ * toma como el final del segmento.
+ * El filtro de Bloom de entidades del segmento activo se dimensiona por su capacidad; al sellarlo o cargarlo se
+ * reconstruye con el número real de registros, para que los segmentos sellados no retengan un filtro sobredimensionado.
+ */
+final class SegmentoAuditoria {
+
+    static final int CABECERA = 8;
+    private static final int MAGICO = 0x464F4155;
+    private static final int VERSION = 1;
+    private static final int CABECERA_REGISTRO = 8;
+    private static final long SIN_ID = Long.MIN_VALUE;
+
+    private Path archivo;
+    private final long primeraSecuencia;
+    private volatile FiltroBloom entidades;
+    private FileChannel canal;
+    private volatile MappedByteBuffer mapa;
+    private int posicion;
+    private volatile int confirmada;
+    private volatile long ultimaSecuencia;
+    private volatile long primeraFecha = Long.MAX_VALUE;
+    private volatile long ultimaFecha = Long.MIN_VALUE;
+
+    private SegmentoAuditoria(Path archivo, long primeraSecuencia, int elementosEsperados) {
+        this.archivo = archivo;
+        this.primeraSecuencia = primeraSecuencia;
+        this.ultimaSecuencia = primeraSecuencia - 1;
+        this.entidades = new FiltroBloom(Math.max(elementosEsperados, 64), 0.01);
+    }
+
+    static String nombre(long primeraSecuencia) {
+        return String.format("auditoria-%020d.seg", primeraSecuencia);
+    }
+
+    static boolean esSegmento(Path archivo) {
+        var nombre = archivo.getFileName().toString();
+        return nombre.startsWith("auditoria-") && nombre.endsWith(".seg");
+    }
+
+    /**
+     * Crea el segmento activo, preasignado y mapeado en memoria.
+     */
+    static SegmentoAuditoria crear(Path directorio, long primeraSecuencia, int capacidad) throws IOException {
+        var segmento = new SegmentoAuditoria(directorio.resolve(nombre(primeraSecuencia)), primeraSecuencia, capacidad / 64);
+        segmento.canal = FileChannel.open(segmento.archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmento.mapa = segmento.canal.map(FileChannel.MapMode.READ_WRITE, 0, capacidad);
+        segmento.mapa.putInt(0, MAGICO).putInt(4, VERSION);
+        segmento.mapa.force(0, CABECERA);
+        segmento.posicion = CABECERA;
+        segmento.confirmada = CABECERA;
+        return segmento;
+    }
+
+    /**
+     * Carga un segmento existente como sellado: lo recorre para reconstruir sus metadatos y lo recorta tras el último
+     * registro válido, lo que descarta la preasignación sin usar y cualquier escritura incompleta.
+     *
+     * @return El segmento, o nulo si el fichero no es un segmento válido.
+     */
+    static SegmentoAuditoria cargar(Path archivo, long primeraSecuencia) throws IOException {
+        try (var canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamano = canal.size();
+            if (tamano < CABECERA || tamano > Integer.MAX_VALUE) {
+                return null;
+            }
+            // El filtro provisional se descarta al reconstruirlo con el número de registros leídos.
+            var segmento = new SegmentoAuditoria(archivo, primeraSecuencia, 0);
+            var contenido = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            if (contenido.getInt(0) != MAGICO || contenido.getInt(4) != VERSION) {
+                return null;
+            }
+            int fin = recorrer(contenido, (int) tamano, segmento::indexar);
+            if (fin < tamano) {
+                canal.truncate(fin);
+                canal.force(true);
+            }
+            segmento.posicion = fin;
+            segmento.confirmada = fin;
+            segmento.reconstruirFiltro(contenido, fin);
+            return segmento;
+        }
+    }
+
+    /**
+     * Cabecera de un segmento, lista para escribir en un fichero nuevo.
+     */
+    static ByteBuffer cabecera() {
+        return ByteBuffer.allocate(CABECERA).putInt(MAGICO).putInt(VERSION).flip();
+    }
+
+    boolean cabe(int bytes) {
+        return posicion + bytes + CABECERA_REGISTRO <= mapa.capacity();
+    }
+
+    int posicion() {
+        return posicion;
+    }
+
+    /**
+     * Escribe un registro ya codificado. Solo lo llama el hilo escritor.
+     */
+    void escribir(byte[] registro, RegistroAuditoria datos) {
+        mapa.put(posicion, registro);
+        posicion += registro.length;
+        indexar(datos);
+    }
+
+    /**
+     * Lleva a disco lo escrito desde una posición y lo hace visible a las lecturas.
+     */
+    void sincronizar(int desde) {
+        if (posicion > desde) {
+            mapa.force(desde, posicion - desde);
+        }
+        confirmada = posicion;
+    }
+
+    /**
+     * Cierra el segmento activo y lo recorta a los bytes usados. Si el sistema no permite recortar un fichero
+     * mapeado, el segmento conserva su preasignación (la marca de final la delimita igualmente).
+     */
+    void sellar() throws IOException {
+        sincronizar(CABECERA);
+        reconstruirFiltro(mapa, posicion);
+        try {
+            canal.truncate(posicion);
+        } catch (IOException e) {
+            // Se mantiene la preasignación.
+        }
+        canal.close();
+        canal = null;
+        mapa = null;
+    }
+
+    /**
+     * Cambia el fichero de un segmento sellado, reemplazando el destino.
+     */
+    void mover(Path destino) throws IOException {
+        Files.move(archivo, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        archivo = destino;
+    }
+
+    /**
+     * Recorre los registros confirmados del segmento.
+     */
+    void leer(Consumer<RegistroAuditoria> consumidor) throws IOException {
+        var activo = mapa;
+        if (activo != null) {
+            recorrer(activo.duplicate(), confirmada, consumidor);
+            return;
+        }
+        try (var canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = Math.min(canal.size(), confirmada);
+            recorrer(canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano), (int) tamano, consumidor);
+        }
+    }
+
+    /**
+     * Sustituye el filtro de entidades por uno dimensionado para los registros que hay hasta el límite.
+     */
+    private void reconstruirFiltro(ByteBuffer contenido, int limite) {
+        var nuevo = new FiltroBloom((int) Math.max(ultimaSecuencia - primeraSecuencia + 1, 64), 0.01);
+        recorrer(contenido.duplicate(), limite, registro -> nuevo.agregar(clave(registro.entidad(), registro.entidadId())));
+        entidades = nuevo;
+    }
+
+    /**
+     * Bits del filtro de entidades.
+     */
+    int bitsFiltro() {
+        return entidades.numeroBits();
+    }
+
+    boolean puedeContener(String entidad, Long entidadId) {
+        return entidades.puedeContener(clave(entidad, entidadId));
+    }
+
+    boolean solapa(Instant desde, Instant hasta) {
+        return !vacio() && primeraFecha <= hasta.toEpochMilli() && ultimaFecha >= desde.toEpochMilli();
+    }
+
+    boolean vacio() {
+        return ultimaSecuencia < primeraSecuencia;
+    }
+
+    Path archivo() {
+        return archivo;
+    }
+
+    long primeraSecuencia() {
+        return primeraSecuencia;
+    }
+
+    long ultimaSecuencia() {
+        return ultimaSecuencia;
+    }
+
+    Instant ultimaFecha() {
+        return Instant.ofEpochMilli(ultimaFecha);
+    }
+
+    /**
+     * Bytes de registros del segmento, sin la cabecera.
+     */
+    long bytesDeRegistros() {
+        return confirmada - CABECERA;
+    }
+
+    private void indexar(RegistroAuditoria registro) {
+        long fecha = registro.fecha().toEpochMilli();
+        if (fecha < primeraFecha) {
+            primeraFecha = fecha;
+        }
+        if (fecha > ultimaFecha) {
+            ultimaFecha = fecha;
+        }
+        ultimaSecuencia = registro.secuencia();
+        entidades.agregar(clave(registro.entidad(), registro.entidadId()));
+    }
+
+    private static String clave(String entidad, Long entidadId) {
+        return entidad + ":" + entidadId;
+    }
+
+    /**
+     * Codifica un registro con su prefijo de longitud y su CRC.
+     */
+    static byte[] codificar(RegistroAuditoria registro) {
+        byte[] entidad = bytes(registro.entidad());
+        byte[] sujeto = bytes(registro.sujeto());
+        byte[] detalle = bytes(registro.detalle());
+        int longitud = 8 + 8 + 1 + 8 + 2 + entidad.length + 2 + sujeto.length + 4 + detalle.length;
+        var buffer = ByteBuffer.allocate(CABECERA_REGISTRO + longitud);
+        buffer.putInt(longitud).putInt(0)
+                .putLong(registro.secuencia())
+                .putLong(registro.fecha().toEpochMilli())
+                .put((byte) registro.accion().ordinal())
+                .putLong(registro.entidadId() != null ? registro.entidadId() : SIN_ID)
+                .putShort((short) entidad.length).put(entidad)
+                .putShort((short) sujeto.length).put(sujeto)
+                .putInt(registro.detalle() != null ? detalle.length : -1).put(detalle);
+        var crc = new CRC32C();
+        crc.update(buffer.array(), CABECERA_REGISTRO, longitud);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Decodifica los registros válidos hasta el límite.
+     *
+     * @return La posición siguiente al último registro válido.
+     */
+    private static int recorrer(ByteBuffer contenido, int limite, Consumer<RegistroAuditoria> consumidor) {
+        int posicion = CABECERA;
+        var crc = new CRC32C();
+        while (posicion + CABECERA_REGISTRO <= limite) {
+            int longitud = contenido.getInt(posicion);
+            if (longitud <= 0 || longitud > limite - posicion - CABECERA_REGISTRO) {
+                break;
+            }
+            crc.reset();
+            crc.update(contenido.slice(posicion + CABECERA_REGISTRO, longitud));
+            if ((int) crc.getValue() != contenido.getInt(posicion + 4)) {
+                break;
+            }
+            consumidor.accept(decodificar(contenido.slice(posicion + CABECERA_REGISTRO, longitud)));
+            posicion += CABECERA_REGISTRO + longitud;
+        }
+        return posicion;
+    }
+
+    private static RegistroAuditoria decodificar(ByteBuffer contenido) {
+        long secuencia = contenido.getLong();
+        long fecha = contenido.getLong();
+        var accion = AccionAuditada.values()[contenido.get()];
+        long entidadId = contenido.getLong();
+        String entidad = texto(contenido, contenido.getShort());
+        String sujeto = texto(contenido, contenido.getShort());
+        int longitudDetalle = contenido.getInt();
+        String detalle = longitudDetalle < 0 ? null : texto(contenido, longitudDetalle);
+        return new RegistroAuditoria(secuencia, Instant.ofEpochMilli(fecha), accion, entidad,
+                entidadId == SIN_ID ? null : entidadId, sujeto, detalle);
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static String texto(ByteBuffer contenido, int longitud) {
+        var bytes = new byte[longitud];
+        contenido.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
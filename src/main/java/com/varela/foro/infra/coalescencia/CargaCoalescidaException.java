@@ -0,0 +1,11 @@
+package com.varela.foro.infra.coalescencia;
+
+/**
+ * Se lanza cuando un hilo que espera una carga coalescida no obtiene el resultado a tiempo.
+ */
+public class CargaCoalescidaException extends RuntimeException {
+
+    public CargaCoalescidaException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
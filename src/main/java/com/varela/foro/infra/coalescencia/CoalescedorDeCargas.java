@@ -0,0 +1,93 @@
+package com.varela.foro.infra.coalescencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave en una sola ejecución (single-flight).
+ * El primer hilo que pide una clave ejecuta la carga; los hilos que llegan mientras tanto esperan y reciben
+ * el mismo resultado o la misma excepción. No es una caché: al terminar la carga la clave se libera.
+ *
+ * @param <K> Tipo de la clave.
+ * @param <V> Tipo del valor cargado.
+ */
+public class CoalescedorDeCargas<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+    private final Duration esperaMaxima;
+    private final Counter cargas;
+    private final Counter esperasCoalescidas;
+    private final Counter tiemposAgotados;
+
+    /**
+     * Crea un coalescedor con métricas etiquetadas con el nombre indicado.
+     *
+     * @param nombre        Nombre de la carga, usado como etiqueta de las métricas.
+     * @param esperaMaxima  Tiempo máximo que espera un hilo coalescido.
+     * @param meterRegistry Registro de métricas.
+     */
+    public CoalescedorDeCargas(String nombre, Duration esperaMaxima, MeterRegistry meterRegistry) {
+        this.esperaMaxima = esperaMaxima;
+        this.cargas = meterRegistry.counter("foro.coalescencia.cargas", "nombre", nombre);
+        this.esperasCoalescidas = meterRegistry.counter("foro.coalescencia.esperas", "nombre", nombre);
+        this.tiemposAgotados = meterRegistry.counter("foro.coalescencia.tiempos.agotados", "nombre", nombre);
+        meterRegistry.gauge("foro.coalescencia.en.curso", Tags.of("nombre", nombre), enCurso, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Devuelve el valor de la clave, ejecutando el cargador solo si no hay otra carga en curso para ella.
+     *
+     * @param clave    La clave a cargar.
+     * @param cargador La función que realiza la carga real.
+     * @return El valor cargado.
+     * @throws CargaCoalescidaException Si la espera supera el tiempo máximo o el hilo es interrumpido.
+     */
+    public V cargar(K clave, Supplier<V> cargador) {
+        var nueva = new CompletableFuture<V>();
+        var existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            esperasCoalescidas.increment();
+            return esperar(existente);
+        }
+        cargas.increment();
+        try {
+            V valor = cargador.get();
+            nueva.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nueva);
+        }
+    }
+
+    private V esperar(CompletableFuture<V> carga) {
+        try {
+            return carga.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new CargaCoalescidaException("La carga coalescida falló", e.getCause());
+        } catch (TimeoutException e) {
+            tiemposAgotados.increment();
+            throw new CargaCoalescidaException("Tiempo de espera agotado para la carga coalescida", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CargaCoalescidaException("Espera de la carga coalescida interrumpida", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.varela.foro.infra.coalescencia;
+
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configura los coalescedores de cargas usados en las rutas de lectura más concurridas.
+ */
+@Configuration
+public class ConfiguracionCoalescencia {
+
+    /**
+     * Coalescedor de la lectura de un tópico por ID.
+     *
+     * @param esperaMaxima  Tiempo máximo de espera de los hilos coalescidos.
+     * @param meterRegistry Registro de métricas.
+     * @return El coalescedor de lecturas de tópicos.
+     */
+    @Bean
+    public CoalescedorDeCargas<Long, Optional<DatosListadoTopicoID>> coalescedorTopicos(
+            @Value("${foro.coalescencia.espera-maxima:PT5S}") Duration esperaMaxima, MeterRegistry meterRegistry) {
+        return new CoalescedorDeCargas<>("topico", esperaMaxima, meterRegistry);
+    }
+}
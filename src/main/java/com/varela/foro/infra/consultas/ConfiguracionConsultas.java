@@ -0,0 +1,46 @@
+package com.varela.foro.infra.consultas;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra el InspectorConsultas en Hibernate y aplica a cada solicitud el @PresupuestoConsultas de su endpoint.
+ */
+@Configuration
+public class ConfiguracionConsultas implements WebMvcConfigurer {
+
+    private static final InspectorConsultas INSPECTOR = new InspectorConsultas();
+
+    @Bean
+    public HibernatePropertiesCustomizer inspectorConsultas() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, INSPECTOR);
+            propiedades.put(AvailableSettings.INTERCEPTOR, INSPECTOR);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                var contador = ContadorConsultas.actual();
+                if (contador != null && handler instanceof HandlerMethod metodo) {
+                    var presupuesto = metodo.getMethodAnnotation(PresupuestoConsultas.class);
+                    if (presupuesto != null) {
+                        contador.aplicar(presupuesto);
+                    }
+                }
+                return true;
+            }
+        });
+    }
+}
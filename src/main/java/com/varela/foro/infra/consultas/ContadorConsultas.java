@@ -0,0 +1,118 @@
+package com.varela.foro.infra.consultas;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Sentencias SQL y entidades cargadas durante una solicitud HTTP. Vive en un ThreadLocal mientras dura la solicitud;
+ * fuera de una solicitud (tareas programadas, arranque) no hay contador y no se cuenta nada.
+ */
+public class ContadorConsultas {
+
+    private static final ThreadLocal<ContadorConsultas> ACTUAL = new ThreadLocal<>();
+
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern LITERALES = Pattern.compile("'[^']*'|\\b\\d+\\b");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final ModoPresupuesto modo;
+    private final Map<String, Integer> formas = new HashMap<>();
+    private PresupuestoConsultas presupuesto;
+    private int sentencias;
+    private int entidades;
+    private int repeticionesMaximas;
+    private String formaMasRepetida;
+
+    public ContadorConsultas(ModoPresupuesto modo) {
+        this.modo = modo;
+    }
+
+    /**
+     * Instala un contador nuevo para la solicitud en curso.
+     */
+    public static ContadorConsultas iniciar(ModoPresupuesto modo) {
+        var contador = new ContadorConsultas(modo);
+        ACTUAL.set(contador);
+        return contador;
+    }
+
+    /**
+     * El contador de la solicitud en curso, o nulo fuera de una solicitud.
+     */
+    public static ContadorConsultas actual() {
+        return ACTUAL.get();
+    }
+
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    /**
+     * Aplica el presupuesto declarado por el endpoint que atiende la solicitud.
+     */
+    public void aplicar(PresupuestoConsultas presupuesto) {
+        this.presupuesto = presupuesto;
+    }
+
+    /**
+     * Cuenta una sentencia y su forma (el SQL sin literales y con las listas IN reducidas a un parámetro).
+     *
+     * @throws PresupuestoConsultasExcedidoException En modo FALLAR, si la sentencia excede el presupuesto.
+     */
+    public void registrarSentencia(String sql) {
+        sentencias++;
+        var forma = forma(sql);
+        int repeticiones = formas.merge(forma, 1, Integer::sum);
+        if (repeticiones > repeticionesMaximas) {
+            repeticionesMaximas = repeticiones;
+            formaMasRepetida = forma;
+        }
+        if (modo == ModoPresupuesto.FALLAR && isExcedido()) {
+            throw new PresupuestoConsultasExcedidoException("Presupuesto de consultas excedido: " + sentencias
+                    + " sentencias (maximo " + presupuesto.sentencias() + "), " + repeticionesMaximas
+                    + " repeticiones (maximo " + presupuesto.repeticiones() + ") de: " + formaMasRepetida);
+        }
+    }
+
+    public void registrarEntidad() {
+        entidades++;
+    }
+
+    /**
+     * Indica si la solicitud superó el presupuesto declarado. Sin presupuesto nunca se supera.
+     */
+    public boolean isExcedido() {
+        return presupuesto != null
+                && (sentencias > presupuesto.sentencias() || repeticionesMaximas > presupuesto.repeticiones());
+    }
+
+    /**
+     * Indica si alguna sentencia se repitió al menos el número de veces indicado (posible N+1).
+     */
+    public boolean hayRepeticiones(int umbral) {
+        return repeticionesMaximas >= umbral;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public int getEntidades() {
+        return entidades;
+    }
+
+    public int getRepeticionesMaximas() {
+        return repeticionesMaximas;
+    }
+
+    public String getFormaMasRepetida() {
+        return formaMasRepetida;
+    }
+
+    static String forma(String sql) {
+        var forma = LITERALES.matcher(sql).replaceAll("?");
+        forma = LISTA_PARAMETROS.matcher(forma).replaceAll("(?)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,103 @@
+package com.varela.foro.infra.consultas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL y las entidades cargadas por cada solicitud HTTP.
+ * Las devuelve en las cabeceras X-Consultas-SQL y X-Entidades-Cargadas, añade X-Consultas-Repetidas cuando una
+ * misma sentencia se repite (posible N+1) y lo registra en las métricas foro.http.consultas* por endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltroConsultas extends OncePerRequestFilter {
+
+    public static final String CABECERA_CONSULTAS = "X-Consultas-SQL";
+    public static final String CABECERA_ENTIDADES = "X-Entidades-Cargadas";
+    public static final String CABECERA_REPETIDAS = "X-Consultas-Repetidas";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${foro.consultas.modo:REGISTRAR}")
+    private ModoPresupuesto modo;
+
+    /**
+     * Repeticiones de una misma sentencia a partir de las cuales se considera un N+1, en endpoints sin presupuesto.
+     */
+    @Value("${foro.consultas.umbral-repeticiones:5}")
+    private int umbralRepeticiones;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        var contador = ContadorConsultas.iniciar(modo);
+        var respuesta = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                escribirCabeceras(contador, response);
+            }
+        };
+        try {
+            filterChain.doFilter(request, respuesta);
+        } finally {
+            ContadorConsultas.terminar();
+            if (!response.isCommitted()) {
+                escribirCabeceras(contador, response);
+            }
+            registrarMetricas(request, contador);
+        }
+    }
+
+    private void escribirCabeceras(ContadorConsultas contador, HttpServletResponse response) {
+        response.setHeader(CABECERA_CONSULTAS, String.valueOf(contador.getSentencias()));
+        response.setHeader(CABECERA_ENTIDADES, String.valueOf(contador.getEntidades()));
+        if (contador.hayRepeticiones(umbralRepeticiones)) {
+            response.setHeader(CABECERA_REPETIDAS, String.valueOf(contador.getRepeticionesMaximas()));
+        }
+    }
+
+    private void registrarMetricas(HttpServletRequest request, ContadorConsultas contador) {
+        var patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var uri = patron != null ? patron.toString() : "UNKNOWN";
+        var metodo = request.getMethod();
+        DistributionSummary.builder("foro.http.consultas")
+                .description("Sentencias SQL de Hibernate por solicitud")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(contador.getSentencias());
+        DistributionSummary.builder("foro.http.entidades")
+                .description("Entidades cargadas por solicitud")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(contador.getEntidades());
+        if (contador.hayRepeticiones(umbralRepeticiones)) {
+            Counter.builder("foro.http.consultas.repetidas")
+                    .description("Solicitudes con una misma sentencia repetida (posible N+1)")
+                    .tags("uri", uri, "method", metodo)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (contador.isExcedido()) {
+            Counter.builder("foro.http.consultas.excedidas")
+                    .description("Solicitudes que superaron su presupuesto de consultas")
+                    .tags("uri", uri, "method", metodo)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
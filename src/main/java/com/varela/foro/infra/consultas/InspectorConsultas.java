@@ -0,0 +1,31 @@
+package com.varela.foro.infra.consultas;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Cuenta las sentencias que genera Hibernate y las entidades que carga, en el contador de la solicitud en curso.
+ * Las consultas hechas con JdbcTemplate no pasan por Hibernate y no se cuentan.
+ * Una única instancia se registra en la SessionFactory; el estado está en el ThreadLocal de ContadorConsultas.
+ */
+public class InspectorConsultas implements StatementInspector, Interceptor {
+
+    @Override
+    public String inspect(String sql) {
+        var contador = ContadorConsultas.actual();
+        if (contador != null) {
+            contador.registrarSentencia(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        var contador = ContadorConsultas.actual();
+        if (contador != null) {
+            contador.registrarEntidad();
+        }
+        return false;
+    }
+}
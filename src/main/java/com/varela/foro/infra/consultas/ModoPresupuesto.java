@@ -0,0 +1,16 @@
+package com.varela.foro.infra.consultas;
+
+/**
+ * Qué hacer cuando una solicitud supera su presupuesto de consultas.
+ */
+public enum ModoPresupuesto {
+
+    /**
+     * Solo se registra en las métricas y en las cabeceras de la respuesta.
+     */
+    REGISTRAR,
+    /**
+     * La sentencia que excede el presupuesto lanza PresupuestoConsultasExcedidoException.
+     */
+    FALLAR;
+}
@@ -0,0 +1,29 @@
+package com.varela.foro.infra.consultas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara cuántas sentencias SQL de Hibernate puede ejecutar como máximo una solicitud a este endpoint.
+ * Con foro.consultas.modo=FALLAR (el de las pruebas), superar el presupuesto hace fallar la solicitud en la
+ * sentencia que lo excede; en producción solo se registra en las métricas.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    /**
+     * Número máximo de sentencias por solicitud.
+     */
+    int sentencias();
+
+    /**
+     * Número máximo de veces que puede repetirse una misma sentencia (misma forma, distintos parámetros).
+     * Más repeticiones indican un N+1.
+     */
+    int repeticiones() default 1;
+}
@@ -0,0 +1,12 @@
+package com.varela.foro.infra.consultas;
+
+/**
+ * Se lanza, en modo FALLAR, cuando una solicitud ejecuta más sentencias SQL de las que declara su presupuesto
+ * o repite una misma sentencia más veces de las permitidas.
+ */
+public class PresupuestoConsultasExcedidoException extends RuntimeException {
+
+    public PresupuestoConsultasExcedidoException(String mensaje) {
+        super(mensaje);
+    }
+}
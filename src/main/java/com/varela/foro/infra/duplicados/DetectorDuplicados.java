@@ -0,0 +1,103 @@
+package com.varela.foro.infra.duplicados;
+
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicosPurgados;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Detecta tópicos casi duplicados (reformulaciones triviales de otro tópico) con un índice MinHash LSH en memoria.
+ * El índice se reconstruye desde MySQL al arrancar y se actualiza con cada modificación confirmada de un tópico.
+ */
+@Component
+public class DetectorDuplicados {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Similitud de Jaccard mínima para considerar un tópico como duplicado.
+     */
+    @Value("${foro.duplicados.similitud:0.8}")
+    private double similitud;
+
+    private final IndiceMinHash indice;
+    private volatile boolean listo;
+
+    public DetectorDuplicados(@Value("${foro.duplicados.bandas:32}") int bandas,
+                              @Value("${foro.duplicados.filas:4}") int filas,
+                              @Value("${foro.duplicados.tamano-shingle:5}") int tamanoShingle) {
+        this.indice = new IndiceMinHash(bandas, filas, tamanoShingle);
+    }
+
+    /**
+     * Reconstruye el índice con todos los tópicos de la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        listo = false;
+        indice.limpiar();
+        jdbcTemplate.query("SELECT id, titulo, mensaje FROM topico", rs -> {
+            indice.agregar(rs.getLong("id"), texto(rs.getString("titulo"), rs.getString("mensaje")));
+        });
+        listo = true;
+    }
+
+    /**
+     * Actualiza el índice de forma incremental con una modificación confirmada.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTopico(TopicoModificado modificacion) {
+        var topico = modificacion.topico();
+        if (modificacion.tipo() == TipoModificacionTopico.ELIMINADO) {
+            indice.quitar(topico.getId());
+        } else {
+            indice.agregar(topico.getId(), texto(topico.getTitulo(), topico.getMensaje()));
+        }
+    }
+
+    /**
+     * Quita del índice los tópicos borrados al purgar un usuario.
+     *
+     * @param purgados Los tópicos purgados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alPurgarTopicos(TopicosPurgados purgados) {
+        purgados.ids().forEach(indice::quitar);
+    }
+
+    /**
+     * Indica si el índice ya fue construido y puede consultarse junto a la comprobación exacta en la base de datos.
+     *
+     * @return Verdadero si el índice está listo.
+     */
+    public boolean isListo() {
+        return listo;
+    }
+
+    /**
+     * Busca los tópicos casi duplicados del título y mensaje indicados.
+     *
+     * @param titulo   El título del tópico.
+     * @param mensaje  El mensaje del tópico.
+     * @param excluir  ID del tópico a excluir (el propio tópico al actualizarlo), o nulo.
+     * @return Los IDs de los tópicos candidatos, del más al menos parecido.
+     */
+    public List<Long> buscarDuplicados(String titulo, String mensaje, Long excluir) {
+        return indice.buscarSimilares(texto(titulo, mensaje), similitud, excluir);
+    }
+
+    private static String texto(String titulo, String mensaje) {
+        return titulo + " " + mensaje;
+    }
+}
@@ -0,0 +1,230 @@
+package com.varela.foro.infra.duplicados;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice LSH (locality-sensitive hashing) basado en firmas MinHash sobre shingles de caracteres.
+ * La firma de cada texto se divide en bandas; dos textos son candidatos si coinciden en alguna banda completa,
+ * y después se confirma la similitud de Jaccard estimada con la firma entera. Búsqueda y actualización son O(bandas).
+ */
+public class IndiceMinHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private final int bandas;
+    private final int filas;
+    private final int tamanoShingle;
+    private final long[] semillas;
+    private final Map<Long, long[]> firmas = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> cubetas;
+    private final ReadWriteLock candado = new ReentrantReadWriteLock();
+
+    /**
+     * Crea un índice vacío.
+     *
+     * @param bandas        Número de bandas LSH.
+     * @param filas         Número de valores MinHash por banda.
+     * @param tamanoShingle Longitud en caracteres de cada shingle.
+     */
+    public IndiceMinHash(int bandas, int filas, int tamanoShingle) {
+        this.bandas = bandas;
+        this.filas = filas;
+        this.tamanoShingle = tamanoShingle;
+        this.semillas = new long[bandas * filas];
+        long semilla = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < semillas.length; i++) {
+            semilla = mezclar(semilla + i);
+            semillas[i] = semilla;
+        }
+        this.cubetas = new ArrayList<>(bandas);
+        for (int i = 0; i < bandas; i++) {
+            cubetas.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Inserta o reemplaza el texto de un documento.
+     *
+     * @param id    El ID del documento.
+     * @param texto El texto a indexar.
+     */
+    public void agregar(long id, String texto) {
+        long[] firma = firmar(texto);
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+            firmas.put(id, firma);
+            for (int banda = 0; banda < bandas; banda++) {
+                cubetas.get(banda).computeIfAbsent(claveBanda(firma, banda), k -> new HashSet<>()).add(id);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina un documento del índice.
+     *
+     * @param id El ID del documento.
+     */
+    public void quitar(long id) {
+        candado.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void quitarSinCandado(long id) {
+        long[] anterior = firmas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (int banda = 0; banda < bandas; banda++) {
+            var cubeta = cubetas.get(banda);
+            long clave = claveBanda(anterior, banda);
+            var ids = cubeta.get(clave);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    cubeta.remove(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca los documentos cuya similitud estimada con el texto es al menos la indicada.
+     *
+     * @param texto     El texto a comparar.
+     * @param similitud Similitud de Jaccard mínima, entre 0 y 1.
+     * @param excluir   ID a excluir de los resultados (por ejemplo, el propio documento al actualizarlo), o nulo.
+     * @return Los IDs de los documentos similares, del más al menos parecido.
+     */
+    public List<Long> buscarSimilares(String texto, double similitud, Long excluir) {
+        long[] firma = firmar(texto);
+        Map<Long, Double> similares = new HashMap<>();
+        candado.readLock().lock();
+        try {
+            var candidatos = new HashSet<Long>();
+            for (int banda = 0; banda < bandas; banda++) {
+                var ids = cubetas.get(banda).get(claveBanda(firma, banda));
+                if (ids != null) {
+                    candidatos.addAll(ids);
+                }
+            }
+            for (Long candidato : candidatos) {
+                if (candidato.equals(excluir)) {
+                    continue;
+                }
+                double estimada = estimarSimilitud(firma, firmas.get(candidato));
+                if (estimada >= similitud) {
+                    similares.put(candidato, estimada);
+                }
+            }
+        } finally {
+            candado.readLock().unlock();
+        }
+        return similares.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void limpiar() {
+        candado.writeLock().lock();
+        try {
+            firmas.clear();
+            cubetas.forEach(Map::clear);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return firmas.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private double estimarSimilitud(long[] a, long[] b) {
+        int iguales = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                iguales++;
+            }
+        }
+        return (double) iguales / a.length;
+    }
+
+    private long claveBanda(long[] firma, int banda) {
+        long clave = FNV_OFFSET ^ banda;
+        for (int i = banda * filas; i < (banda + 1) * filas; i++) {
+            clave = (clave ^ firma[i]) * FNV_PRIMO;
+        }
+        return clave;
+    }
+
+    /**
+     * Calcula la firma MinHash del texto normalizado.
+     */
+    long[] firmar(String texto) {
+        String normalizado = normalizar(texto);
+        long[] firma = new long[semillas.length];
+        Arrays.fill(firma, Long.MAX_VALUE);
+        int ultimo = Math.max(1, normalizado.length() - tamanoShingle + 1);
+        for (int inicio = 0; inicio < ultimo; inicio++) {
+            long hash = hashShingle(normalizado, inicio, Math.min(normalizado.length(), inicio + tamanoShingle));
+            for (int i = 0; i < semillas.length; i++) {
+                long valor = mezclar(hash ^ semillas[i]);
+                if (valor < firma[i]) {
+                    firma[i] = valor;
+                }
+            }
+        }
+        return firma;
+    }
+
+    /**
+     * Pasa a minúsculas, quita acentos y signos de puntuación y colapsa los espacios.
+     */
+    static String normalizar(String texto) {
+        String sinAcentos = Normalizer.normalize(texto == null ? "" : texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT).replaceAll("[^\\p{Alnum}]+", " ").trim();
+    }
+
+    private static long hashShingle(String texto, int inicio, int fin) {
+        long hash = FNV_OFFSET;
+        for (int i = inicio; i < fin; i++) {
+            hash = (hash ^ texto.charAt(i)) * FNV_PRIMO;
+        }
+        return hash;
+    }
+
+    /**
+     * Función de mezcla de 64 bits (finalizador de SplitMix64).
+     */
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
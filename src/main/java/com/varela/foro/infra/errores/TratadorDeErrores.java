@@ -1,6 +1,11 @@
 package com.varela.foro.infra.errores;
 
+import com.varela.foro.infra.coalescencia.CargaCoalescidaException;
+import com.varela.foro.infra.moderacion.ModeracionEnCursoException;
+import com.varela.foro.infra.proyeccion.CampoNoPermitidoException;
+import com.varela.foro.infra.security.TokenRefrescoInvalidoException;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +42,48 @@ public class TratadorDeErrores {
         return ResponseEntity.badRequest().body(errores);
     }
 
+    /**
+     * Maneja CargaCoalescidaException devolviendo una ResponseEntity con estado 503 Servicio no disponible.
+     *
+     * @return ResponseEntity con estado 503 Servicio no disponible.
+     */
+    @ExceptionHandler(CargaCoalescidaException.class)
+    public ResponseEntity tratarError503() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    /**
+     * Maneja CampoNoPermitidoException devolviendo una ResponseEntity con estado 400 Bad Request y el motivo.
+     *
+     * @param e Se lanza la excepción CampoNoPermitidoException.
+     * @return ResponseEntity con estado 400 Solicitud incorrecta.
+     */
+    @ExceptionHandler(CampoNoPermitidoException.class)
+    public ResponseEntity tratarCampoNoPermitido(CampoNoPermitidoException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * Maneja TokenRefrescoInvalidoException devolviendo una ResponseEntity con estado 401 No autorizado.
+     *
+     * @return ResponseEntity con estado 401 No autorizado.
+     */
+    @ExceptionHandler(TokenRefrescoInvalidoException.class)
+    public ResponseEntity tratarTokenRefrescoInvalido() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    /**
+     * Maneja ModeracionEnCursoException devolviendo una ResponseEntity con estado 429 Demasiadas solicitudes.
+     *
+     * @param e Se lanza la excepción ModeracionEnCursoException.
+     * @return ResponseEntity con estado 429 Demasiadas solicitudes.
+     */
+    @ExceptionHandler(ModeracionEnCursoException.class)
+    public ResponseEntity tratarModeracionEnCurso(ModeracionEnCursoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+    }
+
     /**
      * Clase de datos que representa detalles del error de validación.
      */
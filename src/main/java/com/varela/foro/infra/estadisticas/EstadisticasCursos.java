@@ -0,0 +1,204 @@
+package com.varela.foro.infra.estadisticas;
+
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene curso_stats, el conteo de tópicos por curso y estado, para que los paneles no tengan que agrupar topico.
+ * Cada alta, cambio de estado o baja ajusta la fila del curso con un incremento atómico en la misma transacción
+ * que el cambio, de modo que el conteo se confirma o se revierte junto con él.
+ * Una reconciliación periódica recalcula los conteos por lotes de cursos y corrige las filas que se hayan desviado
+ * (por ejemplo por escrituras hechas fuera de la aplicación).
+ */
+@Component
+public class EstadisticasCursos {
+
+    /**
+     * Columna de curso_stats de cada estado, en el orden de StatusTopico.
+     */
+    private static final String[] COLUMNAS = {"no_respondidos", "no_solucionados", "solucionados", "cerrados"};
+
+    private static final String CONTAR_TOPICOS = """
+            SELECT curso_id, status, COUNT(*) FROM (
+                SELECT curso_id, status FROM topico WHERE curso_id BETWEEN ? AND ?
+                UNION ALL
+                SELECT curso_id, status FROM topico_archivo WHERE curso_id BETWEEN ? AND ?
+            ) t GROUP BY curso_id, status
+            """;
+
+    private static final String LEER_ESTADISTICAS =
+            "SELECT curso_id, no_respondidos, no_solucionados, solucionados, cerrados FROM curso_stats WHERE curso_id BETWEEN ? AND ?";
+
+    /**
+     * Corrige una fila solo si sigue con los valores leídos: si un incremento concurrente la cambió, la corrección
+     * se descarta y se reintenta en la siguiente pasada.
+     */
+    private static final String CORREGIR = """
+            UPDATE curso_stats SET no_respondidos = ?, no_solucionados = ?, solucionados = ?, cerrados = ?, fecha_actualizacion = ?
+            WHERE curso_id = ? AND no_respondidos = ? AND no_solucionados = ? AND solucionados = ? AND cerrados = ?
+            """;
+
+    private static final String INSERTAR = """
+            INSERT INTO curso_stats (curso_id, no_respondidos, no_solucionados, solucionados, cerrados, fecha_actualizacion)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Número de cursos recalculados por transacción en la reconciliación.
+     */
+    @Value("${foro.estadisticas.tamano-lote:500}")
+    private int tamanoLote;
+
+    private final Counter derivas;
+
+    public EstadisticasCursos(MeterRegistry meterRegistry) {
+        this.derivas = Counter.builder("foro.cursos.estadisticas.derivas")
+                .description("Filas de curso_stats corregidas por la reconciliación")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ajusta las estadísticas según la modificación del tópico. Se ejecuta de forma síncrona en la transacción de la solicitud.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @EventListener
+    public void alModificarTopico(TopicoModificado modificacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // El curso nuevo de un tópico no tiene ID hasta el flush.
+            entityManager.flush();
+        }
+        var actual = TopicoModificado.Estado.de(modificacion.topico());
+        switch (modificacion.tipo()) {
+            case CREADO -> ajustar(actual.cursoId(), actual.status(), 1);
+            case ELIMINADO -> ajustar(actual.cursoId(), actual.status(), -1);
+            case ACTUALIZADO -> {
+                var anterior = modificacion.anterior();
+                if (anterior != null && !anterior.equals(actual)) {
+                    ajustar(anterior.cursoId(), anterior.status(), -1);
+                    ajustar(actual.cursoId(), actual.status(), 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Suma (o resta) tópicos al conteo de un curso en un estado, con la conexión de la transacción en curso.
+     *
+     * @param cursoId El ID del curso.
+     * @param status  El estado de los tópicos.
+     * @param delta   Cantidad de tópicos a sumar; negativa para restar.
+     */
+    public void ajustar(Long cursoId, StatusTopico status, long delta) {
+        if (cursoId == null || status == null || delta == 0) {
+            return;
+        }
+        var columna = COLUMNAS[status.ordinal()];
+        var ahora = Timestamp.valueOf(LocalDateTime.now());
+        var actualizar = "UPDATE curso_stats SET " + columna + " = " + columna + " + ?, fecha_actualizacion = ? WHERE curso_id = ?";
+        if (jdbcTemplate.update(actualizar, delta, ahora, cursoId) > 0 || delta < 0) {
+            // Si no hay fila que restar, el curso ya se eliminó o la reconciliación la creará.
+            return;
+        }
+        var valores = new long[COLUMNAS.length];
+        valores[status.ordinal()] = delta;
+        try {
+            jdbcTemplate.update(INSERTAR, cursoId, valores[0], valores[1], valores[2], valores[3], ahora);
+        } catch (DuplicateKeyException e) {
+            // Otra transacción creó la fila primero
+            jdbcTemplate.update(actualizar, delta, ahora, cursoId);
+        }
+    }
+
+    /**
+     * Recalcula los conteos de todos los cursos por lotes y corrige las filas desviadas.
+     *
+     * @return Número de filas corregidas.
+     */
+    @Scheduled(fixedDelayString = "${foro.estadisticas.intervalo-ms:3600000}",
+            initialDelayString = "${foro.estadisticas.intervalo-ms:3600000}")
+    public int reconciliar() {
+        int corregidas = 0;
+        long ultimo = 0;
+        List<Long> lote;
+        do {
+            lote = jdbcTemplate.queryForList("SELECT id FROM curso WHERE id > ? ORDER BY id LIMIT ?", Long.class, ultimo, tamanoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+            var cursos = lote;
+            corregidas += transactionTemplate.execute(estado -> reconciliarLote(cursos));
+            ultimo = lote.get(lote.size() - 1);
+        } while (lote.size() == tamanoLote);
+        derivas.increment(corregidas);
+        return corregidas;
+    }
+
+    /**
+     * Compara los conteos reales de un rango de cursos con los guardados y corrige las diferencias.
+     * Las estadísticas se leen antes que los conteos: si un cambio se confirma entre ambas lecturas, la fila ya no
+     * coincide con lo leído y la corrección condicional no la pisa.
+     */
+    private int reconciliarLote(List<Long> cursos) {
+        long desde = cursos.get(0);
+        long hasta = cursos.get(cursos.size() - 1);
+        Map<Long, long[]> guardadas = new HashMap<>();
+        jdbcTemplate.query(LEER_ESTADISTICAS, rs -> {
+            guardadas.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)});
+        }, desde, hasta);
+        Map<Long, long[]> reales = new HashMap<>();
+        jdbcTemplate.query(CONTAR_TOPICOS, rs -> {
+            int status = rs.getInt(2);
+            if (!rs.wasNull() && status >= 0 && status < COLUMNAS.length) {
+                reales.computeIfAbsent(rs.getLong(1), id -> new long[COLUMNAS.length])[status] += rs.getLong(3);
+            }
+        }, desde, hasta, desde, hasta);
+
+        var ahora = Timestamp.valueOf(LocalDateTime.now());
+        int corregidas = 0;
+        for (var cursoId : cursos) {
+            var real = reales.getOrDefault(cursoId, new long[COLUMNAS.length]);
+            var guardada = guardadas.get(cursoId);
+            if (guardada == null && reales.containsKey(cursoId)) {
+                try {
+                    corregidas += jdbcTemplate.update(INSERTAR, cursoId, real[0], real[1], real[2], real[3], ahora);
+                } catch (DuplicateKeyException e) {
+                    // La creó un incremento concurrente; se revisa en la siguiente pasada
+                }
+            } else if (guardada != null && !Arrays.equals(guardada, real)) {
+                corregidas += jdbcTemplate.update(CORREGIR, real[0], real[1], real[2], real[3], ahora,
+                        cursoId, guardada[0], guardada[1], guardada[2], guardada[3]);
+            }
+        }
+        return corregidas;
+    }
+}
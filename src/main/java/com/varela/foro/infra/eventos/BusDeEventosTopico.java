@@ -0,0 +1,201 @@
+package com.varela.foro.infra.eventos;
+
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bus de eventos en proceso que alimenta el stream SSE de tópicos.
+ * Recibe los TopicoModificado confirmados, los guarda en un historial circular para reanudar con Last-Event-ID
+ * y los reparte a los suscriptores, cada uno con su propio buffer acotado. Un pequeño grupo de hilos compartido
+ * hace los envíos, por lo que miles de suscriptores inactivos no ocupan un hilo cada uno.
+ */
+@Component
+public class BusDeEventosTopico {
+
+    private final Set<SuscripcionSse> suscripciones = ConcurrentHashMap.newKeySet();
+    private final EventoTopico[] historial;
+    private long ultimoId;
+    private final ExecutorService ejecutor;
+    private final int capacidadBuffer;
+    private final PoliticaDesbordamiento politica;
+    private final Duration tiempoDeVida;
+    private final Counter descartados;
+    private final Counter desconectados;
+
+    public BusDeEventosTopico(@Value("${foro.sse.historial:1024}") int tamanoHistorial,
+                              @Value("${foro.sse.buffer:256}") int capacidadBuffer,
+                              @Value("${foro.sse.politica:DESCARTAR_ANTIGUOS}") PoliticaDesbordamiento politica,
+                              @Value("${foro.sse.tiempo-de-vida:PT30M}") Duration tiempoDeVida,
+                              @Value("${foro.sse.hilos:4}") int hilos,
+                              MeterRegistry meterRegistry) {
+        this.historial = new EventoTopico[tamanoHistorial];
+        this.capacidadBuffer = capacidadBuffer;
+        this.politica = politica;
+        this.tiempoDeVida = tiempoDeVida;
+        this.ejecutor = Executors.newFixedThreadPool(hilos);
+        this.descartados = meterRegistry.counter("foro.sse.eventos.descartados");
+        this.desconectados = meterRegistry.counter("foro.sse.suscriptores.desconectados");
+        meterRegistry.gaugeCollectionSize("foro.sse.suscriptores", List.of(), suscripciones);
+    }
+
+    /**
+     * Publica en el stream una modificación de tópico ya confirmada.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTopico(TopicoModificado modificacion) {
+        var topico = modificacion.topico();
+        Long cursoId = topico.getCurso() != null ? topico.getCurso().getId() : null;
+        DatosListadoTopicoID datos = modificacion.tipo() == TipoModificacionTopico.ELIMINADO ? null : new DatosListadoTopicoID(topico);
+        publicar(modificacion.tipo(), topico.getId(), cursoId, datos);
+    }
+
+    /**
+     * Registra un evento en el historial y lo reparte a los suscriptores interesados.
+     */
+    EventoTopico publicar(TipoModificacionTopico tipo, Long topicoId, Long cursoId, DatosListadoTopicoID datos) {
+        EventoTopico evento;
+        synchronized (historial) {
+            evento = new EventoTopico(++ultimoId, tipo, topicoId, cursoId, datos, Instant.now());
+            historial[(int) (evento.id() % historial.length)] = evento;
+        }
+        for (SuscripcionSse suscripcion : suscripciones) {
+            if (suscripcion.aceptaEnVivo(evento)) {
+                entregar(suscripcion, evento);
+            }
+        }
+        return evento;
+    }
+
+    /**
+     * Crea una suscripción, opcionalmente filtrada por curso, reanudando desde el último evento recibido.
+     *
+     * @param cursoId      El curso a filtrar, o nulo para todos.
+     * @param ultimoEvento El valor de Last-Event-ID enviado por el cliente, o nulo.
+     * @return El emisor SSE de la suscripción.
+     */
+    public SseEmitter suscribir(Long cursoId, Long ultimoEvento) {
+        var emitter = new SseEmitter(tiempoDeVida.toMillis());
+        var suscripcion = new SuscripcionSse(emitter, cursoId, capacidadBuffer, politica);
+        emitter.onCompletion(() -> cancelar(suscripcion));
+        emitter.onTimeout(() -> cancelar(suscripcion));
+        emitter.onError(e -> cancelar(suscripcion));
+        // El registro y la copia del historial van bajo el mismo cerrojo que publicar(): ningún evento queda
+        // entre la copia y la entrega en vivo, y los de la copia no se entregan dos veces.
+        synchronized (historial) {
+            suscripcion.registrarDesde(ultimoId);
+            suscripciones.add(suscripcion);
+            if (ultimoEvento != null) {
+                reanudar(suscripcion, ultimoEvento);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Reenvía los eventos del historial posteriores a Last-Event-ID. Si el historial ya no los contiene, o el
+     * ID es posterior al último publicado (los IDs vuelven a empezar tras un reinicio del proceso), envía un
+     * evento "reinicio" para que el cliente vuelva a consultar el listado. Se llama con el cerrojo del historial.
+     */
+    private void reanudar(SuscripcionSse suscripcion, long ultimoEvento) {
+        long primero = Math.max(1, ultimoId - historial.length + 1);
+        if (ultimoEvento + 1 < primero || ultimoEvento > ultimoId) {
+            entregar(suscripcion, SuscripcionSse.REINICIO);
+            if (ultimoEvento > ultimoId) {
+                return;
+            }
+        }
+        for (long id = Math.max(ultimoEvento + 1, primero); id <= ultimoId; id++) {
+            var evento = historial[(int) (id % historial.length)];
+            if (evento != null && evento.id() == id && suscripcion.acepta(evento)) {
+                entregar(suscripcion, evento);
+            }
+        }
+    }
+
+    /**
+     * Envía un latido a todos los suscriptores para mantener viva la conexión y detectar clientes caídos.
+     */
+    @Scheduled(fixedDelayString = "${foro.sse.latido-ms:15000}")
+    public void enviarLatidos() {
+        suscripciones.forEach(suscripcion -> entregar(suscripcion, SuscripcionSse.LATIDO));
+    }
+
+    private void entregar(SuscripcionSse suscripcion, Object evento) {
+        int resultado = suscripcion.encolar(evento);
+        if (resultado < 0) {
+            desconectados.increment();
+            suscripcion.getEmitter().complete();
+            cancelar(suscripcion);
+            return;
+        }
+        if (resultado > 0) {
+            descartados.increment(resultado);
+        }
+        if (suscripcion.programar()) {
+            ejecutor.execute(() -> drenar(suscripcion));
+        }
+    }
+
+    private void drenar(SuscripcionSse suscripcion) {
+        do {
+            Object evento;
+            while (!suscripcion.isCerrada() && (evento = suscripcion.siguiente()) != null) {
+                try {
+                    enviar(suscripcion.getEmitter(), evento);
+                } catch (IOException | IllegalStateException e) {
+                    cancelar(suscripcion);
+                    return;
+                }
+            }
+            suscripcion.liberar();
+            // Un evento pudo llegar entre el último siguiente() y liberar(); se vuelve a intentar si nadie lo tomó.
+        } while (suscripcion.tienePendientes() && !suscripcion.isCerrada() && suscripcion.programar());
+    }
+
+    private void enviar(SseEmitter emitter, Object evento) throws IOException {
+        if (evento == SuscripcionSse.LATIDO) {
+            emitter.send(SseEmitter.event().comment("latido"));
+            return;
+        }
+        if (evento == SuscripcionSse.REINICIO) {
+            emitter.send(SseEmitter.event().name("reinicio").data("Historial insuficiente, vuelva a consultar /topico"));
+            return;
+        }
+        var eventoTopico = (EventoTopico) evento;
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(eventoTopico.id()))
+                .name(eventoTopico.tipo().name().toLowerCase())
+                .data(eventoTopico));
+    }
+
+    private void cancelar(SuscripcionSse suscripcion) {
+        suscripcion.cerrar();
+        suscripciones.remove(suscripcion);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscripciones.forEach(suscripcion -> suscripcion.getEmitter().complete());
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package com.varela.foro.infra.eventos;
+
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+
+import java.time.Instant;
+
+/**
+ * Evento enviado a los suscriptores del stream de tópicos.
+ *
+ * @param id       Número de secuencia del evento, usado como Last-Event-ID.
+ * @param tipo     El tipo de modificación.
+ * @param topicoId El ID del tópico modificado.
+ * @param cursoId  El ID del curso del tópico, usado para filtrar suscripciones.
+ * @param topico   Los datos del tópico; nulo en las eliminaciones.
+ * @param fecha    El instante en que se publicó el evento.
+ */
+public record EventoTopico(
+        long id,
+        TipoModificacionTopico tipo,
+        Long topicoId,
+        Long cursoId,
+        DatosListadoTopicoID topico,
+        Instant fecha) {
+}
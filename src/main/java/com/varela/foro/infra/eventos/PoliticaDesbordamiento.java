@@ -0,0 +1,17 @@
+package com.varela.foro.infra.eventos;
+
+/**
+ * Qué hacer cuando el buffer de un suscriptor lento se llena.
+ */
+public enum PoliticaDesbordamiento {
+
+    /**
+     * Descarta los eventos más antiguos pendientes de envío.
+     */
+    DESCARTAR_ANTIGUOS,
+
+    /**
+     * Cierra la conexión; el cliente puede reconectar con Last-Event-ID.
+     */
+    DESCONECTAR;
+}
@@ -0,0 +1,105 @@
+package com.varela.foro.infra.eventos;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suscripción de un cliente al stream de tópicos, con un buffer acotado de eventos pendientes.
+ * No retiene ningún hilo mientras está inactiva: los envíos se hacen desde el ejecutor del bus.
+ */
+class SuscripcionSse {
+
+    /**
+     * Marca de latido que se encola junto a los eventos.
+     */
+    static final Object LATIDO = new Object();
+
+    /**
+     * Marca que indica al cliente que el historial no alcanza para reanudar y debe volver a consultar el listado.
+     */
+    static final Object REINICIO = new Object();
+
+    private final SseEmitter emitter;
+    private final Long cursoId;
+    private final int capacidad;
+    private final PoliticaDesbordamiento politica;
+    private final ArrayDeque<Object> pendientes;
+    private final AtomicBoolean programada = new AtomicBoolean();
+    private volatile boolean cerrada;
+
+    /**
+     * Último ID del historial al registrarse: los eventos hasta ese ID llegan por la reanudación, no en vivo.
+     */
+    private volatile long desde;
+
+    SuscripcionSse(SseEmitter emitter, Long cursoId, int capacidad, PoliticaDesbordamiento politica) {
+        this.emitter = emitter;
+        this.cursoId = cursoId;
+        this.capacidad = capacidad;
+        this.politica = politica;
+        this.pendientes = new ArrayDeque<>(Math.min(capacidad, 16));
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean acepta(EventoTopico evento) {
+        return cursoId == null || cursoId.equals(evento.cursoId());
+    }
+
+    boolean aceptaEnVivo(EventoTopico evento) {
+        return evento.id() > desde && acepta(evento);
+    }
+
+    void registrarDesde(long ultimoId) {
+        this.desde = ultimoId;
+    }
+
+    /**
+     * Encola un evento o un latido.
+     *
+     * @return El número de eventos descartados, o -1 si el buffer está lleno y la política es desconectar.
+     */
+    synchronized int encolar(Object evento) {
+        int descartados = 0;
+        if (pendientes.size() >= capacidad) {
+            if (politica == PoliticaDesbordamiento.DESCONECTAR) {
+                return -1;
+            }
+            pendientes.pollFirst();
+            descartados++;
+        }
+        pendientes.addLast(evento);
+        return descartados;
+    }
+
+    synchronized Object siguiente() {
+        return pendientes.pollFirst();
+    }
+
+    synchronized boolean tienePendientes() {
+        return !pendientes.isEmpty();
+    }
+
+    /**
+     * Reserva el drenaje del buffer; solo un hilo drena una suscripción a la vez.
+     */
+    boolean programar() {
+        return programada.compareAndSet(false, true);
+    }
+
+    void liberar() {
+        programada.set(false);
+    }
+
+    boolean isCerrada() {
+        return cerrada;
+    }
+
+    void cerrar() {
+        cerrada = true;
+    }
+}
@@ -0,0 +1,71 @@
+package com.varela.foro.infra.fragmentos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hash consistente con nodos virtuales. Cada fragmento ocupa varias posiciones del anillo y una clave
+ * pertenece al primer nodo a partir de su hash; al añadir o quitar un fragmento solo cambian de dueño las claves de
+ * los tramos que ese fragmento gana o pierde (en torno a 1/N del total).
+ * Es inmutable: un cambio de fragmentos crea un anillo nuevo.
+ */
+public final class AnilloConsistente {
+
+    private final List<String> nodos;
+    private final NavigableMap<Long, String> posiciones = new TreeMap<>();
+
+    /**
+     * @param nodos          Los nombres de los fragmentos.
+     * @param nodosVirtuales Posiciones de cada fragmento en el anillo.
+     */
+    public AnilloConsistente(Collection<String> nodos, int nodosVirtuales) {
+        if (nodos.isEmpty()) {
+            throw new IllegalArgumentException("El anillo necesita al menos un fragmento");
+        }
+        this.nodos = List.copyOf(nodos);
+        for (String nodo : this.nodos) {
+            for (int i = 0; i < nodosVirtuales; i++) {
+                posiciones.putIfAbsent(hash(nodo + "#" + i), nodo);
+            }
+        }
+    }
+
+    /**
+     * Fragmento dueño de una clave.
+     *
+     * @param clave La clave (en el foro, una cubeta).
+     * @return El nombre del fragmento.
+     */
+    public String nodoDe(long clave) {
+        var entrada = posiciones.ceilingEntry(mezclar(clave));
+        return (entrada != null ? entrada : posiciones.firstEntry()).getValue();
+    }
+
+    public List<String> nodos() {
+        return nodos;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits, mezclado para repartir uniformemente nombres parecidos ("a#1", "a#2"...).
+     */
+    private static long hash(String texto) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mezclar(hash);
+    }
+
+    /**
+     * Finalizador de SplitMix64.
+     */
+    static long mezclar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xbf58476d1ce4e5b9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94d049bb133111ebL;
+        return valor ^ (valor >>> 31);
+    }
+}
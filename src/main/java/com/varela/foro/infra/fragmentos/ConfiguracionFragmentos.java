@@ -0,0 +1,77 @@
+package com.varela.foro.infra.fragmentos;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Configura los fragmentos de tópicos y respuestas cuando foro.fragmentos.habilitado=true.
+ * Cada fragmento se declara con foro.fragmentos.nodos.&lt;nombre&gt;.url, .username y .password, y recibe con Flyway el
+ * esquema de db/fragmento (o solo lo valida con foro.flyway.solo-validar=true, como la base de datos principal).
+ */
+@Configuration
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+public class ConfiguracionFragmentos {
+
+    /**
+     * Se niega a arrancar salvo que se acepten explícitamente las funciones que se pierden con los fragmentos.
+     * TopicoController y RespuestaController no se registran y TopicoFragmentadoController no cubre todos sus
+     * endpoints ni la detección de duplicados; como no se publica TopicoModificado, tampoco se actualizan la
+     * auditoría, curso_stats, el stream SSE, el outbox, la portada ni el índice de duplicados; y la purga de
+     * usuarios, el archivo de tópicos y las lecturas siguen leyendo la tabla topico de la base de datos principal.
+     *
+     * @param aceptarFuncionesLimitadas Valor de foro.fragmentos.aceptar-funciones-limitadas.
+     */
+    public ConfiguracionFragmentos(@Value("${foro.fragmentos.aceptar-funciones-limitadas:false}") boolean aceptarFuncionesLimitadas) {
+        if (!aceptarFuncionesLimitadas) {
+            throw new IllegalStateException("foro.fragmentos.habilitado=true no admite todavía la edición, la moderación, "
+                    + "los eventos de tópicos ni la purga, el archivo y las lecturas sobre los fragmentos; "
+                    + "use foro.fragmentos.aceptar-funciones-limitadas=true para arrancar sin ellos");
+        }
+    }
+
+    /**
+     * Crea y migra las fuentes de datos de los fragmentos.
+     *
+     * @param environment El entorno, del que se leen los fragmentos declarados.
+     * @param soloValidar Si Flyway solo debe validar el esquema de cada fragmento.
+     * @return Los fragmentos.
+     */
+    @Bean(destroyMethod = "close")
+    public NodosFragmentos nodosFragmentos(Environment environment,
+                                           @Value("${foro.flyway.solo-validar:false}") boolean soloValidar) {
+        var declarados = Binder.get(environment)
+                .bind("foro.fragmentos.nodos", Bindable.mapOf(String.class, PropiedadesNodo.class))
+                .orElseThrow(() -> new IllegalStateException("foro.fragmentos.habilitado=true sin foro.fragmentos.nodos"));
+        var fuentes = new LinkedHashMap<String, HikariDataSource>();
+        declarados.forEach((nombre, propiedades) -> {
+            var fuente = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(propiedades.url()).username(propiedades.username()).password(propiedades.password())
+                    .build();
+            fuente.setPoolName("fragmento-" + nombre);
+            fuentes.put(nombre, fuente);
+            var flyway = Flyway.configure().dataSource(fuente).locations("classpath:db/fragmento").load();
+            if (soloValidar) {
+                flyway.validate();
+            } else {
+                flyway.migrate();
+            }
+        });
+        return new NodosFragmentos(fuentes);
+    }
+
+    /**
+     * Conexión de un fragmento.
+     */
+    public record PropiedadesNodo(String url, String username, String password) {
+    }
+}
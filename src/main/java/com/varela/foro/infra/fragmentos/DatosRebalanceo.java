@@ -0,0 +1,18 @@
+package com.varela.foro.infra.fragmentos;
+
+import java.util.Map;
+
+/**
+ * Resultado de un rebalanceo.
+ *
+ * @param cubetasMovidas     Cubetas que cambiaron de fragmento.
+ * @param topicosCopiados    Tópicos copiados a su nuevo fragmento.
+ * @param respuestasCopiadas Respuestas copiadas a su nuevo fragmento.
+ * @param distribucion       Cubetas de cada fragmento al terminar.
+ */
+public record DatosRebalanceo(
+        int cubetasMovidas,
+        long topicosCopiados,
+        long respuestasCopiadas,
+        Map<String, Integer> distribucion) {
+}
@@ -0,0 +1,14 @@
+package com.varela.foro.infra.fragmentos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada en un fragmento, junto a su tópico (en la misma cubeta).
+ */
+public record DatosRespuestaFragmentada(
+        Long id,
+        Long topicoId,
+        Long autorId,
+        String mensaje,
+        LocalDateTime fechaCreacion) {
+}
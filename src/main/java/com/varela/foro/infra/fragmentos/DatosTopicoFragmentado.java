@@ -0,0 +1,19 @@
+package com.varela.foro.infra.fragmentos;
+
+import com.varela.foro.modelo.StatusTopico;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tópico guardado en un fragmento. El autor y el curso se identifican por ID: sus datos están en la base de datos
+ * principal.
+ */
+public record DatosTopicoFragmentado(
+        Long id,
+        Long cursoId,
+        Long autorId,
+        String titulo,
+        String mensaje,
+        LocalDateTime fechaCreacion,
+        StatusTopico status) {
+}
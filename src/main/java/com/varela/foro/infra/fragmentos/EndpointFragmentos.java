@@ -0,0 +1,34 @@
+package com.varela.foro.infra.fragmentos;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Endpoint de Actuator /actuator/fragmentos: consulta el reparto de cubetas y lanza el rebalanceo
+ * (POST con {"fragmentos": "a,b,c"}). No está expuesto por defecto; debe exponerse solo en el puerto de gestión.
+ */
+@Component
+@Endpoint(id = "fragmentos")
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+public class EndpointFragmentos {
+
+    @Autowired
+    private RebalanceadorFragmentos rebalanceadorFragmentos;
+
+    @ReadOperation
+    public Map<String, Integer> distribucion() {
+        return rebalanceadorFragmentos.distribucion();
+    }
+
+    @WriteOperation
+    public DatosRebalanceo rebalancear(String fragmentos) {
+        return rebalanceadorFragmentos.rebalancear(Arrays.stream(fragmentos.split(",")).map(String::trim).toList());
+    }
+}
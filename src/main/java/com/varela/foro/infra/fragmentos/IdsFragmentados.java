@@ -0,0 +1,55 @@
+package com.varela.foro.infra.fragmentos;
+
+import java.time.Instant;
+
+/**
+ * IDs globales de los datos fragmentados: [41 bits de milisegundos desde 2024][10 bits de cubeta][12 bits de secuencia].
+ * La cubeta (una de 1024, fija para cada curso) va dentro del ID, de modo que un tópico o una respuesta se localiza
+ * solo con su ID. Los IDs no codifican el fragmento físico sino la cubeta: el rebalanceo mueve cubetas entre
+ * fragmentos sin cambiar ningún ID.
+ * Dos instancias pueden generar el mismo ID en el mismo milisegundo; como todos los IDs de una cubeta viven en el
+ * mismo fragmento, su clave primaria lo detecta y quien inserta genera otro.
+ */
+public final class IdsFragmentados {
+
+    public static final int CUBETAS = 1024;
+    private static final long EPOCA = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int BITS_SECUENCIA = 12;
+    private static final int BITS_CUBETA = 10;
+    private static final long MAX_SECUENCIA = (1L << BITS_SECUENCIA) - 1;
+
+    private long ultimoMilisegundo;
+    private long secuencia;
+
+    /**
+     * Cubeta de un curso: los 10 bits altos de su hash.
+     */
+    public static int cubetaDeCurso(long cursoId) {
+        return (int) (AnilloConsistente.mezclar(cursoId) >>> (64 - BITS_CUBETA));
+    }
+
+    /**
+     * Cubeta codificada en un ID.
+     */
+    public static int cubetaDeId(long id) {
+        return (int) ((id >>> BITS_SECUENCIA) & (CUBETAS - 1));
+    }
+
+    /**
+     * Genera un ID de la cubeta indicada, creciente dentro de esta instancia.
+     */
+    public synchronized long generar(int cubeta) {
+        long ahora = Math.max(System.currentTimeMillis(), ultimoMilisegundo);
+        if (ahora == ultimoMilisegundo) {
+            secuencia = (secuencia + 1) & MAX_SECUENCIA;
+            if (secuencia == 0) {
+                // Secuencia agotada en este milisegundo: se toma el siguiente.
+                ahora++;
+            }
+        } else {
+            secuencia = 0;
+        }
+        ultimoMilisegundo = ahora;
+        return ((ahora - EPOCA) << (BITS_CUBETA + BITS_SECUENCIA)) | ((long) cubeta << BITS_SECUENCIA) | secuencia;
+    }
+}
@@ -0,0 +1,63 @@
+package com.varela.foro.infra.fragmentos;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fuentes de datos de los fragmentos, por nombre. No se registran como beans DataSource para no sustituir a la
+ * fuente de datos principal de Spring Boot.
+ */
+public class NodosFragmentos implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> fuentes;
+    private final Map<String, JdbcTemplate> plantillas;
+    private final Map<String, TransactionTemplate> transacciones;
+
+    NodosFragmentos(Map<String, HikariDataSource> fuentes) {
+        this.fuentes = Map.copyOf(fuentes);
+        this.plantillas = Map.copyOf(fuentes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new JdbcTemplate(e.getValue()))));
+        this.transacciones = Map.copyOf(fuentes.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new TransactionTemplate(new DataSourceTransactionManager(e.getValue())))));
+    }
+
+    public Set<String> nombres() {
+        return plantillas.keySet();
+    }
+
+    /**
+     * JdbcTemplate de un fragmento.
+     *
+     * @param nombre El nombre del fragmento.
+     * @return Su JdbcTemplate.
+     */
+    public JdbcTemplate jdbc(String nombre) {
+        var plantilla = plantillas.get(nombre);
+        if (plantilla == null) {
+            throw new IllegalArgumentException("Fragmento no configurado: " + nombre);
+        }
+        return plantilla;
+    }
+
+    /**
+     * Plantilla de transacciones locales de un fragmento. No hay transacciones entre fragmentos.
+     *
+     * @param nombre El nombre del fragmento.
+     * @return Su TransactionTemplate.
+     */
+    public TransactionTemplate transacciones(String nombre) {
+        jdbc(nombre);
+        return transacciones.get(nombre);
+    }
+
+    @Override
+    public void close() {
+        fuentes.values().forEach(HikariDataSource::close);
+    }
+}
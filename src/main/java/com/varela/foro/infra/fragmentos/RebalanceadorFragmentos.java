@@ -0,0 +1,171 @@
+package com.varela.foro.infra.fragmentos;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reparte las cubetas según un anillo con otros fragmentos, sin parar la aplicación.
+ * Cada cubeta que cambia de dueño se mueve por separado: con su fila de fragmento_cubeta bloqueada (TablaCubetas,
+ * así que las escrituras de sus cursos esperan en todas las instancias y otro rebalanceo no la mueve a la vez) se
+ * comprueba el dueño, se copian sus tópicos, respuestas y contador al nuevo fragmento y se cambia el dueño; después
+ * se borran las filas del origen. Las lecturas siguen yendo al origen, que está completo, hasta que cada instancia
+ * recarga los dueños.
+ * Si el proceso se interrumpe, las filas de una cubeta en un fragmento que no es su dueño quedan ocultas a las
+ * lecturas y se borran al empezar el siguiente rebalanceo, también con la cubeta bloqueada.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+public class RebalanceadorFragmentos {
+
+    private static final String COLUMNAS_TOPICO = "id, cubeta, curso_id, autor_id, titulo, mensaje, fecha_creacion, status";
+    private static final String COLUMNAS_RESPUESTA = "id, cubeta, topico_id, mensaje, fecha_creacion, autor_id";
+
+    @Autowired
+    private NodosFragmentos nodosFragmentos;
+
+    @Autowired
+    private TablaCubetas tablaCubetas;
+
+    /**
+     * Filas copiadas por consulta.
+     */
+    @Value("${foro.fragmentos.tamano-lote:500}")
+    private int tamanoLote;
+
+    private final Counter cubetasMovidas;
+
+    public RebalanceadorFragmentos(MeterRegistry meterRegistry) {
+        this.cubetasMovidas = Counter.builder("foro.fragmentos.cubetas-movidas")
+                .description("Cubetas movidas a otro fragmento por el rebalanceo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Mueve cada cubeta al fragmento que le corresponde en el anillo formado por los fragmentos indicados.
+     *
+     * @param fragmentos Los fragmentos del nuevo anillo; deben estar configurados en foro.fragmentos.nodos.
+     * @return El resultado del rebalanceo.
+     */
+    public synchronized DatosRebalanceo rebalancear(List<String> fragmentos) {
+        fragmentos.forEach(nodosFragmentos::jdbc);
+        var anillo = tablaCubetas.anillo(fragmentos);
+        limpiarHuerfanos();
+        int movidas = 0;
+        long topicos = 0;
+        long respuestas = 0;
+        for (int cubeta = 0; cubeta < IdsFragmentados.CUBETAS; cubeta++) {
+            var destino = anillo.nodoDe(cubeta);
+            if (!destino.equals(tablaCubetas.propietario(cubeta))) {
+                var movimiento = mover(cubeta, destino);
+                if (movimiento != null) {
+                    topicos += movimiento.topicos();
+                    respuestas += movimiento.respuestas();
+                    movidas++;
+                }
+            }
+        }
+        return new DatosRebalanceo(movidas, topicos, respuestas, tablaCubetas.distribucion());
+    }
+
+    /**
+     * Cubetas de cada fragmento.
+     */
+    public Map<String, Integer> distribucion() {
+        return tablaCubetas.distribucion();
+    }
+
+    /**
+     * Mueve una cubeta con su fila bloqueada.
+     *
+     * @return Lo copiado, o nulo si la cubeta ya estaba en el destino (la movió otra instancia).
+     */
+    private Movimiento mover(int cubeta, String destino) {
+        var movimiento = tablaCubetas.bloquear(cubeta, origen -> {
+            if (destino.equals(origen)) {
+                return null;
+            }
+            borrarCubeta(destino, cubeta);
+            // Primero los tópicos: las respuestas tienen clave foránea a su tópico.
+            long topicos = copiar(origen, destino, "topico", COLUMNAS_TOPICO, cubeta);
+            long respuestas = copiar(origen, destino, "respuesta", COLUMNAS_RESPUESTA, cubeta);
+            nodosFragmentos.jdbc(destino).update("INSERT INTO cubeta_conteo (cubeta, total) VALUES (?, ?)", cubeta, topicos);
+            tablaCubetas.reasignar(cubeta, destino);
+            return new Movimiento(origen, topicos, respuestas);
+        });
+        if (movimiento != null) {
+            borrarAjena(movimiento.origen(), cubeta);
+            cubetasMovidas.increment();
+        }
+        return movimiento;
+    }
+
+    private long copiar(String origen, String destino, String tabla, String columnas, int cubeta) {
+        var lectura = "SELECT " + columnas + " FROM " + tabla + " WHERE cubeta = ? AND id > ? ORDER BY id LIMIT ?";
+        var escritura = "INSERT INTO " + tabla + " (" + columnas + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnas.split(",").length, "?")) + ")";
+        JdbcTemplate jdbcOrigen = nodosFragmentos.jdbc(origen);
+        JdbcTemplate jdbcDestino = nodosFragmentos.jdbc(destino);
+        long cursor = Long.MIN_VALUE;
+        long copiadas = 0;
+        List<Map<String, Object>> lote;
+        do {
+            lote = jdbcOrigen.queryForList(lectura, cubeta, cursor, tamanoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+            jdbcDestino.batchUpdate(escritura, lote.stream().map(fila -> fila.values().toArray()).toList());
+            copiadas += lote.size();
+            cursor = ((Number) lote.get(lote.size() - 1).get("id")).longValue();
+        } while (lote.size() == tamanoLote);
+        return copiadas;
+    }
+
+    /**
+     * Borra las filas de cubetas que no pertenecen al fragmento en el que están (restos de un rebalanceo interrumpido).
+     */
+    private void limpiarHuerfanos() {
+        for (String fragmento : nodosFragmentos.nombres()) {
+            var cubetas = nodosFragmentos.jdbc(fragmento).queryForList("SELECT DISTINCT cubeta FROM topico "
+                    + "UNION SELECT DISTINCT cubeta FROM respuesta UNION SELECT cubeta FROM cubeta_conteo", Integer.class);
+            for (Integer cubeta : cubetas) {
+                if (!fragmento.equals(tablaCubetas.propietario(cubeta))) {
+                    borrarAjena(fragmento, cubeta);
+                }
+            }
+        }
+    }
+
+    /**
+     * Borra las filas de una cubeta de un fragmento que no es su dueño. Se comprueba con la cubeta bloqueada, ya que
+     * otra instancia puede haberla devuelto a ese fragmento.
+     */
+    private void borrarAjena(String fragmento, int cubeta) {
+        tablaCubetas.bloquear(cubeta, propietario -> {
+            if (!fragmento.equals(propietario)) {
+                borrarCubeta(fragmento, cubeta);
+            }
+            return null;
+        });
+    }
+
+    private void borrarCubeta(String fragmento, int cubeta) {
+        nodosFragmentos.transacciones(fragmento).executeWithoutResult(estado -> {
+            var jdbc = nodosFragmentos.jdbc(fragmento);
+            jdbc.update("DELETE FROM respuesta WHERE cubeta = ?", cubeta);
+            jdbc.update("DELETE FROM topico WHERE cubeta = ?", cubeta);
+            jdbc.update("DELETE FROM cubeta_conteo WHERE cubeta = ?", cubeta);
+        });
+    }
+
+    private record Movimiento(String origen, long topicos, long respuestas) {
+    }
+}
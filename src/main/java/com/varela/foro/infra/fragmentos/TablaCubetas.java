@@ -0,0 +1,140 @@
+package com.varela.foro.infra.fragmentos;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Dueño de cada cubeta, guardado en fragmento_cubeta de la base de datos principal y copiado en memoria.
+ * La fila de cada cubeta es su cerrojo entre instancias: las escrituras de tópicos y respuestas y el rebalanceo la
+ * bloquean (SELECT ... FOR UPDATE) mientras escriben en el fragmento, y leen el dueño en ella, así que una escritura
+ * nunca cae en el fragmento de origen mientras se copia la cubeta ni después de moverla, sea cual sea la instancia
+ * que rebalancea. Como no todos los motores admiten un bloqueo compartido (FOR SHARE), las escrituras de una misma
+ * cubeta también se esperan entre sí; las de cubetas distintas no.
+ * Las lecturas usan la copia en memoria, que se recarga cada foro.fragmentos.intervalo-recarga-ms.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+public class TablaCubetas {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NodosFragmentos nodosFragmentos;
+
+    /**
+     * Fragmentos del anillo inicial, usado solo para las cubetas que aún no tienen dueño.
+     */
+    @Value("${foro.fragmentos.anillo}")
+    private List<String> anillo;
+
+    @Value("${foro.fragmentos.nodos-virtuales:128}")
+    private int nodosVirtuales;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicReferenceArray<String> propietarios = new AtomicReferenceArray<>(IdsFragmentados.CUBETAS);
+
+    /**
+     * Carga los dueños guardados y asigna con el anillo inicial las cubetas que no tienen.
+     */
+    @PostConstruct
+    public void cargar() {
+        recargar();
+        var inicial = anillo();
+        for (int cubeta = 0; cubeta < IdsFragmentados.CUBETAS; cubeta++) {
+            if (propietarios.get(cubeta) == null) {
+                var fragmento = inicial.nodoDe(cubeta);
+                jdbcTemplate.update("INSERT INTO fragmento_cubeta (cubeta, fragmento, fecha_actualizacion) VALUES (?, ?, ?)",
+                        cubeta, fragmento, Timestamp.from(Instant.now()));
+                propietarios.set(cubeta, fragmento);
+            }
+        }
+        // No se arranca si alguna cubeta pertenece a un fragmento que ya no está configurado.
+        for (int cubeta = 0; cubeta < IdsFragmentados.CUBETAS; cubeta++) {
+            nodosFragmentos.jdbc(propietarios.get(cubeta));
+        }
+    }
+
+    /**
+     * Fragmento dueño de una cubeta.
+     */
+    public String propietario(int cubeta) {
+        return propietarios.get(cubeta);
+    }
+
+    /**
+     * Vuelve a leer los dueños guardados, para ver los movimientos hechos por el rebalanceo de otra instancia.
+     */
+    @Scheduled(fixedDelayString = "${foro.fragmentos.intervalo-recarga-ms:5000}", initialDelayString = "${foro.fragmentos.intervalo-recarga-ms:5000}")
+    public void recargar() {
+        jdbcTemplate.query("SELECT cubeta, fragmento FROM fragmento_cubeta",
+                rs -> {
+                    propietarios.set(rs.getInt("cubeta"), rs.getString("fragmento"));
+                });
+    }
+
+    /**
+     * Ejecuta una acción con la fila de la cubeta bloqueada en la base de datos principal, pasándole el dueño actual.
+     * El bloqueo dura hasta que termina la acción; las demás escrituras y movimientos de la cubeta esperan.
+     *
+     * @param cubeta La cubeta.
+     * @param accion La acción, que recibe el fragmento dueño de la cubeta.
+     * @return El resultado de la acción.
+     */
+    <T> T bloquear(int cubeta, Function<String, T> accion) {
+        return transactionTemplate.execute(estado -> {
+            var fragmento = jdbcTemplate.queryForObject("SELECT fragmento FROM fragmento_cubeta WHERE cubeta = ? FOR UPDATE",
+                    String.class, cubeta);
+            propietarios.set(cubeta, fragmento);
+            return accion.apply(fragmento);
+        });
+    }
+
+    /**
+     * Cambia el dueño de una cubeta. Solo lo llama el rebalanceo, con la cubeta bloqueada.
+     */
+    void reasignar(int cubeta, String fragmento) {
+        jdbcTemplate.update("UPDATE fragmento_cubeta SET fragmento = ?, fecha_actualizacion = ? WHERE cubeta = ?",
+                fragmento, Timestamp.from(Instant.now()), cubeta);
+        propietarios.set(cubeta, fragmento);
+    }
+
+    /**
+     * Crea un anillo con los fragmentos indicados y los nodos virtuales configurados.
+     */
+    AnilloConsistente anillo(List<String> fragmentos) {
+        return new AnilloConsistente(fragmentos, nodosVirtuales);
+    }
+
+    /**
+     * Número de cubetas de cada fragmento.
+     */
+    public Map<String, Integer> distribucion() {
+        var distribucion = new TreeMap<String, Integer>();
+        nodosFragmentos.nombres().forEach(nombre -> distribucion.put(nombre, 0));
+        for (int cubeta = 0; cubeta < IdsFragmentados.CUBETAS; cubeta++) {
+            distribucion.merge(propietarios.get(cubeta), 1, Integer::sum);
+        }
+        return distribucion;
+    }
+
+    private AnilloConsistente anillo() {
+        return anillo(anillo);
+    }
+}
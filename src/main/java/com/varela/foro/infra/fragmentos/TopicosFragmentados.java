@@ -0,0 +1,308 @@
+package com.varela.foro.infra.fragmentos;
+
+import com.varela.foro.modelo.StatusTopico;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Tópicos y respuestas repartidos entre varios fragmentos por curso. Cada curso cae en una cubeta
+ * (IdsFragmentados.cubetaDeCurso) y cada cubeta pertenece a un fragmento (TablaCubetas); las respuestas van a la
+ * cubeta de su tópico. Las operaciones de un tópico o de un curso van a un solo fragmento. El listado general
+ * consulta todos los fragmentos en paralelo y mezcla sus resultados, ya ordenados, por ID: como el ID empieza por
+ * el milisegundo de creación, es el orden de creación al milisegundo.
+ * Mientras una cubeta se mueve, sus filas pueden estar en dos fragmentos; las lecturas solo aceptan las filas del
+ * fragmento que es su dueño en ese momento.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.fragmentos.habilitado", havingValue = "true")
+public class TopicosFragmentados {
+
+    private static final String COLUMNAS_TOPICO = "id, cubeta, curso_id, autor_id, titulo, mensaje, fecha_creacion, status";
+    private static final int INTENTOS_ID = 3;
+
+    private static final RowMapper<DatosTopicoFragmentado> TOPICO = (rs, fila) -> new DatosTopicoFragmentado(
+            rs.getLong("id"), rs.getLong("curso_id"), rs.getObject("autor_id", Long.class), rs.getString("titulo"),
+            rs.getString("mensaje"), rs.getTimestamp("fecha_creacion").toLocalDateTime(),
+            StatusTopico.values()[rs.getInt("status")]);
+
+    private static final RowMapper<DatosRespuestaFragmentada> RESPUESTA = (rs, fila) -> new DatosRespuestaFragmentada(
+            rs.getLong("id"), rs.getLong("topico_id"), rs.getObject("autor_id", Long.class), rs.getString("mensaje"),
+            rs.getTimestamp("fecha_creacion").toLocalDateTime());
+
+    @Autowired
+    private NodosFragmentos nodosFragmentos;
+
+    @Autowired
+    private TablaCubetas tablaCubetas;
+
+    /**
+     * Máximo de tópicos (desplazamiento más tamaño de página) que el listado general pide a cada fragmento.
+     * Las páginas más profundas deben recorrerse con listarAnteriores.
+     */
+    @Value("${foro.fragmentos.max-resultados:1000}")
+    private int maxResultados;
+
+    private final IdsFragmentados ids = new IdsFragmentados();
+    private final ExecutorService dispersion;
+    private final Timer duracionDispersion;
+
+    public TopicosFragmentados(@Value("${foro.fragmentos.hilos:8}") int hilos, MeterRegistry meterRegistry) {
+        var contador = new AtomicInteger();
+        this.dispersion = Executors.newFixedThreadPool(hilos, tarea -> {
+            var hilo = new Thread(tarea, "fragmentos-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.duracionDispersion = Timer.builder("foro.fragmentos.dispersion")
+                .description("Duración de las consultas a todos los fragmentos")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        dispersion.shutdownNow();
+    }
+
+    /**
+     * Crea un tópico en el fragmento de su curso.
+     *
+     * @return El tópico creado.
+     */
+    public DatosTopicoFragmentado crear(Long cursoId, Long autorId, String titulo, String mensaje) {
+        int cubeta = IdsFragmentados.cubetaDeCurso(cursoId);
+        var fecha = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return escribir(cubeta, fragmento -> conIdNuevo(cubeta, id -> nodosFragmentos.transacciones(fragmento).execute(estado -> {
+            var jdbc = nodosFragmentos.jdbc(fragmento);
+            jdbc.update("INSERT INTO topico (" + COLUMNAS_TOPICO + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    id, cubeta, cursoId, autorId, titulo, mensaje, Timestamp.valueOf(fecha), StatusTopico.NO_RESPONDIDO.ordinal());
+            jdbc.update("INSERT INTO cubeta_conteo (cubeta, total) VALUES (?, 1) ON DUPLICATE KEY UPDATE total = total + 1", cubeta);
+            return new DatosTopicoFragmentado(id, cursoId, autorId, titulo, mensaje, fecha, StatusTopico.NO_RESPONDIDO);
+        })));
+    }
+
+    /**
+     * Busca un tópico por ID en el fragmento de la cubeta que lleva el ID.
+     */
+    public Optional<DatosTopicoFragmentado> buscar(Long id) {
+        var fragmento = tablaCubetas.propietario(IdsFragmentados.cubetaDeId(id));
+        return nodosFragmentos.jdbc(fragmento).query("SELECT " + COLUMNAS_TOPICO + " FROM topico WHERE id = ?", TOPICO, id)
+                .stream().findFirst();
+    }
+
+    /**
+     * Elimina un tópico y sus respuestas.
+     *
+     * @return Si el tópico existía.
+     */
+    public boolean eliminar(Long id) {
+        int cubeta = IdsFragmentados.cubetaDeId(id);
+        return escribir(cubeta, fragmento -> nodosFragmentos.transacciones(fragmento).execute(estado -> {
+            var jdbc = nodosFragmentos.jdbc(fragmento);
+            jdbc.update("DELETE FROM respuesta WHERE topico_id = ?", id);
+            if (jdbc.update("DELETE FROM topico WHERE id = ?", id) == 0) {
+                return false;
+            }
+            jdbc.update("UPDATE cubeta_conteo SET total = total - 1 WHERE cubeta = ?", cubeta);
+            return true;
+        }));
+    }
+
+    /**
+     * Añade una respuesta a un tópico, en su mismo fragmento, y marca el tópico como respondido.
+     *
+     * @return La respuesta creada.
+     * @throws EntityNotFoundException Si el tópico no existe.
+     */
+    public DatosRespuestaFragmentada responder(Long topicoId, Long autorId, String mensaje) {
+        int cubeta = IdsFragmentados.cubetaDeId(topicoId);
+        var fecha = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        return escribir(cubeta, fragmento -> conIdNuevo(cubeta, id -> nodosFragmentos.transacciones(fragmento).execute(estado -> {
+            var jdbc = nodosFragmentos.jdbc(fragmento);
+            if (jdbc.queryForList("SELECT id FROM topico WHERE id = ? FOR UPDATE", Long.class, topicoId).isEmpty()) {
+                throw new EntityNotFoundException("Tópico no encontrado: " + topicoId);
+            }
+            jdbc.update("INSERT INTO respuesta (id, cubeta, topico_id, mensaje, fecha_creacion, autor_id) VALUES (?, ?, ?, ?, ?, ?)",
+                    id, cubeta, topicoId, mensaje, Timestamp.valueOf(fecha), autorId);
+            jdbc.update("UPDATE topico SET status = ? WHERE id = ? AND status = ?",
+                    StatusTopico.NO_SOLUCIONADO.ordinal(), topicoId, StatusTopico.NO_RESPONDIDO.ordinal());
+            return new DatosRespuestaFragmentada(id, topicoId, autorId, mensaje, fecha);
+        })));
+    }
+
+    /**
+     * Respuestas de un tópico en orden de creación.
+     */
+    public List<DatosRespuestaFragmentada> respuestas(Long topicoId, int limite) {
+        var fragmento = tablaCubetas.propietario(IdsFragmentados.cubetaDeId(topicoId));
+        return nodosFragmentos.jdbc(fragmento).query("SELECT id, topico_id, autor_id, mensaje, fecha_creacion FROM respuesta "
+                + "WHERE topico_id = ? ORDER BY id LIMIT ?", RESPUESTA, topicoId, limite);
+    }
+
+    /**
+     * Tópicos de un curso, de su único fragmento, del más reciente al más antiguo.
+     */
+    public Page<DatosTopicoFragmentado> listarPorCurso(Long cursoId, Pageable paginacion) {
+        var jdbc = nodosFragmentos.jdbc(tablaCubetas.propietario(IdsFragmentados.cubetaDeCurso(cursoId)));
+        var contenido = jdbc.query("SELECT " + COLUMNAS_TOPICO + " FROM topico WHERE curso_id = ? ORDER BY id DESC LIMIT ? OFFSET ?",
+                TOPICO, cursoId, paginacion.getPageSize(), paginacion.getOffset());
+        Long total = jdbc.queryForObject("SELECT COUNT(*) FROM topico WHERE curso_id = ?", Long.class, cursoId);
+        return new PageImpl<>(contenido, paginacion, total);
+    }
+
+    /**
+     * Página del listado de todos los tópicos, ordenado por ID (descendente salvo "id,asc"). Cada fragmento devuelve
+     * sus primeros desplazamiento + tamaño tópicos, y la página se toma de la mezcla.
+     *
+     * @throws IllegalArgumentException Si la página pasa de foro.fragmentos.max-resultados.
+     */
+    public Page<DatosTopicoFragmentado> listar(Pageable paginacion) {
+        long limite = paginacion.getOffset() + paginacion.getPageSize();
+        if (limite > maxResultados) {
+            throw new IllegalArgumentException("Página demasiado profunda: use listarAnteriores");
+        }
+        var orden = paginacion.getSort().getOrderFor("id");
+        boolean ascendente = orden != null && orden.getDirection() == Sort.Direction.ASC;
+        return duracionDispersion.record(() -> {
+            var parciales = dispersar(fragmento -> new Parcial(leerPropios(fragmento, ascendente, ascendente ? 0 : Long.MAX_VALUE, (int) limite),
+                    contarPropios(fragmento)));
+            var mezcla = mezclar(parciales.stream().map(Parcial::topicos).toList(), ascendente, (int) limite);
+            var contenido = mezcla.subList((int) Math.min(paginacion.getOffset(), mezcla.size()), mezcla.size());
+            return new PageImpl<>(contenido, paginacion, parciales.stream().mapToLong(Parcial::total).sum());
+        });
+    }
+
+    /**
+     * Tópicos anteriores a un ID, del más reciente al más antiguo (paginación por clave, sin límite de profundidad).
+     *
+     * @param antesDe ID del último tópico de la página anterior, o nulo para la primera página.
+     * @param tamano  Tamaño de la página.
+     */
+    public List<DatosTopicoFragmentado> listarAnteriores(Long antesDe, int tamano) {
+        long cursor = antesDe != null ? antesDe : Long.MAX_VALUE;
+        return duracionDispersion.record(() -> mezclar(dispersar(fragmento -> leerPropios(fragmento, false, cursor, tamano)), false, tamano));
+    }
+
+    /**
+     * Lee en orden de ID, a partir del cursor, hasta limite tópicos de las cubetas de las que el fragmento es dueño.
+     */
+    private List<DatosTopicoFragmentado> leerPropios(String fragmento, boolean ascendente, long cursor, int limite) {
+        var sql = "SELECT " + COLUMNAS_TOPICO + " FROM topico WHERE id " + (ascendente ? ">" : "<") + " ? ORDER BY id "
+                + (ascendente ? "ASC" : "DESC") + " LIMIT ?";
+        var jdbc = nodosFragmentos.jdbc(fragmento);
+        var propios = new ArrayList<DatosTopicoFragmentado>(limite);
+        while (propios.size() < limite) {
+            var lote = jdbc.query(sql, TOPICO, cursor, limite);
+            for (DatosTopicoFragmentado topico : lote) {
+                if (fragmento.equals(tablaCubetas.propietario(IdsFragmentados.cubetaDeId(topico.id()))) && propios.size() < limite) {
+                    propios.add(topico);
+                }
+            }
+            if (lote.size() < limite) {
+                break;
+            }
+            cursor = lote.get(lote.size() - 1).id();
+        }
+        return propios;
+    }
+
+    /**
+     * Suma los contadores de las cubetas de las que el fragmento es dueño (cubeta_conteo, una fila por cubeta).
+     */
+    private long contarPropios(String fragmento) {
+        long total = 0;
+        for (var fila : nodosFragmentos.jdbc(fragmento).queryForList("SELECT cubeta, total FROM cubeta_conteo")) {
+            if (fragmento.equals(tablaCubetas.propietario(((Number) fila.get("cubeta")).intValue()))) {
+                total += ((Number) fila.get("total")).longValue();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Ejecuta una consulta en todos los fragmentos a la vez.
+     */
+    private <T> List<T> dispersar(Function<String, T> consulta) {
+        var consultas = nodosFragmentos.nombres().stream()
+                .map(fragmento -> CompletableFuture.supplyAsync(() -> consulta.apply(fragmento), dispersion))
+                .toList();
+        return consultas.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Mezcla listas ya ordenadas por ID, hasta limite elementos.
+     */
+    private static List<DatosTopicoFragmentado> mezclar(List<List<DatosTopicoFragmentado>> listas, boolean ascendente, int limite) {
+        Comparator<Cabeza> porId = Comparator.comparingLong(cabeza -> cabeza.actual().id());
+        var cabezas = new PriorityQueue<>(ascendente ? porId : porId.reversed());
+        listas.stream().filter(lista -> !lista.isEmpty()).forEach(lista -> cabezas.add(new Cabeza(lista, 0)));
+        var resultado = new ArrayList<DatosTopicoFragmentado>(limite);
+        while (!cabezas.isEmpty() && resultado.size() < limite) {
+            var cabeza = cabezas.poll();
+            resultado.add(cabeza.actual());
+            if (cabeza.posicion() + 1 < cabeza.lista().size()) {
+                cabezas.add(new Cabeza(cabeza.lista(), cabeza.posicion() + 1));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Escribe en el fragmento dueño de la cubeta con la cubeta bloqueada en la base de datos principal, de modo que
+     * el rebalanceo de cualquier instancia no la mueve a la vez.
+     */
+    private <T> T escribir(int cubeta, Function<String, T> escritura) {
+        return tablaCubetas.bloquear(cubeta, escritura);
+    }
+
+    /**
+     * Inserta con un ID nuevo de la cubeta, generando otro si otra instancia ya usó el mismo.
+     */
+    private <T> T conIdNuevo(int cubeta, LongFunction<T> insercion) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return insercion.apply(ids.generar(cubeta));
+            } catch (DuplicateKeyException e) {
+                if (intento == INTENTOS_ID) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private record Parcial(List<DatosTopicoFragmentado> topicos, long total) {
+    }
+
+    private record Cabeza(List<DatosTopicoFragmentado> lista, int posicion) {
+
+        DatosTopicoFragmentado actual() {
+            return lista.get(posicion);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.varela.foro.infra.idempotencia;
+
+import java.util.Optional;
+
+/**
+ * Almacén de respuestas asociadas a claves de idempotencia.
+ * Las implementaciones deben estar acotadas en tamaño o expulsar las entradas tras su tiempo de vida.
+ */
+public interface AlmacenIdempotencia {
+
+    /**
+     * Busca la respuesta almacenada para una clave que no haya expirado.
+     *
+     * @param clave La clave de idempotencia.
+     * @return La respuesta almacenada, si existe.
+     */
+    Optional<RespuestaIdempotente> buscar(String clave);
+
+    /**
+     * Guarda la respuesta de una clave. Si la clave ya existe, se conserva la respuesta original.
+     *
+     * @param clave     La clave de idempotencia.
+     * @param respuesta La respuesta a guardar.
+     */
+    void guardar(String clave, RespuestaIdempotente respuesta);
+}
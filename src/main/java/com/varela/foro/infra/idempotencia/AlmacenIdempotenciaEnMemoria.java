@@ -0,0 +1,60 @@
+package com.varela.foro.infra.idempotencia;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Almacén de idempotencia en memoria, acotado por número de entradas (LRU) y por tiempo de vida.
+ * Es el almacén por defecto; se reemplaza por {@link AlmacenIdempotenciaJdbc} con foro.idempotencia.almacen=jdbc.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.idempotencia.almacen", havingValue = "memoria", matchIfMissing = true)
+public class AlmacenIdempotenciaEnMemoria implements AlmacenIdempotencia {
+
+    private final Map<String, RespuestaIdempotente> entradas;
+    private final Duration ttl;
+    private final Clock reloj;
+
+    @Autowired
+    public AlmacenIdempotenciaEnMemoria(@Value("${foro.idempotencia.max-entradas:10000}") int maxEntradas,
+                                        @Value("${foro.idempotencia.ttl:PT24H}") Duration ttl) {
+        this(maxEntradas, ttl, Clock.systemUTC());
+    }
+
+    AlmacenIdempotenciaEnMemoria(int maxEntradas, Duration ttl, Clock reloj) {
+        this.ttl = ttl;
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespuestaIdempotente> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<RespuestaIdempotente> buscar(String clave) {
+        RespuestaIdempotente respuesta = entradas.get(clave);
+        if (respuesta == null) {
+            return Optional.empty();
+        }
+        if (respuesta.fechaCreacion().plus(ttl).isBefore(reloj.instant())) {
+            entradas.remove(clave);
+            return Optional.empty();
+        }
+        return Optional.of(respuesta);
+    }
+
+    @Override
+    public synchronized void guardar(String clave, RespuestaIdempotente respuesta) {
+        entradas.putIfAbsent(clave, respuesta);
+    }
+}
@@ -0,0 +1,57 @@
+package com.varela.foro.infra.idempotencia;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Almacén de idempotencia respaldado por la tabla "idempotencia", compartido entre instancias.
+ * Se activa con foro.idempotencia.almacen=jdbc. Las entradas expiradas se borran periódicamente por lotes.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.idempotencia.almacen", havingValue = "jdbc")
+public class AlmacenIdempotenciaJdbc implements AlmacenIdempotencia {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foro.idempotencia.ttl:PT24H}")
+    private Duration ttl;
+
+    @Override
+    public Optional<RespuestaIdempotente> buscar(String clave) {
+        return jdbcTemplate.query(
+                "SELECT huella, estado, tipo_contenido, ubicacion, cuerpo, fecha_creacion FROM idempotencia WHERE clave = ? AND fecha_creacion > ?",
+                (rs, fila) -> new RespuestaIdempotente(rs.getString("huella"), rs.getInt("estado"), rs.getString("tipo_contenido"),
+                        rs.getString("ubicacion"), rs.getBytes("cuerpo"), rs.getTimestamp("fecha_creacion").toInstant()),
+                clave, Timestamp.from(Instant.now().minus(ttl))).stream().findFirst();
+    }
+
+    @Override
+    public void guardar(String clave, RespuestaIdempotente respuesta) {
+        jdbcTemplate.update(
+                "INSERT IGNORE INTO idempotencia (clave, huella, estado, tipo_contenido, ubicacion, cuerpo, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                clave, respuesta.huella(), respuesta.estado(), respuesta.tipoContenido(), respuesta.ubicacion(),
+                respuesta.cuerpo(), Timestamp.from(respuesta.fechaCreacion()));
+    }
+
+    /**
+     * Elimina las entradas expiradas en lotes pequeños.
+     */
+    @Scheduled(fixedDelayString = "${foro.idempotencia.intervalo-limpieza-ms:600000}")
+    public void eliminarExpiradas() {
+        int filas;
+        do {
+            filas = jdbcTemplate.update("DELETE FROM idempotencia WHERE fecha_creacion < ? LIMIT 1000",
+                    Timestamp.from(Instant.now().minus(ttl)));
+        } while (filas == 1000);
+    }
+}
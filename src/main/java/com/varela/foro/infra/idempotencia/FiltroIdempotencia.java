@@ -0,0 +1,251 @@
+package com.varela.foro.infra.idempotencia;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro que aplica la cabecera Idempotency-Key a POST /topico y POST /usuario.
+ * Si la clave ya tiene una respuesta almacenada con la misma huella, se devuelve la respuesta original sin
+ * llegar al controlador (sin consultas de duplicados ni BCrypt). Las solicitudes concurrentes con la misma
+ * clave esperan a la primera y reciben su respuesta. La clave se guarda por usuario autenticado: dos usuarios
+ * con la misma Idempotency-Key no comparten respuesta.
+ */
+@Component
+public class FiltroIdempotencia extends OncePerRequestFilter {
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotency-Replayed";
+
+    private static final Set<String> RUTAS = Set.of("/topico", "/usuario");
+
+    @Autowired
+    private AlmacenIdempotencia almacenIdempotencia;
+
+    /**
+     * Tiempo máximo que una solicitud duplicada espera a que termine la solicitud en curso.
+     */
+    @Value("${foro.idempotencia.espera-maxima:PT10S}")
+    private Duration esperaMaxima;
+
+    /**
+     * Solicitudes en curso por clave, para agrupar los duplicados concurrentes.
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<RespuestaIdempotente>> enCurso = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !RUTAS.contains(request.getServletPath())
+                || request.getHeader(CABECERA) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        byte[] cuerpo = request.getInputStream().readAllBytes();
+        String clave = calcularClave(request);
+        String huella = calcularHuella(request, cuerpo);
+
+        var almacenada = almacenIdempotencia.buscar(clave);
+        if (almacenada.isPresent()) {
+            responder(almacenada.get(), huella, response);
+            return;
+        }
+
+        var nueva = new CompletableFuture<RespuestaIdempotente>();
+        var existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            esperar(existente, huella, response);
+            return;
+        }
+        // La solicitud anterior pudo terminar entre la búsqueda y el putIfAbsent.
+        almacenada = almacenIdempotencia.buscar(clave);
+        if (almacenada.isPresent()) {
+            enCurso.remove(clave, nueva);
+            nueva.complete(almacenada.get());
+            responder(almacenada.get(), huella, response);
+            return;
+        }
+
+        var respuestaEnCache = new ContentCachingResponseWrapper(response);
+        RespuestaIdempotente resultado = null;
+        try {
+            filterChain.doFilter(new SolicitudConCuerpo(request, cuerpo), respuestaEnCache);
+            int estado = respuestaEnCache.getStatus();
+            if (estado >= 200 && estado < 300) {
+                resultado = new RespuestaIdempotente(huella, estado, respuestaEnCache.getContentType(),
+                        respuestaEnCache.getHeader(HttpHeaders.LOCATION), respuestaEnCache.getContentAsByteArray(), Instant.now());
+                almacenIdempotencia.guardar(clave, resultado);
+            }
+        } finally {
+            // Los errores no se almacenan: los duplicados en espera reciben null y el cliente puede reintentar.
+            enCurso.remove(clave, nueva);
+            nueva.complete(resultado);
+            respuestaEnCache.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Espera el resultado de la solicitud en curso con la misma clave y lo devuelve.
+     */
+    private void esperar(CompletableFuture<RespuestaIdempotente> enEspera, String huella, HttpServletResponse response) throws IOException {
+        try {
+            var resultado = enEspera.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            if (resultado == null) {
+                response.sendError(HttpStatus.CONFLICT.value(), "La solicitud original con esta Idempotency-Key falló; reintente");
+                return;
+            }
+            responder(resultado, huella, response);
+        } catch (TimeoutException e) {
+            response.sendError(HttpStatus.CONFLICT.value(), "Solicitud con la misma Idempotency-Key en curso");
+        } catch (ExecutionException e) {
+            response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+    }
+
+    /**
+     * Escribe la respuesta almacenada, o 422 si la clave se reutiliza con una solicitud distinta.
+     */
+    private void responder(RespuestaIdempotente almacenada, String huella, HttpServletResponse response) throws IOException {
+        if (!almacenada.huella().equals(huella)) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Idempotency-Key reutilizada con otra solicitud");
+            return;
+        }
+        response.setStatus(almacenada.estado());
+        if (almacenada.tipoContenido() != null) {
+            response.setContentType(almacenada.tipoContenido());
+        }
+        if (almacenada.ubicacion() != null) {
+            response.setHeader(HttpHeaders.LOCATION, almacenada.ubicacion());
+        }
+        response.setHeader(CABECERA_REPETIDA, "true");
+        if (almacenada.cuerpo() != null) {
+            response.setContentLength(almacenada.cuerpo().length);
+            response.getOutputStream().write(almacenada.cuerpo());
+        }
+    }
+
+    /**
+     * Calcula la clave de almacenamiento: la ruta más el SHA-256 del usuario autenticado y la Idempotency-Key,
+     * para que la clave no supere el tamaño de la columna aunque el email o la cabecera sean largos.
+     */
+    private String calcularClave(HttpServletRequest request) {
+        var autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        String sujeto = autenticacion == null || autenticacion instanceof AnonymousAuthenticationToken ? "" : autenticacion.getName();
+        return request.getServletPath() + ":" + sha256(sujeto + "\n" + request.getHeader(CABECERA));
+    }
+
+    /**
+     * Calcula la huella SHA-256 del método, la ruta y el cuerpo de la solicitud.
+     */
+    private String calcularHuella(HttpServletRequest request, byte[] cuerpo) {
+        MessageDigest digest = nuevoDigest();
+        digest.update((request.getMethod() + " " + request.getServletPath() + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(cuerpo);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(String texto) {
+        return HexFormat.of().formatHex(nuevoDigest().digest(texto.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest nuevoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Envoltorio que permite al controlador volver a leer el cuerpo ya consumido por el filtro.
+     */
+    private static class SolicitudConCuerpo extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        SolicitudConCuerpo(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
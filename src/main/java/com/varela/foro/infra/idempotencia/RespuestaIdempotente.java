@@ -0,0 +1,16 @@
+package com.varela.foro.infra.idempotencia;
+
+import java.time.Instant;
+
+/**
+ * Representa una respuesta almacenada para una clave de idempotencia.
+ * Guarda la huella de la solicitud original para detectar reutilizaciones de la clave con otro contenido.
+ */
+public record RespuestaIdempotente(
+        String huella,
+        int estado,
+        String tipoContenido,
+        String ubicacion,
+        byte[] cuerpo,
+        Instant fechaCreacion) {
+}
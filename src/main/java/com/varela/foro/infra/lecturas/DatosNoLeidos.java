@@ -0,0 +1,14 @@
+package com.varela.foro.infra.lecturas;
+
+import java.util.Map;
+
+/**
+ * Representa el número de tópicos no leídos de un usuario, en total y por curso.
+ *
+ * @param total    Total de tópicos no leídos.
+ * @param porCurso Tópicos no leídos por ID de curso.
+ */
+public record DatosNoLeidos(
+        long total,
+        Map<Long, Long> porCurso) {
+}
@@ -0,0 +1,325 @@
+package com.varela.foro.infra.lecturas;
+
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicosPurgados;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Registro de tópicos leídos por usuario, guardado como un bitmap comprimido (Roaring) de IDs de tópico.
+ * Evita una fila por usuario y tópico: cada usuario tiene un único blob en "lectura_usuario", escrito en diferido.
+ * Junto con un índice en memoria de los tópicos de cada curso, responde los conteos de no leídos sin consultar la base de datos.
+ * Al escribir, el blob se combina (OR) con el guardado bajo SELECT ... FOR UPDATE, de modo que varias instancias
+ * con el mismo usuario en memoria no se pisan las lecturas.
+ */
+@Component
+public class RegistroDeLecturas {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${foro.lecturas.inactividad:PT30M}")
+    private Duration inactividad;
+
+    /**
+     * Tópicos leídos por usuario cargados en memoria.
+     */
+    private final Map<Long, LecturasUsuario> lecturas = new ConcurrentHashMap<>();
+
+    /**
+     * IDs de tópicos por ID de curso.
+     */
+    private final Map<Long, RoaringBitmap> topicosPorCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Carga el índice de tópicos por curso al arrancar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndice() {
+        jdbcTemplate.query("SELECT id, curso_id FROM topico WHERE curso_id IS NOT NULL", rs -> {
+            agregarTopico(rs.getLong("curso_id"), rs.getLong("id"));
+        });
+    }
+
+    /**
+     * Mantiene el índice de tópicos por curso a partir de las modificaciones confirmadas.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTopico(TopicoModificado modificacion) {
+        var topico = modificacion.topico();
+        quitarTopico(topico.getId());
+        if (modificacion.tipo() != TipoModificacionTopico.ELIMINADO && topico.getCurso() != null) {
+            agregarTopico(topico.getCurso().getId(), topico.getId());
+        }
+    }
+
+    /**
+     * Quita del índice de tópicos por curso los tópicos borrados al purgar un usuario.
+     *
+     * @param purgados Los tópicos purgados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alPurgarTopicos(TopicosPurgados purgados) {
+        purgados.ids().forEach(this::quitarTopico);
+    }
+
+    private void quitarTopico(long topicoId) {
+        topicosPorCurso.values().forEach(topicos -> {
+            synchronized (topicos) {
+                topicos.remove(Math.toIntExact(topicoId));
+            }
+        });
+    }
+
+    private void agregarTopico(Long cursoId, long topicoId) {
+        var topicos = topicosPorCurso.computeIfAbsent(cursoId, id -> new RoaringBitmap());
+        synchronized (topicos) {
+            topicos.add(Math.toIntExact(topicoId));
+        }
+    }
+
+    /**
+     * Marca un tópico como leído por el usuario.
+     *
+     * @param usuarioId El ID del usuario.
+     * @param topicoId  El ID del tópico.
+     */
+    public void marcarLeido(Long usuarioId, Long topicoId) {
+        while (true) {
+            var lecturasUsuario = obtener(usuarioId);
+            synchronized (lecturasUsuario) {
+                // Si se liberó entre obtener() y el cerrojo, la marca se perdería: se vuelve a cargar.
+                if (lecturasUsuario.liberado) {
+                    continue;
+                }
+                if (lecturasUsuario.leidos.checkedAdd(Math.toIntExact(topicoId))) {
+                    lecturasUsuario.sucio = true;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Devuelve un filtro que deja pasar solo los tópicos no leídos por el usuario.
+     *
+     * @param usuarioId El ID del usuario.
+     * @return El predicado sobre IDs de tópico.
+     */
+    public Predicate<Long> noLeidos(Long usuarioId) {
+        var lecturasUsuario = obtener(usuarioId);
+        RoaringBitmap copia;
+        synchronized (lecturasUsuario) {
+            copia = lecturasUsuario.leidos.clone();
+        }
+        return topicoId -> !copia.contains(Math.toIntExact(topicoId));
+    }
+
+    /**
+     * Cuenta los tópicos no leídos por el usuario, en total y por curso.
+     *
+     * @param usuarioId El ID del usuario.
+     * @return Los conteos de no leídos.
+     */
+    public DatosNoLeidos contarNoLeidos(Long usuarioId) {
+        var lecturasUsuario = obtener(usuarioId);
+        RoaringBitmap leidos;
+        synchronized (lecturasUsuario) {
+            leidos = lecturasUsuario.leidos.clone();
+        }
+        Map<Long, Long> porCurso = new HashMap<>();
+        long total = 0;
+        for (var entrada : topicosPorCurso.entrySet()) {
+            long noLeidos;
+            synchronized (entrada.getValue()) {
+                noLeidos = entrada.getValue().getLongCardinality() - RoaringBitmap.andCardinality(entrada.getValue(), leidos);
+            }
+            if (noLeidos > 0) {
+                porCurso.put(entrada.getKey(), noLeidos);
+                total += noLeidos;
+            }
+        }
+        return new DatosNoLeidos(total, porCurso);
+    }
+
+    private LecturasUsuario obtener(Long usuarioId) {
+        var lecturasUsuario = lecturas.get(usuarioId);
+        if (lecturasUsuario == null) {
+            // La consulta se hace fuera de computeIfAbsent para no bloquear el bin del mapa durante el JDBC;
+            // si dos hilos cargan a la vez, se queda la primera copia.
+            var cargadas = new LecturasUsuario(leer(usuarioId, false));
+            lecturasUsuario = lecturas.putIfAbsent(usuarioId, cargadas);
+            if (lecturasUsuario == null) {
+                lecturasUsuario = cargadas;
+            }
+        }
+        lecturasUsuario.ultimoAcceso = System.nanoTime();
+        return lecturasUsuario;
+    }
+
+    /**
+     * Lee el bitmap guardado de un usuario, o uno vacío si no tiene.
+     *
+     * @param bloquear Si la fila debe leerse con FOR UPDATE (dentro de una transacción).
+     */
+    private RoaringBitmap leer(Long usuarioId, boolean bloquear) {
+        var blobs = jdbcTemplate.query("SELECT leidos FROM lectura_usuario WHERE usuario_id = ?" + (bloquear ? " FOR UPDATE" : ""),
+                (rs, fila) -> rs.getBytes("leidos"), usuarioId);
+        var leidos = new RoaringBitmap();
+        if (!blobs.isEmpty()) {
+            try {
+                leidos.deserialize(new DataInputStream(new ByteArrayInputStream(blobs.get(0))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return leidos;
+    }
+
+    /**
+     * Escribe en diferido los bitmaps modificados y libera de memoria los usuarios inactivos.
+     */
+    @Scheduled(fixedDelayString = "${foro.lecturas.intervalo-escritura-ms:10000}")
+    public void escribirPendientes() {
+        long limite = System.nanoTime() - inactividad.toNanos();
+        for (var entrada : lecturas.entrySet()) {
+            var lecturasUsuario = entrada.getValue();
+            RoaringBitmap instantanea = null;
+            synchronized (lecturasUsuario) {
+                if (lecturasUsuario.sucio) {
+                    instantanea = lecturasUsuario.leidos.clone();
+                    lecturasUsuario.sucio = false;
+                }
+            }
+            if (instantanea != null) {
+                RoaringBitmap guardados;
+                try {
+                    guardados = guardar(entrada.getKey(), instantanea);
+                } catch (DataIntegrityViolationException e) {
+                    // El usuario fue purgado entre tanto: sus lecturas ya no importan.
+                    synchronized (lecturasUsuario) {
+                        lecturasUsuario.liberado = true;
+                        lecturas.remove(entrada.getKey(), lecturasUsuario);
+                    }
+                    continue;
+                } catch (RuntimeException e) {
+                    synchronized (lecturasUsuario) {
+                        lecturasUsuario.sucio = true;
+                    }
+                    continue;
+                }
+                // Se incorporan las lecturas que otra instancia guardó para el mismo usuario.
+                synchronized (lecturasUsuario) {
+                    lecturasUsuario.leidos.or(guardados);
+                    lecturasUsuario.leidos.runOptimize();
+                }
+            }
+            liberar(entrada.getKey(), lecturasUsuario, limite);
+        }
+    }
+
+    /**
+     * Libera de memoria un usuario inactivo sin cambios pendientes. Se hace bajo su cerrojo y se marca como
+     * liberado, para que un marcarLeido que ya lo tenía en mano vuelva a cargarlo en lugar de perder la marca.
+     */
+    private void liberar(Long usuarioId, LecturasUsuario lecturasUsuario, long limite) {
+        synchronized (lecturasUsuario) {
+            if (lecturasUsuario.ultimoAcceso < limite && !lecturasUsuario.sucio) {
+                lecturasUsuario.liberado = true;
+                lecturas.remove(usuarioId, lecturasUsuario);
+            }
+        }
+    }
+
+    /**
+     * Guarda el bitmap combinándolo con el que ya está en la base de datos, leído con FOR UPDATE.
+     *
+     * @return El bitmap guardado.
+     */
+    private RoaringBitmap guardar(Long usuarioId, RoaringBitmap instantanea) {
+        try {
+            return combinarYGuardar(usuarioId, instantanea);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia insertó la fila a la vez; ahora existe y se combina con ella.
+            return combinarYGuardar(usuarioId, instantanea);
+        }
+    }
+
+    private RoaringBitmap combinarYGuardar(Long usuarioId, RoaringBitmap instantanea) {
+        return transactionTemplate.execute(estado -> {
+            var ahora = Timestamp.from(Instant.now());
+            var guardados = leer(usuarioId, true);
+            guardados.or(instantanea);
+            guardados.runOptimize();
+            var blob = serializar(guardados);
+            int filas = jdbcTemplate.update("UPDATE lectura_usuario SET leidos = ?, fecha_actualizacion = ? WHERE usuario_id = ?",
+                    blob, ahora, usuarioId);
+            if (filas == 0) {
+                jdbcTemplate.update("INSERT INTO lectura_usuario (usuario_id, leidos, fecha_actualizacion) VALUES (?, ?, ?)",
+                        usuarioId, blob, ahora);
+            }
+            return guardados;
+        });
+    }
+
+    private static byte[] serializar(RoaringBitmap bitmap) {
+        var salida = new ByteArrayOutputStream(bitmap.serializedSizeInBytes());
+        try {
+            bitmap.serialize(new DataOutputStream(salida));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        escribirPendientes();
+    }
+
+    /**
+     * Bitmap de tópicos leídos de un usuario y su estado de escritura.
+     */
+    private static class LecturasUsuario {
+
+        private final RoaringBitmap leidos;
+        private boolean sucio;
+        private boolean liberado;
+        private volatile long ultimoAcceso = System.nanoTime();
+
+        private LecturasUsuario(RoaringBitmap leidos) {
+            this.leidos = leidos;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.varela.foro.infra.moderacion;
+
+/**
+ * Se lanza cuando se pide una moderación masiva mientras otra sigue en curso.
+ */
+public class ModeracionEnCursoException extends RuntimeException {
+
+    public ModeracionEnCursoException() {
+        super("Ya hay una moderacion masiva en curso");
+    }
+}
@@ -0,0 +1,219 @@
+package com.varela.foro.infra.moderacion;
+
+import com.varela.foro.infra.estadisticas.EstadisticasCursos;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.DatosFiltroModeracion;
+import com.varela.foro.modelo.topico.DatosResultadoModeracion;
+import com.varela.foro.modelo.topico.TopicosModerados;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Cambia el estado de muchos tópicos a la vez sin cargarlos como entidades.
+ * Trabaja por lotes: cada lote bloquea sus filas, las actualiza con un único UPDATE, ajusta curso_stats y publica
+ * un solo evento TopicosModerados, todo en una transacción corta. Entre lotes hace una pausa al menos tan larga como
+ * el propio lote, de modo que la moderación nunca ocupa más de la mitad del tiempo de base de datos, y solo se
+ * permite una moderación a la vez. Como se ejecuta en el hilo de la petición, cada llamada procesa como mucho
+ * max-filas tópicos: la moderación por filtro devuelve entonces el ID desde el que continuar.
+ */
+@Component
+public class ModeracionTopicos {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EstadisticasCursos estadisticasCursos;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${foro.moderacion.tamano-lote:200}")
+    private int tamanoLote;
+
+    /**
+     * Pausa mínima en milisegundos entre lotes.
+     */
+    @Value("${foro.moderacion.pausa-ms:50}")
+    private long pausaMs;
+
+    /**
+     * Máximo de tópicos seleccionados por llamada, que acota lo que la petición ocupa su hilo.
+     */
+    @Value("${foro.moderacion.max-filas:1000}")
+    private int maxFilas;
+
+    private final Semaphore enCurso = new Semaphore(1);
+
+    /**
+     * Aplica el estado a los tópicos indicados que no lo tengan ya. Los IDs inexistentes se ignoran.
+     *
+     * @param ids    IDs de los tópicos.
+     * @param status El estado nuevo.
+     * @return El resultado de la moderación.
+     * @throws ModeracionEnCursoException Si ya hay otra moderación en curso.
+     */
+    public DatosResultadoModeracion moderar(List<Long> ids, StatusTopico status) {
+        var distintos = ids.stream().distinct().toList();
+        return ejecutar(status, lote -> {
+            int inicio = lote * tamanoLote;
+            if (inicio >= distintos.size()) {
+                return null;
+            }
+            var parte = distintos.subList(inicio, Math.min(inicio + tamanoLote, distintos.size()));
+            return jdbcTemplate.queryForList("SELECT id, curso_id, status FROM topico WHERE id IN (" + marcadores(parte.size())
+                    + ") AND status <> ? FOR UPDATE", concatenar(parte, List.of(status.ordinal())));
+        });
+    }
+
+    /**
+     * Aplica el estado a los tópicos que cumplen el filtro y no lo tengan ya, recorriéndolos por ID desde
+     * filtro.desdeId. Se detiene tras max-filas tópicos; el resultado indica entonces el siguienteId.
+     *
+     * @param filtro El filtro de tópicos.
+     * @param status El estado nuevo.
+     * @return El resultado de la moderación.
+     * @throws ModeracionEnCursoException Si ya hay otra moderación en curso.
+     */
+    public DatosResultadoModeracion moderar(DatosFiltroModeracion filtro, StatusTopico status) {
+        var condiciones = new StringBuilder(" AND status <> ?");
+        var parametros = new ArrayList<Object>(List.of(status.ordinal()));
+        if (filtro.cursoId() != null) {
+            condiciones.append(" AND curso_id = ?");
+            parametros.add(filtro.cursoId());
+        }
+        if (filtro.status() != null) {
+            condiciones.append(" AND status = ?");
+            parametros.add(filtro.status().ordinal());
+        }
+        if (filtro.antiguedadDias() != null) {
+            condiciones.append(" AND fecha_creacion < ?");
+            parametros.add(Timestamp.valueOf(LocalDateTime.now().minusDays(filtro.antiguedadDias())));
+        }
+        var consulta = "SELECT id, curso_id, status FROM topico WHERE id > ?" + condiciones + " ORDER BY id LIMIT ? FOR UPDATE";
+        long[] ultimo = {filtro.desdeId() != null ? filtro.desdeId() : 0};
+        int[] seleccionadas = {0};
+        var resultado = ejecutar(status, lote -> {
+            int limite = Math.min(tamanoLote, maxFilas - seleccionadas[0]);
+            if (limite <= 0) {
+                return null;
+            }
+            var argumentos = new ArrayList<Object>();
+            argumentos.add(ultimo[0]);
+            argumentos.addAll(parametros);
+            argumentos.add(limite);
+            var filas = jdbcTemplate.queryForList(consulta, argumentos.toArray());
+            if (filas.isEmpty()) {
+                return null;
+            }
+            ultimo[0] = ((Number) filas.get(filas.size() - 1).get("id")).longValue();
+            seleccionadas[0] += filas.size();
+            return filas;
+        });
+        if (seleccionadas[0] < maxFilas) {
+            return resultado;
+        }
+        return new DatosResultadoModeracion(resultado.actualizados(), resultado.lotes(), resultado.anteriores(), ultimo[0]);
+    }
+
+    /**
+     * Recorre los lotes que entrega el selector hasta que devuelve nulo, cada uno en su propia transacción.
+     */
+    private DatosResultadoModeracion ejecutar(StatusTopico status, SelectorDeLote selector) {
+        if (!enCurso.tryAcquire()) {
+            throw new ModeracionEnCursoException();
+        }
+        try {
+            Map<StatusTopico, Long> anteriores = new EnumMap<>(StatusTopico.class);
+            long actualizados = 0;
+            int lotes = 0;
+            while (true) {
+                int numero = lotes;
+                long inicio = System.nanoTime();
+                Integer filas = transactionTemplate.execute(estado -> aplicarLote(selector.seleccionar(numero), status, anteriores));
+                if (filas == null) {
+                    break;
+                }
+                actualizados += filas;
+                lotes++;
+                pausar((System.nanoTime() - inicio) / 1_000_000);
+            }
+            return new DatosResultadoModeracion(actualizados, lotes, anteriores, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Moderacion interrumpida", e);
+        } finally {
+            enCurso.release();
+        }
+    }
+
+    /**
+     * Actualiza las filas ya bloqueadas de un lote con un único UPDATE y publica su evento.
+     *
+     * @return El número de tópicos actualizados, o nulo si no quedan lotes.
+     */
+    private Integer aplicarLote(List<Map<String, Object>> filas, StatusTopico status, Map<StatusTopico, Long> anteriores) {
+        if (filas == null) {
+            return null;
+        }
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        var ids = filas.stream().map(fila -> ((Number) fila.get("id")).longValue()).toList();
+        int actualizados = jdbcTemplate.update("UPDATE topico SET status = ? WHERE id IN (" + marcadores(ids.size()) + ")",
+                concatenar(List.of(status.ordinal()), ids));
+        for (var fila : filas) {
+            var anterior = StatusTopico.values()[((Number) fila.get("status")).intValue()];
+            var cursoId = fila.get("curso_id") != null ? ((Number) fila.get("curso_id")).longValue() : null;
+            estadisticasCursos.ajustar(cursoId, anterior, -1);
+            estadisticasCursos.ajustar(cursoId, status, 1);
+            anteriores.merge(anterior, 1L, Long::sum);
+        }
+        eventPublisher.publishEvent(new TopicosModerados(ids, status));
+        return actualizados;
+    }
+
+    /**
+     * Espera al menos tanto como tardó el lote, para ceder la base de datos al tráfico normal.
+     */
+    private void pausar(long duracionLoteMs) throws InterruptedException {
+        long pausa = Math.max(pausaMs, duracionLoteMs);
+        if (pausa > 0) {
+            Thread.sleep(pausa);
+        }
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(",", Collections.nCopies(cantidad, "?"));
+    }
+
+    private static Object[] concatenar(List<?> primeros, List<?> resto) {
+        var valores = new ArrayList<Object>(primeros);
+        valores.addAll(resto);
+        return valores.toArray();
+    }
+
+    /**
+     * Selecciona y bloquea las filas del lote indicado (empezando en 0), o devuelve nulo si no quedan lotes.
+     */
+    @FunctionalInterface
+    private interface SelectorDeLote {
+        List<Map<String, Object>> seleccionar(int lote);
+    }
+}
@@ -0,0 +1,83 @@
+package com.varela.foro.infra.nativo;
+
+import com.varela.foro.infra.eventos.EventoTopico;
+import com.varela.foro.infra.idempotencia.RespuestaIdempotente;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Pistas para la imagen nativa de GraalVM que Spring AOT no puede deducir por sí solo.
+ * Las entidades JPA ya las registra Spring ORM a partir de las clases gestionadas; aquí se añaden:
+ * los records Datos* (serializados con Jackson detrás de ResponseEntity sin tipo, o construidos por las proyecciones
+ * JPQL "SELECT new"), las clases internas de java-jwt que Jackson instancia por reflexión, y los recursos que se cargan
+ * por nombre (migraciones por proveedor y ehcache.xml).
+ */
+public class ForoRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String PAQUETE_BASE = "com.varela.foro";
+
+    /**
+     * Serializadores y contenedores de claims de java-jwt, resueltos por Jackson mediante reflexión.
+     */
+    private static final List<String> CLASES_JWT = List.of(
+            "com.auth0.jwt.impl.BasicHeader",
+            "com.auth0.jwt.impl.ClaimsHolder",
+            "com.auth0.jwt.impl.ClaimsSerializer",
+            "com.auth0.jwt.impl.HeaderClaimsHolder",
+            "com.auth0.jwt.impl.HeaderDeserializer",
+            "com.auth0.jwt.impl.HeaderSerializer",
+            "com.auth0.jwt.impl.JsonNodeClaim",
+            "com.auth0.jwt.impl.PayloadClaimsHolder",
+            "com.auth0.jwt.impl.PayloadDeserializer",
+            "com.auth0.jwt.impl.PayloadImpl",
+            "com.auth0.jwt.impl.PayloadSerializer"
+    );
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> tipo : tiposSerializados(classLoader)) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(), tipo);
+            hints.reflection().registerType(tipo, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        }
+        for (String clase : CLASES_JWT) {
+            hints.reflection().registerType(TypeReference.of(clase), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("db/vendor/*/*.sql");
+        hints.resources().registerPattern("db/fragmento/*.sql");
+        hints.resources().registerPattern("ehcache.xml");
+    }
+
+    /**
+     * Busca en el classpath los tipos Datos* de la aplicación y añade los demás tipos que se serializan a JSON.
+     */
+    private List<Class<?>> tiposSerializados(ClassLoader classLoader) {
+        var escaner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definicion) {
+                return definicion.getMetadata().isIndependent();
+            }
+        };
+        escaner.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(".*\\.Datos[^.$]*")));
+        List<Class<?>> tipos = new ArrayList<>();
+        for (var definicion : escaner.findCandidateComponents(PAQUETE_BASE)) {
+            tipos.add(ClassUtils.resolveClassName(definicion.getBeanClassName(), classLoader));
+        }
+        tipos.add(EventoTopico.class);
+        tipos.add(RespuestaIdempotente.class);
+        return tipos;
+    }
+}
@@ -0,0 +1,20 @@
+package com.varela.foro.infra.notificaciones;
+
+import java.time.LocalDateTime;
+
+/**
+ * Actividad de un tópico incluida en un resumen.
+ *
+ * @param topicoId                 El ID del tópico.
+ * @param titulo                   El título del tópico.
+ * @param respuestasAlTopico       Respuestas nuevas al tópico, si el destinatario es su autor.
+ * @param respuestasATusRespuestas Respuestas nuevas a respuestas del destinatario.
+ * @param ultimaRespuesta          Fecha de la última respuesta incluida.
+ */
+public record ActividadTopico(
+        Long topicoId,
+        String titulo,
+        int respuestasAlTopico,
+        int respuestasATusRespuestas,
+        LocalDateTime ultimaRespuesta) {
+}
@@ -0,0 +1,15 @@
+package com.varela.foro.infra.notificaciones;
+
+/**
+ * Envía los resúmenes de notificaciones. La entrega es al menos una vez: tras un fallo, el tramo completo se vuelve
+ * a enviar con los mismos IDs de resumen, por lo que las implementaciones deberían ser idempotentes por ID.
+ */
+public interface EmisorResumenes {
+
+    /**
+     * Envía un resumen. Si lanza una excepción, el tramo se reintenta en el siguiente ciclo.
+     *
+     * @param resumen El resumen.
+     */
+    void enviar(ResumenNotificaciones resumen);
+}
@@ -0,0 +1,67 @@
+package com.varela.foro.infra.notificaciones;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Emisor que deja cada resumen como un mensaje .eml en un directorio de recogida, en lugar de enviarlo por SMTP.
+ * Es el emisor por defecto; el fichero se nombra con el ID del resumen, de modo que un reenvío lo sobrescribe.
+ */
+@Component
+@ConditionalOnProperty(name = "foro.notificaciones.emisor", havingValue = "archivo", matchIfMissing = true)
+public class EmisorResumenesArchivo implements EmisorResumenes {
+
+    private final Path directorio;
+    private final String remitente;
+
+    public EmisorResumenesArchivo(@Value("${foro.notificaciones.directorio:${java.io.tmpdir}/foro-resumenes}") Path directorio,
+                                  @Value("${foro.notificaciones.remitente:no-responder@foro.com}") String remitente) {
+        this.directorio = directorio;
+        this.remitente = remitente;
+    }
+
+    @Override
+    public void enviar(ResumenNotificaciones resumen) {
+        try {
+            Files.createDirectories(directorio);
+            var temporal = Files.createTempFile(directorio, resumen.id(), ".tmp");
+            Files.writeString(temporal, mensaje(resumen), StandardCharsets.UTF_8);
+            Files.move(temporal, directorio.resolve(resumen.id() + ".eml"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el resumen " + resumen.id(), e);
+        }
+    }
+
+    private String mensaje(ResumenNotificaciones resumen) {
+        var texto = new StringBuilder()
+                .append("Message-ID: <").append(resumen.id()).append("@foro>\r\n")
+                .append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append("\r\n")
+                .append("From: ").append(remitente).append("\r\n")
+                .append("To: ").append(resumen.email()).append("\r\n")
+                .append("Subject: Actividad nueva en el foro\r\n")
+                .append("Content-Type: text/plain; charset=UTF-8\r\n\r\n")
+                .append("Hola ").append(resumen.nombre()).append(",\r\n\r\n");
+        for (ActividadTopico actividad : resumen.topicos()) {
+            texto.append("- ").append(actividad.titulo()).append(" (tópico ").append(actividad.topicoId()).append("): ");
+            if (actividad.respuestasAlTopico() > 0) {
+                texto.append(actividad.respuestasAlTopico()).append(" respuestas nuevas");
+            }
+            if (actividad.respuestasATusRespuestas() > 0) {
+                texto.append(actividad.respuestasAlTopico() > 0 ? ", " : "")
+                        .append(actividad.respuestasATusRespuestas()).append(" respuestas a tus respuestas");
+            }
+            texto.append("\r\n");
+        }
+        return texto.toString();
+    }
+}
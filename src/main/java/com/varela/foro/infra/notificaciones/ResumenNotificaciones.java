@@ -0,0 +1,21 @@
+package com.varela.foro.infra.notificaciones;
+
+import java.util.List;
+
+/**
+ * Resumen de la actividad nueva para un usuario.
+ *
+ * @param id       Identificador estable del resumen: se repite si el mismo tramo se vuelve a enviar tras un fallo,
+ *                 para que el emisor pueda descartar duplicados.
+ * @param usuarioId El ID del destinatario.
+ * @param nombre   El nombre del destinatario.
+ * @param email    El email del destinatario.
+ * @param topicos  La actividad por tópico, en orden de ID.
+ */
+public record ResumenNotificaciones(
+        String id,
+        Long usuarioId,
+        String nombre,
+        String email,
+        List<ActividadTopico> topicos) {
+}
@@ -0,0 +1,346 @@
+package com.varela.foro.infra.notificaciones;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Envía a los autores un resumen de las respuestas nuevas a sus tópicos y a sus respuestas, fuera de las solicitudes.
+ * Recorre respuesta por ID desde su checkpoint, en lotes, y acumula en memoria la actividad por usuario y tópico hasta
+ * un máximo de respuestas por tramo; después envía un resumen por usuario y avanza el checkpoint.
+ * Antes de enviar se guarda el final del tramo (pendiente_hasta): si el envío falla o la aplicación se reinicia,
+ * el mismo tramo se vuelve a leer y se reenvía con los mismos IDs de resumen.
+ * Un ID de respuesta se asigna al insertar pero solo es visible al confirmar, así que el checkpoint puede adelantar a
+ * una transacción lenta: los IDs que faltan se guardan como huecos (notificacion_hueco) y las respuestas que aparecen
+ * después se incluyen en el siguiente tramo, hasta que caduca su espera (rollback).
+ * Con varias instancias, solo la que reclama el checkpoint (bloqueándolo con SELECT ... FOR UPDATE) envía resúmenes.
+ */
+@Component
+public class ResumidorRespuestas {
+
+    private static final String TRABAJO = "resumen-respuestas";
+
+    private static final String LEER_RESPUESTAS = """
+            SELECT r.id, r.topico_id, r.autor_id, r.fecha_creacion, t.titulo, t.autor_id AS autor_topico, p.autor_id AS autor_padre
+            FROM respuesta r
+            JOIN topico t ON t.id = r.topico_id
+            LEFT JOIN respuesta p ON p.id = r.respuesta_padre_id
+            WHERE r.id > ? AND r.id <= ?
+            ORDER BY r.id LIMIT ?
+            """;
+
+    private static final String LEER_HUECOS = """
+            SELECT r.id, r.topico_id, r.autor_id, r.fecha_creacion, t.titulo, t.autor_id AS autor_topico, p.autor_id AS autor_padre
+            FROM respuesta r
+            JOIN topico t ON t.id = r.topico_id
+            LEFT JOIN respuesta p ON p.id = r.respuesta_padre_id
+            WHERE r.id IN (%s)
+            ORDER BY r.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmisorResumenes emisorResumenes;
+
+    /**
+     * Respuestas leídas por consulta.
+     */
+    @Value("${foro.notificaciones.tamano-lote:500}")
+    private int tamanoLote;
+
+    /**
+     * Máximo de respuestas acumuladas en memoria antes de enviar los resúmenes del tramo.
+     */
+    @Value("${foro.notificaciones.max-respuestas:5000}")
+    private int maxRespuestas;
+
+    /**
+     * Tiempo que se sigue buscando un ID que falta; pasado ese tiempo se da por una transacción revertida.
+     */
+    @Value("${foro.notificaciones.espera-huecos:PT5M}")
+    private Duration esperaHuecos;
+
+    /**
+     * Duración del reclamo del checkpoint; se renueva con cada tramo y debe superar con margen lo que tarda uno.
+     */
+    @Value("${foro.notificaciones.duracion-reclamo:PT5M}")
+    private Duration duracionReclamo;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    private final Counter respuestasLeidas;
+    private final Counter resumenesEnviados;
+    private final Counter errores;
+    private final Timer duracionTramo;
+
+    public ResumidorRespuestas(MeterRegistry meterRegistry) {
+        this.respuestasLeidas = Counter.builder("foro.notificaciones.respuestas")
+                .description("Respuestas incluidas en los resúmenes")
+                .register(meterRegistry);
+        this.resumenesEnviados = Counter.builder("foro.notificaciones.resumenes")
+                .description("Resúmenes entregados al emisor")
+                .register(meterRegistry);
+        this.errores = Counter.builder("foro.notificaciones.errores")
+                .description("Tramos cuyo envío falló y se reintentarán")
+                .register(meterRegistry);
+        this.duracionTramo = Timer.builder("foro.notificaciones.tramo")
+                .description("Duración de la lectura y el envío de un tramo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Procesa las respuestas nuevas tramo a tramo hasta alcanzar las más recientes.
+     *
+     * @return Número de resúmenes enviados.
+     */
+    @Scheduled(fixedDelayString = "${foro.notificaciones.intervalo-ms:300000}", initialDelayString = "${foro.notificaciones.intervalo-ms:300000}")
+    public synchronized int resumir() {
+        int enviados = 0;
+        try {
+            if (!reclamar()) {
+                return 0;
+            }
+            jdbcTemplate.update("DELETE FROM notificacion_hueco WHERE trabajo = ? AND fecha_deteccion < ?",
+                    TRABAJO, Timestamp.from(Instant.now().minus(esperaHuecos)));
+            Integer tramo;
+            while ((tramo = duracionTramo.record(this::procesarTramo)) != null) {
+                enviados += tramo;
+            }
+        } catch (ReclamoPerdidoException e) {
+            // Otra instancia tomó el checkpoint; el tramo en curso lo reenviará ella con los mismos IDs.
+        } catch (RuntimeException e) {
+            // El checkpoint no avanza: el tramo pendiente se reenvía en el siguiente ciclo.
+            errores.increment();
+        }
+        return enviados;
+    }
+
+    /**
+     * Lee, acumula y envía un tramo: las respuestas de huecos anteriores que ya son visibles y las nuevas.
+     *
+     * @return Número de resúmenes enviados, o nulo si no había respuestas nuevas.
+     */
+    private Integer procesarTramo() {
+        var checkpoint = leerCheckpoint();
+        long desde = checkpoint.ultimoId();
+        boolean reenvio = checkpoint.pendienteHasta() != null;
+        long limite = reenvio ? checkpoint.pendienteHasta() : Long.MAX_VALUE;
+
+        Map<Long, Map<Long, Acumulado>> porUsuario = new TreeMap<>();
+        var encontrados = leerHuecos(porUsuario);
+        var huecos = new ArrayList<Object[]>();
+        var ahora = Timestamp.from(Instant.now());
+        long hasta = desde;
+        int leidas = encontrados.size();
+        boolean alcanzadas = false;
+        while (!alcanzadas && leidas < maxRespuestas) {
+            int limiteLote = Math.min(tamanoLote, maxRespuestas - leidas);
+            var lote = jdbcTemplate.queryForList(LEER_RESPUESTAS, hasta, limite, limiteLote);
+            for (Map<String, Object> fila : lote) {
+                long id = ((Number) fila.get("id")).longValue();
+                // Un salto mayor que un lote no es un hueco: no puede haber tantas transacciones sin confirmar.
+                if (hasta > 0 && id - hasta - 1 <= tamanoLote) {
+                    for (long falta = hasta + 1; falta < id; falta++) {
+                        huecos.add(new Object[]{TRABAJO, falta, ahora});
+                    }
+                }
+                acumular(porUsuario, fila, ((Timestamp) fila.get("fecha_creacion")).toLocalDateTime());
+                hasta = id;
+                leidas++;
+            }
+            alcanzadas = lote.size() < limiteLote;
+        }
+        if (hasta == desde && encontrados.isEmpty()) {
+            return null;
+        }
+
+        if (!reenvio && hasta > desde) {
+            actualizarCheckpoint("pendiente_hasta = ?", hasta);
+        }
+        // Los huecos encontrados se distinguen en el ID del resumen, para no confundirlo con el de un tramo ya enviado.
+        String tramo = desde + "-" + hasta + (encontrados.isEmpty() ? "" : "-h" + encontrados.get(encontrados.size() - 1));
+        int enviados = enviar(porUsuario, tramo);
+        long ultimoId = hasta;
+        transactionTemplate.executeWithoutResult(estado -> {
+            if (!huecos.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT IGNORE INTO notificacion_hueco (trabajo, id, fecha_deteccion) VALUES (?, ?, ?)", huecos);
+            }
+            if (!encontrados.isEmpty()) {
+                var argumentos = new ArrayList<Object>(encontrados.size() + 1);
+                argumentos.add(TRABAJO);
+                argumentos.addAll(encontrados);
+                jdbcTemplate.update("DELETE FROM notificacion_hueco WHERE trabajo = ? AND id IN (" + marcadores(encontrados.size()) + ")",
+                        argumentos.toArray());
+            }
+            actualizarCheckpoint("ultimo_id = ?, pendiente_hasta = NULL", ultimoId);
+        });
+        respuestasLeidas.increment(leidas);
+        return enviados;
+    }
+
+    /**
+     * Acumula las respuestas de los huecos pendientes que ya son visibles.
+     *
+     * @return Los IDs encontrados, en orden.
+     */
+    private List<Long> leerHuecos(Map<Long, Map<Long, Acumulado>> porUsuario) {
+        var huecos = jdbcTemplate.queryForList("SELECT id FROM notificacion_hueco WHERE trabajo = ? ORDER BY id LIMIT ?",
+                Long.class, TRABAJO, tamanoLote);
+        if (huecos.isEmpty()) {
+            return List.of();
+        }
+        var encontrados = new ArrayList<Long>();
+        for (Map<String, Object> fila : jdbcTemplate.queryForList(LEER_HUECOS.formatted(marcadores(huecos.size())), huecos.toArray())) {
+            acumular(porUsuario, fila, ((Timestamp) fila.get("fecha_creacion")).toLocalDateTime());
+            encontrados.add(((Number) fila.get("id")).longValue());
+        }
+        return encontrados;
+    }
+
+    /**
+     * Actualiza el checkpoint y renueva el reclamo, solo si esta instancia lo sigue teniendo.
+     *
+     * @throws ReclamoPerdidoException Si otra instancia lo reclamó porque este reclamo caducó.
+     */
+    private void actualizarCheckpoint(String asignacion, long id) {
+        var ahora = Instant.now();
+        if (jdbcTemplate.update("UPDATE notificacion_checkpoint SET " + asignacion + ", fecha_actualizacion = ?, reclamado_hasta = ? "
+                        + "WHERE trabajo = ? AND reclamado_por = ?",
+                id, Timestamp.from(ahora), Timestamp.from(ahora.plus(duracionReclamo)), TRABAJO, instancia) != 1) {
+            throw new ReclamoPerdidoException();
+        }
+    }
+
+    /**
+     * Suma una respuesta a la actividad del autor del tópico y del autor de la respuesta a la que contesta,
+     * salvo que sean quien responde.
+     */
+    private void acumular(Map<Long, Map<Long, Acumulado>> porUsuario, Map<String, Object> fila, LocalDateTime fecha) {
+        Long autor = (Long) fila.get("autor_id");
+        Long autorTopico = (Long) fila.get("autor_topico");
+        Long autorPadre = (Long) fila.get("autor_padre");
+        Long topicoId = (Long) fila.get("topico_id");
+        String titulo = (String) fila.get("titulo");
+        if (autorTopico != null && !autorTopico.equals(autor)) {
+            acumulado(porUsuario, autorTopico, topicoId, titulo, fecha).respuestasAlTopico++;
+        }
+        if (autorPadre != null && !autorPadre.equals(autor)) {
+            acumulado(porUsuario, autorPadre, topicoId, titulo, fecha).respuestasATusRespuestas++;
+        }
+    }
+
+    private Acumulado acumulado(Map<Long, Map<Long, Acumulado>> porUsuario, Long usuarioId, Long topicoId, String titulo,
+                                LocalDateTime fecha) {
+        var acumulado = porUsuario.computeIfAbsent(usuarioId, id -> new TreeMap<>())
+                .computeIfAbsent(topicoId, id -> new Acumulado(titulo));
+        acumulado.ultimaRespuesta = fecha;
+        return acumulado;
+    }
+
+    /**
+     * Envía un resumen por cada usuario activo del tramo.
+     */
+    private int enviar(Map<Long, Map<Long, Acumulado>> porUsuario, String tramo) {
+        int enviados = 0;
+        var ids = new ArrayList<>(porUsuario.keySet());
+        for (int i = 0; i < ids.size(); i += tamanoLote) {
+            var grupo = ids.subList(i, Math.min(i + tamanoLote, ids.size()));
+            var usuarios = jdbcTemplate.queryForList("SELECT id, nombre, email FROM usuario WHERE activo = TRUE AND id IN ("
+                    + marcadores(grupo.size()) + ") ORDER BY id", grupo.toArray());
+            for (Map<String, Object> usuario : usuarios) {
+                Long usuarioId = ((Number) usuario.get("id")).longValue();
+                List<ActividadTopico> topicos = porUsuario.get(usuarioId).entrySet().stream()
+                        .map(e -> new ActividadTopico(e.getKey(), e.getValue().titulo, e.getValue().respuestasAlTopico,
+                                e.getValue().respuestasATusRespuestas, e.getValue().ultimaRespuesta))
+                        .toList();
+                emisorResumenes.enviar(new ResumenNotificaciones(TRABAJO + "-" + usuarioId + "-" + tramo, usuarioId,
+                        (String) usuario.get("nombre"), (String) usuario.get("email"), topicos));
+                resumenesEnviados.increment();
+                enviados++;
+            }
+        }
+        return enviados;
+    }
+
+    /**
+     * Reclama el checkpoint para esta instancia, o renueva el reclamo que ya tiene. La fila se bloquea con
+     * SELECT ... FOR UPDATE, así que dos instancias no pueden reclamarla a la vez. La primera vez se crea empezando
+     * en la última respuesta existente: no se resume el histórico.
+     *
+     * @return Si esta instancia debe enviar los resúmenes.
+     */
+    private boolean reclamar() {
+        var ahora = Instant.now();
+        jdbcTemplate.update("INSERT IGNORE INTO notificacion_checkpoint (trabajo, ultimo_id, fecha_actualizacion) "
+                + "SELECT ?, COALESCE(MAX(id), 0), ? FROM respuesta", TRABAJO, Timestamp.from(ahora));
+        return Boolean.TRUE.equals(transactionTemplate.execute(estado -> {
+            boolean ajeno = jdbcTemplate.queryForObject("SELECT reclamado_por, reclamado_hasta FROM notificacion_checkpoint "
+                    + "WHERE trabajo = ? FOR UPDATE", (rs, fila) -> {
+                var hasta = rs.getTimestamp("reclamado_hasta");
+                return hasta != null && hasta.toInstant().isAfter(ahora) && !instancia.equals(rs.getString("reclamado_por"));
+            }, TRABAJO);
+            if (ajeno) {
+                return false;
+            }
+            jdbcTemplate.update("UPDATE notificacion_checkpoint SET reclamado_por = ?, reclamado_hasta = ? WHERE trabajo = ?",
+                    instancia, Timestamp.from(ahora.plus(duracionReclamo)), TRABAJO);
+            return true;
+        }));
+    }
+
+    private Checkpoint leerCheckpoint() {
+        return jdbcTemplate.queryForObject("SELECT ultimo_id, pendiente_hasta FROM notificacion_checkpoint WHERE trabajo = ?",
+                (rs, fila) -> new Checkpoint(rs.getLong("ultimo_id"), (Long) rs.getObject("pendiente_hasta")), TRABAJO);
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(",", Collections.nCopies(cantidad, "?"));
+    }
+
+    private record Checkpoint(long ultimoId, Long pendienteHasta) {
+    }
+
+    /**
+     * Actividad acumulada de un usuario en un tópico durante un tramo.
+     */
+    private static final class Acumulado {
+
+        private final String titulo;
+        private int respuestasAlTopico;
+        private int respuestasATusRespuestas;
+        private LocalDateTime ultimaRespuesta;
+
+        Acumulado(String titulo) {
+            this.titulo = titulo;
+        }
+    }
+
+    private static final class ReclamoPerdidoException extends RuntimeException {
+
+        ReclamoPerdidoException() {
+            super(null, null, false, false);
+        }
+    }
+}
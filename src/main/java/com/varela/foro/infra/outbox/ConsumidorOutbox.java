@@ -0,0 +1,24 @@
+package com.varela.foro.infra.outbox;
+
+import java.util.List;
+
+/**
+ * Consumidor en proceso de los eventos del outbox.
+ * Cada consumidor tiene su propio checkpoint; la entrega es al menos una vez, por lo que procesar debe ser idempotente.
+ */
+public interface ConsumidorOutbox {
+
+    /**
+     * Nombre único del consumidor, usado como clave de su checkpoint.
+     *
+     * @return El nombre del consumidor.
+     */
+    String nombre();
+
+    /**
+     * Procesa un lote ordenado de eventos. Si lanza una excepción, el lote se reintenta en el siguiente ciclo.
+     *
+     * @param lote Los eventos, en orden de ID creciente.
+     */
+    void procesar(List<EventoOutbox> lote);
+}
@@ -0,0 +1,29 @@
+package com.varela.foro.infra.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Consumidor del outbox que mantiene contadores de modificaciones por agregado y tipo.
+ */
+@Component
+public class ContadorEventosOutbox implements ConsumidorOutbox {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public String nombre() {
+        return "contadores";
+    }
+
+    @Override
+    public void procesar(List<EventoOutbox> lote) {
+        for (EventoOutbox evento : lote) {
+            meterRegistry.counter("foro.modificaciones", "agregado", evento.agregado(), "tipo", evento.tipo()).increment();
+        }
+    }
+}
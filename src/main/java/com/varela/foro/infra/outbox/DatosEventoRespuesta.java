@@ -0,0 +1,14 @@
+package com.varela.foro.infra.outbox;
+
+import com.varela.foro.modelo.respuesta.DatosRespuestaHilo;
+
+/**
+ * Carga JSON de los eventos de respuestas escritos en el outbox.
+ *
+ * @param topicoId  El ID del tópico al que pertenece la respuesta.
+ * @param respuesta Los datos de la respuesta.
+ */
+public record DatosEventoRespuesta(
+        Long topicoId,
+        DatosRespuestaHilo respuesta) {
+}
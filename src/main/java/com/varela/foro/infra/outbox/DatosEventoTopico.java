@@ -0,0 +1,16 @@
+package com.varela.foro.infra.outbox;
+
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+
+/**
+ * Carga JSON de los eventos de tópicos escritos en el outbox.
+ *
+ * @param topicoId El ID del tópico.
+ * @param cursoId  El ID del curso del tópico.
+ * @param topico   Los datos del tópico; nulo en las eliminaciones.
+ */
+public record DatosEventoTopico(
+        Long topicoId,
+        Long cursoId,
+        DatosListadoTopicoID topico) {
+}
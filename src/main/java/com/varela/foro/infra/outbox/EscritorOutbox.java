@@ -0,0 +1,101 @@
+package com.varela.foro.infra.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.modelo.respuesta.DatosRespuestaHilo;
+import com.varela.foro.modelo.respuesta.RespuestaCreada;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicosModerados;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Escribe en la tabla outbox cada modificación de tópico y cada respuesta nueva, dentro de la misma transacción que el cambio.
+ * Así los efectos secundarios se procesan después, fuera de la solicitud, sin perder eventos ni publicar cambios revertidos.
+ */
+@Component
+public class EscritorOutbox {
+
+    public static final String AGREGADO_TOPICO = "topico";
+
+    public static final String AGREGADO_RESPUESTA = "respuesta";
+
+    public static final String TIPO_MODERADO = "MODERADO";
+
+    public static final String TIPO_CREADA = "CREADA";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Registra la modificación del tópico en el outbox. Se ejecuta de forma síncrona en la transacción de la solicitud.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @EventListener
+    public void alModificarTopico(TopicoModificado modificacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Asegura que los IDs generados (por ejemplo, de un curso nuevo) estén asignados antes de serializar.
+            entityManager.flush();
+        }
+        var topico = modificacion.topico();
+        Long cursoId = topico.getCurso() != null ? topico.getCurso().getId() : null;
+        var datos = modificacion.tipo() == TipoModificacionTopico.ELIMINADO ? null : new DatosListadoTopicoID(topico);
+        escribir(AGREGADO_TOPICO, topico.getId(), modificacion.tipo().name(), new DatosEventoTopico(topico.getId(), cursoId, datos));
+    }
+
+    /**
+     * Registra un lote de moderación masiva como un único evento, sin ID de agregado: la carga lleva los IDs del lote.
+     *
+     * @param moderacion El lote moderado.
+     */
+    @EventListener
+    public void alModerarTopicos(TopicosModerados moderacion) {
+        escribir(AGREGADO_TOPICO, null, TIPO_MODERADO, moderacion);
+    }
+
+    /**
+     * Registra una respuesta nueva, aunque no cambie el estado de su tópico (en ese caso no hay TopicoModificado).
+     *
+     * @param creacion La respuesta creada.
+     */
+    @EventListener
+    public void alCrearRespuesta(RespuestaCreada creacion) {
+        var respuesta = creacion.respuesta();
+        escribir(AGREGADO_RESPUESTA, respuesta.getId(), TIPO_CREADA,
+                new DatosEventoRespuesta(respuesta.getTopico().getId(), new DatosRespuestaHilo(respuesta)));
+    }
+
+    /**
+     * Inserta un evento en el outbox usando la conexión de la transacción en curso.
+     *
+     * @param agregado   Tipo de entidad modificada.
+     * @param agregadoId ID de la entidad modificada.
+     * @param tipo       Tipo de modificación.
+     * @param carga      Datos del evento, serializados a JSON.
+     */
+    public void escribir(String agregado, Long agregadoId, String tipo, Object carga) {
+        try {
+            jdbcTemplate.update("INSERT INTO outbox (agregado, agregado_id, tipo, carga, fecha_creacion) VALUES (?, ?, ?, ?, ?)",
+                    agregado, agregadoId, tipo, objectMapper.writeValueAsString(carga), Timestamp.from(Instant.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento del outbox", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.varela.foro.infra.outbox;
+
+import java.time.Instant;
+
+/**
+ * Evento leído de la tabla outbox y entregado a los consumidores.
+ *
+ * @param id         ID del evento; define el orden de entrega.
+ * @param agregado   Tipo de entidad modificada (por ejemplo "topico").
+ * @param agregadoId ID de la entidad modificada.
+ * @param tipo       Tipo de modificación.
+ * @param carga      Datos del evento en JSON.
+ * @param fecha      Fecha en que se escribió el evento.
+ */
+public record EventoOutbox(
+        long id,
+        String agregado,
+        Long agregadoId,
+        String tipo,
+        String carga,
+        Instant fecha) {
+}
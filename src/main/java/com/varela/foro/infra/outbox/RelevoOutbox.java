@@ -0,0 +1,241 @@
+package com.varela.foro.infra.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena la tabla outbox hacia los consumidores en proceso, en lotes ordenados por ID.
+ * Cada consumidor avanza su propio checkpoint después de procesar un lote con éxito (entrega al menos una vez).
+ * Un ID AUTO_INCREMENT se asigna al insertar pero solo es visible al confirmar, así que un checkpoint puede
+ * adelantar a una transacción que aún no ha confirmado: los IDs que faltan por debajo del checkpoint se guardan
+ * como huecos y se vuelven a buscar en cada ciclo hasta que aparecen o caduca su espera (rollback).
+ * Con varias instancias, cada consumidor lo drena solo la instancia que reclama su checkpoint.
+ */
+@Component
+public class RelevoOutbox {
+
+    private static final RowMapper<EventoOutbox> EVENTO = (rs, fila) -> new EventoOutbox(rs.getLong("id"), rs.getString("agregado"),
+            (Long) rs.getObject("agregado_id"), rs.getString("tipo"), rs.getString("carga"), rs.getTimestamp("fecha_creacion").toInstant());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private List<ConsumidorOutbox> consumidores = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${foro.outbox.tamano-lote:200}")
+    private int tamanoLote;
+
+    /**
+     * Tiempo que se sigue buscando un ID que falta; pasado ese tiempo se da por una transacción revertida.
+     */
+    @Value("${foro.outbox.espera-huecos:PT5M}")
+    private Duration esperaHuecos;
+
+    /**
+     * Duración del reclamo de un consumidor; se renueva con cada lote.
+     */
+    @Value("${foro.outbox.duracion-reclamo:PT1M}")
+    private Duration duracionReclamo;
+
+    @Value("${foro.outbox.retencion:P7D}")
+    private Duration retencion;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    /**
+     * Retraso (en número de eventos) de cada consumidor respecto al último evento escrito.
+     */
+    private final Map<String, AtomicLong> retrasos = new ConcurrentHashMap<>();
+
+    /**
+     * Entrega los eventos pendientes a cada consumidor.
+     */
+    @Scheduled(fixedDelayString = "${foro.outbox.intervalo-ms:1000}")
+    public synchronized void relevar() {
+        Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM outbox", Long.class);
+        for (ConsumidorOutbox consumidor : consumidores) {
+            try {
+                if (!reclamar(consumidor.nombre())) {
+                    continue;
+                }
+                long checkpoint = drenar(consumidor);
+                retraso(consumidor).set(Math.max(0, maximo - checkpoint));
+            } catch (ReclamoPerdidoException e) {
+                // Otra instancia tomó el consumidor; el lote ya procesado se le volverá a entregar desde su checkpoint.
+            } catch (RuntimeException e) {
+                // El lote no se confirma: se reintenta en el siguiente ciclo desde el mismo checkpoint.
+                meterRegistry.counter("foro.outbox.errores", "consumidor", consumidor.nombre()).increment();
+            }
+        }
+    }
+
+    private long drenar(ConsumidorOutbox consumidor) {
+        long checkpoint = leerCheckpoint(consumidor.nombre());
+        var timer = Timer.builder("foro.outbox.lote").tag("consumidor", consumidor.nombre()).register(meterRegistry);
+        drenarHuecos(consumidor, timer);
+        List<EventoOutbox> lote;
+        do {
+            lote = jdbcTemplate.query("SELECT id, agregado, agregado_id, tipo, carga, fecha_creacion FROM outbox WHERE id > ? ORDER BY id LIMIT ?",
+                    EVENTO, checkpoint, tamanoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+            var actual = lote;
+            timer.record(() -> consumidor.procesar(actual));
+            guardarCheckpoint(consumidor.nombre(), checkpoint, lote);
+            checkpoint = lote.get(lote.size() - 1).id();
+            meterRegistry.counter("foro.outbox.eventos", "consumidor", consumidor.nombre()).increment(lote.size());
+        } while (lote.size() == tamanoLote);
+        return checkpoint;
+    }
+
+    /**
+     * Entrega los eventos que confirmaron después de que el checkpoint los adelantara, y olvida los huecos caducados.
+     */
+    private void drenarHuecos(ConsumidorOutbox consumidor, Timer timer) {
+        jdbcTemplate.update("DELETE FROM outbox_hueco WHERE consumidor = ? AND fecha_deteccion < ?",
+                consumidor.nombre(), Timestamp.from(Instant.now().minus(esperaHuecos)));
+        var huecos = jdbcTemplate.queryForList("SELECT id FROM outbox_hueco WHERE consumidor = ? ORDER BY id LIMIT ?",
+                Long.class, consumidor.nombre(), tamanoLote);
+        if (huecos.isEmpty()) {
+            return;
+        }
+        var lote = jdbcTemplate.query("SELECT id, agregado, agregado_id, tipo, carga, fecha_creacion FROM outbox WHERE id IN ("
+                + marcadores(huecos.size()) + ") ORDER BY id", EVENTO, huecos.toArray());
+        if (lote.isEmpty()) {
+            return;
+        }
+        timer.record(() -> consumidor.procesar(lote));
+        var ids = lote.stream().map(EventoOutbox::id).toList();
+        transactionTemplate.executeWithoutResult(estado -> {
+            renovar(consumidor.nombre());
+            var argumentos = new ArrayList<Object>(ids.size() + 1);
+            argumentos.add(consumidor.nombre());
+            argumentos.addAll(ids);
+            jdbcTemplate.update("DELETE FROM outbox_hueco WHERE consumidor = ? AND id IN (" + marcadores(ids.size()) + ")",
+                    argumentos.toArray());
+        });
+        meterRegistry.counter("foro.outbox.eventos", "consumidor", consumidor.nombre()).increment(lote.size());
+    }
+
+    /**
+     * Reclama el checkpoint de un consumidor para esta instancia, o renueva el reclamo que ya tiene.
+     *
+     * @return Si esta instancia debe drenar el consumidor.
+     */
+    private boolean reclamar(String consumidor) {
+        var ahora = Instant.now();
+        jdbcTemplate.update("INSERT IGNORE INTO outbox_checkpoint (consumidor, ultimo_id, fecha_actualizacion) VALUES (?, 0, ?)",
+                consumidor, Timestamp.from(ahora));
+        return jdbcTemplate.update("UPDATE outbox_checkpoint SET reclamado_por = ?, reclamado_hasta = ? WHERE consumidor = ? "
+                        + "AND (reclamado_hasta IS NULL OR reclamado_hasta < ? OR reclamado_por = ?)",
+                instancia, Timestamp.from(ahora.plus(duracionReclamo)), consumidor, Timestamp.from(ahora), instancia) == 1;
+    }
+
+    /**
+     * Renueva el reclamo del consumidor.
+     *
+     * @throws ReclamoPerdidoException Si otra instancia lo reclamó porque este reclamo caducó.
+     */
+    private void renovar(String consumidor) {
+        if (jdbcTemplate.update("UPDATE outbox_checkpoint SET reclamado_hasta = ? WHERE consumidor = ? AND reclamado_por = ?",
+                Timestamp.from(Instant.now().plus(duracionReclamo)), consumidor, instancia) != 1) {
+            throw new ReclamoPerdidoException();
+        }
+    }
+
+    private long leerCheckpoint(String consumidor) {
+        return jdbcTemplate.queryForObject("SELECT ultimo_id FROM outbox_checkpoint WHERE consumidor = ?", Long.class, consumidor);
+    }
+
+    /**
+     * Avanza el checkpoint tras un lote y guarda como huecos los IDs que faltan entre el checkpoint anterior y el lote.
+     * Un salto mayor que un lote no se considera un hueco (AUTO_INCREMENT ajustado a mano, reservas masivas de IDs):
+     * no puede haber tantas transacciones concurrentes sin confirmar.
+     */
+    private void guardarCheckpoint(String consumidor, long anterior, List<EventoOutbox> lote) {
+        var huecos = new ArrayList<Object[]>();
+        var ahora = Timestamp.from(Instant.now());
+        // Sin checkpoint previo, lo anterior al primer evento es historia ya limpiada, no un hueco.
+        long esperado = anterior == 0 ? lote.get(0).id() : anterior + 1;
+        for (EventoOutbox evento : lote) {
+            if (evento.id() - esperado <= tamanoLote) {
+                for (long id = esperado; id < evento.id(); id++) {
+                    huecos.add(new Object[]{consumidor, id, ahora});
+                }
+            }
+            esperado = evento.id() + 1;
+        }
+        long ultimoId = lote.get(lote.size() - 1).id();
+        transactionTemplate.executeWithoutResult(estado -> {
+            if (!huecos.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT IGNORE INTO outbox_hueco (consumidor, id, fecha_deteccion) VALUES (?, ?, ?)", huecos);
+            }
+            if (jdbcTemplate.update("UPDATE outbox_checkpoint SET ultimo_id = ?, fecha_actualizacion = ?, reclamado_hasta = ? "
+                            + "WHERE consumidor = ? AND reclamado_por = ?",
+                    ultimoId, ahora, Timestamp.from(Instant.now().plus(duracionReclamo)), consumidor, instancia) != 1) {
+                throw new ReclamoPerdidoException();
+            }
+        });
+    }
+
+    private AtomicLong retraso(ConsumidorOutbox consumidor) {
+        return retrasos.computeIfAbsent(consumidor.nombre(),
+                nombre -> meterRegistry.gauge("foro.outbox.retraso", Tags.of("consumidor", nombre), new AtomicLong()));
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(",", Collections.nCopies(cantidad, "?"));
+    }
+
+    /**
+     * Elimina por lotes los eventos ya procesados por todos los consumidores y más antiguos que la retención.
+     */
+    @Scheduled(fixedDelayString = "${foro.outbox.intervalo-limpieza-ms:3600000}")
+    public void limpiar() {
+        if (consumidores.isEmpty()) {
+            return;
+        }
+        Long minimo = jdbcTemplate.queryForObject("SELECT COALESCE(MIN(ultimo_id), 0) FROM outbox_checkpoint WHERE consumidor IN ("
+                + marcadores(consumidores.size()) + ")", Long.class,
+                consumidores.stream().map(ConsumidorOutbox::nombre).toArray());
+        int filas;
+        do {
+            filas = jdbcTemplate.update("DELETE FROM outbox WHERE id <= ? AND fecha_creacion < ? LIMIT 1000",
+                    minimo, Timestamp.from(Instant.now().minus(retencion)));
+        } while (filas == 1000);
+    }
+
+    private static final class ReclamoPerdidoException extends RuntimeException {
+
+        ReclamoPerdidoException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.varela.foro.infra.portada;
+
+/**
+ * Página del listado de tópicos ya serializada a JSON.
+ *
+ * @param cuerpo El JSON de la página.
+ * @param etag   El ETag fuerte del cuerpo, entre comillas.
+ */
+public record PaginaPortada(
+        byte[] cuerpo,
+        String etag) {
+}
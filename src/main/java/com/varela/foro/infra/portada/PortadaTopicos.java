@@ -0,0 +1,355 @@
+package com.varela.foro.infra.portada;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.topico.TopicosModerados;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Portada precalculada del listado de tópicos por defecto (GET /topico sin historico ni unread).
+ * Por cada orden admitido se guarda en memoria la cabeza del listado (las primeras páginas más una reserva)
+ * con el total de tópicos, y cada TopicoModificado confirmado la corrige sin volver a la base de datos.
+ * Cada página se serializa a JSON una sola vez por versión de la cabeza y se sirve como bytes con su ETag.
+ * La cabeza se vuelve a leer cuando los borrados agotan la reserva y, periódicamente, para recoger los tópicos
+ * que salen de la ventana reciente y los cambios hechos sin evento (archivo, purga).
+ */
+@Component
+public class PortadaTopicos {
+
+    /**
+     * Campos por los que se puede ordenar la portada: su orden en Java coincide con el de la base de datos.
+     * Con el orden sin especificar se usa el ID.
+     */
+    private static final Map<String, Comparator<DatosListadoTopico>> CAMPOS_ORDENABLES = Map.of(
+            "id", Comparator.comparing(DatosListadoTopico::id),
+            "fechaCreacion", Comparator.comparing(DatosListadoTopico::fechaCreacion, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Número de páginas precalculadas por orden.
+     */
+    @Value("${foro.portada.paginas:3}")
+    private int paginas;
+
+    /**
+     * Tamaño de las páginas precalculadas; debe coincidir con el @PageableDefault del listado.
+     */
+    @Value("${foro.portada.tamano-pagina:10}")
+    private int tamanoPagina;
+
+    /**
+     * Tópicos de más que se guardan tras las páginas precalculadas, para absorber borrados sin releer la cabeza.
+     */
+    @Value("${foro.portada.reserva:10}")
+    private int reserva;
+
+    /**
+     * Antigüedad máxima de los tópicos del listado por defecto.
+     */
+    @Value("${foro.particiones.ventana-listado:P6M}")
+    private Period ventanaListado;
+
+    private final Map<Sort, Cabeza> cabezas = new ConcurrentHashMap<>();
+    private final Counter servidas;
+    private final Counter lecturas;
+
+    public PortadaTopicos(MeterRegistry meterRegistry) {
+        this.servidas = Counter.builder("foro.portada.servidas")
+                .description("Páginas del listado servidas desde la portada precalculada")
+                .register(meterRegistry);
+        this.lecturas = Counter.builder("foro.portada.lecturas")
+                .description("Lecturas de la cabeza del listado en la base de datos")
+                .register(meterRegistry);
+        cabezas.put(Sort.unsorted(), new Cabeza(Sort.by("id")));
+    }
+
+    /**
+     * Busca una página del listado por defecto en la portada.
+     *
+     * @param paginacion La paginación pedida.
+     * @return La página serializada, o vacío si la paginación o el orden no están precalculados.
+     */
+    public Optional<PaginaPortada> buscar(Pageable paginacion) {
+        if (paginacion.isUnpaged() || paginacion.getPageSize() != tamanoPagina || paginacion.getPageNumber() >= paginas) {
+            return Optional.empty();
+        }
+        var cabeza = cabezas.get(paginacion.getSort());
+        if (cabeza == null) {
+            var orden = ordenDeConsulta(paginacion.getSort());
+            if (orden == null) {
+                return Optional.empty();
+            }
+            cabeza = cabezas.computeIfAbsent(paginacion.getSort(), s -> new Cabeza(orden));
+        }
+        servidas.increment();
+        return Optional.of(cabeza.vigente().pagina(paginacion));
+    }
+
+    /**
+     * Corrige las cabezas con una modificación de tópico ya confirmada.
+     *
+     * @param modificacion La modificación del tópico.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTopico(TopicoModificado modificacion) {
+        var topico = modificacion.topico();
+        boolean enVentana = enVentana(topico);
+        DatosListadoTopico datos = enVentana && modificacion.tipo() != TipoModificacionTopico.ELIMINADO
+                ? new DatosListadoTopico(topico) : null;
+        long delta = !enVentana ? 0 : switch (modificacion.tipo()) {
+            case CREADO -> 1;
+            case ELIMINADO -> -1;
+            default -> 0;
+        };
+        cabezas.values().forEach(cabeza -> cabeza.aplicar(i -> i.con(topico.getId(), datos, delta)));
+    }
+
+    /**
+     * Corrige el estado de los tópicos de un lote de moderación presentes en las cabezas.
+     *
+     * @param moderados Los tópicos moderados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModerarTopicos(TopicosModerados moderados) {
+        var ids = new HashSet<>(moderados.ids());
+        cabezas.values().forEach(cabeza -> cabeza.aplicar(i -> i.conEstado(ids, moderados.status())));
+    }
+
+    /**
+     * Descarta las cabezas tras cambios hechos sin TopicoModificado; se vuelven a leer en la siguiente petición.
+     */
+    public void invalidar() {
+        cabezas.values().forEach(Cabeza::invalidar);
+    }
+
+    /**
+     * Vuelve a leer las cabezas, sin dejar de servirlas mientras tanto.
+     */
+    @Scheduled(fixedDelayString = "${foro.portada.intervalo-ms:60000}")
+    public void refrescar() {
+        cabezas.values().forEach(cabeza -> cabeza.leer(true));
+    }
+
+    /**
+     * Traduce el orden pedido al orden de la consulta, con el ID como desempate, o nulo si no se admite.
+     */
+    private Sort ordenDeConsulta(Sort orden) {
+        var ordenes = orden.toList();
+        if (ordenes.size() != 1) {
+            return null;
+        }
+        var campo = ordenes.get(0);
+        if (campo.isIgnoreCase() || campo.getNullHandling() != Sort.NullHandling.NATIVE
+                || !CAMPOS_ORDENABLES.containsKey(campo.getProperty())) {
+            return null;
+        }
+        var consulta = Sort.by(campo.getDirection(), campo.getProperty());
+        return campo.getProperty().equals("id") ? consulta : consulta.and(Sort.by(campo.getDirection(), "id"));
+    }
+
+    private boolean enVentana(Topico topico) {
+        return topico.getFechaCreacion() != null && !topico.getFechaCreacion().isBefore(LocalDateTime.now().minus(ventanaListado));
+    }
+
+    /**
+     * Cabeza del listado para un orden. Las modificaciones se aplican bajo el monitor de la cabeza y las lecturas
+     * de la base de datos bajo un cerrojo aparte, para no bloquear a los oyentes mientras dura la consulta.
+     * Una lectura solo se instala si no llegó ninguna modificación mientras se hacía.
+     */
+    private final class Cabeza {
+
+        private final Sort orden;
+        private final Comparator<DatosListadoTopico> comparador;
+        private final ReentrantLock cerrojoLectura = new ReentrantLock();
+        private volatile Instantanea instantanea;
+        private long version;
+
+        Cabeza(Sort orden) {
+            this.orden = orden;
+            Comparator<DatosListadoTopico> comparador = null;
+            for (Sort.Order campo : orden) {
+                var porCampo = CAMPOS_ORDENABLES.get(campo.getProperty());
+                porCampo = campo.isAscending() ? porCampo : porCampo.reversed();
+                comparador = comparador == null ? porCampo : comparador.thenComparing(porCampo);
+            }
+            this.comparador = comparador;
+        }
+
+        Instantanea vigente() {
+            var actual = instantanea;
+            return actual != null ? actual : leer(false);
+        }
+
+        synchronized void aplicar(UnaryOperator<Instantanea> cambio) {
+            version++;
+            if (instantanea != null) {
+                instantanea = cambio.apply(instantanea);
+            }
+        }
+
+        synchronized void invalidar() {
+            version++;
+            instantanea = null;
+        }
+
+        /**
+         * Lee la cabeza de la base de datos. Sin forzar, si otro hilo ya la ha leído se usa la suya.
+         */
+        Instantanea leer(boolean forzar) {
+            cerrojoLectura.lock();
+            try {
+                for (int intento = 0; ; intento++) {
+                    long leida;
+                    synchronized (this) {
+                        if (!forzar && instantanea != null) {
+                            return instantanea;
+                        }
+                        leida = version;
+                    }
+                    var nueva = consultar();
+                    synchronized (this) {
+                        if (version == leida || intento == 2) {
+                            // Tras varios intentos con cambios concurrentes se instala igualmente: el refresco
+                            // periódico corrige lo que se haya perdido.
+                            instantanea = nueva;
+                            return nueva;
+                        }
+                    }
+                }
+            } finally {
+                cerrojoLectura.unlock();
+            }
+        }
+
+        private Instantanea consultar() {
+            lecturas.increment();
+            var limite = LocalDateTime.now().minus(ventanaListado);
+            var pagina = topicoRepository.findByFechaCreacionGreaterThanEqual(limite,
+                    PageRequest.of(0, paginas * tamanoPagina + reserva, orden));
+            return new Instantanea(pagina.map(DatosListadoTopico::new).getContent(), pagina.getTotalElements(),
+                    !pagina.hasNext(), comparador);
+        }
+    }
+
+    /**
+     * Estado inmutable de una cabeza: los primeros tópicos en orden, el total y las páginas ya serializadas.
+     * Es completa si contiene todos los tópicos del listado, y no solo los primeros.
+     */
+    private final class Instantanea {
+
+        private final List<DatosListadoTopico> topicos;
+        private final long total;
+        private final boolean completa;
+        private final Comparator<DatosListadoTopico> comparador;
+        private final AtomicReferenceArray<PaginaPortada> serializadas;
+
+        Instantanea(List<DatosListadoTopico> topicos, long total, boolean completa, Comparator<DatosListadoTopico> comparador) {
+            this.topicos = topicos;
+            this.total = total;
+            this.completa = completa;
+            this.comparador = comparador;
+            this.serializadas = new AtomicReferenceArray<>(paginas);
+        }
+
+        PaginaPortada pagina(Pageable paginacion) {
+            int numero = paginacion.getPageNumber();
+            var serializada = serializadas.get(numero);
+            if (serializada == null) {
+                int desde = Math.min(numero * tamanoPagina, topicos.size());
+                int hasta = Math.min(desde + tamanoPagina, topicos.size());
+                try {
+                    byte[] cuerpo = objectMapper.writeValueAsBytes(new PageImpl<>(topicos.subList(desde, hasta), paginacion, total));
+                    serializada = new PaginaPortada(cuerpo, "\"0" + DigestUtils.md5DigestAsHex(cuerpo) + "\"");
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("No se pudo serializar la portada de tópicos", e);
+                }
+                serializadas.compareAndSet(numero, null, serializada);
+            }
+            return serializada;
+        }
+
+        /**
+         * Aplica el alta, el cambio o la baja de un tópico.
+         *
+         * @param id    El ID del tópico.
+         * @param datos Los datos del tópico, o nulo si ya no está en el listado.
+         * @param delta La variación del total.
+         * @return La instantánea corregida, o nula si ya no contiene todas las páginas precalculadas.
+         */
+        Instantanea con(Long id, DatosListadoTopico datos, long delta) {
+            var nuevos = new ArrayList<>(topicos);
+            boolean cambia = nuevos.removeIf(t -> t.id().equals(id)) || delta != 0;
+            if (datos != null) {
+                int posicion = Collections.binarySearch(nuevos, datos, comparador);
+                posicion = posicion < 0 ? -posicion - 1 : posicion;
+                // Si cae detrás del último y la cabeza no es completa, el tópico queda fuera de la cabeza.
+                if (posicion < nuevos.size() || completa) {
+                    nuevos.add(posicion, datos);
+                    cambia = true;
+                }
+            }
+            if (!cambia) {
+                return this;
+            }
+            boolean completaNueva = completa;
+            int capacidad = paginas * tamanoPagina + reserva;
+            if (nuevos.size() > capacidad) {
+                nuevos.subList(capacidad, nuevos.size()).clear();
+                completaNueva = false;
+            }
+            if (!completaNueva && nuevos.size() < paginas * tamanoPagina) {
+                return null;
+            }
+            return new Instantanea(List.copyOf(nuevos), total + delta, completaNueva, comparador);
+        }
+
+        /**
+         * Cambia el estado de los tópicos indicados que estén en la cabeza.
+         */
+        Instantanea conEstado(Set<Long> ids, StatusTopico status) {
+            if (topicos.stream().noneMatch(t -> ids.contains(t.id()))) {
+                return this;
+            }
+            var nuevos = topicos.stream().map(t -> !ids.contains(t.id()) ? t : new DatosListadoTopico(t.id(), t.titulo(),
+                    t.mensaje(), t.fechaCreacion(), status, t.autor(), t.nombreCurso(), t.categoriaCurso())).toList();
+            return new Instantanea(nuevos, total, completa, comparador);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.varela.foro.infra.proyeccion;
+
+/**
+ * Se lanza cuando un parámetro fields= o sort= pide un campo que el listado no expone.
+ */
+public class CampoNoPermitidoException extends RuntimeException {
+
+    public CampoNoPermitidoException(String campo) {
+        super("Campo no permitido: " + campo);
+    }
+}
@@ -0,0 +1,151 @@
+package com.varela.foro.infra.proyeccion;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Ejecuta listados paginados seleccionando solo las columnas pedidas (sparse fieldsets).
+ * La proyección se traslada a la lista SELECT de la consulta, y los JOIN a entidades relacionadas solo se añaden
+ * si algún campo pedido los necesita. Opcionalmente recorta un campo de texto en SQL con SUBSTRING.
+ */
+@Component
+public class ConsultaProyectada {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lista una página de la entidad con los campos indicados.
+     *
+     * @param entidad        La clase de la entidad.
+     * @param rutas          Campos permitidos y su ruta en la entidad (por ejemplo "autor" → "autor.nombre"), en orden de salida.
+     * @param campos         Campos pedidos; si es nulo o vacío se devuelven todos. El campo "id" siempre se incluye.
+     * @param campoExtracto  Campo de texto que puede recortarse, o nulo.
+     * @param extracto       Longitud máxima del campo recortado, o nulo para no recortar.
+     * @param filtro         Función que construye el predicado WHERE, o nula.
+     * @param paginacion     Información de paginación y orden.
+     * @return La página de filas, cada una como un mapa campo → valor.
+     */
+    public <T> Page<Map<String, Object>> listar(Class<T> entidad, Map<String, String> rutas, Set<String> campos,
+                                               String campoExtracto, Integer extracto,
+                                               BiFunction<Root<T>, CriteriaBuilder, Predicate> filtro, Pageable paginacion) {
+        var seleccionados = new LinkedHashSet<String>();
+        seleccionados.add("id");
+        for (String campo : rutas.keySet()) {
+            if (campos == null || campos.isEmpty() || campos.contains(campo)) {
+                seleccionados.add(campo);
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        var consulta = cb.createTupleQuery();
+        Root<T> raiz = consulta.from(entidad);
+        Map<String, From<?, ?>> uniones = new HashMap<>();
+        List<Selection<?>> selecciones = new ArrayList<>();
+        for (String campo : seleccionados) {
+            Path<?> ruta = resolver(raiz, rutas.get(campo), uniones);
+            if (campo.equals(campoExtracto) && extracto != null) {
+                selecciones.add(cb.substring(ruta.as(String.class), 1, extracto).alias(campo));
+            } else {
+                selecciones.add(ruta.alias(campo));
+            }
+        }
+        consulta.multiselect(selecciones);
+        if (filtro != null) {
+            consulta.where(filtro.apply(raiz, cb));
+        }
+        var orden = new ArrayList<Order>();
+        for (Sort.Order o : paginacion.getSort()) {
+            String ruta = rutas.get(o.getProperty());
+            if (ruta == null) {
+                throw new CampoNoPermitidoException(o.getProperty());
+            }
+            Path<?> path = resolver(raiz, ruta, uniones);
+            orden.add(o.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        consulta.orderBy(orden);
+
+        var query = entityManager.createQuery(consulta);
+        if (paginacion.isPaged()) {
+            query.setFirstResult((int) paginacion.getOffset());
+            query.setMaxResults(paginacion.getPageSize());
+        }
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Tuple tupla : query.getResultList()) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            for (String campo : seleccionados) {
+                fila.put(campo, tupla.get(campo));
+            }
+            filas.add(fila);
+        }
+        return new PageImpl<>(filas, paginacion, contar(entidad, filtro));
+    }
+
+    /**
+     * Comprueba que todos los campos pedidos existen.
+     *
+     * @param rutas  Campos permitidos.
+     * @param campos Campos pedidos.
+     * @throws CampoNoPermitidoException Si algún campo no está permitido.
+     */
+    public void validar(Map<String, String> rutas, Set<String> campos) {
+        if (campos == null) {
+            return;
+        }
+        for (String campo : campos) {
+            if (!rutas.containsKey(campo)) {
+                throw new CampoNoPermitidoException(campo);
+            }
+        }
+    }
+
+    private <T> long contar(Class<T> entidad, BiFunction<Root<T>, CriteriaBuilder, Predicate> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        var consulta = cb.createQuery(Long.class);
+        Root<T> raiz = consulta.from(entidad);
+        consulta.select(cb.count(raiz));
+        if (filtro != null) {
+            consulta.where(filtro.apply(raiz, cb));
+        }
+        return entityManager.createQuery(consulta).getSingleResult();
+    }
+
+    /**
+     * Resuelve una ruta como "curso.nombre", añadiendo un LEFT JOIN por cada asociación la primera vez que se usa.
+     */
+    private Path<?> resolver(Root<?> raiz, String ruta, Map<String, From<?, ?>> uniones) {
+        String[] partes = ruta.split("\\.");
+        From<?, ?> actual = raiz;
+        String prefijo = "";
+        for (int i = 0; i < partes.length - 1; i++) {
+            prefijo = prefijo + partes[i] + ".";
+            From<?, ?> origen = actual;
+            String asociacion = partes[i];
+            actual = uniones.computeIfAbsent(prefijo, p -> origen.join(asociacion, JoinType.LEFT));
+        }
+        return actual.get(partes[partes.length - 1]);
+    }
+}
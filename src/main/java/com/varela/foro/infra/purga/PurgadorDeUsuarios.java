@@ -0,0 +1,248 @@
+package com.varela.foro.infra.purga;
+
+import com.varela.foro.infra.estadisticas.EstadisticasCursos;
+import com.varela.foro.infra.portada.PortadaTopicos;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.TopicosPurgados;
+import com.varela.foro.modelo.usuario.EstadoPurga;
+import com.varela.foro.modelo.usuario.PurgaUsuario;
+import com.varela.foro.modelo.usuario.PurgaUsuarioRepository;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Purga en segundo plano el contenido de los usuarios eliminados.
+ * En lugar de dejar que el ON DELETE CASCADE borre todo en una sola transacción, elimina las filas dependientes
+ * en lotes pequeños, cada uno confirmado por separado, con una pausa entre lotes para no bloquear las tablas.
+ * Con varias instancias, cada purga la procesa solo la instancia que la reclama (reclamada_por/reclamada_hasta);
+ * el reclamo se renueva en cada lote y, si la instancia cae, otra lo toma cuando caduca.
+ */
+@Component
+public class PurgadorDeUsuarios {
+
+    /**
+     * Respuestas que cuelgan de alguna respuesta del usuario, de cualquier autor: las rutas que empiezan por la suya.
+     */
+    private static final String SUBARBOLES = "SELECT h.id FROM respuesta h JOIN respuesta p "
+            + "ON h.topico_id = p.topico_id AND h.ruta LIKE CONCAT(p.ruta, '%') AND h.id <> p.id WHERE p.autor_id = ?";
+
+    /**
+     * Sentencias de borrado por lotes, en el orden en que deben ejecutarse (de las hojas hacia el usuario).
+     * Cada sentencia recibe el ID del usuario y el tamaño del lote.
+     * Los subárboles de las respuestas del usuario se borran antes que ellas, aunque sean de otros usuarios: sin su
+     * padre, respuesta_padre_id y la ruta apuntarían a una fila inexistente y el hilo no podría mostrarse.
+     */
+    private static final List<String> BORRADOS_POR_LOTE = List.of(
+            "DELETE FROM topico_respuestas WHERE autor_id = ? LIMIT ?",
+            "DELETE FROM topico_respuestas WHERE topico_id IN (SELECT id FROM topico WHERE autor_id = ?) LIMIT ?",
+            "DELETE FROM topico_respuestas WHERE respuestas_id IN (" + SUBARBOLES + ") LIMIT ?",
+            // La tabla derivada evita leer respuesta en la subconsulta del mismo DELETE, que MySQL no admite.
+            "DELETE FROM respuesta WHERE id IN (SELECT id FROM (" + SUBARBOLES + " LIMIT ?) AS subarbol)",
+            "DELETE FROM topico_respuestas WHERE respuestas_id IN (SELECT id FROM respuesta WHERE autor_id = ?) LIMIT ?",
+            "DELETE FROM respuesta WHERE autor_id = ? LIMIT ?",
+            "DELETE FROM respuesta WHERE topico_id IN (SELECT id FROM topico WHERE autor_id = ?) LIMIT ?"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PurgaUsuarioRepository purgaUsuarioRepository;
+
+    /**
+     * Descuenta los tópicos borrados de las estadísticas de su curso.
+     */
+    @Autowired
+    private EstadisticasCursos estadisticasCursos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PortadaTopicos portadaTopicos;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Se usa para invalidar la caché de segundo nivel, ya que los borrados por JDBC no pasan por Hibernate.
+     */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Número máximo de filas eliminadas por lote.
+     */
+    @Value("${foro.purga.tamano-lote:500}")
+    private int tamanoLote;
+
+    /**
+     * Pausa en milisegundos entre lotes.
+     */
+    @Value("${foro.purga.pausa-ms:200}")
+    private long pausaMs;
+
+    /**
+     * Duración del reclamo de una purga; debe superar con margen el tiempo de un lote más su pausa.
+     */
+    @Value("${foro.purga.duracion-reclamo:PT5M}")
+    private Duration duracionReclamo;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    /**
+     * Procesa las purgas pendientes. Las purgas que quedaron en proceso (por ejemplo tras un reinicio) se retoman,
+     * ya que cada lote es idempotente.
+     */
+    @Scheduled(fixedDelayString = "${foro.purga.intervalo-ms:5000}")
+    public void procesarPendientes() {
+        var pendientes = purgaUsuarioRepository.findByEstadoInOrderByIdAsc(List.of(EstadoPurga.PENDIENTE, EstadoPurga.EN_PROCESO));
+        for (PurgaUsuario purga : pendientes) {
+            if (reclamar(purga.getId(), false)) {
+                purgar(purga);
+            }
+        }
+    }
+
+    /**
+     * Reclama una purga para esta instancia, o renueva su reclamo.
+     *
+     * @param id       El ID de la purga.
+     * @param renovar  Si solo debe renovarse un reclamo que ya es de esta instancia.
+     * @return Si la purga es de esta instancia.
+     */
+    private boolean reclamar(Long id, boolean renovar) {
+        var ahora = LocalDateTime.now();
+        var hasta = Timestamp.valueOf(ahora.plus(duracionReclamo));
+        if (renovar) {
+            return jdbcTemplate.update("UPDATE usuario_purga SET reclamada_hasta = ? WHERE id = ? AND reclamada_por = ?",
+                    hasta, id, instancia) == 1;
+        }
+        return jdbcTemplate.update("UPDATE usuario_purga SET reclamada_por = ?, reclamada_hasta = ? "
+                        + "WHERE id = ? AND estado IN ('PENDIENTE', 'EN_PROCESO') "
+                        + "AND (reclamada_hasta IS NULL OR reclamada_hasta < ? OR reclamada_por = ?)",
+                instancia, hasta, id, Timestamp.valueOf(ahora), instancia) == 1;
+    }
+
+    /**
+     * Guarda el progreso de la purga tras renovar su reclamo.
+     *
+     * @throws ReclamoPerdidoException Si otra instancia tomó la purga (el reclamo caducó).
+     */
+    private PurgaUsuario guardar(PurgaUsuario purga) {
+        if (!reclamar(purga.getId(), true)) {
+            throw new ReclamoPerdidoException();
+        }
+        return purgaUsuarioRepository.save(purga);
+    }
+
+    /**
+     * Elimina por lotes el contenido de un usuario y finalmente el propio usuario.
+     *
+     * @param purga La purga a procesar.
+     */
+    private void purgar(PurgaUsuario purga) {
+        purga.iniciar();
+        purga = purgaUsuarioRepository.save(purga);
+        try {
+            for (String sentencia : BORRADOS_POR_LOTE) {
+                int filas;
+                do {
+                    // Cada update se confirma por sí solo, de modo que el undo log nunca supera un lote.
+                    filas = jdbcTemplate.update(sentencia, purga.getUsuarioId(), tamanoLote);
+                    if (filas > 0) {
+                        purga.registrarLote(filas);
+                        purga = guardar(purga);
+                        pausar();
+                    }
+                } while (filas == tamanoLote);
+            }
+            // Los tópicos se borran junto con su descuento en curso_stats, en una transacción por lote.
+            Long usuarioId = purga.getUsuarioId();
+            int topicos;
+            do {
+                topicos = transactionTemplate.execute(estado -> borrarLoteDeTopicos(usuarioId));
+                if (topicos > 0) {
+                    purga.registrarLote(topicos);
+                    purga = guardar(purga);
+                    pausar();
+                }
+            } while (topicos == tamanoLote);
+            // Los tópicos se borran sin TopicoModificado: la portada se vuelve a leer.
+            portadaTopicos.invalidar();
+            int filas = jdbcTemplate.update("DELETE FROM usuario WHERE id = ? AND activo = FALSE", purga.getUsuarioId());
+            var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            cache.evictEntityData(Usuario.class, purga.getUsuarioId());
+            cache.evictQueryRegion(UsuarioRepository.REGION_USUARIO_POR_EMAIL);
+            purga.registrarLote(filas);
+            purga.completar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ReclamoPerdidoException e) {
+            // La purga sigue en la instancia que la reclamó; los lotes son idempotentes.
+            return;
+        } catch (RuntimeException e) {
+            purga.fallar(e.getMessage());
+        }
+        purgaUsuarioRepository.save(purga);
+    }
+
+    /**
+     * Borra un lote de tópicos del usuario y los descuenta de curso_stats en la misma transacción.
+     * Publica TopicosPurgados para que los índices en memoria los olviden al confirmar.
+     *
+     * @param usuarioId El ID del usuario.
+     * @return Número de tópicos borrados.
+     */
+    private int borrarLoteDeTopicos(Long usuarioId) {
+        var topicos = jdbcTemplate.queryForList("SELECT id, curso_id, status FROM topico WHERE autor_id = ? LIMIT ?", usuarioId, tamanoLote);
+        if (topicos.isEmpty()) {
+            return 0;
+        }
+        Map<List<Object>, Long> porCursoYEstado = topicos.stream()
+                .filter(t -> t.get("curso_id") != null && t.get("status") != null)
+                .collect(Collectors.groupingBy(t -> List.of(t.get("curso_id"), t.get("status")), Collectors.counting()));
+        porCursoYEstado.forEach((clave, total) -> estadisticasCursos.ajustar(((Number) clave.get(0)).longValue(),
+                StatusTopico.values()[((Number) clave.get(1)).intValue()], -total));
+        var ids = topicos.stream().map(t -> t.get("id")).toList();
+        var marcadores = String.join(",", Collections.nCopies(ids.size(), "?"));
+        int borrados = jdbcTemplate.update("DELETE FROM topico WHERE id IN (" + marcadores + ")", ids.toArray());
+        eventPublisher.publishEvent(new TopicosPurgados(ids.stream().map(id -> ((Number) id).longValue()).toList()));
+        return borrados;
+    }
+
+    /**
+     * Espera entre lotes para ceder capacidad al tráfico normal.
+     */
+    private void pausar() throws InterruptedException {
+        if (pausaMs > 0) {
+            Thread.sleep(pausaMs);
+        }
+    }
+
+    private static final class ReclamoPerdidoException extends RuntimeException {
+
+        ReclamoPerdidoException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.varela.foro.infra.security;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Datos de la solicitud de refresco: el token de refresco recibido en el último inicio de sesión o refresco.
+ */
+public record DatosRefrescoToken(@NotBlank String tokenRefresco) {
+}
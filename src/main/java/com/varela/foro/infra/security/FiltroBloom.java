@@ -0,0 +1,98 @@
+package com.varela.foro.infra.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamaño fijo para cadenas. Nunca da falsos negativos: si puedeContener devuelve falso,
+ * el valor no se ha agregado. Los positivos deben confirmarse con la fuente exacta.
+ * Es seguro para hilos: agregar y consultar no necesitan bloqueo.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int numeroBits;
+    private final int numeroHashes;
+
+    /**
+     * Crea un filtro dimensionado para el número de elementos y la tasa de falsos positivos indicados.
+     *
+     * @param elementosEsperados          Número de elementos que se espera agregar.
+     * @param probabilidadFalsoPositivo   Tasa de falsos positivos deseada, entre 0 y 1.
+     */
+    public FiltroBloom(int elementosEsperados, double probabilidadFalsoPositivo) {
+        int n = Math.max(1, elementosEsperados);
+        long m = (long) Math.ceil(-n * Math.log(probabilidadFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.numeroBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((numeroBits + 63) / 64);
+    }
+
+    /**
+     * Tamaño del filtro en bits.
+     *
+     * @return El número de bits.
+     */
+    public int numeroBits() {
+        return numeroBits;
+    }
+
+    /**
+     * Agrega un valor al filtro.
+     *
+     * @param valor El valor a agregar.
+     */
+    public void agregar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int indice = Math.floorMod(h1 + i * h2, numeroBits);
+            long mascara = 1L << indice;
+            int palabra = indice >>> 6;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    /**
+     * Indica si el valor podría estar en el filtro.
+     *
+     * @param valor El valor a consultar.
+     * @return Falso si el valor seguro que no se agregó; verdadero si pudo agregarse.
+     */
+    public boolean puedeContener(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            int indice = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((bits.get(indice >>> 6) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido de la mezcla final de MurmurHash3, para repartir bien ambas mitades.
+     */
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
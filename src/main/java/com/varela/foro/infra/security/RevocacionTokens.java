@@ -0,0 +1,143 @@
+package com.varela.foro.infra.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens de acceso revocados (por su jti), consultada en cada petición sin ir a la base de datos.
+ * La tabla jti_revocado es la fuente de verdad; cada instancia mantiene un filtro de Bloom con los jti vigentes
+ * que se reconstruye periódicamente. Si el filtro dice que un jti no está, no está revocado; solo los positivos
+ * (revocados de verdad o falsos positivos, muy poco frecuentes) se confirman contra la tabla.
+ * Una revocación hecha en otra instancia tarda como mucho un intervalo de sincronización en verse aquí, lo que,
+ * con tokens de acceso de pocos minutos, acota la ventana en la que un token revocado sigue sirviendo.
+ */
+@Component
+public class RevocacionTokens {
+
+    private static final String SELECCIONAR_VIGENTES = "SELECT jti FROM jti_revocado WHERE fecha_expiracion > ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foro.revocacion.elementos-esperados:100000}")
+    private int elementosEsperados;
+
+    @Value("${foro.revocacion.falsos-positivos:0.001}")
+    private double falsosPositivos;
+
+    @Value("${foro.revocacion.intervalo-ms:30000}")
+    private long intervaloMs;
+
+    private volatile FiltroBloom filtro;
+
+    /**
+     * Revocaciones hechas en esta instancia, con su momento, para no perderlas si ocurren mientras se reconstruye el filtro.
+     */
+    private final Map<String, Long> revocacionesLocales = new ConcurrentHashMap<>();
+
+    /**
+     * Ordena cada revocación local frente al cambio de filtro: o entra en el filtro que se sustituye y está en
+     * revocacionesLocales antes de volver a agregarlas, o ve ya el filtro nuevo.
+     */
+    private final Object cerrojoFiltro = new Object();
+
+    private final Counter consultasConfirmadas;
+    private final Counter falsosPositivosDetectados;
+
+    public RevocacionTokens(MeterRegistry meterRegistry) {
+        this.consultasConfirmadas = Counter.builder("foro.revocacion.confirmaciones")
+                .description("Positivos del filtro de Bloom confirmados contra la base de datos")
+                .register(meterRegistry);
+        this.falsosPositivosDetectados = Counter.builder("foro.revocacion.falsos.positivos")
+                .description("Positivos del filtro de Bloom que no estaban revocados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si el token de acceso con el jti dado está revocado.
+     *
+     * @param jti El identificador del token.
+     * @return Verdadero si está revocado.
+     */
+    public boolean estaRevocado(String jti) {
+        var actual = filtro;
+        if (actual != null && !actual.puedeContener(jti)) {
+            return false;
+        }
+        // Positivo del filtro, o filtro aún no cargado: se confirma contra la tabla.
+        consultasConfirmadas.increment();
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jti_revocado WHERE jti = ?", Integer.class, jti);
+        boolean revocado = total != null && total > 0;
+        if (!revocado && actual != null) {
+            falsosPositivosDetectados.increment();
+        }
+        return revocado;
+    }
+
+    /**
+     * Revoca el token de acceso con el jti dado hasta su expiración.
+     *
+     * @param jti        El identificador del token.
+     * @param expiracion Momento en que el token expira; después ya no hace falta recordarlo.
+     */
+    public void revocar(String jti, Instant expiracion) {
+        try {
+            jdbcTemplate.update("INSERT INTO jti_revocado (jti, fecha_expiracion, fecha_revocacion) VALUES (?, ?, ?)",
+                    jti, Timestamp.from(expiracion), Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            // Ya estaba revocado
+        }
+        synchronized (cerrojoFiltro) {
+            revocacionesLocales.put(jti, System.currentTimeMillis());
+            var actual = filtro;
+            if (actual != null) {
+                actual.agregar(jti);
+            }
+        }
+    }
+
+    /**
+     * Carga el filtro al arrancar, antes de atender peticiones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        sincronizar();
+    }
+
+    /**
+     * Reconstruye el filtro con los jti revocados aún vigentes y borra los registros ya expirados de
+     * jti_revocado y token_refresco. Reconstruir en lugar de agregar permite que el filtro no crezca sin límite.
+     */
+    @Scheduled(fixedDelayString = "${foro.revocacion.intervalo-ms:30000}", initialDelayString = "${foro.revocacion.intervalo-ms:30000}")
+    public void sincronizar() {
+        var ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("DELETE FROM jti_revocado WHERE fecha_expiracion <= ?", ahora);
+        jdbcTemplate.update("DELETE FROM token_refresco WHERE fecha_expiracion <= ?", ahora);
+
+        long inicio = System.currentTimeMillis();
+        var nuevo = new FiltroBloom(elementosEsperados, falsosPositivos);
+        jdbcTemplate.query(SELECCIONAR_VIGENTES, rs -> {
+            nuevo.agregar(rs.getString(1));
+        }, ahora);
+        // Las revocaciones locales hechas durante la carga podrían no haberse leído: se vuelven a agregar.
+        synchronized (cerrojoFiltro) {
+            revocacionesLocales.entrySet().removeIf(e -> e.getValue() < inicio - 2 * intervaloMs);
+            revocacionesLocales.keySet().forEach(nuevo::agregar);
+            filtro = nuevo;
+        }
+    }
+}
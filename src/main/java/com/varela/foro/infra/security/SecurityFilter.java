@@ -1,21 +1,25 @@
 package com.varela.foro.infra.security;
 
-import com.varela.foro.modelo.usuario.UsuarioRepository;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Filtro de seguridad para procesar las solicitudes y gestionar la autenticación mediante tokens.
  * Este filtro extrae el token del encabezado de autorización, válida el token y establece la autenticación si es válido.
+ * No consulta la base de datos: los usuarios eliminados o que cierran sesión se cortan revocando el jti del token,
+ * y la revocación se comprueba en memoria (RevocacionTokens).
  */
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -23,10 +27,10 @@ public class SecurityFilter extends OncePerRequestFilter {
     private TokenService tokenService;
 
     /**
-     * El repositorio para gestionar las operaciones relacionadas con los usuarios.
+     * La lista de tokens revocados.
      */
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private RevocacionTokens revocacionTokens;
 
     /**
      * Método principal que realiza el filtrado de la solicitud para procesar la autenticación con token.
@@ -42,14 +46,24 @@ public class SecurityFilter extends OncePerRequestFilter {
         // Obtener el token del encabezado
         var authHeader = request.getHeader("Authorization");
         if (authHeader != null) {
-            var token = authHeader.replace("Bearer", "");
-            var email = tokenService.getSubject(token); // Extraer el nombre de usuario
-            System.out.println("tokenservice: " + email);
-            if (email != null) {
-                //Token valido
-                var usuario = usuarioRepository.findByEmail(email);
-                var authentication = new UsernamePasswordAuthenticationToken(email, null, usuario.getAuthorities()); //Forzamos el inicio de secion
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            var token = authHeader.replace("Bearer", "").trim();
+            try {
+                var jwt = tokenService.verificar(token);
+                var email = jwt.getSubject(); // Extraer el nombre de usuario
+                // Los tokens sin jti no pueden revocarse, así que no se aceptan
+                if (email != null && jwt.getId() != null && !revocacionTokens.estaRevocado(jwt.getId())) {
+                    //Token valido
+                    // El rol de moderador viaja en el token; un cambio de rol se aplica al refrescar la sesión
+                    var roles = Boolean.TRUE.equals(jwt.getClaim(TokenService.CLAIM_MODERADOR).asBoolean())
+                            ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_MODERADOR"))
+                            : List.of(new SimpleGrantedAuthority("ROLE_USER"));
+                    var authentication = new UsernamePasswordAuthenticationToken(email, null, roles); //Forzamos el inicio de secion
+                    // El ID del usuario (claim "id") queda en los detalles para no buscarlo por email en cada solicitud
+                    authentication.setDetails(jwt.getClaim(TokenService.CLAIM_ID).asLong());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            } catch (JWTVerificationException e) {
+                // Token inválido o expirado: no se autentica la solicitud
             }
         }
         filterChain.doFilter(request, response);
@@ -44,8 +44,12 @@ public class SegurityConfigurations {
                 .authorizeRequests()
                 .requestMatchers(HttpMethod.POST, "/login")
                 .permitAll()
+                .requestMatchers(HttpMethod.POST, "/login/refresh")
+                .permitAll()
                 .requestMatchers(HttpMethod.POST, "/usuario")
                 .permitAll()
+                .requestMatchers(HttpMethod.POST, "/topico/moderation")
+                .hasRole("MODERADOR")
                 .anyRequest()
                 .authenticated()
                 .and()
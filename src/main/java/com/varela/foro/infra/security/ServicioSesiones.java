@@ -0,0 +1,145 @@
+package com.varela.foro.infra.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.varela.foro.modelo.usuario.TokenRefresco;
+import com.varela.foro.modelo.usuario.TokenRefrescoRepository;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Servicio de sesiones: emite el par token de acceso + token de refresco, rota el token de refresco en cada uso
+ * y revoca sesiones. Cada refresco consume el token y emite otro de la misma familia; si llega un token ya consumido
+ * o revocado se asume que fue robado y se revoca la familia completa, incluidos sus tokens de acceso.
+ */
+@Service
+public class ServicioSesiones {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRefrescoRepository tokenRefrescoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    @Value("${foro.jwt.duracion-acceso:PT15M}")
+    private Duration duracionAcceso;
+
+    @Value("${foro.jwt.duracion-refresco:P14D}")
+    private Duration duracionRefresco;
+
+    /**
+     * Inicia una sesión nueva para el usuario autenticado.
+     *
+     * @param usuario El usuario autenticado.
+     * @return El token de acceso y el token de refresco.
+     */
+    @Transactional
+    public DatosJWTToken iniciar(Usuario usuario) {
+        return emitir(usuario, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Canjea un token de refresco por un nuevo par de tokens. El token canjeado deja de servir.
+     *
+     * @param tokenRefresco El token de refresco recibido por el cliente.
+     * @return El nuevo token de acceso y el nuevo token de refresco.
+     * @throws TokenRefrescoInvalidoException Si el token no existe, expiró, fue revocado o ya se había usado.
+     */
+    @Transactional(dontRollbackOn = TokenRefrescoInvalidoException.class)
+    public DatosJWTToken refrescar(String tokenRefresco) {
+        var token = tokenRefrescoRepository.buscarParaActualizar(hash(tokenRefresco))
+                .orElseThrow(() -> new TokenRefrescoInvalidoException("Token de refresco desconocido"));
+        if (token.getFechaUso() != null || token.getRevocado()) {
+            // Reutilización: alguien más tiene una copia del token. Se cierra la sesión completa.
+            revocarFamilia(token.getFamilia());
+            throw new TokenRefrescoInvalidoException("Token de refresco reutilizado");
+        }
+        if (!token.isVigente()) {
+            throw new TokenRefrescoInvalidoException("Token de refresco expirado");
+        }
+        var usuario = usuarioRepository.findById(token.getUsuarioId())
+                .filter(Usuario::isEnabled)
+                .orElseThrow(() -> new TokenRefrescoInvalidoException("Usuario inactivo"));
+        token.usar();
+        return emitir(usuario, token.getFamilia());
+    }
+
+    /**
+     * Cierra la sesión a la que pertenece el token de acceso: lo revoca junto con su familia de tokens de refresco.
+     *
+     * @param tokenAcceso El token de acceso ya verificado.
+     */
+    @Transactional
+    public void cerrarSesion(DecodedJWT tokenAcceso) {
+        revocacionTokens.revocar(tokenAcceso.getId(), tokenAcceso.getExpiresAtAsInstant());
+        tokenRefrescoRepository.findByJtiAcceso(tokenAcceso.getId())
+                .ifPresent(token -> revocarFamilia(token.getFamilia()));
+    }
+
+    /**
+     * Revoca todas las sesiones de un usuario, por ejemplo al eliminarlo o al cambiar su correo.
+     *
+     * @param usuarioId El ID del usuario.
+     */
+    @Transactional
+    public void revocarUsuario(Long usuarioId) {
+        revocar(tokenRefrescoRepository.findByUsuarioId(usuarioId));
+    }
+
+    private void revocarFamilia(String familia) {
+        revocar(tokenRefrescoRepository.findByFamilia(familia));
+    }
+
+    private void revocar(List<TokenRefresco> tokens) {
+        tokens.forEach(TokenRefresco::revocar);
+        // Un token de acceso emitido junto a un token de refresco expira, como tarde, duracionAcceso después.
+        var limite = LocalDateTime.now().minus(duracionAcceso);
+        tokens.stream()
+                .filter(token -> token.getFechaCreacion().isAfter(limite))
+                .forEach(token -> revocacionTokens.revocar(token.getJtiAcceso(),
+                        token.getFechaCreacion().plus(duracionAcceso).atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    private DatosJWTToken emitir(Usuario usuario, String familia) {
+        var jti = UUID.randomUUID().toString();
+        var tokenAcceso = tokenService.generarToken(usuario, jti);
+        var bytes = new byte[32];
+        ALEATORIO.nextBytes(bytes);
+        var tokenRefresco = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tokenRefrescoRepository.save(new TokenRefresco(usuario.getId(), hash(tokenRefresco), familia, jti,
+                LocalDateTime.now().plus(duracionRefresco)));
+        return new DatosJWTToken(tokenAcceso, tokenRefresco);
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.varela.foro.infra.security;
+
+/**
+ * Se lanza cuando un token de refresco no existe, ha expirado, fue revocado o ya se había usado.
+ */
+public class TokenRefrescoInvalidoException extends RuntimeException {
+
+    public TokenRefrescoInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -9,9 +9,9 @@ import com.varela.foro.modelo.usuario.Usuario;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.UUID;
 
 /**
  * Servicio para la generación y verificación de tokens JWT.
@@ -21,6 +21,16 @@ import java.time.ZoneOffset;
 @Service
 public class TokenService {
 
+    /**
+     * Claim con el ID del usuario del token.
+     */
+    public static final String CLAIM_ID = "id";
+
+    /**
+     * Claim que indica si el usuario del token es moderador.
+     */
+    public static final String CLAIM_MODERADOR = "moderador";
+
     /**
      * Clave secreta utilizada para firmar y verificar los tokens JWT.
      */
@@ -28,19 +38,39 @@ public class TokenService {
     private String apiSecret;
 
     /**
-     * Genera un token JWT para el usuario especificado.
+     * Vigencia de los tokens de acceso. Es corta porque la sesión se prolonga con el token de refresco.
+     */
+    @Value("${foro.jwt.duracion-acceso:PT15M}")
+    private Duration duracionAcceso;
+
+    /**
+     * Genera un token JWT para el usuario especificado, con un identificador (jti) aleatorio.
      *
      * @param usuario El usuario para el cual se genera el token.
      * @return El token JWT generado.
      * @throws RuntimeException Sí ocurre un error durante la generación del token.
      */
     public String generarToken(Usuario usuario) {
+        return generarToken(usuario, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Genera un token JWT para el usuario especificado con el identificador (jti) indicado, que permite revocarlo.
+     *
+     * @param usuario El usuario para el cual se genera el token.
+     * @param jti     El identificador único del token.
+     * @return El token JWT generado.
+     * @throws RuntimeException Sí ocurre un error durante la generación del token.
+     */
+    public String generarToken(Usuario usuario, String jti) {
         try {
             Algorithm algorithm = Algorithm.HMAC256(apiSecret);
             return JWT.create()
                     .withIssuer("voll med")
+                    .withJWTId(jti)
                     .withSubject(usuario.getEmail())
-                    .withClaim("id", usuario.getId())
+                    .withClaim(CLAIM_ID, usuario.getId())
+                    .withClaim(CLAIM_MODERADOR, usuario.esModerador())
                     .withExpiresAt(generarFechaExpiracion())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -48,6 +78,21 @@ public class TokenService {
         }
     }
 
+    /**
+     * Verifica la firma, el emisor y la expiración del token JWT.
+     *
+     * @param token El token JWT a verificar.
+     * @return El token decodificado.
+     * @throws JWTVerificationException Si el token es inválido o ha expirado.
+     */
+    public DecodedJWT verificar(String token) {
+        Algorithm algorithm = Algorithm.HMAC256(apiSecret);
+        return JWT.require(algorithm)
+                .withIssuer("voll med")
+                .build()
+                .verify(token);
+    }
+
     /**
      * Obtiene el sujeto (subject) del token JWT, verificando su validez.
      *
@@ -59,16 +104,11 @@ public class TokenService {
         if (token == null) {
             throw new RuntimeException();
         }
-        DecodedJWT verifier = null;
+        DecodedJWT verifier;
         try {
-            Algorithm algorithm = Algorithm.HMAC256(apiSecret);
-            verifier = JWT.require(algorithm)
-                    .withIssuer("voll med")
-                    .build()
-                    .verify(token);
-            verifier.getSubject();
+            verifier = verificar(token);
         } catch (JWTVerificationException exception) {
-            System.out.println(exception.toString());
+            throw new RuntimeException("Verifier invalido", exception);
         }
         if (verifier.getSubject() == null) {
             throw new RuntimeException("Verifier invalido");
@@ -77,12 +117,12 @@ public class TokenService {
     }
 
     /**
-     * Genera la fecha de expiración para el token (24 horas a partir de ahora).
+     * Genera la fecha de expiración para el token (foro.jwt.duracion-acceso a partir de ahora).
      *
      * @return La fecha de expiración instantánea.
      */
     private Instant generarFechaExpiracion() {
-        return LocalDateTime.now().plusHours(24).toInstant(ZoneOffset.of("-05:00"));
+        return Instant.now().plus(duracionAcceso);
     }
 }
 
@@ -0,0 +1,27 @@
+package com.varela.foro.infra.serializacion;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registra los formatos binarios de respuesta además de JSON.
+ * CBOR (application/cbor) lo añade Spring automáticamente al estar jackson-dataformat-cbor en el classpath;
+ * aquí se registra Protobuf (application/x-protobuf).
+ */
+@Configuration
+public class ConfiguracionSerializacion implements WebMvcConfigurer {
+
+    /**
+     * Añade el convertidor Protobuf al final de la lista. No se declara como bean: Spring Boot pondría los
+     * convertidores declarados como beans delante de Jackson, y una solicitud sin Accept o con *&#47;* recibiría Protobuf.
+     *
+     * @param converters Los convertidores ya configurados.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,121 @@
+package com.varela.foro.infra.serializacion;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Convertidor HTTP para application/x-protobuf basado en Jackson.
+ * El esquema Protobuf de cada tipo (por ejemplo DatosPagina&lt;DatosListadoTopico&gt;) se genera a partir de los
+ * records Datos* y se guarda en caché, por lo que no hace falta compilar ficheros .proto.
+ * El esquema de un tipo puede consultarse con {@link #esquema(Type)}; los números de campo salen del orden de los
+ * componentes del record, por lo que el .proto se publica en /esquemas para que los clientes no dependan de ese orden implícito.
+ */
+public class ProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    private final ProtobufMapper mapper;
+    private final Map<Type, ProtobufSchema> esquemas = new ConcurrentHashMap<>();
+
+    public ProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+        this.mapper = new ProtobufMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Devuelve el esquema Protobuf generado para un tipo.
+     *
+     * @param tipo El tipo Java.
+     * @return El esquema Protobuf.
+     * @throws IllegalStateException Si el tipo no puede representarse en Protobuf.
+     */
+    public ProtobufSchema esquema(Type tipo) {
+        return esquemas.computeIfAbsent(tipo, t -> {
+            JavaType javaType = mapper.getTypeFactory().constructType(t);
+            try {
+                return mapper.generateSchemaFor(javaType);
+            } catch (IOException | UnsupportedOperationException e) {
+                // El generador no admite, por ejemplo, Map: se informa igual que un esquema que no pudo generarse
+                throw new IllegalStateException("No se pudo generar el esquema Protobuf de " + t, e);
+            }
+        });
+    }
+
+    /**
+     * Devuelve el esquema en formato .proto generado para un tipo.
+     *
+     * @param tipo El tipo Java.
+     * @return El texto del .proto.
+     */
+    public String esquemaProto(Type tipo) {
+        return esquema(tipo).getSource().toString();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz.isRecord();
+    }
+
+    /**
+     * Solo escribe tipos cuyo esquema puede generarse. Un ResponseEntity sin tipo declara Object y un record genérico
+     * puede no resolverse: en esos casos otro convertidor responde o se devuelve 406, en lugar de fallar al escribir.
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (clazz == null || !super.canWrite(type, clazz, mediaType)) {
+            return false;
+        }
+        try {
+            esquema(tipoEfectivo(type, clazz));
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private static Type tipoEfectivo(Type tipo, Class<?> clase) {
+        if (tipo == null) {
+            return clase;
+        }
+        Class<?> crudo = ResolvableType.forType(tipo).resolve();
+        return crudo != null && crudo.isRecord() ? tipo : clase;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object objeto, Type tipo, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        mapper.writer(esquema(tipoEfectivo(tipo, objeto.getClass()))).writeValue(outputMessage.getBody(), objeto);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Las solicitudes Protobuf no están soportadas", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Las solicitudes Protobuf no están soportadas", inputMessage);
+    }
+}
@@ -0,0 +1,15 @@
+package com.varela.foro.modelo;
+
+import java.util.List;
+
+/**
+ * Representa el resultado de una consulta por lote de IDs.
+ * Los resultados respetan el orden de los IDs solicitados y los IDs inexistentes se informan aparte.
+ *
+ * @param resultados   Los elementos encontrados, en el orden solicitado.
+ * @param noEncontrados Los IDs solicitados que no existen.
+ */
+public record DatosLote<T>(
+        List<T> resultados,
+        List<Long> noEncontrados) {
+}
@@ -0,0 +1,26 @@
+package com.varela.foro.modelo;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Representa una página de resultados en un formato compacto, sin los metadatos completos de Pageable y Sort.
+ *
+ * @param contenido      Los elementos de la página.
+ * @param pagina         El número de página, empezando en 0.
+ * @param tamano         El tamaño de página solicitado.
+ * @param totalElementos El total de elementos.
+ * @param totalPaginas   El total de páginas.
+ */
+public record DatosPagina<T>(
+        List<T> contenido,
+        int pagina,
+        int tamano,
+        long totalElementos,
+        int totalPaginas) {
+
+    public DatosPagina(Page<T> pagina) {
+        this(pagina.getContent(), pagina.getNumber(), pagina.getSize(), pagina.getTotalElements(), pagina.getTotalPages());
+    }
+}
@@ -1,5 +1,6 @@
 package com.varela.foro.modelo.curso;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -8,16 +9,21 @@ import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Representa un curso en el sistema.
  * Esta clase es una entidad JPA que mapea a la tabla "curso" en la base de datos.
+ * Al ser datos de referencia que casi no cambian, se guarda en la caché de segundo nivel.
  */
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Curso {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,72 @@
+package com.varela.foro.modelo.curso;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz que proporciona métodos de acceso a la base de datos para la entidad Curso.
+ * Los conteos se leen de curso_stats, nunca agregando sobre topico.
+ */
+public interface CursoRepository extends JpaRepository<Curso, Long> {
+
+    /**
+     * Lista los cursos, opcionalmente de una sola categoría, con el conteo de sus tópicos por estado.
+     *
+     * @param categoria  La categoría a filtrar, o nulo para todas.
+     * @param paginacion La información de paginación.
+     * @return Una página de cursos con sus estadísticas.
+     */
+    @Query(value = """
+            SELECT new com.varela.foro.modelo.curso.DatosListadoCurso(c.id, c.nombre, c.categoria,
+                COALESCE(s.noRespondidos, 0), COALESCE(s.noSolucionados, 0), COALESCE(s.solucionados, 0), COALESCE(s.cerrados, 0))
+            FROM Curso c LEFT JOIN CursoStats s ON s.cursoId = c.id
+            WHERE :categoria IS NULL OR c.categoria = :categoria
+            """,
+            countQuery = "SELECT COUNT(c) FROM Curso c WHERE :categoria IS NULL OR c.categoria = :categoria")
+    Page<DatosListadoCurso> listarConEstadisticas(@Param("categoria") String categoria, Pageable paginacion);
+
+    /**
+     * Busca el conteo de tópicos por estado de un curso.
+     *
+     * @param id El ID del curso.
+     * @return Las estadísticas del curso, si el curso existe.
+     */
+    @Query("""
+            SELECT new com.varela.foro.modelo.curso.DatosEstadisticasCurso(c.id,
+                COALESCE(s.noRespondidos, 0), COALESCE(s.noSolucionados, 0), COALESCE(s.solucionados, 0), COALESCE(s.cerrados, 0))
+            FROM Curso c LEFT JOIN CursoStats s ON s.cursoId = c.id
+            WHERE c.id = :id
+            """)
+    Optional<DatosEstadisticasCurso> buscarEstadisticas(@Param("id") Long id);
+
+    /**
+     * Agrega las estadísticas por categoría. Recorre una fila de resumen por curso, no los tópicos.
+     *
+     * @return Las facetas de cada categoría, ordenadas por nombre.
+     */
+    @Query("""
+            SELECT new com.varela.foro.modelo.curso.DatosFacetaCategoria(c.categoria, COUNT(c),
+                COALESCE(SUM(s.noRespondidos), 0), COALESCE(SUM(s.noSolucionados), 0),
+                COALESCE(SUM(s.solucionados), 0), COALESCE(SUM(s.cerrados), 0))
+            FROM Curso c LEFT JOIN CursoStats s ON s.cursoId = c.id
+            GROUP BY c.categoria
+            ORDER BY c.categoria
+            """)
+    List<DatosFacetaCategoria> facetasPorCategoria();
+
+    /**
+     * Busca un curso por su nombre y categoría. Si hay varios iguales (los crea cada tópico nuevo sin fragmentos),
+     * devuelve siempre el más antiguo, de modo que todos los tópicos del curso van a la misma cubeta.
+     *
+     * @param nombre    El nombre del curso.
+     * @param categoria La categoría del curso.
+     * @return El curso de menor ID con ese nombre y categoría, si existe.
+     */
+    Optional<Curso> findFirstByNombreAndCategoriaOrderByIdAsc(String nombre, String categoria);
+}
@@ -0,0 +1,34 @@
+package com.varela.foro.modelo.curso;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conteo de tópicos por estado de un curso, mantenido de forma incremental (EstadisticasCursos) en la misma
+ * transacción que cada alta, cambio de estado o baja de tópico. Incluye los tópicos archivados.
+ * Para JPA es de solo lectura: las escrituras son incrementos atómicos por SQL.
+ */
+@Getter
+@NoArgsConstructor
+@EqualsAndHashCode(of = "cursoId")
+@Immutable
+@Table(name = "curso_stats")
+@Entity(name = "CursoStats")
+public class CursoStats {
+    @Id
+    @Column(name = "curso_id")
+    private Long cursoId;
+    private Long noRespondidos;
+    private Long noSolucionados;
+    private Long solucionados;
+    private Long cerrados;
+    private LocalDateTime fechaActualizacion;
+}
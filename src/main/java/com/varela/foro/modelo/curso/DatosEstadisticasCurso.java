@@ -0,0 +1,19 @@
+package com.varela.foro.modelo.curso;
+
+/**
+ * Conteo de tópicos de un curso por estado. Los abiertos son los no respondidos más los no solucionados.
+ */
+public record DatosEstadisticasCurso(
+        Long cursoId,
+        long total,
+        long abiertos,
+        long noRespondidos,
+        long noSolucionados,
+        long solucionados,
+        long cerrados) {
+
+    public DatosEstadisticasCurso(Long cursoId, Long noRespondidos, Long noSolucionados, Long solucionados, Long cerrados) {
+        this(cursoId, noRespondidos + noSolucionados + solucionados + cerrados, noRespondidos + noSolucionados,
+                noRespondidos, noSolucionados, solucionados, cerrados);
+    }
+}
@@ -0,0 +1,20 @@
+package com.varela.foro.modelo.curso;
+
+/**
+ * Faceta de una categoría: cuántos cursos tiene y cuántos tópicos suman por estado.
+ */
+public record DatosFacetaCategoria(
+        String categoria,
+        long cursos,
+        long total,
+        long abiertos,
+        long noRespondidos,
+        long noSolucionados,
+        long solucionados,
+        long cerrados) {
+
+    public DatosFacetaCategoria(String categoria, Long cursos, Long noRespondidos, Long noSolucionados, Long solucionados, Long cerrados) {
+        this(categoria, cursos, noRespondidos + noSolucionados + solucionados + cerrados, noRespondidos + noSolucionados,
+                noRespondidos, noSolucionados, solucionados, cerrados);
+    }
+}
@@ -0,0 +1,16 @@
+package com.varela.foro.modelo.curso;
+
+/**
+ * Representa un curso en los listados, junto con el conteo de sus tópicos por estado.
+ */
+public record DatosListadoCurso(
+        Long id,
+        String nombre,
+        String categoria,
+        DatosEstadisticasCurso estadisticas) {
+
+    public DatosListadoCurso(Long id, String nombre, String categoria,
+                             Long noRespondidos, Long noSolucionados, Long solucionados, Long cerrados) {
+        this(id, nombre, categoria, new DatosEstadisticasCurso(id, noRespondidos, noSolucionados, solucionados, cerrados));
+    }
+}
@@ -0,0 +1,15 @@
+package com.varela.foro.modelo.respuesta;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Datos para crear una respuesta.
+ *
+ * @param mensaje          El mensaje de la respuesta.
+ * @param respuestaPadreId La respuesta a la que se responde, o nulo para responder al tópico.
+ */
+public record DatosNuevaRespuesta(
+        @NotBlank(message = "El mensaje no debe ser nulo")
+        String mensaje,
+        Long respuestaPadreId) {
+}
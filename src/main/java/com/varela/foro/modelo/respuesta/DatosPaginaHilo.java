@@ -0,0 +1,14 @@
+package com.varela.foro.modelo.respuesta;
+
+import java.util.List;
+
+/**
+ * Una página de un hilo de respuestas, paginado por ruta.
+ *
+ * @param respuestas Las respuestas de la página, en orden de lectura.
+ * @param siguiente  El cursor (parámetro despues) para pedir la página siguiente, o nulo si no hay más.
+ */
+public record DatosPaginaHilo(
+        List<DatosRespuestaHilo> respuestas,
+        String siguiente) {
+}
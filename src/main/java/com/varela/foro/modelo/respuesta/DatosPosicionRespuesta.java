@@ -0,0 +1,10 @@
+package com.varela.foro.modelo.respuesta;
+
+/**
+ * Posición de una respuesta dentro del hilo de su tópico.
+ *
+ * @param ruta        La ruta materializada de la respuesta.
+ * @param profundidad La profundidad de la respuesta (0 en la raíz).
+ */
+public record DatosPosicionRespuesta(String ruta, Integer profundidad) {
+}
@@ -0,0 +1,24 @@
+package com.varela.foro.modelo.respuesta;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una respuesta dentro de un hilo, con lo necesario para dibujarlo sin reconstruir el árbol: las respuestas llegan
+ * en orden de lectura y la profundidad indica la sangría.
+ */
+public record DatosRespuestaHilo(
+        Long id,
+        Long respuestaPadreId,
+        Integer profundidad,
+        String mensaje,
+        LocalDateTime fechaCreacion,
+        String autor,
+        Boolean solucion,
+        String ruta) {
+
+    public DatosRespuestaHilo(Respuesta respuesta) {
+        this(respuesta.getId(), respuesta.getRespuestaPadreId(), respuesta.getProfundidad(), respuesta.getMensaje(),
+                respuesta.getFechaCreacion(), respuesta.getAutor() != null ? respuesta.getAutor().getNombre() : null,
+                respuesta.getSolucion(), respuesta.getRuta());
+    }
+}
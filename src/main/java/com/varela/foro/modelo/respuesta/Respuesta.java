@@ -14,6 +14,9 @@ import java.time.LocalDateTime;
  * Representa una respuesta asociada a un tópico en un foro.
  * Esta clase es una entidad JPA, lo que significa que se puede almacenar en una base de datos
  * y está vinculada a una tabla en la base de datos.
+ * Las respuestas se anidan con una ruta materializada: la ruta del padre seguida del ID de la respuesta con
+ * ANCHO_SEGMENTO dígitos. Ordenar por ruta da el hilo en orden de lectura (cada respuesta seguida de sus
+ * descendientes) y los descendientes de una respuesta son exactamente las rutas que empiezan por la suya.
  */
 @Getter
 @NoArgsConstructor
@@ -31,4 +34,46 @@ public class Respuesta {
     @ManyToOne
     private Usuario autor;
     private Boolean solucion = false;
+    @Column(name = "respuesta_padre_id")
+    private Long respuestaPadreId;
+    private String ruta;
+    private Integer profundidad = 0;
+
+    /**
+     * Dígitos de cada segmento de la ruta.
+     */
+    public static final int ANCHO_SEGMENTO = 12;
+
+    /**
+     * Profundidad máxima de anidamiento que admite la columna ruta (VARCHAR(240)), empezando en 0.
+     */
+    public static final int PROFUNDIDAD_MAXIMA = 240 / ANCHO_SEGMENTO - 1;
+
+    /**
+     * Crea una respuesta a un tópico, en la raíz del hilo o como respuesta a otra respuesta.
+     *
+     * @param mensaje El mensaje.
+     * @param topico  El tópico.
+     * @param autor   El autor.
+     * @param padre   La respuesta a la que responde, o nulo.
+     */
+    public Respuesta(String mensaje, Topico topico, Usuario autor, Respuesta padre) {
+        this.mensaje = mensaje;
+        this.topico = topico;
+        this.autor = autor;
+        if (padre != null) {
+            this.respuestaPadreId = padre.getId();
+            this.profundidad = padre.getProfundidad() + 1;
+        }
+    }
+
+    /**
+     * Calcula la ruta una vez asignado el ID, que forma su último segmento.
+     *
+     * @param padre La respuesta padre, o nulo.
+     */
+    public void asignarRuta(Respuesta padre) {
+        var segmento = String.format("%0" + ANCHO_SEGMENTO + "d", id);
+        this.ruta = padre != null ? padre.getRuta() + segmento : segmento;
+    }
 }
@@ -0,0 +1,10 @@
+package com.varela.foro.modelo.respuesta;
+
+/**
+ * Evento de aplicación que se publica al crear una respuesta, dentro de la transacción que la inserta.
+ *
+ * @param respuesta La respuesta creada, ya con su ruta asignada.
+ */
+public record RespuestaCreada(
+        Respuesta respuesta) {
+}
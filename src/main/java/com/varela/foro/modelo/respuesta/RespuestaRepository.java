@@ -0,0 +1,78 @@
+package com.varela.foro.modelo.respuesta;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz que proporciona métodos de acceso a la base de datos para la entidad Respuesta.
+ * Utiliza Spring Data JPA y extiende JpaRepository para realizar operaciones CRUD.
+ */
+public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
+
+    /**
+     * Elimina las filas de topico_respuestas de un tópico. Las tablas particionadas no tienen ON DELETE CASCADE.
+     *
+     * @param topicoId El ID del tópico.
+     * @return El número de filas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM topico_respuestas WHERE topico_id = :topicoId", nativeQuery = true)
+    int eliminarEnlacesPorTopico(@Param("topicoId") Long topicoId);
+
+    /**
+     * Elimina las respuestas de un tópico. Las tablas particionadas no tienen ON DELETE CASCADE.
+     *
+     * @param topicoId El ID del tópico.
+     * @return El número de respuestas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM respuesta WHERE topico_id = :topicoId", nativeQuery = true)
+    int eliminarPorTopico(@Param("topicoId") Long topicoId);
+
+    /**
+     * Busca una respuesta de un tópico.
+     *
+     * @param id       El ID de la respuesta.
+     * @param topicoId El ID del tópico.
+     * @return La respuesta, si existe y pertenece al tópico.
+     */
+    Optional<Respuesta> findByIdAndTopicoId(Long id, Long topicoId);
+
+    /**
+     * Busca la posición de una respuesta de un tópico sin cargar la entidad ni sus asociaciones.
+     *
+     * @param id       El ID de la respuesta.
+     * @param topicoId El ID del tópico.
+     * @return La ruta y la profundidad de la respuesta, si existe y pertenece al tópico.
+     */
+    @Query("SELECT new com.varela.foro.modelo.respuesta.DatosPosicionRespuesta(r.ruta, r.profundidad) FROM Respuesta r WHERE r.id = :id AND r.topico.id = :topicoId")
+    Optional<DatosPosicionRespuesta> buscarPosicion(@Param("id") Long id, @Param("topicoId") Long topicoId);
+
+    /**
+     * Lee un tramo del hilo de un tópico en orden de ruta: las rutas en (desde, hasta) hasta la profundidad indicada.
+     * Con el índice (topico_id, ruta) es un único recorrido por rango, ya ordenado para mostrarse.
+     *
+     * @param topicoId          El ID del tópico.
+     * @param desde             Ruta exclusiva desde la que leer.
+     * @param hasta             Ruta exclusiva hasta la que leer.
+     * @param profundidadMaxima Profundidad máxima incluida.
+     * @param paginacion        Tamaño de la página (siempre la primera; se pagina moviendo desde).
+     * @return Las respuestas del tramo.
+     */
+    @Query("""
+            SELECT new com.varela.foro.modelo.respuesta.DatosRespuestaHilo(r.id, r.respuestaPadreId, r.profundidad,
+                r.mensaje, r.fechaCreacion, a.nombre, r.solucion, r.ruta)
+            FROM Respuesta r LEFT JOIN r.autor a
+            WHERE r.topico.id = :topicoId AND r.ruta > :desde AND r.ruta < :hasta AND r.profundidad <= :profundidadMaxima
+            ORDER BY r.ruta
+            """)
+    List<DatosRespuestaHilo> buscarTramoDeHilo(@Param("topicoId") Long topicoId, @Param("desde") String desde,
+                                               @Param("hasta") String hasta, @Param("profundidadMaxima") int profundidadMaxima,
+                                               Pageable paginacion);
+}
@@ -0,0 +1,29 @@
+package com.varela.foro.modelo.topico;
+
+import com.varela.foro.modelo.StatusTopico;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Filtro de tópicos para la moderación masiva. Los criterios indicados se combinan; al menos uno es obligatorio.
+ *
+ * @param cursoId        Solo tópicos de este curso.
+ * @param status         Solo tópicos en este estado.
+ * @param antiguedadDias Solo tópicos creados hace al menos estos días.
+ * @param desdeId        Continúa una moderación recortada: solo tópicos con ID mayor (el siguienteId del resultado anterior).
+ */
+public record DatosFiltroModeracion(
+        Long cursoId,
+        StatusTopico status,
+        @PositiveOrZero(message = "La antiguedad no puede ser negativa")
+        Integer antiguedadDias,
+        @PositiveOrZero(message = "El ID inicial no puede ser negativo")
+        Long desdeId) {
+
+    public DatosFiltroModeracion(Long cursoId, StatusTopico status, Integer antiguedadDias) {
+        this(cursoId, status, antiguedadDias, null);
+    }
+
+    public boolean isVacio() {
+        return cursoId == null && status == null && antiguedadDias == null;
+    }
+}
@@ -19,4 +19,10 @@ public record DatosListadoTopico(
         String nombreCurso,
         String categoriaCurso) {
 
+    public DatosListadoTopico(Topico topico) {
+        this(topico.getId(), topico.getTitulo(), topico.getMensaje(), topico.getFechaCreacion(), topico.getStatus(),
+                topico.getAutor() != null ? topico.getAutor().getNombre() : null,
+                topico.getCurso() != null ? topico.getCurso().getNombre() : null,
+                topico.getCurso() != null ? topico.getCurso().getCategoria() : null);
+    }
 }
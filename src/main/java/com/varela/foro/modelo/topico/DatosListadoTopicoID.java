@@ -18,4 +18,11 @@ public record DatosListadoTopicoID(
         String autor,
         String nombreCurso,
         String categoriaCurso) {
+
+    public DatosListadoTopicoID(Topico topico) {
+        this(topico.getId(), topico.getTitulo(), topico.getMensaje(), topico.getFechaCreacion(), topico.getStatus(),
+                topico.getAutor() != null ? topico.getAutor().getNombre() : null,
+                topico.getCurso() != null ? topico.getCurso().getNombre() : null,
+                topico.getCurso() != null ? topico.getCurso().getCategoria() : null);
+    }
 }
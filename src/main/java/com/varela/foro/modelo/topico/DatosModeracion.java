@@ -0,0 +1,23 @@
+package com.varela.foro.modelo.topico;
+
+import com.varela.foro.modelo.StatusTopico;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Solicitud de moderación masiva: el estado a aplicar y los tópicos afectados, indicados por una lista de IDs
+ * o por un filtro (uno de los dos).
+ *
+ * @param ids    IDs de los tópicos a moderar.
+ * @param filtro Filtro que selecciona los tópicos a moderar.
+ * @param status Estado nuevo de los tópicos.
+ */
+public record DatosModeracion(
+        List<Long> ids,
+        @Valid
+        DatosFiltroModeracion filtro,
+        @NotNull(message = "El status no debe ser nulo")
+        StatusTopico status) {
+}
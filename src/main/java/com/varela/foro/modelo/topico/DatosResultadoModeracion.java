@@ -0,0 +1,21 @@
+package com.varela.foro.modelo.topico;
+
+import com.varela.foro.modelo.StatusTopico;
+
+import java.util.Map;
+
+/**
+ * Resultado de una moderación masiva.
+ *
+ * @param actualizados Número de tópicos que cambiaron de estado.
+ * @param lotes        Número de lotes (transacciones) ejecutados.
+ * @param anteriores   Tópicos actualizados según el estado que tenían antes.
+ * @param siguienteId  Si la moderación por filtro se recortó al máximo de filas, el desdeId con el que continuarla;
+ *                     nulo si ya se recorrieron todos los tópicos.
+ */
+public record DatosResultadoModeracion(
+        long actualizados,
+        int lotes,
+        Map<StatusTopico, Long> anteriores,
+        Long siguienteId) {
+}
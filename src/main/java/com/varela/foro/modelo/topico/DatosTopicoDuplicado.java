@@ -0,0 +1,13 @@
+package com.varela.foro.modelo.topico;
+
+import java.util.List;
+
+/**
+ * Representa la respuesta 409 cuando un tópico es duplicado o casi duplicado de otros existentes.
+ * Esta clase es un "record" en Java, lo que significa que es una clase inmutable
+ * que tiene campos inmutables y métodos generados automáticamente, como equals() y hashCode().
+ */
+public record DatosTopicoDuplicado(
+        String mensaje,
+        List<Long> candidatos) {
+}
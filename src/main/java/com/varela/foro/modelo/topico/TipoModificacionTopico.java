@@ -0,0 +1,11 @@
+package com.varela.foro.modelo.topico;
+
+/**
+ * Tipos de modificación que puede sufrir un tópico.
+ */
+public enum TipoModificacionTopico {
+
+    CREADO,
+    ACTUALIZADO,
+    ELIMINADO;
+}
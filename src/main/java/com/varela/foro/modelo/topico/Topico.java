@@ -11,6 +11,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,7 +32,8 @@ public class Topico {
     private Long id;
     private String titulo;
     private String mensaje;
-    private LocalDateTime fechaCreacion = LocalDateTime.now();
+    // Con la precisión de la columna (DATETIME(6)), para que la entidad recién creada coincida con la leída después.
+    private LocalDateTime fechaCreacion = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     private StatusTopico status = StatusTopico.NO_RESPONDIDO;
     @ManyToOne(cascade = CascadeType.ALL)
     @JoinColumn(name = "autor_id")
@@ -53,6 +55,15 @@ public class Topico {
         this.curso = new Curso(datosNuevoTopico.curso());
     }
 
+    /**
+     * Registra que el tópico recibió una respuesta: si aún no tenía ninguna, pasa a NO_SOLUCIONADO.
+     */
+    public void registrarRespuesta() {
+        if (status == StatusTopico.NO_RESPONDIDO) {
+            status = StatusTopico.NO_SOLUCIONADO;
+        }
+    }
+
     /**
      * Actualiza los atributos del tópico con los datos proporcionados.
      *
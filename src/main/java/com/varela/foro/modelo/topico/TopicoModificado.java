@@ -0,0 +1,34 @@
+package com.varela.foro.modelo.topico;
+
+import com.varela.foro.modelo.StatusTopico;
+
+/**
+ * Evento de aplicación que se publica cuando un tópico se crea, se actualiza o se elimina.
+ * Los oyentes que necesiten ver el cambio confirmado deben usar @TransactionalEventListener.
+ *
+ * @param tipo     El tipo de modificación.
+ * @param topico   El tópico modificado.
+ * @param anterior El curso y el estado del tópico antes de una actualización; nulo en los demás casos.
+ */
+public record TopicoModificado(
+        TipoModificacionTopico tipo,
+        Topico topico,
+        Estado anterior) {
+
+    public TopicoModificado(TipoModificacionTopico tipo, Topico topico) {
+        this(tipo, topico, null);
+    }
+
+    /**
+     * Curso y estado de un tópico en un momento dado.
+     *
+     * @param cursoId El ID del curso.
+     * @param status  El estado del tópico.
+     */
+    public record Estado(Long cursoId, StatusTopico status) {
+
+        public static Estado de(Topico topico) {
+            return new Estado(topico.getCurso() != null ? topico.getCurso().getId() : null, topico.getStatus());
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.varela.foro.modelo.topico;
 
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -10,5 +16,49 @@ import java.util.List;
  * Utiliza Spring Data JPA y extiende JpaRepository para realizar operaciones CRUD.
  */
 public interface TopicoRepository extends JpaRepository<Topico, Long> {
-    List<Topico> findByTituloAndMensaje(String titulo, String mensaje);
+
+    /**
+     * Busca los IDs de los tópicos con exactamente el título y el mensaje indicados, sin cargar las entidades.
+     *
+     * @param titulo  El título.
+     * @param mensaje El mensaje.
+     * @return Los IDs de los tópicos encontrados.
+     */
+    @Query("SELECT t.id FROM Topico t WHERE t.titulo = :titulo AND t.mensaje = :mensaje")
+    List<Long> buscarIdsPorTituloYMensaje(@Param("titulo") String titulo, @Param("mensaje") String mensaje);
+
+    /**
+     * Lista todos los tópicos con su autor y su curso en la misma consulta, en lugar de una consulta por cada uno.
+     *
+     * @param paginacion Información de paginación.
+     * @return Una página de tópicos.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    Page<Topico> findAll(Pageable paginacion);
+
+    /**
+     * Lista los tópicos creados desde una fecha, con su autor y su curso. El filtro por fecha_creacion permite a MySQL
+     * descartar las particiones antiguas de topico.
+     *
+     * @param desde      Fecha de creación mínima.
+     * @param paginacion Información de paginación.
+     * @return Una página de tópicos.
+     */
+    @EntityGraph(attributePaths = {"autor", "curso"})
+    Page<Topico> findByFechaCreacionGreaterThanEqual(LocalDateTime desde, Pageable paginacion);
+
+    /**
+     * Busca varios tópicos por sus IDs en una sola consulta, proyectados directamente a DatosListadoTopicoID.
+     *
+     * @param ids Los IDs de los tópicos.
+     * @return Los tópicos encontrados, sin orden garantizado.
+     */
+    @Query("""
+            SELECT new com.varela.foro.modelo.topico.DatosListadoTopicoID(t.id, t.titulo, t.mensaje, t.fechaCreacion,
+                t.status, a.nombre, c.nombre, c.categoria)
+            FROM Topico t LEFT JOIN t.autor a LEFT JOIN t.curso c
+            WHERE t.id IN :ids
+            """)
+    List<DatosListadoTopicoID> buscarDatosPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.varela.foro.modelo.topico;
+
+import com.varela.foro.modelo.StatusTopico;
+
+import java.util.List;
+
+/**
+ * Evento de aplicación que se publica por cada lote de una moderación masiva, en lugar de un TopicoModificado
+ * por tópico: los tópicos no se cargan como entidades.
+ *
+ * @param ids    IDs de los tópicos del lote que cambiaron de estado.
+ * @param status El estado nuevo.
+ */
+public record TopicosModerados(
+        List<Long> ids,
+        StatusTopico status) {
+}
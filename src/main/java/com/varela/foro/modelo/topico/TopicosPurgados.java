@@ -0,0 +1,13 @@
+package com.varela.foro.modelo.topico;
+
+import java.util.List;
+
+/**
+ * Evento de aplicación que se publica por cada lote de tópicos borrados al purgar un usuario. El borrado se hace
+ * por JDBC, sin TopicoModificado, así que los índices en memoria se mantienen con este evento.
+ *
+ * @param ids IDs de los tópicos borrados en el lote.
+ */
+public record TopicosPurgados(
+        List<Long> ids) {
+}
@@ -0,0 +1,24 @@
+package com.varela.foro.modelo.usuario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa el estado y el progreso de la purga del contenido de un usuario eliminado.
+ * Esta clase es un record de Java, lo que significa que es inmutable y contiene
+ * automáticamente métodos como equals, hashCode y toString.
+ */
+public record DatosPurgaUsuario(
+        Long id,
+        Long usuarioId,
+        EstadoPurga estado,
+        Long filasEliminadas,
+        Integer lotesProcesados,
+        LocalDateTime fechaSolicitud,
+        LocalDateTime fechaActualizacion,
+        String error) {
+
+    public DatosPurgaUsuario(PurgaUsuario purga) {
+        this(purga.getId(), purga.getUsuarioId(), purga.getEstado(), purga.getFilasEliminadas(),
+                purga.getLotesProcesados(), purga.getFechaSolicitud(), purga.getFechaActualizacion(), purga.getError());
+    }
+}
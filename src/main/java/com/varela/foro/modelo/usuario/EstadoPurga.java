@@ -0,0 +1,12 @@
+package com.varela.foro.modelo.usuario;
+
+/**
+ * Estados por los que pasa la purga en segundo plano del contenido de un usuario eliminado.
+ */
+public enum EstadoPurga {
+
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADA,
+    FALLIDA;
+}
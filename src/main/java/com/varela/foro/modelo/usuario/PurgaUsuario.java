@@ -0,0 +1,81 @@
+package com.varela.foro.modelo.usuario;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa una solicitud de purga del contenido de un usuario eliminado.
+ * Esta clase está mapeada a la tabla "usuario_purga" y guarda el progreso de la purga por lotes.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Table(name = "usuario_purga")
+@Entity(name = "PurgaUsuario")
+public class PurgaUsuario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+    @Enumerated(EnumType.STRING)
+    private EstadoPurga estado = EstadoPurga.PENDIENTE;
+    private Long filasEliminadas = 0L;
+    private Integer lotesProcesados = 0;
+    private LocalDateTime fechaSolicitud = LocalDateTime.now();
+    private LocalDateTime fechaActualizacion;
+    private String error;
+
+    /**
+     * Crea una nueva solicitud de purga pendiente para el usuario indicado.
+     *
+     * @param usuarioId El ID del usuario cuyo contenido se va a purgar.
+     */
+    public PurgaUsuario(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    /**
+     * Marca la purga como en proceso.
+     */
+    public void iniciar() {
+        this.estado = EstadoPurga.EN_PROCESO;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    /**
+     * Registra un lote confirmado de filas eliminadas.
+     *
+     * @param filas El número de filas eliminadas en el lote.
+     */
+    public void registrarLote(int filas) {
+        this.filasEliminadas += filas;
+        this.lotesProcesados++;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    /**
+     * Marca la purga como completada.
+     */
+    public void completar() {
+        this.estado = EstadoPurga.COMPLETADA;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    /**
+     * Marca la purga como fallida guardando el motivo.
+     *
+     * @param error El motivo del fallo.
+     */
+    public void fallar(String error) {
+        this.estado = EstadoPurga.FALLIDA;
+        this.error = (error != null && error.length() > 255) ? error.substring(0, 255) : error;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package com.varela.foro.modelo.usuario;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz que proporciona métodos de acceso a la base de datos para la entidad PurgaUsuario.
+ */
+public interface PurgaUsuarioRepository extends JpaRepository<PurgaUsuario, Long> {
+
+    /**
+     * Busca las purgas en los estados indicados, ordenadas por orden de llegada.
+     *
+     * @param estados Los estados a buscar.
+     * @return Las purgas encontradas.
+     */
+    List<PurgaUsuario> findByEstadoInOrderByIdAsc(List<EstadoPurga> estados);
+
+    /**
+     * Busca la purga más reciente de un usuario.
+     *
+     * @param usuarioId El ID del usuario.
+     * @return La purga más reciente, si existe.
+     */
+    Optional<PurgaUsuario> findFirstByUsuarioIdOrderByIdDesc(Long usuarioId);
+}
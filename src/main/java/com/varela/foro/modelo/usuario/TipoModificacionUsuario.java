@@ -0,0 +1,11 @@
+package com.varela.foro.modelo.usuario;
+
+/**
+ * Tipos de modificación que puede sufrir un usuario.
+ */
+public enum TipoModificacionUsuario {
+
+    CREADO,
+    ACTUALIZADO,
+    ELIMINADO;
+}
@@ -0,0 +1,76 @@
+package com.varela.foro.modelo.usuario;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa un token de refresco emitido a un usuario. Solo se guarda el hash SHA-256 del token.
+ * Los tokens de una misma sesión comparten familia: cada refresco consume el token actual y emite el siguiente,
+ * de modo que reutilizar un token ya consumido delata su robo y permite revocar toda la familia.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Table(name = "token_refresco")
+@Entity(name = "TokenRefresco")
+public class TokenRefresco {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+    private String hash;
+    private String familia;
+    /**
+     * jti del token de acceso emitido junto a este token de refresco, para poder revocarlo.
+     */
+    private String jtiAcceso;
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+    private LocalDateTime fechaExpiracion;
+    private LocalDateTime fechaUso;
+    private Boolean revocado = false;
+
+    /**
+     * Crea un nuevo token de refresco.
+     *
+     * @param usuarioId       El ID del usuario.
+     * @param hash            El hash SHA-256 (hexadecimal) del token.
+     * @param familia         La familia (sesión) a la que pertenece.
+     * @param jtiAcceso       El jti del token de acceso emitido con él.
+     * @param fechaExpiracion La fecha de expiración.
+     */
+    public TokenRefresco(Long usuarioId, String hash, String familia, String jtiAcceso, LocalDateTime fechaExpiracion) {
+        this.usuarioId = usuarioId;
+        this.hash = hash;
+        this.familia = familia;
+        this.jtiAcceso = jtiAcceso;
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    /**
+     * Indica si el token puede usarse para refrescar: no consumido, no revocado y no expirado.
+     */
+    public boolean isVigente() {
+        return fechaUso == null && !revocado && fechaExpiracion.isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * Marca el token como consumido por un refresco.
+     */
+    public void usar() {
+        this.fechaUso = LocalDateTime.now();
+    }
+
+    /**
+     * Revoca el token.
+     */
+    public void revocar() {
+        this.revocado = true;
+    }
+}
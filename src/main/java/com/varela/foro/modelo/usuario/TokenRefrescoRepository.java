@@ -0,0 +1,51 @@
+package com.varela.foro.modelo.usuario;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz que proporciona métodos de acceso a la base de datos para la entidad TokenRefresco.
+ */
+public interface TokenRefrescoRepository extends JpaRepository<TokenRefresco, Long> {
+
+    /**
+     * Busca un token por su hash bloqueando la fila, para que dos refrescos concurrentes con el mismo token
+     * no puedan consumirlo ambos.
+     *
+     * @param hash El hash SHA-256 del token.
+     * @return El token, si existe.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TokenRefresco t WHERE t.hash = :hash")
+    Optional<TokenRefresco> buscarParaActualizar(@Param("hash") String hash);
+
+    /**
+     * Busca los tokens de una familia (sesión).
+     *
+     * @param familia La familia.
+     * @return Los tokens de la familia.
+     */
+    List<TokenRefresco> findByFamilia(String familia);
+
+    /**
+     * Busca el token con el que se emitió un token de acceso.
+     *
+     * @param jtiAcceso El jti del token de acceso.
+     * @return El token de refresco, si existe.
+     */
+    Optional<TokenRefresco> findByJtiAcceso(String jtiAcceso);
+
+    /**
+     * Busca los tokens de un usuario. Los expirados se borran periódicamente, así que son pocos.
+     *
+     * @param usuarioId El ID del usuario.
+     * @return Los tokens del usuario.
+     */
+    List<TokenRefresco> findByUsuarioId(Long usuarioId);
+}
@@ -4,19 +4,25 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.varela.foro.modelo.topico.Topico;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 /**
  * Representa a un usuario en el sistema del foro.
  * Esta clase implementa la interfaz UserDetails para la integración de Spring Security.
+ * Se guarda en la caché de segundo nivel porque se lee en cada tópico listado y en cada solicitud autenticada.
  */
 @Table(name = "usuario")
 @Entity(name = "Usuario")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -29,6 +35,8 @@ public class Usuario implements UserDetails {
     private String nombre;
     private String email;
     private String contrasena;
+    private Boolean activo = true;
+    private LocalDateTime fechaEliminacion;
 
     /**
      * La lista de temas creados por el usuario.
@@ -37,6 +45,11 @@ public class Usuario implements UserDetails {
     @JsonIgnoreProperties("autor")
     private List<Topico> topicos;
 
+    /**
+     * Si el usuario puede moderar tópicos (ROLE_MODERADOR). Se asigna directamente en la base de datos.
+     */
+    private Boolean moderador = false;
+
     /**
      * Crea un nuevo usuario a partir de los datos de usuario proporcionados.
      *
@@ -61,6 +74,14 @@ public class Usuario implements UserDetails {
         return this;
     }
 
+    /**
+     * Oculta al usuario de forma inmediata (borrado lógico). El contenido asociado se purga después en segundo plano.
+     */
+    public void desactivar() {
+        this.activo = false;
+        this.fechaEliminacion = LocalDateTime.now();
+    }
+
     /**
      * Crea un nuevo usuario con los datos de usuario proporcionados y codifica la contraseña utilizando el codificador de contraseña especificado.
      *
@@ -84,15 +105,27 @@ public class Usuario implements UserDetails {
     }
 
     /**
-     * Obtiene las autoridades otorgadas al usuario. En esta implementación, al usuario se le otorga el rol "ROLE_USER".
+     * Obtiene las autoridades otorgadas al usuario: "ROLE_USER" y, si es moderador, también "ROLE_MODERADOR".
      *
      * @return Una colección de GrantedAuthority que representa las autoridades del usuario.
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (esModerador()) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_MODERADOR"));
+        }
         return List.of(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
+    /**
+     * Indica si el usuario puede moderar tópicos.
+     *
+     * @return Verdadero si es moderador.
+     */
+    public boolean esModerador() {
+        return Boolean.TRUE.equals(moderador);
+    }
+
     /**
      * Obtiene la contraseña codificada para el usuario.
      *
@@ -133,11 +166,11 @@ public class Usuario implements UserDetails {
     }
 
     /**
-     * Comprueba si el usuario está habilitado.
+     * Comprueba si el usuario está habilitado. Un usuario eliminado queda deshabilitado mientras se purga su contenido.
      */
     @Override
     public boolean isEnabled() {
-        return true;
+        return !Boolean.FALSE.equals(activo);
     }
 }
 
@@ -0,0 +1,13 @@
+package com.varela.foro.modelo.usuario;
+
+/**
+ * Evento de aplicación que se publica cuando un usuario se crea, se actualiza o se elimina.
+ * Los oyentes que necesiten ver el cambio confirmado deben usar @TransactionalEventListener.
+ *
+ * @param tipo    El tipo de modificación.
+ * @param usuario El usuario modificado.
+ */
+public record UsuarioModificado(
+        TipoModificacionUsuario tipo,
+        Usuario usuario) {
+}
@@ -1,9 +1,18 @@
 package com.varela.foro.modelo.usuario;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Interfaz que proporciona métodos de acceso a la base de datos para la entidad Usuario.
@@ -11,6 +20,11 @@ import java.util.List;
  */
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    /**
+     * Región de la caché de consultas usada por findByEmail.
+     */
+    String REGION_USUARIO_POR_EMAIL = "usuarioPorEmail";
+
     /**
      * Busca y devuelve una lista de usuarios que coinciden con el nombre y el email proporcionados.
      *
@@ -22,9 +36,43 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     /**
      * Busca y devuelve un UserDetails asociado al email proporcionado.
+     * El resultado se guarda en la caché de consultas (región "usuarioPorEmail"), ya que se ejecuta en cada solicitud autenticada.
      *
      * @param email El email del usuario para recuperar UserDetails.
      * @return UserDetails asociado al email proporcionado.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = REGION_USUARIO_POR_EMAIL)
+    })
     UserDetails findByEmail(String email);
+
+    /**
+     * Devuelve una página de usuarios activos (no eliminados).
+     *
+     * @param paginacion La información de paginación.
+     * @return Una página de usuarios activos.
+     */
+    Page<Usuario> findAllByActivoTrue(Pageable paginacion);
+
+    /**
+     * Busca un usuario activo por su ID.
+     *
+     * @param id El ID del usuario.
+     * @return El usuario, si existe y no ha sido eliminado.
+     */
+    Optional<Usuario> findByIdAndActivoTrue(Long id);
+
+    /**
+     * Busca varios usuarios activos por sus IDs en una sola consulta, proyectados directamente a DatosListadoUsuarios.
+     *
+     * @param ids Los IDs de los usuarios.
+     * @return Los usuarios encontrados, sin orden garantizado.
+     */
+    @Query("""
+            SELECT new com.varela.foro.modelo.usuario.DatosListadoUsuarios(u.id, u.nombre, u.email)
+            FROM Usuario u
+            WHERE u.id IN :ids AND u.activo = true
+            """)
+    List<DatosListadoUsuarios> buscarDatosPorIds(@Param("ids") Collection<Long> ids);
 }
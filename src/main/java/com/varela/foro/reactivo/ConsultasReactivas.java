@@ -0,0 +1,175 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.usuario.DatosListadoUsuarios;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Consultas R2DBC de la lectura reactiva, mapeadas directamente a los records Datos* que ya usa la API servlet.
+ * Las columnas y uniones son las mismas que las de las consultas JPA equivalentes, para que ambas respuestas coincidan.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ConsultasReactivas {
+
+    private static final String SELECT_TOPICO = """
+            SELECT t.id, t.titulo, t.mensaje, t.fecha_creacion, t.status, u.nombre AS autor, c.nombre AS curso_nombre,
+                c.categoria AS curso_categoria
+            FROM topico t LEFT JOIN usuario u ON u.id = t.autor_id LEFT JOIN curso c ON c.id = t.curso_id
+            """;
+
+    /**
+     * Propiedades por las que se puede ordenar cada listado y su columna SQL.
+     */
+    private static final Map<String, String> ORDEN_TOPICOS = Map.of(
+            "id", "t.id", "titulo", "t.titulo", "fechaCreacion", "t.fecha_creacion", "status", "t.status");
+
+    private static final Map<String, String> ORDEN_USUARIOS = Map.of("id", "id", "nombre", "nombre", "email", "email");
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Lista los tópicos creados desde una fecha, o todos si es nula.
+     *
+     * @param desde      Fecha de creación mínima (opcional).
+     * @param paginacion Información de paginación.
+     * @return Una página de tópicos.
+     */
+    public Mono<Page<DatosListadoTopico>> listarTopicos(LocalDateTime desde, Pageable paginacion) {
+        String filtro = desde != null ? " WHERE t.fecha_creacion >= :desde" : "";
+        var contenido = enlazarDesde(databaseClient.sql(SELECT_TOPICO + filtro + ordenYLimite(paginacion, ORDEN_TOPICOS, "t.id")), desde)
+                .map(fila -> new DatosListadoTopico(fila.get("id", Long.class), fila.get("titulo", String.class),
+                        fila.get("mensaje", String.class), fila.get("fecha_creacion", LocalDateTime.class), status(fila),
+                        fila.get("autor", String.class), fila.get("curso_nombre", String.class), fila.get("curso_categoria", String.class)))
+                .all()
+                .collectList();
+        var total = enlazarDesde(databaseClient.sql("SELECT COUNT(*) AS total FROM topico t" + filtro), desde)
+                .map(fila -> fila.get("total", Long.class))
+                .one();
+        return Mono.zip(contenido, total).map(resultado -> new PageImpl<>(resultado.getT1(), paginacion, resultado.getT2()));
+    }
+
+    /**
+     * Busca un tópico por su ID y, si ya no está en las tablas calientes, en el archivo.
+     *
+     * @param id El ID del tópico.
+     * @return El tópico, o vacío si no existe.
+     */
+    public Mono<DatosListadoTopicoID> topicoPorId(Long id) {
+        var caliente = databaseClient.sql(SELECT_TOPICO + " WHERE t.id = :id")
+                .bind("id", id)
+                .map(fila -> datosTopicoID(fila, "autor"))
+                .one();
+        var archivado = databaseClient.sql("""
+                        SELECT id, titulo, mensaje, fecha_creacion, status, autor_nombre, curso_nombre, curso_categoria
+                        FROM topico_archivo WHERE id = :id
+                        """)
+                .bind("id", id)
+                .map(fila -> datosTopicoID(fila, "autor_nombre"))
+                .one();
+        return caliente.switchIfEmpty(archivado);
+    }
+
+    /**
+     * Lista los usuarios activos.
+     *
+     * @param paginacion Información de paginación.
+     * @return Una página de usuarios.
+     */
+    public Mono<Page<DatosListadoUsuarios>> listarUsuarios(Pageable paginacion) {
+        var contenido = databaseClient.sql("SELECT id, nombre, email FROM usuario WHERE activo = TRUE"
+                        + ordenYLimite(paginacion, ORDEN_USUARIOS, "id"))
+                .map(ConsultasReactivas::datosUsuario)
+                .all()
+                .collectList();
+        var total = databaseClient.sql("SELECT COUNT(*) AS total FROM usuario WHERE activo = TRUE")
+                .map(fila -> fila.get("total", Long.class))
+                .one();
+        return Mono.zip(contenido, total).map(resultado -> new PageImpl<>(resultado.getT1(), paginacion, resultado.getT2()));
+    }
+
+    /**
+     * Busca un usuario activo por su ID.
+     *
+     * @param id El ID del usuario.
+     * @return El usuario, o vacío si no existe o está eliminado.
+     */
+    public Mono<DatosListadoUsuarios> usuarioPorId(Long id) {
+        return databaseClient.sql("SELECT id, nombre, email FROM usuario WHERE id = :id AND activo = TRUE")
+                .bind("id", id)
+                .map(ConsultasReactivas::datosUsuario)
+                .one();
+    }
+
+    /**
+     * Comprueba si existe un usuario activo con el email indicado.
+     *
+     * @param email El email del usuario.
+     * @return Verdadero si el usuario existe y está activo.
+     */
+    public Mono<Boolean> usuarioActivo(String email) {
+        return databaseClient.sql("SELECT id FROM usuario WHERE email = :email AND activo = TRUE")
+                .bind("email", email)
+                .map(fila -> fila.get("id", Long.class))
+                .first()
+                .hasElement();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec enlazarDesde(DatabaseClient.GenericExecuteSpec consulta, LocalDateTime desde) {
+        return desde != null ? consulta.bind("desde", desde) : consulta;
+    }
+
+    /**
+     * Traduce el orden y la página de Pageable a SQL. Solo se aceptan las propiedades conocidas, así nunca se
+     * concatena texto del cliente en la consulta.
+     */
+    private static String ordenYLimite(Pageable paginacion, Map<String, String> columnas, String ordenPorDefecto) {
+        String orden = ordenPorDefecto;
+        if (paginacion.getSort().isSorted()) {
+            orden = paginacion.getSort().stream().map(criterio -> {
+                String columna = columnas.get(criterio.getProperty());
+                if (columna == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No se puede ordenar por " + criterio.getProperty());
+                }
+                return columna + (criterio.getDirection() == Sort.Direction.DESC ? " DESC" : " ASC");
+            }).collect(Collectors.joining(", "));
+        }
+        return " ORDER BY " + orden + " LIMIT " + paginacion.getPageSize() + " OFFSET " + paginacion.getOffset();
+    }
+
+    private static DatosListadoTopicoID datosTopicoID(Readable fila, String columnaAutor) {
+        return new DatosListadoTopicoID(fila.get("id", Long.class), fila.get("titulo", String.class), fila.get("mensaje", String.class),
+                fila.get("fecha_creacion", LocalDateTime.class), status(fila), fila.get(columnaAutor, String.class),
+                fila.get("curso_nombre", String.class), fila.get("curso_categoria", String.class));
+    }
+
+    private static DatosListadoUsuarios datosUsuario(Readable fila) {
+        return new DatosListadoUsuarios(fila.get("id", Long.class), fila.get("nombre", String.class), fila.get("email", String.class));
+    }
+
+    /**
+     * El estado se guarda como TINYINT (ordinal); cada driver lo devuelve con un tipo numérico distinto.
+     */
+    private static StatusTopico status(Readable fila) {
+        Object valor = fila.get("status");
+        return valor == null ? null : StatusTopico.values()[((Number) valor).intValue()];
+    }
+}
@@ -0,0 +1,64 @@
+package com.varela.foro.reactivo;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.varela.foro.infra.security.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Versión reactiva de SecurityFilter: valida el token con el mismo TokenService, descarta los tokens sin jti o
+ * revocados (RevocacionReactiva) y comprueba con una consulta R2DBC que el usuario siga activo. Si el token es válido, la autenticación se propaga en el contexto de Reactor.
+ * No es un bean para que WebFlux no lo registre también fuera de la cadena de seguridad.
+ */
+class FiltroJwtReactivo implements WebFilter {
+
+    private final TokenService tokenService;
+
+    private final ConsultasReactivas consultasReactivas;
+
+    private final RevocacionReactiva revocacionReactiva;
+
+    FiltroJwtReactivo(TokenService tokenService, ConsultasReactivas consultasReactivas, RevocacionReactiva revocacionReactiva) {
+        this.tokenService = tokenService;
+        this.consultasReactivas = consultasReactivas;
+        this.revocacionReactiva = revocacionReactiva;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null) {
+            return chain.filter(exchange);
+        }
+        DecodedJWT jwt;
+        try {
+            // La verificación de la firma es solo CPU; no hace falta sacarla del hilo del bucle de eventos.
+            jwt = tokenService.verificar(authHeader.replace("Bearer", "").trim());
+        } catch (RuntimeException e) {
+            return chain.filter(exchange);
+        }
+        var email = jwt.getSubject();
+        // Los tokens sin jti no pueden revocarse, así que no se aceptan
+        if (email == null || jwt.getId() == null) {
+            return chain.filter(exchange);
+        }
+        return revocacionReactiva.estaRevocado(jwt.getId())
+                .flatMap(revocado -> revocado ? Mono.just(false) : consultasReactivas.usuarioActivo(email))
+                .flatMap(activo -> {
+                    if (!activo) {
+                        // Token revocado, o usuario eliminado o inexistente: no se autentica la solicitud
+                        return chain.filter(exchange);
+                    }
+                    var authentication = new UsernamePasswordAuthenticationToken(email, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+                    return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                });
+    }
+}
@@ -0,0 +1,98 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.infra.security.TokenService;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * Aplicación opcional de solo lectura sobre WebFlux y R2DBC. Sirve GET /topico, GET /topico/{id}, GET /usuario y
+ * GET /usuario/{id} sin bloquear hilos, contra la misma base de datos que ForoApplication.
+ * Se arranca como un proceso aparte (normalmente detrás del mismo balanceador, enrutando solo las lecturas):
+ * java -cp foro.jar -Dloader.main=com.varela.foro.reactivo.LecturaReactivaApplication org.springframework.boot.loader.launch.PropertiesLauncher
+ * Lee su configuración de lectura-reactiva.properties; las tareas programadas recargan los jti revocados. Dentro de ForoApplication (servlet) sus beans no se registran.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, ReactiveUserDetailsServiceAutoConfiguration.class})
+@ComponentScan
+@Import(TokenService.class)
+@EnableScheduling
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class LecturaReactivaApplication {
+
+    /**
+     * Nombre del fichero de configuración de la lectura reactiva.
+     */
+    public static final String CONFIGURACION = "spring.config.name=lectura-reactiva";
+
+    public static void main(String[] args) {
+        iniciar(args);
+    }
+
+    /**
+     * Arranca la lectura reactiva.
+     *
+     * @param args Los argumentos de línea de comandos.
+     * @return El contexto de la aplicación.
+     */
+    public static ConfigurableApplicationContext iniciar(String... args) {
+        return new SpringApplicationBuilder(LecturaReactivaApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(CONFIGURACION)
+                .run(args);
+    }
+
+    /**
+     * Usa Netty aunque Tomcat esté en el classpath (lo trae la aplicación servlet), para servir con un bucle de eventos.
+     */
+    @Bean
+    NettyReactiveWebServerFactory servidorNetty() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Permite recibir Pageable (page, size, sort y @PageableDefault) en los controladores reactivos.
+     */
+    @Bean
+    WebFluxConfigurer paginacionReactiva() {
+        return new WebFluxConfigurer() {
+            @Override
+            public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+                configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+            }
+        };
+    }
+
+    /**
+     * Mismas reglas que la aplicación servlet para las lecturas: sin sesión y con todas las rutas autenticadas por JWT.
+     */
+    @Bean
+    SecurityWebFilterChain cadenaSeguridadReactiva(ServerHttpSecurity http, TokenService tokenService,
+                                                   ConsultasReactivas consultasReactivas, RevocacionReactiva revocacionReactiva) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(rutas -> rutas.anyExchange().authenticated())
+                .addFilterAt(new FiltroJwtReactivo(tokenService, consultasReactivas, revocacionReactiva), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.varela.foro.reactivo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Versión reactiva de RevocacionTokens: mantiene en memoria el conjunto de jti revocados aún vigentes, leído de
+ * jti_revocado por R2DBC y recargado cada intervalo. La lectura reactiva no revoca tokens, así que no hay
+ * revocaciones locales que conservar entre recargas; la limpieza de los expirados la hace la aplicación servlet.
+ * Una revocación tarda como mucho un intervalo de sincronización en verse aquí, igual que entre instancias servlet.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class RevocacionReactiva {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Jti revocados vigentes en la última sincronización, o nulo hasta la primera carga.
+     */
+    private volatile Set<String> revocados;
+
+    /**
+     * Indica si el token de acceso con el jti dado está revocado. Antes de la primera carga se consulta la tabla.
+     *
+     * @param jti El identificador del token.
+     * @return Verdadero si está revocado.
+     */
+    public Mono<Boolean> estaRevocado(String jti) {
+        var actual = revocados;
+        if (actual != null) {
+            return Mono.just(actual.contains(jti));
+        }
+        return databaseClient.sql("SELECT COUNT(*) AS total FROM jti_revocado WHERE jti = :jti")
+                .bind("jti", jti)
+                .map(fila -> fila.get("total", Long.class))
+                .one()
+                .map(total -> total > 0);
+    }
+
+    /**
+     * Carga el conjunto al arrancar, antes de atender peticiones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        sincronizar();
+    }
+
+    /**
+     * Recarga el conjunto con los jti revocados aún vigentes. Se ejecuta en el hilo del planificador, no en el
+     * bucle de eventos, así que puede esperar al resultado.
+     */
+    @Scheduled(fixedDelayString = "${foro.revocacion.intervalo-ms:30000}", initialDelayString = "${foro.revocacion.intervalo-ms:30000}")
+    public void sincronizar() {
+        revocados = databaseClient.sql("SELECT jti FROM jti_revocado WHERE fecha_expiracion > :ahora")
+                .bind("ahora", LocalDateTime.now())
+                .map(fila -> fila.get("jti", String.class))
+                .all()
+                .collect(Collectors.toUnmodifiableSet())
+                .block();
+    }
+}
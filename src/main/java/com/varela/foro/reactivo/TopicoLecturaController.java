@@ -0,0 +1,61 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+
+/**
+ * Lectura reactiva de tópicos. Responde igual que GET /topico y GET /topico/{id} de TopicoController.
+ */
+@RestController
+@RequestMapping("/topico")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TopicoLecturaController {
+
+    @Autowired
+    private ConsultasReactivas consultasReactivas;
+
+    /**
+     * Antigüedad máxima de los tópicos del listado por defecto; limita la consulta a las particiones recientes.
+     */
+    @Value("${foro.particiones.ventana-listado:P6M}")
+    private Period ventanaListado;
+
+    /**
+     * Maneja el listado de topicos con paginación.
+     *
+     * @param paginacion Información de paginación.
+     * @param historico  Si es verdadero, se listan todos los tópicos; si no, solo los creados dentro de la ventana reciente.
+     * @return Una página de detalles del topico.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Page<DatosListadoTopico>>> listarTopicos(@PageableDefault(size = 10) Pageable paginacion,
+                                                                        @RequestParam(defaultValue = "false") boolean historico) {
+        LocalDateTime desde = historico ? null : LocalDateTime.now().minus(ventanaListado);
+        return consultasReactivas.listarTopicos(desde, paginacion).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Maneja el listado de un topico en especifico por su ID.
+     *
+     * @param id ID del topico.
+     * @return Los detalles del topico, o 404 si no existe.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<DatosListadoTopicoID>> listarTopicoPorId(@PathVariable Long id) {
+        return consultasReactivas.topicoPorId(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
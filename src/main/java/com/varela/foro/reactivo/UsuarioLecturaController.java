@@ -0,0 +1,50 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.modelo.usuario.DatosListadoUsuarios;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lectura reactiva de usuarios. Responde igual que GET /usuario y GET /usuario/{id} de UsuarioController.
+ */
+@RestController
+@RequestMapping("/usuario")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UsuarioLecturaController {
+
+    @Autowired
+    private ConsultasReactivas consultasReactivas;
+
+    /**
+     * Maneja el listado de usuarios activos con paginación.
+     *
+     * @param paginacion La información de paginación.
+     * @return Una página de usuarios.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Page<DatosListadoUsuarios>>> listarUsuarios(@PageableDefault(size = 10) Pageable paginacion) {
+        return consultasReactivas.listarUsuarios(paginacion).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Maneja la recuperación de un usuario activo por su ID.
+     *
+     * @param id El ID del usuario.
+     * @return Los datos del usuario, o 404 si no existe o está eliminado.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<DatosListadoUsuarios>> listarUsuarioPorId(@PathVariable Long id) {
+        return consultasReactivas.usuarioPorId(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
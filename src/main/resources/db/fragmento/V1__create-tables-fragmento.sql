@@ -0,0 +1,38 @@
+-- Esquema de un fragmento: tópicos y respuestas de las cubetas que le pertenecen. Los IDs los genera la aplicación
+-- (IdsFragmentados) y llevan la cubeta; autor_id y curso_id apuntan a la base de datos principal, sin clave foránea.
+
+CREATE TABLE topico (
+
+    id BIGINT NOT NULL,
+    cubeta INT NOT NULL,
+    titulo VARCHAR(255),
+    mensaje VARCHAR(255),
+    fecha_creacion DATETIME(6),
+    status TINYINT CHECK (status BETWEEN 0 AND 3),
+    autor_id BIGINT,
+    curso_id BIGINT,
+
+    PRIMARY KEY (id)
+
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_topico_cubeta ON topico (cubeta, id);
+CREATE INDEX idx_topico_curso ON topico (curso_id, id);
+
+CREATE TABLE respuesta (
+
+    id BIGINT NOT NULL,
+    cubeta INT NOT NULL,
+    topico_id BIGINT NOT NULL,
+    mensaje VARCHAR(255),
+    fecha_creacion DATETIME(6),
+    autor_id BIGINT,
+
+    PRIMARY KEY (id),
+
+    FOREIGN KEY (topico_id) REFERENCES topico (id) ON DELETE CASCADE
+
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_respuesta_cubeta ON respuesta (cubeta, id);
+CREATE INDEX idx_respuesta_topico ON respuesta (topico_id, id);
@@ -0,0 +1,13 @@
+-- Número de tópicos de cada cubeta en este fragmento, mantenido junto con cada alta y baja, para que el listado
+-- general no tenga que contar los tópicos en cada página.
+
+CREATE TABLE cubeta_conteo (
+
+    cubeta INT NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (cubeta)
+
+) ENGINE=InnoDB;
+
+INSERT INTO cubeta_conteo (cubeta, total) SELECT cubeta, COUNT(*) FROM topico GROUP BY cubeta;
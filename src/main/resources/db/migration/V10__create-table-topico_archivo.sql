@@ -0,0 +1,32 @@
+CREATE TABLE topico_archivo (
+
+    id BIGINT NOT NULL,
+    titulo VARCHAR(255),
+    mensaje VARCHAR(255),
+    fecha_creacion DATETIME(6) NOT NULL,
+    status TINYINT,
+    autor_nombre VARCHAR(255),
+    curso_id BIGINT,
+    curso_nombre VARCHAR(255),
+    curso_categoria VARCHAR(255),
+    fecha_archivo DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (id)
+
+) ENGINE=InnoDB;
+
+CREATE TABLE respuesta_archivo (
+
+    id BIGINT NOT NULL,
+    topico_id BIGINT NOT NULL,
+    mensaje VARCHAR(255),
+    fecha_creacion DATETIME(6),
+    autor_nombre VARCHAR(255),
+    solucion BIT(1),
+
+    PRIMARY KEY (id),
+    INDEX idx_respuesta_archivo_topico (topico_id)
+
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_topico_status_fecha ON topico (status, fecha_creacion);
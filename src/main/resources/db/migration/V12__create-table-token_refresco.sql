@@ -0,0 +1,30 @@
+CREATE TABLE token_refresco (
+
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    hash CHAR(64) NOT NULL,
+    familia CHAR(36) NOT NULL,
+    jti_acceso CHAR(36) NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    fecha_expiracion DATETIME(6) NOT NULL,
+    fecha_uso DATETIME(6),
+    revocado BOOLEAN NOT NULL DEFAULT FALSE,
+
+    PRIMARY KEY (id),
+    CONSTRAINT uk_token_refresco_hash UNIQUE (hash),
+    INDEX idx_token_refresco_familia (familia),
+    INDEX idx_token_refresco_usuario (usuario_id),
+    FOREIGN KEY (usuario_id) REFERENCES usuario (id) ON DELETE CASCADE
+
+) ENGINE=InnoDB;
+
+CREATE TABLE jti_revocado (
+
+    jti CHAR(36) NOT NULL,
+    fecha_expiracion DATETIME(6) NOT NULL,
+    fecha_revocacion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (jti),
+    INDEX idx_jti_revocado_expiracion (fecha_expiracion)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,28 @@
+CREATE TABLE curso_stats (
+
+    curso_id BIGINT NOT NULL,
+    no_respondidos BIGINT NOT NULL DEFAULT 0,
+    no_solucionados BIGINT NOT NULL DEFAULT 0,
+    solucionados BIGINT NOT NULL DEFAULT 0,
+    cerrados BIGINT NOT NULL DEFAULT 0,
+    fecha_actualizacion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (curso_id),
+    FOREIGN KEY (curso_id) REFERENCES curso (id) ON DELETE CASCADE
+
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_topico_archivo_curso ON topico_archivo (curso_id, status);
+
+INSERT INTO curso_stats (curso_id, no_respondidos, no_solucionados, solucionados, cerrados, fecha_actualizacion)
+SELECT c.id,
+       SUM(CASE WHEN t.status = 0 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 1 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 2 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN t.status = 3 THEN 1 ELSE 0 END),
+       CURRENT_TIMESTAMP
+FROM curso c
+JOIN (SELECT curso_id, status FROM topico
+      UNION ALL
+      SELECT curso_id, status FROM topico_archivo) t ON t.curso_id = c.id
+GROUP BY c.id;
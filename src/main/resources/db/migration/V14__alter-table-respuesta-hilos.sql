@@ -0,0 +1,14 @@
+-- Respuestas anidadas con ruta materializada: la ruta de una respuesta es la de su padre seguida de su propio ID
+-- con 12 dígitos, de modo que ordenar por ruta da el hilo en orden de lectura y un subárbol es un rango de rutas.
+
+ALTER TABLE respuesta ADD COLUMN respuesta_padre_id BIGINT;
+ALTER TABLE respuesta ADD COLUMN ruta VARCHAR(240);
+ALTER TABLE respuesta ADD COLUMN profundidad INT NOT NULL DEFAULT 0;
+
+UPDATE respuesta SET ruta = LPAD(CONCAT('', id), 12, '0') WHERE ruta IS NULL;
+
+CREATE INDEX idx_respuesta_topico_ruta ON respuesta (topico_id, ruta);
+
+ALTER TABLE respuesta_archivo ADD COLUMN respuesta_padre_id BIGINT;
+ALTER TABLE respuesta_archivo ADD COLUMN ruta VARCHAR(240);
+ALTER TABLE respuesta_archivo ADD COLUMN profundidad INT NOT NULL DEFAULT 0;
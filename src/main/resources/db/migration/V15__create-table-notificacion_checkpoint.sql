@@ -0,0 +1,10 @@
+CREATE TABLE notificacion_checkpoint (
+
+    trabajo VARCHAR(100) NOT NULL,
+    ultimo_id BIGINT NOT NULL DEFAULT 0,
+    pendiente_hasta BIGINT,
+    fecha_actualizacion DATETIME(6),
+
+    PRIMARY KEY (trabajo)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,12 @@
+-- Dueño de cada una de las 1024 cubetas de tópicos fragmentados. Se rellena desde el anillo configurado la primera vez
+-- y después solo la cambia el rebalanceo, cubeta a cubeta.
+
+CREATE TABLE fragmento_cubeta (
+
+    cubeta INT NOT NULL,
+    fragmento VARCHAR(100) NOT NULL,
+    fecha_actualizacion DATETIME(6),
+
+    PRIMARY KEY (cubeta)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,4 @@
+-- Reclamo de una purga por una instancia: solo la instancia que la reclama la procesa mientras su reclamo no caduque.
+
+ALTER TABLE usuario_purga ADD COLUMN reclamada_por VARCHAR(64);
+ALTER TABLE usuario_purga ADD COLUMN reclamada_hasta DATETIME(6);
@@ -0,0 +1,16 @@
+-- Reclamo del relevo de cada consumidor: solo una instancia drena un consumidor mientras su reclamo no caduque.
+
+ALTER TABLE outbox_checkpoint ADD COLUMN reclamado_por VARCHAR(64);
+ALTER TABLE outbox_checkpoint ADD COLUMN reclamado_hasta DATETIME(6);
+
+-- IDs por debajo del checkpoint que aún no se han visto (transacciones que confirmaron tarde).
+
+CREATE TABLE outbox_hueco (
+
+    consumidor VARCHAR(100) NOT NULL,
+    id BIGINT NOT NULL,
+    fecha_deteccion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (consumidor, id)
+
+) ENGINE=InnoDB;
@@ -0,0 +1 @@
+ALTER TABLE usuario ADD COLUMN moderador BIT(1) NOT NULL DEFAULT 0;
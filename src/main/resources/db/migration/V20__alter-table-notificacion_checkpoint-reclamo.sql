@@ -0,0 +1,16 @@
+-- Reclamo del resumen de respuestas: solo una instancia recorre las respuestas mientras su reclamo no caduque.
+
+ALTER TABLE notificacion_checkpoint ADD COLUMN reclamado_por VARCHAR(64);
+ALTER TABLE notificacion_checkpoint ADD COLUMN reclamado_hasta DATETIME(6);
+
+-- IDs de respuesta por debajo del checkpoint que aún no se han visto (transacciones que confirmaron tarde).
+
+CREATE TABLE notificacion_hueco (
+
+    trabajo VARCHAR(100) NOT NULL,
+    id BIGINT NOT NULL,
+    fecha_deteccion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (trabajo, id)
+
+) ENGINE=InnoDB;
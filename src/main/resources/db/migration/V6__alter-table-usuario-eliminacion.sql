@@ -0,0 +1,19 @@
+ALTER TABLE usuario ADD COLUMN activo BIT(1) NOT NULL DEFAULT 1;
+ALTER TABLE usuario ADD COLUMN fecha_eliminacion DATETIME(6);
+
+CREATE TABLE usuario_purga (
+
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    filas_eliminadas BIGINT NOT NULL DEFAULT 0,
+    lotes_procesados INT NOT NULL DEFAULT 0,
+    fecha_solicitud DATETIME(6) NOT NULL,
+    fecha_actualizacion DATETIME(6),
+    error VARCHAR(255),
+
+    PRIMARY KEY (id),
+    INDEX idx_usuario_purga_estado (estado, id),
+    INDEX idx_usuario_purga_usuario (usuario_id)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,14 @@
+CREATE TABLE idempotencia (
+
+    clave VARCHAR(255) NOT NULL,
+    huella CHAR(64) NOT NULL,
+    estado INT NOT NULL,
+    tipo_contenido VARCHAR(255),
+    ubicacion VARCHAR(512),
+    cuerpo BLOB,
+    fecha_creacion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (clave),
+    INDEX idx_idempotencia_fecha (fecha_creacion)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,23 @@
+CREATE TABLE outbox (
+
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    agregado VARCHAR(50) NOT NULL,
+    agregado_id BIGINT,
+    tipo VARCHAR(50) NOT NULL,
+    carga TEXT,
+    fecha_creacion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (id),
+    INDEX idx_outbox_fecha (fecha_creacion)
+
+) ENGINE=InnoDB;
+
+CREATE TABLE outbox_checkpoint (
+
+    consumidor VARCHAR(100) NOT NULL,
+    ultimo_id BIGINT NOT NULL DEFAULT 0,
+    fecha_actualizacion DATETIME(6),
+
+    PRIMARY KEY (consumidor)
+
+) ENGINE=InnoDB;
@@ -0,0 +1,10 @@
+CREATE TABLE lectura_usuario (
+
+    usuario_id BIGINT NOT NULL,
+    leidos MEDIUMBLOB NOT NULL,
+    fecha_actualizacion DATETIME(6) NOT NULL,
+
+    PRIMARY KEY (usuario_id),
+    FOREIGN KEY (usuario_id) REFERENCES usuario (id) ON UPDATE CASCADE ON DELETE CASCADE
+
+) ENGINE=InnoDB;
@@ -0,0 +1,91 @@
+package com.varela.foro.controller;
+
+import com.varela.foro.infra.purga.PurgadorDeUsuarios;
+import com.varela.foro.modelo.usuario.DatosNuevoUsuario;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private UsuarioController usuarioController;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PurgadorDeUsuarios purgadorDeUsuarios;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void limpiarEstadisticas() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    private Usuario crearUsuario(String nombre, String email) {
+        return usuarioRepository.save(new Usuario(new DatosUsuario(nombre, email, "clave"), NoOpPasswordEncoder.getInstance()));
+    }
+
+    @Test
+    void findByIdYFindByEmailSeSirvenDesdeLaCache() {
+        Usuario usuario = crearUsuario("ana", "ana@foro.com");
+
+        usuarioRepository.findById(usuario.getId());
+        usuarioRepository.findByEmail("ana@foro.com");
+        estadisticas.clear();
+        usuarioRepository.findById(usuario.getId());
+        usuarioRepository.findByEmail("ana@foro.com");
+
+        assertThat(estadisticas.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void actualizarUsuarioInvalidaLaCache() {
+        Usuario usuario = crearUsuario("luis", "luis@foro.com");
+        usuarioRepository.findById(usuario.getId());
+        usuarioRepository.findByEmail("luis@foro.com");
+
+        usuarioController.actualizarUsuario(usuario.getId(), new DatosNuevoUsuario("luis2", "luis2@foro.com", "clave"));
+
+        assertThat(usuarioRepository.findById(usuario.getId())).get().extracting(Usuario::getNombre).isEqualTo("luis2");
+        assertThat(usuarioRepository.findByEmail("luis@foro.com")).isNull();
+        assertThat(usuarioRepository.findByEmail("luis2@foro.com")).isNotNull();
+    }
+
+    @Test
+    void eliminarUsuarioYPurgarInvalidaLaCache() {
+        Usuario usuario = crearUsuario("eva", "eva@foro.com");
+        usuarioRepository.findById(usuario.getId());
+        usuarioRepository.findByEmail("eva@foro.com");
+
+        usuarioController.eliminarUsuario(usuario.getId(), UriComponentsBuilder.newInstance());
+        assertThat(usuarioRepository.findByEmail("eva@foro.com").isEnabled()).isFalse();
+
+        purgadorDeUsuarios.procesarPendientes();
+
+        assertThat(usuarioRepository.findById(usuario.getId())).isEmpty();
+        assertThat(usuarioRepository.findByEmail("eva@foro.com")).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package com.varela.foro.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.DatosLote;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConsultaPorLoteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    private String autorizacion;
+
+    @BeforeEach
+    void iniciarSesion() {
+        autorizacion = "Bearer " + servicioSesiones.iniciar(crearUsuario()).jwTtoken();
+    }
+
+    @Test
+    void quitaRepetidosYNulosConservandoElOrden() {
+        assertThat(ConsultaPorLote.distintos(Arrays.asList(3L, null, 1L, 3L, 2L, 1L))).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void ordenaLosEncontradosComoLaSolicitudEInformaLosQueFaltan() {
+        DatosLote<Long> lote = ConsultaPorLote.ordenar(List.of(5L, 9L, 1L), List.of(1L, 5L), Function.identity());
+
+        assertThat(lote.resultados()).containsExactly(5L, 1L);
+        assertThat(lote.noEncontrados()).containsExactly(9L);
+    }
+
+    @Test
+    void devuelveLosTopicosEnElOrdenSolicitadoSinRepetidosEInformaLosQueFaltan() throws Exception {
+        var unico = UUID.randomUUID().toString();
+        var a = crearTopico("Lote A " + unico);
+        var b = crearTopico("Lote B " + unico);
+        long inexistente = Long.MAX_VALUE;
+
+        var lote = leer("/topico/batch", List.of(b, inexistente, a, b));
+
+        assertThat(ids(lote.get("resultados"))).containsExactly(b, a);
+        assertThat(ids(lote.get("noEncontrados"))).containsExactly(inexistente);
+    }
+
+    @Test
+    void devuelveLosUsuariosEnElOrdenSolicitadoSinRepetidosEInformaLosQueFaltan() throws Exception {
+        var a = crearUsuario().getId();
+        var b = crearUsuario().getId();
+        long inexistente = Long.MAX_VALUE;
+
+        var lote = leer("/usuario/batch", List.of(a, inexistente, b, a));
+
+        assertThat(ids(lote.get("resultados"))).containsExactly(a, b);
+        assertThat(ids(lote.get("noEncontrados"))).containsExactly(inexistente);
+    }
+
+    @Test
+    void rechazaMasIdsDeLosPermitidosContandoSoloLosDistintos() throws Exception {
+        var demasiados = LongStream.rangeClosed(1, 101).boxed().toList();
+        var repetidos = new ArrayList<Long>(LongStream.rangeClosed(1, 100).boxed().toList());
+        repetidos.addAll(repetidos);
+
+        for (String ruta : List.of("/topico/batch", "/usuario/batch")) {
+            mockMvc.perform(get(ruta).param("ids", unir(demasiados)).header("Authorization", autorizacion)
+                    .accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+            var lote = leer(ruta, repetidos);
+            assertThat(lote.get("resultados").size() + lote.get("noEncontrados").size()).isEqualTo(100);
+        }
+    }
+
+    private JsonNode leer(String ruta, List<Long> ids) throws Exception {
+        var respuesta = mockMvc.perform(get(ruta).param("ids", unir(ids)).header("Authorization", autorizacion)
+                .accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andReturn().getResponse();
+        return objectMapper.readTree(respuesta.getContentAsByteArray());
+    }
+
+    private static List<Long> ids(JsonNode nodos) {
+        var ids = new ArrayList<Long>();
+        nodos.forEach(nodo -> ids.add(nodo.isObject() ? nodo.get("id").asLong() : nodo.asLong()));
+        return ids;
+    }
+
+    private static String unir(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private Usuario crearUsuario() {
+        return usuarioRepository.save(new Usuario(new DatosUsuario("lote", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+    }
+
+    private Long crearTopico(String titulo) {
+        return topicoRepository.save(new Topico(new DatosNuevoTopico(titulo, "Mensaje " + titulo,
+                new DatosUsuario("autor", UUID.randomUUID() + "@foro.com", "clave"), new DatosCurso("Lotes", "Backend")))).getId();
+    }
+}
@@ -0,0 +1,160 @@
+package com.varela.foro.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.respuesta.DatosNuevaRespuesta;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HiloRespuestasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String autorizacion;
+    private Long topicoId;
+
+    @BeforeEach
+    void crearTopico() {
+        var unico = UUID.randomUUID().toString();
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("lector", unico + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+        topicoId = topicoRepository.save(new Topico(new DatosNuevoTopico("Hilo " + unico, "Mensaje " + unico,
+                new DatosUsuario("autor", "autor" + unico + "@foro.com", "clave"), new DatosCurso("Hilos", "Backend")))).getId();
+    }
+
+    @Test
+    void leeSubarbolesEnOrdenDeLecturaYConProfundidadLimitada() throws Exception {
+        var a = responder("A", null);
+        var b = responder("B", null);
+        var a1 = responder("A1", a);
+        responder("A1a", a1);
+        responder("A2", a);
+
+        assertThat(mensajes(leer(null, null, null))).containsExactly("A", "A1", "A1a", "A2", "B");
+        assertThat(mensajes(leer(a, 1, null))).containsExactly("A1", "A2");
+        assertThat(mensajes(leer(a, null, null))).containsExactly("A1", "A1a", "A2");
+        assertThat(mensajes(leer(null, 1, null))).containsExactly("A", "B");
+        assertThat(mensajes(leer(b, null, null))).isEmpty();
+        assertThat(topicoRepository.findById(topicoId).orElseThrow().getStatus()).isEqualTo(StatusTopico.NO_SOLUCIONADO);
+    }
+
+    @Test
+    void paginaElHiloConElCursorDeRuta() throws Exception {
+        var a = responder("A", null);
+        responder("A1", a);
+        responder("A2", a);
+        responder("B", null);
+
+        var leidas = new ArrayList<String>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            var pagina = leer(null, null, cursor, 3);
+            leidas.addAll(mensajes(pagina));
+            cursor = pagina.get("siguiente").isNull() ? null : pagina.get("siguiente").asText();
+            paginas++;
+        } while (cursor != null);
+
+        assertThat(leidas).containsExactly("A", "A1", "A2", "B");
+        assertThat(paginas).isEqualTo(2);
+    }
+
+    @Test
+    void escribeCadaRespuestaEnElOutbox() throws Exception {
+        var a = responder("A", null);
+        // La segunda respuesta no cambia el estado del tópico, así que no hay TopicoModificado.
+        var a1 = responder("A1", a);
+
+        for (Long id : List.of(a, a1)) {
+            var carga = objectMapper.readTree(jdbcTemplate.queryForObject(
+                    "SELECT carga FROM outbox WHERE agregado = 'respuesta' AND agregado_id = ? AND tipo = 'CREADA'", String.class, id));
+            assertThat(carga.get("topicoId").asLong()).isEqualTo(topicoId);
+            assertThat(carga.get("respuesta").get("id").asLong()).isEqualTo(id);
+        }
+    }
+
+    private Long responder(String mensaje, Long padre) throws Exception {
+        var cuerpo = objectMapper.writeValueAsString(new DatosNuevaRespuesta(mensaje, padre));
+        var respuesta = mockMvc.perform(conToken(post("/topico/{id}/respuestas", topicoId))
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).get("id").asLong();
+    }
+
+    private JsonNode leer(Long padre, Integer profundidad, String despues) throws Exception {
+        return leer(padre, profundidad, despues, 50);
+    }
+
+    private JsonNode leer(Long padre, Integer profundidad, String despues, int tamano) throws Exception {
+        var solicitud = conToken(get("/topico/{id}/respuestas", topicoId)).param("size", String.valueOf(tamano));
+        if (padre != null) {
+            solicitud.param("parent", padre.toString());
+        }
+        if (profundidad != null) {
+            solicitud.param("depth", profundidad.toString());
+        }
+        if (despues != null) {
+            solicitud.param("despues", despues);
+        }
+        var respuesta = mockMvc.perform(solicitud).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta);
+    }
+
+    private List<String> mensajes(JsonNode pagina) {
+        var mensajes = new ArrayList<String>();
+        pagina.get("respuestas").forEach(respuesta -> mensajes.add(respuesta.get("mensaje").asText()));
+        return mensajes;
+    }
+
+    private MockHttpServletRequestBuilder conToken(MockHttpServletRequestBuilder solicitud) {
+        return solicitud.header("Authorization", autorizacion).accept(MediaType.APPLICATION_JSON);
+    }
+}
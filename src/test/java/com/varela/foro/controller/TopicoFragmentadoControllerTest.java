@@ -0,0 +1,136 @@
+package com.varela.foro.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.CursoRepository;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.respuesta.DatosNuevaRespuesta;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "foro.fragmentos.habilitado=true",
+        "foro.fragmentos.aceptar-funciones-limitadas=true",
+        "foro.fragmentos.anillo=a,b",
+        "foro.fragmentos.max-resultados=20",
+        "foro.fragmentos.nodos.a.url=jdbc:h2:mem:fragmento_api_a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.a.username=sa",
+        "foro.fragmentos.nodos.b.url=jdbc:h2:mem:fragmento_api_b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.b.username=sa",
+        "foro.fragmentos.nodos.c.url=jdbc:h2:mem:fragmento_api_c;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.c.username=sa"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TopicoFragmentadoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    private String autorizacion;
+
+    @BeforeEach
+    void iniciarSesion() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("fragmentado", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+    }
+
+    @Test
+    void losEndpointsDeTopicosVanALosFragmentos() throws Exception {
+        var unico = UUID.randomUUID().toString();
+        // El autor es el usuario del token, no el del cuerpo.
+        var nuevo = new DatosNuevoTopico("Fragmentado " + unico, "Mensaje", new DatosUsuario("otro", unico + "@foro.com", "clave"),
+                new DatosCurso("Curso " + unico, "Backend"));
+        var creado = leer(perform(post("/topico").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(nuevo)),
+                status().isCreated()));
+        long id = creado.get("id").asLong();
+        assertThat(creado.get("autor").asText()).isEqualTo("fragmentado");
+        assertThat(creado.get("nombreCurso").asText()).isEqualTo("Curso " + unico);
+
+        var topico = leer(perform(get("/topico/{id}", id), status().isOk()));
+        assertThat(topico.get("titulo").asText()).isEqualTo("Fragmentado " + unico);
+
+        var listado = leer(perform(get("/topico"), status().isOk()));
+        assertThat(listado.get("content").get(0).get("id").asLong()).isEqualTo(id);
+        assertThat(listado.get("content").get(0).get("nombreCurso").asText()).isEqualTo("Curso " + unico);
+        perform(get("/topico").param("page", "3").param("size", "10"), status().isBadRequest());
+
+        var respuesta = new DatosNuevaRespuesta("Respuesta", null);
+        perform(post("/topico/{id}/respuestas", id).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(respuesta)), status().isCreated());
+        perform(post("/topico/{id}/respuestas", id).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DatosNuevaRespuesta("Anidada", 1L))), status().isBadRequest());
+        assertThat(leer(perform(get("/topico/{id}/respuestas", id), status().isOk()))).singleElement()
+                .satisfies(r -> assertThat(r.get("mensaje").asText()).isEqualTo("Respuesta"));
+        assertThat(leer(perform(get("/topico/{id}", id), status().isOk())).get("status").asText()).isEqualTo("NO_SOLUCIONADO");
+
+        perform(delete("/topico/{id}", id), status().isNoContent());
+        perform(get("/topico/{id}", id), status().isNotFound());
+        perform(delete("/topico/{id}", id), status().isNotFound());
+        perform(post("/topico/{id}/respuestas", id).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(respuesta)), status().isNotFound());
+    }
+
+    @Test
+    void losTopicosDeUnMismoCursoReutilizanElCurso() throws Exception {
+        var unico = UUID.randomUUID().toString();
+        var curso = new DatosCurso("Curso " + unico, "Backend");
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 3; i++) {
+            var nuevo = new DatosNuevoTopico("Mismo curso " + i + " " + unico, "Mensaje",
+                    new DatosUsuario("otro", i + unico + "@foro.com", "clave"), curso);
+            ids.add(leer(perform(post("/topico").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(nuevo)),
+                    status().isCreated())).get("id").asLong());
+        }
+
+        var cursoId = cursoRepository.findFirstByNombreAndCategoriaOrderByIdAsc(curso.nombre(), curso.categoria()).orElseThrow().getId();
+        assertThat(cursoRepository.findAll()).filteredOn(c -> c.getNombre().equals(curso.nombre())).hasSize(1);
+        var listado = leer(perform(get("/topico").param("curso", cursoId.toString()), status().isOk()));
+        assertThat(listado.get("content").findValues("id")).extracting(JsonNode::asLong).containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    private String perform(MockHttpServletRequestBuilder solicitud, ResultMatcher estado) throws Exception {
+        return mockMvc.perform(solicitud.header("Authorization", autorizacion).accept(MediaType.APPLICATION_JSON))
+                .andExpect(estado)
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private JsonNode leer(String cuerpo) throws Exception {
+        return objectMapper.readTree(cuerpo);
+    }
+}
@@ -0,0 +1,71 @@
+package com.varela.foro.infra.archivo;
+
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchivoTopicosTest {
+
+    @Autowired
+    private ArchivoTopicos archivoTopicos;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivaLosTopicosCerradosAntiguosYLosSigueEncontrandoPorId() {
+        var antiguo = guardar("Cerrado antiguo", StatusTopico.CERRADO, LocalDateTime.now().minusYears(2));
+        var reciente = guardar("Cerrado reciente", StatusTopico.CERRADO, LocalDateTime.now());
+
+        archivoTopicos.archivar();
+
+        assertThat(topicoRepository.findById(antiguo)).isEmpty();
+        assertThat(topicoRepository.findById(reciente)).isPresent();
+        var archivado = archivoTopicos.buscar(antiguo);
+        assertThat(archivado).isPresent();
+        assertThat(archivado.get().titulo()).isEqualTo("Cerrado antiguo");
+        assertThat(archivado.get().status()).isEqualTo(StatusTopico.CERRADO);
+        assertThat(archivado.get().nombreCurso()).isEqualTo("Java");
+        assertThat(archivoTopicos.buscar(reciente)).isEmpty();
+    }
+
+    @Test
+    void noArchivaUnTopicoReabiertoDespuesDeSeleccionarlo() {
+        var reabierto = guardar("Reabierto", StatusTopico.CERRADO, LocalDateTime.now().minusYears(2));
+        var limite = Timestamp.valueOf(LocalDateTime.now().minusMonths(6));
+        // Se reabre entre la selección del lote y su transacción.
+        jdbcTemplate.update("UPDATE topico SET status = ? WHERE id = ?", StatusTopico.NO_SOLUCIONADO.ordinal(), reabierto);
+
+        assertThat(archivoTopicos.archivarLote(List.of(reabierto), limite)).isZero();
+
+        assertThat(topicoRepository.findById(reabierto)).isPresent();
+        assertThat(archivoTopicos.buscar(reabierto)).isEmpty();
+    }
+
+    private Long guardar(String titulo, StatusTopico status, LocalDateTime fechaCreacion) {
+        var topico = topicoRepository.save(new Topico(new DatosNuevoTopico(titulo, "Mensaje de " + titulo,
+                new DatosUsuario("autor", titulo + "@foro.com", "clave"), new DatosCurso("Java", "Backend"))));
+        jdbcTemplate.update("UPDATE topico SET status = ?, fecha_creacion = ? WHERE id = ?",
+                status.ordinal(), Timestamp.valueOf(fechaCreacion), topico.getId());
+        return topico.getId();
+    }
+}
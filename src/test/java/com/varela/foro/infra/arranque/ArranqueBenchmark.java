@@ -0,0 +1,103 @@
+package com.varela.foro.infra.arranque;
+
+import com.varela.foro.ForoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide el tiempo hasta la primera petición atendida (time-to-first-request) con el arranque normal y con el perfil
+ * "rapido". Cada arranque se hace en una JVM nueva contra la misma base de datos H2 en fichero: el arranque normal
+ * aplica las migraciones y el rápido solo las valida.
+ * Se ejecuta con: mvn test -Pbenchmark
+ * El efecto del archivo CDS se mide aparte con el jar de target/rapido (mvn package -Parranque-rapido).
+ */
+@Tag("benchmark")
+class ArranqueBenchmark {
+
+    private static final int REPETICIONES = 3;
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(3);
+
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void compararArranques(@TempDir Path directorio) throws Exception {
+        String url = "jdbc:h2:file:" + directorio.resolve("foro") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        Map<String, List<String>> variantes = new LinkedHashMap<>();
+        variantes.put("normal", List.of("--spring.profiles.active=test"));
+        variantes.put("rapido", List.of("--spring.profiles.active=test,rapido",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+
+        System.out.printf("%-10s %12s %12s%n", "perfil", "min ms", "max ms");
+        for (var variante : variantes.entrySet()) {
+            long minimo = Long.MAX_VALUE;
+            long maximo = 0;
+            for (int i = 0; i < REPETICIONES; i++) {
+                long milisegundos = primeraPeticion(url, variante.getValue());
+                minimo = Math.min(minimo, milisegundos);
+                maximo = Math.max(maximo, milisegundos);
+            }
+            System.out.printf("%-10s %12d %12d%n", variante.getKey(), minimo, maximo);
+            assertThat(minimo).isPositive();
+        }
+    }
+
+    /**
+     * Arranca la aplicación en una JVM nueva y devuelve los milisegundos hasta que responde la primera petición HTTP.
+     */
+    private long primeraPeticion(String url, List<String> argumentos) throws IOException, InterruptedException {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>(List.of(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                ForoApplication.class.getName(),
+                "--server.port=" + puerto,
+                "--spring.datasource.url=" + url));
+        comando.addAll(argumentos);
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            var peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/actuator/health")).build();
+            while (System.nanoTime() - inicio < ESPERA_MAXIMA.toNanos()) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException("La aplicacion termino con codigo " + proceso.exitValue());
+                }
+                try {
+                    // Cualquier respuesta, incluso un 401/403, cuenta como primera petición atendida.
+                    cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                    return Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+                } catch (ConnectException e) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException("La aplicacion no respondio en " + ESPERA_MAXIMA);
+        } finally {
+            proceso.destroy();
+            proceso.waitFor();
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
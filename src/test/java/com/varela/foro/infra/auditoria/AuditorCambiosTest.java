@@ -0,0 +1,69 @@
+package com.varela.foro.infra.auditoria;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuditorCambiosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private DiarioAuditoria diarioAuditoria;
+
+    @Test
+    void registraLasModificacionesConfirmadasConElSujetoDelJwt() throws Exception {
+        var email = UUID.randomUUID() + "@foro.com";
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("auditado", email, "clave"), NoOpPasswordEncoder.getInstance()));
+        var autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+
+        var titulo = "Auditado " + UUID.randomUUID();
+        var cuerpo = mockMvc.perform(post("/topico").header("Authorization", autorizacion).contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DatosNuevoTopico(titulo, "Mensaje " + titulo,
+                                new DatosUsuario("autor", "autor@foro.com", "clave"), new DatosCurso("Auditoria", "Backend")))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        var id = objectMapper.readTree(cuerpo).get("id").asLong();
+        mockMvc.perform(delete("/topico/{id}", id).header("Authorization", autorizacion)).andExpect(status().isNoContent());
+
+        assertThat(diarioAuditoria.buscarPorEntidad(AuditorCambios.TOPICO, id))
+                .extracting(RegistroAuditoria::accion, RegistroAuditoria::sujeto)
+                .containsExactly(tuple(AccionAuditada.CREAR, email),
+                        tuple(AccionAuditada.ELIMINAR, email));
+        assertThat(diarioAuditoria.buscarPorEntidad(AuditorCambios.TOPICO, id).get(0).detalle()).startsWith("titulo=" + titulo);
+    }
+}
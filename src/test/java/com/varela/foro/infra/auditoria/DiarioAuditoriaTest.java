@@ -0,0 +1,136 @@
+package com.varela.foro.infra.auditoria;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiarioAuditoriaTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    @TempDir
+    private Path directorio;
+
+    @Test
+    void rotaLosSegmentosYBuscaPorEntidadYPorFechas() throws Exception {
+        var diario = abrir(4096, Long.MAX_VALUE);
+        var inicio = Instant.now();
+        var registros = new ArrayList<CompletableFuture<Long>>();
+        for (long i = 0; i < 300; i++) {
+            registros.add(diario.registrar(AccionAuditada.ACTUALIZAR, "topico", i % 10, "autor@foro.com", "status=" + i, ESPERA));
+        }
+        CompletableFuture.allOf(registros.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(registros.stream().map(CompletableFuture::join).toList())
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 300).boxed().toList());
+        assertThat(segmentos()).hasSizeGreaterThan(3);
+        assertThat(diario.buscarPorEntidad("topico", 3L))
+                .hasSize(30)
+                .allSatisfy(r -> assertThat(r.entidadId()).isEqualTo(3L))
+                .extracting(RegistroAuditoria::detalle).startsWith("status=3", "status=13");
+        assertThat(diario.buscarPorEntidad("usuario", 3L)).isEmpty();
+        assertThat(diario.buscarPorFechas(inicio, Instant.now(), 1000)).hasSize(300);
+        assertThat(diario.buscarPorFechas(inicio, Instant.now(), 50)).extracting(RegistroAuditoria::secuencia)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 50).boxed().toList());
+        assertThat(diario.buscarPorFechas(inicio.minusSeconds(3600), inicio.minusSeconds(1800), 1000)).isEmpty();
+
+        assertThatThrownBy(() -> abrir(4096, Long.MAX_VALUE)).isInstanceOf(IllegalStateException.class);
+        diario.cerrar();
+    }
+
+    @Test
+    void alReabrirDescartaUnRegistroIncompletoYSigueLaSecuencia() throws Exception {
+        var diario = abrir(4096, Long.MAX_VALUE);
+        for (long i = 1; i <= 10; i++) {
+            diario.registrar(AccionAuditada.CREAR, "usuario", i, "sistema", null, ESPERA).join();
+        }
+        diario.cerrar();
+
+        // Se corrompe el último registro, como si la escritura se hubiera cortado a medias.
+        var segmento = segmentos().get(0);
+        try (var archivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            archivo.seek(archivo.length() - 3);
+            archivo.write(0x7F);
+        }
+
+        diario = abrir(4096, Long.MAX_VALUE);
+        var recuperados = diario.buscarPorFechas(Instant.EPOCH, Instant.now(), 1000);
+        assertThat(recuperados).extracting(RegistroAuditoria::secuencia)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 9).boxed().toList());
+        assertThat(recuperados.get(0).detalle()).isNull();
+        assertThat(diario.buscarPorEntidad("usuario", 10L)).isEmpty();
+        assertThat(diario.registrar(AccionAuditada.ELIMINAR, "usuario", 10L, "sistema", null, ESPERA).join()).isEqualTo(10L);
+        assertThat(diario.buscarPorEntidad("usuario", 10L)).singleElement()
+                .satisfies(r -> assertThat(r.accion()).isEqualTo(AccionAuditada.ELIMINAR));
+        diario.cerrar();
+    }
+
+    @Test
+    void compactaLosSegmentosPequenosYAplicaLaRetencionPorTamano() throws Exception {
+        for (int reinicio = 0; reinicio < 4; reinicio++) {
+            var diario = abrir(65536, Long.MAX_VALUE);
+            for (long i = 0; i < 5; i++) {
+                diario.registrar(AccionAuditada.MODERAR, "topico", (long) reinicio, "moderador@foro.com", "status=CERRADO", ESPERA).join();
+            }
+            diario.cerrar();
+        }
+        assertThat(segmentos()).hasSize(4);
+
+        var diario = abrir(65536, Long.MAX_VALUE);
+        diario.compactar();
+        diario.registrar(AccionAuditada.CREAR, "topico", 99L, "autor@foro.com", null, ESPERA).join();
+        assertThat(segmentos()).hasSize(2);
+        assertThat(diario.buscarPorFechas(Instant.EPOCH, Instant.now(), 1000)).extracting(RegistroAuditoria::secuencia)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 21).boxed().toList());
+        assertThat(diario.buscarPorEntidad("topico", 2L)).hasSize(5);
+        diario.cerrar();
+
+        diario = abrir(65536, 1);
+        diario.aplicarRetencion();
+        assertThat(diario.buscarPorFechas(Instant.EPOCH, Instant.now(), 1000)).isEmpty();
+        assertThat(diario.registrar(AccionAuditada.CREAR, "topico", 100L, "autor@foro.com", null, ESPERA).join()).isEqualTo(22L);
+        diario.cerrar();
+    }
+
+    @Test
+    void alSellarUnSegmentoRedimensionaSuFiltroAlNumeroDeRegistros() throws Exception {
+        var segmento = SegmentoAuditoria.crear(directorio, 1, 1 << 20);
+        int bitsActivo = segmento.bitsFiltro();
+        for (long i = 1; i <= 20; i++) {
+            var registro = new RegistroAuditoria(i, Instant.now(), AccionAuditada.CREAR, "topico", i, "autor@foro.com", null);
+            segmento.escribir(SegmentoAuditoria.codificar(registro), registro);
+        }
+
+        segmento.sellar();
+
+        assertThat(segmento.bitsFiltro()).isLessThan(bitsActivo / 100);
+        assertThat(LongStream.rangeClosed(1, 20)).allMatch(id -> segmento.puedeContener("topico", id));
+        assertThat(SegmentoAuditoria.cargar(segmento.archivo(), 1).bitsFiltro()).isEqualTo(segmento.bitsFiltro());
+    }
+
+    private DiarioAuditoria abrir(int tamanoSegmento, long maxBytes) throws Exception {
+        var diario = new DiarioAuditoria(directorio, tamanoSegmento, 64, 1000, Duration.ofDays(365), maxBytes,
+                new SimpleMeterRegistry());
+        diario.abrir();
+        return diario;
+    }
+
+    private List<Path> segmentos() throws Exception {
+        try (var archivos = Files.list(directorio)) {
+            return archivos.filter(SegmentoAuditoria::esSegmento).sorted().toList();
+        }
+    }
+}
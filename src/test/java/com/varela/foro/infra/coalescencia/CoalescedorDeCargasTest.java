@@ -0,0 +1,59 @@
+package com.varela.foro.infra.coalescencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescedorDeCargasTest {
+
+    @Test
+    void lasCargasConcurrentesDeLaMismaClaveSeEjecutanUnaVez() throws Exception {
+        var registro = new SimpleMeterRegistry();
+        var coalescedor = new CoalescedorDeCargas<Long, String>("test", Duration.ofSeconds(5), registro);
+        var ejecuciones = new AtomicInteger();
+        var liberar = new CountDownLatch(1);
+        var ejecutor = Executors.newFixedThreadPool(8);
+        try {
+            var resultados = new ArrayList<Future<String>>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(ejecutor.submit(() -> coalescedor.cargar(1L, () -> {
+                    ejecuciones.incrementAndGet();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return "valor";
+                })));
+            }
+            while (registro.counter("foro.coalescencia.esperas", "nombre", "test").count() < 7) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+            for (Future<String> resultado : resultados) {
+                assertThat(resultado.get()).isEqualTo("valor");
+            }
+            assertThat(ejecuciones).hasValue(1);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagaLaExcepcionDeLaCarga() {
+        var coalescedor = new CoalescedorDeCargas<Long, String>("test", Duration.ofSeconds(1), new SimpleMeterRegistry());
+        assertThatThrownBy(() -> coalescedor.cargar(1L, () -> {
+            throw new IllegalArgumentException("falla");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(coalescedor.cargar(1L, () -> "otra")).isEqualTo("otra");
+    }
+}
@@ -0,0 +1,109 @@
+package com.varela.foro.infra.consultas;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(PresupuestoConsultasTest.ControladorNMasUno.class)
+class PresupuestoConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    private String autorizacion;
+
+    @BeforeEach
+    void iniciarSesion() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("lector", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+    }
+
+    @Test
+    void elListadoDeTopicosCargaAutoresYCursosSinNMasUno() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            guardar();
+        }
+
+        var respuesta = mockMvc.perform(get("/topico").param("historico", "true").header("Authorization", autorizacion))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(Integer.parseInt(respuesta.getHeader(FiltroConsultas.CABECERA_CONSULTAS))).isBetween(1, 2);
+        assertThat(respuesta.getHeader(FiltroConsultas.CABECERA_REPETIDAS)).isNull();
+    }
+
+    @Test
+    void unEndpointQueSuperaSuPresupuestoFalla() {
+        var ids = List.of(guardar().getId(), guardar().getId(), guardar().getId());
+        var parametros = ids.stream().map(String::valueOf).toArray(String[]::new);
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/prueba/n-mas-uno").param("ids", parametros).header("Authorization", autorizacion)))
+                .hasRootCauseInstanceOf(PresupuestoConsultasExcedidoException.class);
+    }
+
+    @Test
+    void laFormaDeUnaSentenciaIgnoraParametrosYLiterales() {
+        assertThat(ContadorConsultas.forma("select t.id\n  from topico t where t.id in (?, ?, ?) and t.status = 3"))
+                .isEqualTo(ContadorConsultas.forma("select t.id from topico t where t.id in (?) and t.status = 1"));
+    }
+
+    private Topico guardar() {
+        var unico = UUID.randomUUID().toString();
+        return topicoRepository.save(new Topico(new DatosNuevoTopico("Titulo " + unico, "Mensaje " + unico,
+                new DatosUsuario("autor", unico + "@foro.com", "clave"), new DatosCurso("Curso " + unico, "Backend"))));
+    }
+
+    /**
+     * Endpoint que carga los tópicos de uno en uno, el patrón N+1 que el presupuesto debe detectar.
+     */
+    @RestController
+    static class ControladorNMasUno {
+
+        @Autowired
+        private TopicoRepository topicoRepository;
+
+        @PresupuestoConsultas(sentencias = 2)
+        @GetMapping("/prueba/n-mas-uno")
+        public List<String> listar(@RequestParam List<Long> ids) {
+            return ids.stream().map(id -> topicoRepository.findById(id).orElseThrow().getTitulo()).toList();
+        }
+    }
+}
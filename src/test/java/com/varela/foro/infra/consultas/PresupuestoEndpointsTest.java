@@ -0,0 +1,162 @@
+package com.varela.foro.infra.consultas;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cada endpoint con @PresupuestoConsultas se llama con el perfil de pruebas (modo FALLAR), de modo que una sentencia
+ * de más hace fallar la solicitud; además se comprueba la cabecera con el número de sentencias.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PresupuestoEndpointsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String autorizacion;
+    private Long usuarioId;
+    private Topico topico;
+
+    @BeforeEach
+    void preparar() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("presupuesto", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        usuarioId = usuario.getId();
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+        topico = guardar();
+        guardar();
+    }
+
+    @Test
+    void listarTopicos() throws Exception {
+        assertDentroDelPresupuesto(get("/topico"), 2);
+        assertDentroDelPresupuesto(get("/topico").param("unread", "true"), 2);
+    }
+
+    @Test
+    void listarTopicosCompacto() throws Exception {
+        assertDentroDelPresupuesto(get("/topico").param("unread", "true").accept(MediaType.APPLICATION_CBOR), 2);
+    }
+
+    @Test
+    void listarTopicosCampos() throws Exception {
+        assertDentroDelPresupuesto(get("/topico").param("fields", "id,titulo,autor"), 2);
+    }
+
+    @Test
+    void listarTopicosPorIds() throws Exception {
+        assertDentroDelPresupuesto(get("/topico/batch").param("ids", String.valueOf(topico.getId())), 1);
+    }
+
+    @Test
+    void listarTopicoPorId() throws Exception {
+        // Marca el tópico como leído para el usuario del token sin buscarlo por email
+        assertDentroDelPresupuesto(get("/topico/{id}", topico.getId()), 1);
+    }
+
+    @Test
+    void leerHilo() throws Exception {
+        assertDentroDelPresupuesto(get("/topico/{id}/respuestas", topico.getId()), 2);
+    }
+
+    @Test
+    void listarUsuarios() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario"), 2);
+    }
+
+    @Test
+    void listarUsuariosCampos() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario").param("fields", "id,nombre"), 2);
+    }
+
+    @Test
+    void listarUsuariosCompacto() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario").accept(MediaType.APPLICATION_CBOR), 2);
+    }
+
+    @Test
+    void listarUsuariosPorIds() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario/batch").param("ids", String.valueOf(usuarioId)), 1);
+    }
+
+    @Test
+    void listarUsuariosPorId() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario/{id}", usuarioId), 1);
+    }
+
+    @Test
+    void consultarPurga() throws Exception {
+        assertDentroDelPresupuesto(get("/usuario/{id}/purga", usuarioId), 1, status().isNotFound());
+    }
+
+    @Test
+    void listarCursos() throws Exception {
+        assertDentroDelPresupuesto(get("/curso").param("categoria", "Backend"), 2);
+    }
+
+    @Test
+    void estadisticasCurso() throws Exception {
+        assertDentroDelPresupuesto(get("/curso/{id}/stats", topico.getCurso().getId()), 1);
+    }
+
+    @Test
+    void facetasPorCategoria() throws Exception {
+        assertDentroDelPresupuesto(get("/curso/categorias"), 1);
+    }
+
+    private void assertDentroDelPresupuesto(MockHttpServletRequestBuilder solicitud, int sentencias) throws Exception {
+        assertDentroDelPresupuesto(solicitud, sentencias, status().isOk());
+    }
+
+    private void assertDentroDelPresupuesto(MockHttpServletRequestBuilder solicitud, int sentencias, ResultMatcher estado) throws Exception {
+        var respuesta = mockMvc.perform(solicitud.header("Authorization", autorizacion))
+                .andExpect(estado)
+                .andReturn().getResponse();
+
+        assertThat(Integer.parseInt(respuesta.getHeader(FiltroConsultas.CABECERA_CONSULTAS))).isLessThanOrEqualTo(sentencias);
+    }
+
+    private Topico guardar() {
+        var unico = UUID.randomUUID().toString();
+        return transactionTemplate.execute(estado -> topicoRepository.save(new Topico(new DatosNuevoTopico("Presupuesto " + unico,
+                "Mensaje " + unico, new DatosUsuario("autor", unico + "@foro.com", "clave"), new DatosCurso("Curso " + unico, "Backend")))));
+    }
+}
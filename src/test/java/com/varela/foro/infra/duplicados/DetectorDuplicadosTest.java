@@ -0,0 +1,89 @@
+package com.varela.foro.infra.duplicados;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.topico.TopicosPurgados;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DetectorDuplicadosTest {
+
+    @Autowired
+    private DetectorDuplicados detectorDuplicados;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void olvidaLosTopicosPurgados() {
+        var titulo = "Purgado " + UUID.randomUUID();
+        var topico = crearTopico(titulo);
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.CREADO, topico));
+        assertThat(detectorDuplicados.buscarDuplicados(titulo, "Mensaje de " + titulo, null)).contains(topico.getId());
+
+        eventPublisher.publishEvent(new TopicosPurgados(List.of(topico.getId())));
+
+        assertThat(detectorDuplicados.buscarDuplicados(titulo, "Mensaje de " + titulo, null)).doesNotContain(topico.getId());
+    }
+
+    @Test
+    void rechazaUnDuplicadoExactoQueElIndiceNoConoce() throws Exception {
+        // Guardado sin TopicoModificado: el índice en memoria no lo tiene, la base de datos sí.
+        var titulo = "Exacto " + UUID.randomUUID();
+        var topico = crearTopico(titulo);
+        assertThat(detectorDuplicados.isListo()).isTrue();
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("autor", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+
+        mockMvc.perform(post("/topico").header("Authorization", "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken())
+                        .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"titulo": "%s", "mensaje": "Mensaje de %s", "autor": {"nombre": "autor", "email": "a@foro.com", "contrasena": "clave"},
+                                 "curso": {"nombre": "Duplicados", "categoria": "Backend"}}""".formatted(titulo, titulo)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.candidatos[0]").value(topico.getId()));
+    }
+
+    private Topico crearTopico(String titulo) {
+        return topicoRepository.save(new Topico(new DatosNuevoTopico(titulo, "Mensaje de " + titulo,
+                new DatosUsuario("autor", UUID.randomUUID() + "@foro.com", "clave"), new DatosCurso("Duplicados", "Backend"))));
+    }
+}
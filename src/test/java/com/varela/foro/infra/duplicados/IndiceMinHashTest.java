@@ -0,0 +1,30 @@
+package com.varela.foro.infra.duplicados;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndiceMinHashTest {
+
+    private final IndiceMinHash indice = new IndiceMinHash(32, 4, 5);
+
+    @Test
+    void detectaReformulacionesTriviales() {
+        indice.agregar(1L, "Error al compilar con Maven: no encuentra la dependencia de Lombok en el proyecto");
+        indice.agregar(2L, "Como configurar el pool de conexiones de MySQL en Spring Boot");
+
+        var similares = indice.buscarSimilares("error al compilar con maven, no encuentra la dependencia de lombok en mi proyecto!", 0.6, null);
+
+        assertThat(similares).containsExactly(1L);
+    }
+
+    @Test
+    void excluyeElPropioDocumentoYRespetaLasEliminaciones() {
+        indice.agregar(1L, "Duda sobre paginacion en Spring Data JPA");
+        assertThat(indice.buscarSimilares("Duda sobre paginacion en Spring Data JPA", 0.9, 1L)).isEmpty();
+
+        indice.quitar(1L);
+        assertThat(indice.buscarSimilares("Duda sobre paginacion en Spring Data JPA", 0.9, null)).isEmpty();
+        assertThat(indice.tamano()).isZero();
+    }
+}
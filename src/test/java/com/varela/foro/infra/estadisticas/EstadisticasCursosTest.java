@@ -0,0 +1,105 @@
+package com.varela.foro.infra.estadisticas;
+
+import com.varela.foro.controller.CursoController;
+import com.varela.foro.controller.TopicoController;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.curso.DatosEstadisticasCurso;
+import com.varela.foro.modelo.curso.DatosFacetaCategoria;
+import com.varela.foro.modelo.topico.DatosActualizarTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EstadisticasCursosTest {
+
+    @Autowired
+    private TopicoController topicoController;
+
+    @Autowired
+    private CursoController cursoController;
+
+    @Autowired
+    private EstadisticasCursos estadisticasCursos;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mantieneLosConteosAlCrearMoverYEliminarTopicos() {
+        var id = crear("Estadisticas al crear", "Curso A", "Estadisticas");
+        var cursoInicial = cursoDe(id);
+        assertThat(estadisticas(cursoInicial).noRespondidos()).isEqualTo(1);
+
+        topicoController.actualizarTopico(id, new DatosActualizarTopico("Estadisticas al mover", "Mensaje movido de curso",
+                new DatosUsuario("autor", "mover@foro.com", "clave"), new DatosCurso("Curso B", "Estadisticas")));
+        var cursoNuevo = cursoDe(id);
+        assertThat(estadisticas(cursoInicial).total()).isZero();
+        assertThat(estadisticas(cursoNuevo).abiertos()).isEqualTo(1);
+
+        topicoController.eliminarTopico(id);
+        assertThat(cursoController.estadisticasCurso(cursoNuevo).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void laReconciliacionCorrigeLasDesviaciones() {
+        var id = crear("Estadisticas con deriva", "Curso C", "Reconciliacion");
+        var curso = cursoDe(id);
+        // Cambios hechos por fuera de la aplicación, sin pasar por los incrementos
+        jdbcTemplate.update("UPDATE topico SET status = ? WHERE id = ?", StatusTopico.SOLUCIONADO.ordinal(), id);
+        jdbcTemplate.update("UPDATE curso_stats SET cerrados = 7 WHERE curso_id = ?", curso);
+
+        assertThat(estadisticasCursos.reconciliar()).isPositive();
+
+        var estadisticas = estadisticas(curso);
+        assertThat(estadisticas.solucionados()).isEqualTo(1);
+        assertThat(estadisticas.noRespondidos()).isZero();
+        assertThat(estadisticas.cerrados()).isZero();
+        assertThat(estadisticasCursos.reconciliar()).isZero();
+    }
+
+    @Test
+    void agregaLasFacetasPorCategoria() {
+        crear("Primera faceta del foro", "Curso D", "Facetas");
+        crear("Segunda faceta distinta", "Curso E", "Facetas");
+
+        var faceta = cursoController.facetasPorCategoria().getBody().stream()
+                .filter(f -> f.categoria().equals("Facetas"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(faceta).isEqualTo(new DatosFacetaCategoria("Facetas", 2L, 2L, 0L, 0L, 0L));
+        assertThat(cursoController.listarCursos(PageRequest.of(0, 10), "Facetas")
+                .getBody().getTotalElements()).isEqualTo(2);
+    }
+
+    private Long crear(String titulo, String curso, String categoria) {
+        var respuesta = topicoController.nuevoTopico(new DatosNuevoTopico(titulo, "Mensaje de " + titulo,
+                new DatosUsuario("autor", titulo.replace(" ", "") + "@foro.com", "clave"), new DatosCurso(curso, categoria)),
+                UriComponentsBuilder.newInstance());
+        return ((DatosListadoTopicoID) respuesta.getBody()).id();
+    }
+
+    private Long cursoDe(Long topicoId) {
+        return topicoRepository.findById(topicoId).orElseThrow().getCurso().getId();
+    }
+
+    private DatosEstadisticasCurso estadisticas(Long cursoId) {
+        return cursoController.estadisticasCurso(cursoId).getBody();
+    }
+}
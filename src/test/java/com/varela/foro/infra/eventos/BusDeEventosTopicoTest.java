@@ -0,0 +1,100 @@
+package com.varela.foro.infra.eventos;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BusDeEventosTopicoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BusDeEventosTopico busDeEventosTopico;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    private String autorizacion;
+
+    @BeforeEach
+    void iniciarSesion() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("oyente", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+    }
+
+    @Test
+    void reanudaDesdeLastEventIdSinDuplicarNiPerderEventos() throws Exception {
+        var primero = busDeEventosTopico.publicar(TipoModificacionTopico.CREADO, 1L, null, null);
+        var segundo = busDeEventosTopico.publicar(TipoModificacionTopico.ACTUALIZADO, 1L, null, null);
+        var tercero = busDeEventosTopico.publicar(TipoModificacionTopico.ELIMINADO, 1L, null, null);
+
+        var resultado = suscribir(primero.id());
+        var cuarto = busDeEventosTopico.publicar(TipoModificacionTopico.CREADO, 2L, null, null);
+
+        var contenido = esperarId(resultado, cuarto.id());
+        assertThat(contenido).doesNotContain("event:reinicio");
+        assertThat(ids(contenido)).containsExactly(segundo.id(), tercero.id(), cuarto.id());
+    }
+
+    @Test
+    void pideReiniciarCuandoLastEventIdEsPosteriorAlUltimoEvento() throws Exception {
+        // Tras reiniciar el proceso los IDs vuelven a empezar: el cliente trae un ID que este proceso aún no emitió.
+        var ultimo = busDeEventosTopico.publicar(TipoModificacionTopico.CREADO, 3L, null, null);
+
+        var resultado = suscribir(ultimo.id() + 1000);
+        var siguiente = busDeEventosTopico.publicar(TipoModificacionTopico.ACTUALIZADO, 3L, null, null);
+
+        var contenido = esperarId(resultado, siguiente.id());
+        assertThat(contenido).startsWith("event:reinicio");
+        assertThat(ids(contenido)).containsExactly(siguiente.id());
+    }
+
+    private MvcResult suscribir(long ultimoEvento) throws Exception {
+        return mockMvc.perform(get("/topico/stream").header("Authorization", autorizacion)
+                .header("Last-Event-ID", ultimoEvento)).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static String esperarId(MvcResult resultado, long id) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        String contenido;
+        do {
+            contenido = resultado.getResponse().getContentAsString();
+            if (ids(contenido).contains(id)) {
+                return contenido;
+            }
+            Thread.sleep(10);
+        } while (System.currentTimeMillis() < limite);
+        return contenido;
+    }
+
+    private static List<Long> ids(String contenido) {
+        return Pattern.compile("(?m)^id:(\\d+)$").matcher(contenido).results().map(m -> Long.valueOf(m.group(1))).toList();
+    }
+}
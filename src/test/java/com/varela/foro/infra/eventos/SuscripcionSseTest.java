@@ -0,0 +1,45 @@
+package com.varela.foro.infra.eventos;
+
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuscripcionSseTest {
+
+    private static EventoTopico evento(long id, Long cursoId) {
+        return new EventoTopico(id, TipoModificacionTopico.CREADO, id, cursoId, null, Instant.now());
+    }
+
+    @Test
+    void descartaLosMasAntiguosAlLlenarseElBuffer() {
+        var suscripcion = new SuscripcionSse(new SseEmitter(), null, 2, PoliticaDesbordamiento.DESCARTAR_ANTIGUOS);
+
+        assertThat(suscripcion.encolar(evento(1, null))).isZero();
+        assertThat(suscripcion.encolar(evento(2, null))).isZero();
+        assertThat(suscripcion.encolar(evento(3, null))).isEqualTo(1);
+
+        assertThat(((EventoTopico) suscripcion.siguiente()).id()).isEqualTo(2);
+        assertThat(((EventoTopico) suscripcion.siguiente()).id()).isEqualTo(3);
+        assertThat(suscripcion.tienePendientes()).isFalse();
+    }
+
+    @Test
+    void pideDesconectarAlLlenarseElBufferSiLaPoliticaEsDesconectar() {
+        var suscripcion = new SuscripcionSse(new SseEmitter(), null, 1, PoliticaDesbordamiento.DESCONECTAR);
+
+        assertThat(suscripcion.encolar(evento(1, null))).isZero();
+        assertThat(suscripcion.encolar(evento(2, null))).isEqualTo(-1);
+    }
+
+    @Test
+    void soloAceptaLosEventosDeSuCurso() {
+        var suscripcion = new SuscripcionSse(new SseEmitter(), 4L, 8, PoliticaDesbordamiento.DESCARTAR_ANTIGUOS);
+
+        assertThat(suscripcion.acepta(evento(1, 4L))).isTrue();
+        assertThat(suscripcion.acepta(evento(2, 5L))).isFalse();
+    }
+}
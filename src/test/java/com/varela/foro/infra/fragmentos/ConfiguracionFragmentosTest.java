@@ -0,0 +1,17 @@
+package com.varela.foro.infra.fragmentos;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfiguracionFragmentosTest {
+
+    @Test
+    void noArrancaSinAceptarLasFuncionesLimitadas() {
+        assertThatThrownBy(() -> new ConfiguracionFragmentos(false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("foro.fragmentos.aceptar-funciones-limitadas=true");
+        assertThatCode(() -> new ConfiguracionFragmentos(true)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,103 @@
+package com.varela.foro.infra.fragmentos;
+
+import com.varela.foro.modelo.StatusTopico;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "foro.fragmentos.habilitado=true",
+        "foro.fragmentos.aceptar-funciones-limitadas=true",
+        "foro.fragmentos.anillo=a,b",
+        "foro.fragmentos.tamano-lote=3",
+        "foro.fragmentos.nodos.a.url=jdbc:h2:mem:fragmento_a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.a.username=sa",
+        "foro.fragmentos.nodos.b.url=jdbc:h2:mem:fragmento_b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.b.username=sa",
+        "foro.fragmentos.nodos.c.url=jdbc:h2:mem:fragmento_c;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "foro.fragmentos.nodos.c.username=sa"})
+@ActiveProfiles("test")
+class TopicosFragmentadosTest {
+
+    @Autowired
+    private TopicosFragmentados topicosFragmentados;
+
+    @Autowired
+    private RebalanceadorFragmentos rebalanceadorFragmentos;
+
+    @Autowired
+    private NodosFragmentos nodosFragmentos;
+
+    @Test
+    void anadirUnFragmentoSoloMueveCubetasHaciaEl() {
+        var dos = new AnilloConsistente(List.of("a", "b"), 128);
+        var tres = new AnilloConsistente(List.of("a", "b", "c"), 128);
+
+        var movidas = IntStream.range(0, IdsFragmentados.CUBETAS).filter(c -> !dos.nodoDe(c).equals(tres.nodoDe(c))).boxed().toList();
+        assertThat(movidas).allMatch(c -> tres.nodoDe(c).equals("c"));
+        assertThat(movidas.size()).isBetween(IdsFragmentados.CUBETAS / 6, IdsFragmentados.CUBETAS / 2);
+    }
+
+    @Test
+    void enrutaPorCursoMezclaLosListadosYRebalanceaSinPerderDatos() {
+        var creados = new ArrayList<DatosTopicoFragmentado>();
+        for (long curso = 1; curso <= 40; curso++) {
+            for (int i = 0; i < 3; i++) {
+                creados.add(topicosFragmentados.crear(curso, 7L, "Tópico " + curso + "-" + i, "Mensaje"));
+            }
+        }
+        var conRespuesta = creados.get(0);
+        topicosFragmentados.responder(conRespuesta.id(), 8L, "Respuesta");
+
+        assertThat(creados).allSatisfy(t -> assertThat(IdsFragmentados.cubetaDeId(t.id())).isEqualTo(IdsFragmentados.cubetaDeCurso(t.cursoId())));
+        assertThat(contar("a")).isPositive();
+        assertThat(contar("b")).isPositive();
+        assertThat(contar("c")).isZero();
+        assertListados(creados);
+        assertThat(topicosFragmentados.listarPorCurso(5L, PageRequest.of(0, 10)).getContent())
+                .extracting(DatosTopicoFragmentado::titulo).containsExactly("Tópico 5-2", "Tópico 5-1", "Tópico 5-0");
+
+        var rebalanceo = rebalanceadorFragmentos.rebalancear(List.of("a", "b", "c"));
+
+        assertThat(rebalanceo.cubetasMovidas()).isPositive();
+        assertThat(rebalanceo.topicosCopiados()).isPositive();
+        assertThat(rebalanceo.distribucion().values()).allMatch(cubetas -> cubetas > 0);
+        assertThat(contar("a") + contar("b") + contar("c")).isEqualTo(creados.size());
+        assertThat(contar("c")).isEqualTo(rebalanceo.topicosCopiados());
+        assertListados(creados);
+        assertThat(creados).allSatisfy(t -> assertThat(topicosFragmentados.buscar(t.id())).isPresent());
+        assertThat(topicosFragmentados.buscar(conRespuesta.id()).orElseThrow().status()).isEqualTo(StatusTopico.NO_SOLUCIONADO);
+        assertThat(topicosFragmentados.respuestas(conRespuesta.id(), 10)).singleElement()
+                .satisfies(r -> assertThat(r.mensaje()).isEqualTo("Respuesta"));
+
+        var nuevo = topicosFragmentados.crear(5L, 7L, "Tras el rebalanceo", "Mensaje");
+        assertThat(topicosFragmentados.listarPorCurso(5L, PageRequest.of(0, 1)).getContent()).containsExactly(nuevo);
+        assertThat(topicosFragmentados.eliminar(nuevo.id())).isTrue();
+    }
+
+    private void assertListados(List<DatosTopicoFragmentado> creados) {
+        var recientes = creados.stream().map(DatosTopicoFragmentado::id).sorted(Comparator.reverseOrder()).toList();
+
+        var segunda = topicosFragmentados.listar(PageRequest.of(1, 25));
+        assertThat(segunda.getTotalElements()).isEqualTo(creados.size());
+        assertThat(segunda.getContent()).extracting(DatosTopicoFragmentado::id).containsExactlyElementsOf(recientes.subList(25, 50));
+        assertThat(topicosFragmentados.listar(PageRequest.of(0, 10, Sort.by("id"))).getContent()).extracting(DatosTopicoFragmentado::id)
+                .containsExactlyElementsOf(creados.stream().map(DatosTopicoFragmentado::id).sorted().limit(10).toList());
+        assertThat(topicosFragmentados.listarAnteriores(recientes.get(99), 50)).extracting(DatosTopicoFragmentado::id)
+                .containsExactlyElementsOf(recientes.subList(100, recientes.size()));
+    }
+
+    private long contar(String fragmento) {
+        return nodosFragmentos.jdbc(fragmento).queryForObject("SELECT COUNT(*) FROM topico", Long.class);
+    }
+}
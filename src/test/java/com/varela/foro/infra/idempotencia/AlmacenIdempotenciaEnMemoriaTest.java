@@ -0,0 +1,37 @@
+package com.varela.foro.infra.idempotencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlmacenIdempotenciaEnMemoriaTest {
+
+    private static RespuestaIdempotente respuesta(String huella, Instant fecha) {
+        return new RespuestaIdempotente(huella, 201, "application/json", "/topico/1", "{}".getBytes(), fecha);
+    }
+
+    @Test
+    void conservaLaRespuestaOriginal() {
+        var almacen = new AlmacenIdempotenciaEnMemoria(10, Duration.ofHours(1), Clock.systemUTC());
+        almacen.guardar("k", respuesta("a", Instant.now()));
+        almacen.guardar("k", respuesta("b", Instant.now()));
+        assertThat(almacen.buscar("k")).get().extracting(RespuestaIdempotente::huella).isEqualTo("a");
+    }
+
+    @Test
+    void expulsaPorTamanoYPorTiempoDeVida() {
+        var ahora = Instant.parse("2024-01-01T00:00:00Z");
+        var almacen = new AlmacenIdempotenciaEnMemoria(2, Duration.ofMinutes(5), Clock.fixed(ahora, ZoneOffset.UTC));
+        almacen.guardar("1", respuesta("a", ahora));
+        almacen.guardar("2", respuesta("b", ahora.minus(Duration.ofMinutes(10))));
+        almacen.guardar("3", respuesta("c", ahora));
+        assertThat(almacen.buscar("1")).isEmpty();
+        assertThat(almacen.buscar("2")).isEmpty();
+        assertThat(almacen.buscar("3")).isPresent();
+    }
+}
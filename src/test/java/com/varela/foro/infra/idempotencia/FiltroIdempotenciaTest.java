@@ -0,0 +1,107 @@
+package com.varela.foro.infra.idempotencia;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FiltroIdempotenciaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Test
+    void laMismaClaveDeOtroUsuarioNoRepiteLaRespuesta() throws Exception {
+        var clave = UUID.randomUUID().toString();
+        var ana = autorizacion("ana");
+        var luis = autorizacion("luis");
+
+        crearTopico(ana, clave, "Tópico de ana " + clave).andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(FiltroIdempotencia.CABECERA_REPETIDA));
+        crearTopico(ana, clave, "Tópico de ana " + clave).andExpect(status().isCreated())
+                .andExpect(header().string(FiltroIdempotencia.CABECERA_REPETIDA, "true"));
+        crearTopico(luis, clave, "Consulta distinta sobre Flyway " + UUID.randomUUID()).andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(FiltroIdempotencia.CABECERA_REPETIDA));
+    }
+
+    @Test
+    void vuelveABuscarEnElAlmacenTrasGanarLaClaveEnCurso() throws Exception {
+        var filtro = new FiltroIdempotencia();
+        var solicitud = new MockHttpServletRequest("POST", "/topico");
+        solicitud.setServletPath("/topico");
+        solicitud.addHeader(FiltroIdempotencia.CABECERA, "k");
+        solicitud.setContent("{}".getBytes(StandardCharsets.UTF_8));
+        String huella = ReflectionTestUtils.invokeMethod(filtro, "calcularHuella", solicitud, "{}".getBytes(StandardCharsets.UTF_8));
+        var busquedas = new AtomicInteger();
+        // La primera búsqueda no encuentra nada; la solicitud original termina antes del putIfAbsent.
+        ReflectionTestUtils.setField(filtro, "almacenIdempotencia", new AlmacenIdempotencia() {
+            @Override
+            public Optional<RespuestaIdempotente> buscar(String clave) {
+                return busquedas.getAndIncrement() == 0 ? Optional.empty()
+                        : Optional.of(new RespuestaIdempotente(huella, 201, "application/json", "/topico/1", "{}".getBytes(), Instant.now()));
+            }
+
+            @Override
+            public void guardar(String clave, RespuestaIdempotente respuesta) {
+                throw new AssertionError("No debe volver a ejecutarse la solicitud");
+            }
+        });
+        ReflectionTestUtils.setField(filtro, "esperaMaxima", Duration.ofSeconds(1));
+        var cadena = new MockFilterChain();
+        var respuesta = new MockHttpServletResponse();
+
+        filtro.doFilter(solicitud, respuesta, cadena);
+
+        assertThat(cadena.getRequest()).isNull();
+        assertThat(respuesta.getStatus()).isEqualTo(201);
+        assertThat(respuesta.getHeader(FiltroIdempotencia.CABECERA_REPETIDA)).isEqualTo("true");
+    }
+
+    private String autorizacion(String nombre) {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario(nombre, nombre + UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        return "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+    }
+
+    private ResultActions crearTopico(String autorizacion, String clave, String titulo) throws Exception {
+        var cuerpo = """
+                {"titulo": "%s", "mensaje": "Mensaje %s", "autor": {"nombre": "autor", "email": "autor@foro.com", "contrasena": "clave"},
+                 "curso": {"nombre": "Idempotencia", "categoria": "Backend"}}""".formatted(titulo, titulo);
+        return mockMvc.perform(post("/topico").servletPath("/topico").header("Authorization", autorizacion).header(FiltroIdempotencia.CABECERA, clave)
+                .contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).content(cuerpo));
+    }
+}
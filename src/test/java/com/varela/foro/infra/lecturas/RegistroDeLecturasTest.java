@@ -0,0 +1,130 @@
+package com.varela.foro.infra.lecturas;
+
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.topico.TopicosPurgados;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistroDeLecturasTest {
+
+    @Autowired
+    private RegistroDeLecturas registroDeLecturas;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void guardaLasLecturasComoUnBitmapPorUsuario() throws Exception {
+        var usuarioId = crearUsuario();
+        registroDeLecturas.marcarLeido(usuarioId, 3L);
+        registroDeLecturas.marcarLeido(usuarioId, 4L);
+
+        assertThat(registroDeLecturas.noLeidos(usuarioId).test(3L)).isFalse();
+        assertThat(registroDeLecturas.noLeidos(usuarioId).test(5L)).isTrue();
+
+        registroDeLecturas.escribirPendientes();
+
+        assertThat(guardados(usuarioId).toArray()).containsExactly(3, 4);
+    }
+
+    @Test
+    void combinaConLasLecturasGuardadasPorOtraInstancia() throws Exception {
+        var usuarioId = crearUsuario();
+        registroDeLecturas.marcarLeido(usuarioId, 1L);
+        // Otra instancia guardó entre tanto otra lectura del mismo usuario.
+        jdbcTemplate.update("INSERT INTO lectura_usuario (usuario_id, leidos, fecha_actualizacion) VALUES (?, ?, ?)",
+                usuarioId, serializar(RoaringBitmap.bitmapOf(2)), Timestamp.from(Instant.now()));
+
+        registroDeLecturas.escribirPendientes();
+
+        assertThat(guardados(usuarioId).toArray()).containsExactly(1, 2);
+        assertThat(registroDeLecturas.noLeidos(usuarioId).test(2L)).isFalse();
+    }
+
+    @Test
+    void noPierdeLecturasAlLiberarUnUsuarioInactivo() throws Exception {
+        var usuarioId = crearUsuario();
+        var inactividad = ReflectionTestUtils.getField(registroDeLecturas, "inactividad");
+        ReflectionTestUtils.setField(registroDeLecturas, "inactividad", Duration.ZERO);
+        try {
+            registroDeLecturas.marcarLeido(usuarioId, 5L);
+            registroDeLecturas.escribirPendientes();
+            registroDeLecturas.marcarLeido(usuarioId, 6L);
+            registroDeLecturas.escribirPendientes();
+        } finally {
+            ReflectionTestUtils.setField(registroDeLecturas, "inactividad", inactividad);
+        }
+
+        assertThat(guardados(usuarioId).toArray()).containsExactly(5, 6);
+    }
+
+    @Test
+    void olvidaLosTopicosPurgadosAlContarNoLeidos() {
+        var usuarioId = crearUsuario();
+        var topico = topicoRepository.save(new Topico(new DatosNuevoTopico("Lecturas " + UUID.randomUUID(), "Mensaje",
+                new DatosUsuario("autor", UUID.randomUUID() + "@foro.com", "clave"), new DatosCurso("Lecturas", "Backend"))));
+        var cursoId = topico.getCurso().getId();
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.CREADO, topico));
+        long antes = registroDeLecturas.contarNoLeidos(usuarioId).porCurso().getOrDefault(cursoId, 0L);
+
+        eventPublisher.publishEvent(new TopicosPurgados(List.of(topico.getId())));
+
+        assertThat(registroDeLecturas.contarNoLeidos(usuarioId).porCurso().getOrDefault(cursoId, 0L)).isEqualTo(antes - 1);
+    }
+
+    private Long crearUsuario() {
+        return usuarioRepository.save(new Usuario(new DatosUsuario("lector", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance())).getId();
+    }
+
+    private RoaringBitmap guardados(Long usuarioId) throws Exception {
+        var blob = jdbcTemplate.queryForObject("SELECT leidos FROM lectura_usuario WHERE usuario_id = ?", byte[].class, usuarioId);
+        var bitmap = new RoaringBitmap();
+        bitmap.deserialize(new DataInputStream(new ByteArrayInputStream(blob)));
+        return bitmap;
+    }
+
+    private static byte[] serializar(RoaringBitmap bitmap) throws Exception {
+        var salida = new ByteArrayOutputStream();
+        bitmap.serialize(new DataOutputStream(salida));
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,160 @@
+package com.varela.foro.infra.moderacion;
+
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.curso.CursoRepository;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosFiltroModeracion;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"foro.moderacion.tamano-lote=2", "foro.moderacion.max-filas=3"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ModeracionTopicosTest {
+
+    @Autowired
+    private ModeracionTopicos moderacionTopicos;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void moderaPorIdsEnLotesConUnEventoPorLote() {
+        var ids = new ArrayList<Long>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(guardar("Moderacion por ids " + i).getId());
+        }
+        long eventosAntes = eventosModerados();
+
+        var resultado = moderacionTopicos.moderar(ids, StatusTopico.CERRADO);
+
+        assertThat(resultado.actualizados()).isEqualTo(5);
+        assertThat(resultado.lotes()).isEqualTo(3);
+        assertThat(resultado.anteriores()).isEqualTo(Map.of(StatusTopico.NO_RESPONDIDO, 5L));
+        assertThat(eventosModerados() - eventosAntes).isEqualTo(3);
+        assertThat(topicoRepository.findAllById(ids)).allMatch(t -> t.getStatus() == StatusTopico.CERRADO);
+        var cursoId = topicoRepository.findById(ids.get(0)).orElseThrow().getCurso().getId();
+        var estadisticas = cursoRepository.buscarEstadisticas(cursoId).orElseThrow();
+        assertThat(estadisticas.cerrados()).isEqualTo(1);
+        assertThat(estadisticas.noRespondidos()).isZero();
+
+        // Repetir no cambia nada: los tópicos ya están en el estado pedido
+        assertThat(moderacionTopicos.moderar(ids, StatusTopico.CERRADO).actualizados()).isZero();
+    }
+
+    @Test
+    void moderaPorFiltroDeCursoYAntiguedad() {
+        var antiguo = guardar("Moderacion por filtro antiguo");
+        var cursoId = antiguo.getCurso().getId();
+        var reciente = guardar("Moderacion por filtro reciente");
+        jdbcTemplate.update("UPDATE topico SET fecha_creacion = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(90)), antiguo.getId());
+        // El segundo tópico se mueve al curso del primero para que el filtro de curso abarque a ambos
+        jdbcTemplate.update("UPDATE topico SET curso_id = ? WHERE id = ?", cursoId, reciente.getId());
+
+        var resultado = moderacionTopicos.moderar(new DatosFiltroModeracion(cursoId, StatusTopico.NO_RESPONDIDO, 30),
+                StatusTopico.CERRADO);
+
+        assertThat(resultado.actualizados()).isEqualTo(1);
+        assertThat(topicoRepository.findById(antiguo.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.CERRADO);
+        assertThat(topicoRepository.findById(reciente.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.NO_RESPONDIDO);
+    }
+
+    @Test
+    void recortaLaModeracionPorFiltroAlMaximoDeFilasYSeContinuaDesdeElSiguienteId() {
+        var primero = guardar("Moderacion recortada 0");
+        var cursoId = primero.getCurso().getId();
+        var ids = new ArrayList<>(List.of(primero.getId()));
+        for (int i = 1; i < 5; i++) {
+            var topico = guardar("Moderacion recortada " + i);
+            jdbcTemplate.update("UPDATE topico SET curso_id = ? WHERE id = ?", cursoId, topico.getId());
+            ids.add(topico.getId());
+        }
+
+        var primera = moderacionTopicos.moderar(new DatosFiltroModeracion(cursoId, null, null), StatusTopico.CERRADO);
+
+        assertThat(primera.actualizados()).isEqualTo(3);
+        assertThat(primera.siguienteId()).isEqualTo(ids.get(2));
+
+        var segunda = moderacionTopicos.moderar(new DatosFiltroModeracion(cursoId, null, null, primera.siguienteId()),
+                StatusTopico.CERRADO);
+
+        assertThat(segunda.actualizados()).isEqualTo(2);
+        assertThat(segunda.siguienteId()).isNull();
+        assertThat(topicoRepository.findAllById(ids)).allMatch(t -> t.getStatus() == StatusTopico.CERRADO);
+    }
+
+    @Test
+    void soloLosModeradoresPuedenModerar() throws Exception {
+        var topico = guardar("Moderacion con permisos");
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("Usuario", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        var moderador = new Usuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(), null, true, null, null, true);
+        var cuerpo = "{\"ids\":[" + topico.getId() + "],\"status\":\"CERRADO\"}";
+
+        mockMvc.perform(post("/topico/moderation").contentType(MediaType.APPLICATION_JSON).content(cuerpo)
+                        .header("Authorization", "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken()))
+                .andExpect(status().isForbidden());
+        assertThat(topicoRepository.findById(topico.getId()).orElseThrow().getStatus()).isEqualTo(StatusTopico.NO_RESPONDIDO);
+
+        mockMvc.perform(post("/topico/moderation").contentType(MediaType.APPLICATION_JSON).content(cuerpo)
+                        .header("Authorization", "Bearer " + servicioSesiones.iniciar(moderador).jwTtoken()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actualizados").value(1));
+    }
+
+    private Topico guardar(String titulo) {
+        var unico = UUID.randomUUID().toString();
+        return transactionTemplate.execute(estado -> topicoRepository.save(new Topico(new DatosNuevoTopico(titulo, "Mensaje " + unico,
+                new DatosUsuario("autor", unico + "@foro.com", "clave"), new DatosCurso("Moderacion", "Backend")))));
+    }
+
+    private long eventosModerados() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox WHERE tipo = 'MODERADO'", Long.class);
+    }
+}
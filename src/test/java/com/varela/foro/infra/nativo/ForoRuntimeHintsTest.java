@@ -0,0 +1,36 @@
+package com.varela.foro.infra.nativo;
+
+import com.varela.foro.modelo.DatosPagina;
+import com.varela.foro.modelo.topico.DatosListadoTopicoID;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForoRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    ForoRuntimeHintsTest() {
+        new ForoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registraLosRecordsDatosParaJacksonYLasProyeccionesJpql() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(DatosListadoTopicoID.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(DatosUsuario.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(DatosPagina.class)).accepts(hints);
+    }
+
+    @Test
+    void registraJavaJwtYLosRecursosCargadosPorNombre() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(TypeReference.of("com.auth0.jwt.impl.PayloadDeserializer"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/vendor/mysql/V11__partition-topico-respuesta.sql")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache.xml")).accepts(hints);
+    }
+}
@@ -0,0 +1,179 @@
+package com.varela.foro.infra.notificaciones;
+
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.respuesta.Respuesta;
+import com.varela.foro.modelo.respuesta.RespuestaRepository;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "foro.notificaciones.directorio=target/resumenes-test",
+        "foro.notificaciones.tamano-lote=2"})
+@ActiveProfiles("test")
+class ResumidorRespuestasTest {
+
+    private static final Path DIRECTORIO = Path.of("target/resumenes-test");
+
+    @Autowired
+    private ResumidorRespuestas resumidorRespuestas;
+
+    @SpyBean
+    private EmisorResumenes emisorResumenes;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Topico topico;
+    private Usuario autorTopico;
+    private Usuario lector;
+    private Usuario otroLector;
+
+    @BeforeEach
+    void prepararTopico() throws Exception {
+        // Se descartan las respuestas que hayan dejado otros tests.
+        resumidorRespuestas.resumir();
+        FileSystemUtils.deleteRecursively(DIRECTORIO);
+        clearInvocations(emisorResumenes);
+
+        var unico = UUID.randomUUID().toString();
+        topico = topicoRepository.save(new Topico(new DatosNuevoTopico("Resumen " + unico, "Mensaje " + unico,
+                new DatosUsuario("autor", "autor" + unico + "@foro.com", "clave"), new DatosCurso("Resumenes", "Backend"))));
+        autorTopico = topico.getAutor();
+        lector = usuario("lector", unico);
+        otroLector = usuario("otro", unico);
+    }
+
+    @Test
+    void agrupaLasRespuestasNuevasPorDestinatarioYTopico() throws Exception {
+        var primera = responder(lector, null);
+        responder(lector, null);
+        responder(otroLector, primera);
+        responder(autorTopico, null);
+
+        assertThat(resumidorRespuestas.resumir()).isEqualTo(2);
+
+        var captor = ArgumentCaptor.forClass(ResumenNotificaciones.class);
+        verify(emisorResumenes, atLeastOnce()).enviar(captor.capture());
+        var paraAutor = captor.getAllValues().stream().filter(r -> r.usuarioId().equals(autorTopico.getId())).findFirst().orElseThrow();
+        var paraLector = captor.getAllValues().stream().filter(r -> r.usuarioId().equals(lector.getId())).findFirst().orElseThrow();
+        assertThat(paraAutor.topicos()).singleElement()
+                .satisfies(a -> assertThat(a.respuestasAlTopico()).isEqualTo(3))
+                .satisfies(a -> assertThat(a.respuestasATusRespuestas()).isZero());
+        assertThat(paraLector.topicos()).singleElement()
+                .satisfies(a -> assertThat(a.respuestasAlTopico()).isZero())
+                .satisfies(a -> assertThat(a.respuestasATusRespuestas()).isEqualTo(1));
+        assertThat(Files.readString(DIRECTORIO.resolve(paraLector.id() + ".eml"))).contains("To: " + lector.getEmail());
+
+        assertThat(resumidorRespuestas.resumir()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT ultimo_id FROM notificacion_checkpoint", Long.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT MAX(id) FROM respuesta", Long.class));
+    }
+
+    @Test
+    void unEnvioFallidoReenviaElMismoTramoConLosMismosIds() throws Exception {
+        responder(lector, null);
+        responder(otroLector, null);
+        doThrow(new IllegalStateException("SMTP caído")).doCallRealMethod().when(emisorResumenes).enviar(any());
+
+        assertThat(resumidorRespuestas.resumir()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT pendiente_hasta FROM notificacion_checkpoint", Long.class)).isNotNull();
+
+        responder(lector, null);
+        assertThat(resumidorRespuestas.resumir()).isEqualTo(2);
+
+        var captor = ArgumentCaptor.forClass(ResumenNotificaciones.class);
+        verify(emisorResumenes, atLeastOnce()).enviar(captor.capture());
+        var resumenes = captor.getAllValues();
+        assertThat(resumenes).hasSize(3);
+        assertThat(resumenes.get(1).id()).isEqualTo(resumenes.get(0).id());
+        assertThat(resumenes.get(1).topicos().get(0).respuestasAlTopico()).isEqualTo(2);
+        assertThat(resumenes.get(2).topicos().get(0).respuestasAlTopico()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT pendiente_hasta FROM notificacion_checkpoint", Long.class)).isNull();
+    }
+
+    @Test
+    void incluyeEnElSiguienteTramoUnaRespuestaQueConfirmoTarde() throws Exception {
+        responder(lector, null);
+        var tardia = responder(lector, null);
+        responder(lector, null);
+        // Se simula una transacción que aún no ha confirmado: su fila no es visible cuando se recorre el tramo.
+        var fila = jdbcTemplate.queryForMap("SELECT * FROM respuesta WHERE id = ?", tardia.getId());
+        jdbcTemplate.update("DELETE FROM respuesta WHERE id = ?", tardia.getId());
+
+        assertThat(resumidorRespuestas.resumir()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notificacion_hueco", Long.class)).containsExactly(tardia.getId());
+
+        jdbcTemplate.update("INSERT INTO respuesta (" + String.join(", ", fila.keySet()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(fila.size(), "?")) + ")", fila.values().toArray());
+        assertThat(resumidorRespuestas.resumir()).isEqualTo(1);
+
+        var captor = ArgumentCaptor.forClass(ResumenNotificaciones.class);
+        verify(emisorResumenes, atLeastOnce()).enviar(captor.capture());
+        assertThat(captor.getAllValues()).extracting(r -> r.topicos().get(0).respuestasAlTopico()).containsExactly(2, 1);
+        assertThat(captor.getAllValues().get(1).id()).isNotEqualTo(captor.getAllValues().get(0).id());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notificacion_hueco", Long.class)).isZero();
+    }
+
+    @Test
+    void soloEnviaLaInstanciaQueReclamaElCheckpoint() {
+        responder(lector, null);
+        jdbcTemplate.update("UPDATE notificacion_checkpoint SET reclamado_por = 'otra-instancia', reclamado_hasta = ?",
+                Timestamp.valueOf(LocalDateTime.now().plusMinutes(5)));
+
+        assertThat(resumidorRespuestas.resumir()).isZero();
+        verify(emisorResumenes, never()).enviar(any());
+
+        // Cuando el reclamo de la otra instancia caduca, esta lo toma
+        jdbcTemplate.update("UPDATE notificacion_checkpoint SET reclamado_hasta = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+        assertThat(resumidorRespuestas.resumir()).isEqualTo(1);
+    }
+
+    private Usuario usuario(String nombre, String unico) {
+        return usuarioRepository.save(new Usuario(new DatosUsuario(nombre, nombre + unico + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+    }
+
+    private Respuesta responder(Usuario autor, Respuesta padre) {
+        var respuesta = respuestaRepository.save(new Respuesta("Respuesta de " + autor.getNombre(), topico, autor, padre));
+        respuesta.asignarRuta(padre);
+        return respuestaRepository.save(respuesta);
+    }
+}
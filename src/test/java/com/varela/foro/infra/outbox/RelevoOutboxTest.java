@@ -0,0 +1,173 @@
+package com.varela.foro.infra.outbox;
+
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.TipoModificacionTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoModificado;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RelevoOutboxTest {
+
+    @Autowired
+    private RelevoOutbox relevoOutbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private String agregado;
+
+    @BeforeEach
+    void crearAgregado() {
+        agregado = "prueba-" + UUID.randomUUID().toString().substring(0, 8);
+        relevoOutbox.relevar();
+    }
+
+    @Test
+    void escribeElEventoSoloSiConfirmaLaTransaccionDelCambio() {
+        long revertido = transactionTemplate.execute(estado -> {
+            long id = crearTopicoConEvento();
+            estado.setRollbackOnly();
+            return id;
+        });
+        long confirmado = transactionTemplate.execute(estado -> crearTopicoConEvento());
+
+        assertThat(eventosDe(revertido)).isZero();
+        assertThat(eventosDe(confirmado)).isEqualTo(1);
+    }
+
+    @Test
+    void entregaLosEventosPendientesYAvanzaElCheckpoint() {
+        long id = insertar(null);
+        insertar(null);
+
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isEqualTo(2);
+        assertThat(checkpoint()).isGreaterThan(id);
+
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isEqualTo(2);
+    }
+
+    @Test
+    void entregaUnEventoQueConfirmaDespuesDeQueElCheckpointLoAdelante() {
+        insertar(null);
+        // La transacción obtiene su ID pero aún no confirma: el relevo ve los eventos anterior y posterior.
+        long tardio = transactionTemplate.execute(estado -> {
+            long id = insertar(null);
+            estado.setRollbackOnly();
+            return id;
+        });
+        insertar(null);
+
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isEqualTo(2);
+        assertThat(hayHueco(tardio)).isTrue();
+
+        insertar(tardio);
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isEqualTo(3);
+        assertThat(hayHueco(tardio)).isFalse();
+    }
+
+    @Test
+    void noDrenaUnConsumidorReclamadoPorOtraInstancia() {
+        reclamarPorOtra(Instant.now().plusSeconds(300));
+        long checkpoint = checkpoint();
+        insertar(null);
+
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isZero();
+        assertThat(checkpoint()).isEqualTo(checkpoint);
+
+        reclamarPorOtra(Instant.now().minusSeconds(1));
+        relevoOutbox.relevar();
+
+        assertThat(contados()).isEqualTo(1);
+    }
+
+    private long crearTopicoConEvento() {
+        var unico = UUID.randomUUID().toString();
+        var topico = topicoRepository.save(new Topico(new DatosNuevoTopico("Outbox " + unico, "Mensaje " + unico,
+                new DatosUsuario("autor", unico + "@foro.com", "clave"), new DatosCurso("Outbox", "Backend"))));
+        eventPublisher.publishEvent(new TopicoModificado(TipoModificacionTopico.CREADO, topico));
+        return topico.getId();
+    }
+
+    private long eventosDe(long topicoId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox WHERE agregado = ? AND agregado_id = ?", Long.class,
+                EscritorOutbox.AGREGADO_TOPICO, topicoId);
+    }
+
+    private long insertar(Long id) {
+        var fila = new HashMap<String, Object>();
+        if (id != null) {
+            fila.put("id", id);
+        }
+        fila.put("agregado", agregado);
+        fila.put("tipo", "PRUEBA");
+        fila.put("fecha_creacion", Timestamp.from(Instant.now()));
+        var insercion = new SimpleJdbcInsert(jdbcTemplate).withTableName("outbox");
+        if (id != null) {
+            insercion.execute(fila);
+            return id;
+        }
+        return insercion.usingColumns("agregado", "tipo", "fecha_creacion").usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(fila).longValue();
+    }
+
+    private double contados() {
+        return meterRegistry.counter("foro.modificaciones", "agregado", agregado, "tipo", "PRUEBA").count();
+    }
+
+    private boolean hayHueco(long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_hueco WHERE consumidor = 'contadores' AND id = ?",
+                Long.class, id) > 0;
+    }
+
+    private long checkpoint() {
+        return jdbcTemplate.queryForObject("SELECT ultimo_id FROM outbox_checkpoint WHERE consumidor = 'contadores'", Long.class);
+    }
+
+    private void reclamarPorOtra(Instant hasta) {
+        jdbcTemplate.update("UPDATE outbox_checkpoint SET reclamado_por = 'otra', reclamado_hasta = ? WHERE consumidor = 'contadores'",
+                Timestamp.from(hasta));
+    }
+}
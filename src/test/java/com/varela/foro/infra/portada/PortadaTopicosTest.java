@@ -0,0 +1,157 @@
+package com.varela.foro.infra.portada;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.varela.foro.infra.consultas.FiltroConsultas;
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosActualizarTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PortadaTopicosTest {
+
+    private static final String MAS_RECIENTES = "fechaCreacion,desc";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private PortadaTopicos portadaTopicos;
+
+    private String autorizacion;
+
+    @BeforeEach
+    void iniciarSesion() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("lector", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+        // Otros tests guardan tópicos directamente con el repositorio, sin TopicoModificado.
+        portadaTopicos.invalidar();
+    }
+
+    @Test
+    void laPortadaSeSirveSinConsultasYConEtag() throws Exception {
+        crear("Portada " + UUID.randomUUID());
+        listar(MAS_RECIENTES, null);
+
+        var respuesta = listar(MAS_RECIENTES, null);
+        assertThat(respuesta.getHeader(FiltroConsultas.CABECERA_CONSULTAS)).isEqualTo("0");
+        assertThat(respuesta.getHeader("ETag")).isNotBlank();
+        assertThat(contenido(respuesta)).isEqualTo(contenidoEnBaseDeDatos(Sort.by(Sort.Direction.DESC, "fechaCreacion", "id")));
+
+        var noModificada = mockMvc.perform(get("/topico").param("sort", MAS_RECIENTES).header("Authorization", autorizacion)
+                        .header("If-None-Match", respuesta.getHeader("ETag")))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertThat(noModificada.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void laPortadaSeCorrigeConCadaModificacionConfirmada() throws Exception {
+        var etagInicial = listar(MAS_RECIENTES, null).getHeader("ETag");
+        listar(null, null);
+
+        var id = crear("Nuevo " + UUID.randomUUID());
+        var trasCrear = listar(MAS_RECIENTES, null);
+        assertThat(trasCrear.getHeader(FiltroConsultas.CABECERA_CONSULTAS)).isEqualTo("0");
+        assertThat(trasCrear.getHeader("ETag")).isNotEqualTo(etagInicial);
+        assertThat(contenido(trasCrear).get(0).get("id").asLong()).isEqualTo(id);
+        assertThat(contenido(listar(null, null))).isEqualTo(contenidoEnBaseDeDatos(Sort.by("id")));
+
+        var titulo = "Editado " + UUID.randomUUID();
+        mockMvc.perform(put("/topico/{id}", id).header("Authorization", autorizacion).contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DatosActualizarTopico(titulo, "Mensaje " + titulo,
+                                new DatosUsuario("autor", "autor@foro.com", "clave"), new DatosCurso("Portada", "Backend")))))
+                .andExpect(status().isOk());
+        assertThat(contenido(listar(MAS_RECIENTES, null)).get(0).get("titulo").asText()).isEqualTo(titulo);
+
+        mockMvc.perform(delete("/topico/{id}", id).header("Authorization", autorizacion)).andExpect(status().isNoContent());
+        var trasBorrar = listar(MAS_RECIENTES, null);
+        assertThat(trasBorrar.getHeader(FiltroConsultas.CABECERA_CONSULTAS)).isEqualTo("0");
+        assertThat(contenido(trasBorrar)).isEqualTo(contenidoEnBaseDeDatos(Sort.by(Sort.Direction.DESC, "fechaCreacion", "id")));
+        assertThat(objectMapper.readTree(trasBorrar.getContentAsByteArray()).get("totalElements").asLong())
+                .isEqualTo(topicoRepository.findByFechaCreacionGreaterThanEqual(LocalDateTime.now().minus(Period.ofMonths(6)),
+                        PageRequest.of(0, 1)).getTotalElements());
+    }
+
+    @Test
+    void losListadosNoPrecalculadosVanALaBaseDeDatos() throws Exception {
+        assertThat(listar("titulo,asc", null).getHeader("ETag")).isNull();
+        assertThat(listar(null, "20").getHeader("ETag")).isNull();
+    }
+
+    private Long crear(String titulo) throws Exception {
+        var cuerpo = mockMvc.perform(post("/topico").header("Authorization", autorizacion).contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DatosNuevoTopico(titulo, "Mensaje " + titulo,
+                                new DatosUsuario("autor", "autor@foro.com", "clave"), new DatosCurso("Portada", "Backend")))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo).get("id").asLong();
+    }
+
+    private MockHttpServletResponse listar(String orden, String tamano) throws Exception {
+        var solicitud = get("/topico").header("Authorization", autorizacion).accept(MediaType.APPLICATION_JSON);
+        if (orden != null) {
+            solicitud.param("sort", orden);
+        }
+        if (tamano != null) {
+            solicitud.param("size", tamano);
+        }
+        return mockMvc.perform(solicitud).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private JsonNode contenido(MockHttpServletResponse respuesta) throws Exception {
+        return objectMapper.readTree(respuesta.getContentAsByteArray()).get("content");
+    }
+
+    private JsonNode contenidoEnBaseDeDatos(Sort orden) throws Exception {
+        var pagina = topicoRepository.findByFechaCreacionGreaterThanEqual(LocalDateTime.now().minus(Period.ofMonths(6)),
+                PageRequest.of(0, 10, orden)).map(DatosListadoTopico::new);
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(pagina.getContent()));
+    }
+}
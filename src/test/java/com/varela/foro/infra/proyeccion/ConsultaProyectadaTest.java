@@ -0,0 +1,91 @@
+package com.varela.foro.infra.proyeccion;
+
+import com.varela.foro.controller.TopicoController;
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultaProyectadaTest {
+
+    private static final Map<String, String> CAMPOS = new LinkedHashMap<>();
+
+    static {
+        CAMPOS.put("id", "id");
+        CAMPOS.put("titulo", "titulo");
+        CAMPOS.put("mensaje", "mensaje");
+        CAMPOS.put("nombreCurso", "curso.nombre");
+    }
+
+    @Autowired
+    private ConsultaProyectada consultaProyectada;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private TopicoController topicoController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void devuelveSoloLosCamposPedidosConElMensajeRecortado() {
+        var topico = topicoRepository.save(new Topico(new DatosNuevoTopico("Proyeccion", "Un mensaje bastante largo",
+                new DatosUsuario("autor", "autor@foro.com", "clave"), new DatosCurso("Java", "Backend"))));
+
+        var pagina = consultaProyectada.listar(Topico.class, CAMPOS, Set.of("mensaje", "nombreCurso"), "mensaje", 9,
+                (t, cb) -> cb.equal(t.get("id"), topico.getId()), PageRequest.of(0, 10, Sort.by("titulo")));
+
+        assertThat(pagina.getTotalElements()).isEqualTo(1);
+        assertThat(pagina.getContent().get(0))
+                .containsOnlyKeys("id", "mensaje", "nombreCurso")
+                .containsEntry("mensaje", "Un mensaj")
+                .containsEntry("nombreCurso", "Java");
+    }
+
+    @Test
+    void rechazaCamposDesconocidos() {
+        assertThatThrownBy(() -> consultaProyectada.validar(CAMPOS, Set.of("contrasena")))
+                .isInstanceOf(CampoNoPermitidoException.class);
+    }
+
+    @Test
+    void elListadoConFieldsAplicaLaVentanaRecienteSalvoEnElHistorico() {
+        var antiguo = topicoRepository.save(new Topico(new DatosNuevoTopico("Proyeccion antigua", "Mensaje antiguo",
+                new DatosUsuario("autor", "antiguo@foro.com", "clave"), new DatosCurso("Java", "Backend")))).getId();
+        jdbcTemplate.update("UPDATE topico SET fecha_creacion = ? WHERE id = ?", Timestamp.valueOf(LocalDateTime.now().minusYears(5)), antiguo);
+        var paginacion = PageRequest.of(0, 1000);
+
+        assertThat(ids(topicoController.listarTopicosCampos(paginacion, Set.of("titulo"), null, false))).doesNotContain(antiguo);
+        assertThat(ids(topicoController.listarTopicosConExtracto(paginacion, 5, false))).doesNotContain(antiguo);
+        assertThat(ids(topicoController.listarTopicosCampos(paginacion, Set.of("titulo"), null, true))).contains(antiguo);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> ids(ResponseEntity respuesta) {
+        return ((Page<Map<String, Object>>) respuesta.getBody()).getContent().stream().map(fila -> fila.get("id")).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.varela.foro.infra.purga;
+
+import com.varela.foro.modelo.curso.DatosCurso;
+import com.varela.foro.modelo.respuesta.Respuesta;
+import com.varela.foro.modelo.respuesta.RespuestaRepository;
+import com.varela.foro.modelo.topico.DatosNuevoTopico;
+import com.varela.foro.modelo.topico.Topico;
+import com.varela.foro.modelo.topico.TopicoRepository;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.EstadoPurga;
+import com.varela.foro.modelo.usuario.PurgaUsuario;
+import com.varela.foro.modelo.usuario.PurgaUsuarioRepository;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PurgadorDeUsuariosTest {
+
+    @Autowired
+    private PurgadorDeUsuarios purgadorDeUsuarios;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PurgaUsuarioRepository purgaUsuarioRepository;
+
+    @Autowired
+    private TopicoRepository topicoRepository;
+
+    @Autowired
+    private RespuestaRepository respuestaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void noProcesaUnaPurgaReclamadaPorOtraInstanciaHastaQueCaduqueElReclamo() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("rita", "rita@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        usuario.desactivar();
+        usuarioRepository.save(usuario);
+        var purga = purgaUsuarioRepository.save(new PurgaUsuario(usuario.getId()));
+        reclamarPorOtra(purga.getId(), LocalDateTime.now().plusMinutes(5));
+
+        purgadorDeUsuarios.procesarPendientes();
+
+        assertThat(purgaUsuarioRepository.findById(purga.getId())).get().extracting(PurgaUsuario::getEstado)
+                .isEqualTo(EstadoPurga.PENDIENTE);
+        assertThat(usuarioRepository.findById(usuario.getId())).isPresent();
+
+        reclamarPorOtra(purga.getId(), LocalDateTime.now().minusSeconds(1));
+        purgadorDeUsuarios.procesarPendientes();
+
+        assertThat(purgaUsuarioRepository.findById(purga.getId())).get().extracting(PurgaUsuario::getEstado)
+                .isEqualTo(EstadoPurga.COMPLETADA);
+        assertThat(usuarioRepository.findById(usuario.getId())).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT reclamada_por FROM usuario_purga WHERE id = ?", String.class, purga.getId()))
+                .isNotEqualTo("otra");
+    }
+
+    @Test
+    void borraLosSubarbolesDeLasRespuestasDelUsuarioPurgado() {
+        var unico = UUID.randomUUID().toString();
+        var topico = topicoRepository.save(new Topico(new DatosNuevoTopico("Hilo " + unico, "Mensaje",
+                new DatosUsuario("autor", "autor" + unico + "@foro.com", "clave"), new DatosCurso("Hilos", "Backend"))));
+        var purgado = usuarioRepository.save(new Usuario(new DatosUsuario("purgado", "purgado" + unico + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        var otro = topico.getAutor();
+        var delPurgado = responder(topico, purgado, null);
+        var hija = responder(topico, otro, delPurgado);
+        var nieta = responder(topico, otro, hija);
+        var ajena = responder(topico, otro, null);
+        var hijaDeAjena = responder(topico, otro, ajena);
+        purgado.desactivar();
+        usuarioRepository.save(purgado);
+        purgaUsuarioRepository.save(new PurgaUsuario(purgado.getId()));
+
+        purgadorDeUsuarios.procesarPendientes();
+
+        assertThat(respuestaRepository.findAllById(List.of(delPurgado.getId(), hija.getId(), nieta.getId()))).isEmpty();
+        assertThat(respuestaRepository.findAllById(List.of(ajena.getId(), hijaDeAjena.getId()))).hasSize(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM respuesta h WHERE h.respuesta_padre_id IS NOT NULL "
+                + "AND NOT EXISTS (SELECT 1 FROM respuesta p WHERE p.id = h.respuesta_padre_id)", Long.class)).isZero();
+    }
+
+    private Respuesta responder(Topico topico, Usuario autor, Respuesta padre) {
+        var respuesta = respuestaRepository.save(new Respuesta("Respuesta de " + autor.getNombre(), topico, autor, padre));
+        respuesta.asignarRuta(padre);
+        return respuestaRepository.save(respuesta);
+    }
+
+    private void reclamarPorOtra(Long id, LocalDateTime hasta) {
+        jdbcTemplate.update("UPDATE usuario_purga SET reclamada_por = 'otra', reclamada_hasta = ? WHERE id = ?",
+                Timestamp.valueOf(hasta), id);
+    }
+}
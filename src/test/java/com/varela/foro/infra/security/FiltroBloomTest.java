@@ -0,0 +1,32 @@
+package com.varela.foro.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomTest {
+
+    @Test
+    void nuncaDaFalsosNegativos() {
+        var filtro = new FiltroBloom(10_000, 0.001);
+        var valores = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        valores.forEach(filtro::agregar);
+
+        assertThat(valores).allMatch(filtro::puedeContener);
+    }
+
+    @Test
+    void mantieneLaTasaDeFalsosPositivosCercaDeLaPedida() {
+        var filtro = new FiltroBloom(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.agregar(UUID.randomUUID().toString()));
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.puedeContener(UUID.randomUUID().toString()))
+                .count();
+
+        assertThat(falsosPositivos).isLessThan(2_000);
+    }
+}
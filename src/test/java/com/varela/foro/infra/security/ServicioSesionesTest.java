@@ -0,0 +1,79 @@
+package com.varela.foro.infra.security;
+
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServicioSesionesTest {
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void rotaElTokenDeRefrescoYRevocaLaSesionSiSeReutiliza() {
+        var usuario = guardar("rotacion@foro.com");
+        var inicio = servicioSesiones.iniciar(usuario);
+
+        var refresco = servicioSesiones.refrescar(inicio.tokenRefresco());
+        assertThat(refresco.tokenRefresco()).isNotEqualTo(inicio.tokenRefresco());
+        assertThat(jti(refresco)).isNotEqualTo(jti(inicio));
+        assertThat(revocacionTokens.estaRevocado(jti(refresco))).isFalse();
+
+        // El token ya canjeado vuelve a presentarse: se revoca toda la familia
+        assertThatThrownBy(() -> servicioSesiones.refrescar(inicio.tokenRefresco()))
+                .isInstanceOf(TokenRefrescoInvalidoException.class);
+        assertThat(revocacionTokens.estaRevocado(jti(inicio))).isTrue();
+        assertThat(revocacionTokens.estaRevocado(jti(refresco))).isTrue();
+        assertThatThrownBy(() -> servicioSesiones.refrescar(refresco.tokenRefresco()))
+                .isInstanceOf(TokenRefrescoInvalidoException.class);
+    }
+
+    @Test
+    void revocarUsuarioCortaSusTokensDeAccesoTrasSincronizar() {
+        var usuario = guardar("revocado@foro.com");
+        var sesion = servicioSesiones.iniciar(usuario);
+
+        servicioSesiones.revocarUsuario(usuario.getId());
+        revocacionTokens.sincronizar();
+
+        assertThat(revocacionTokens.estaRevocado(jti(sesion))).isTrue();
+        assertThatThrownBy(() -> servicioSesiones.refrescar(sesion.tokenRefresco()))
+                .isInstanceOf(TokenRefrescoInvalidoException.class);
+    }
+
+    @Test
+    void rechazaTokensDeRefrescoDesconocidos() {
+        assertThatThrownBy(() -> servicioSesiones.refrescar("desconocido"))
+                .isInstanceOf(TokenRefrescoInvalidoException.class);
+    }
+
+    private String jti(DatosJWTToken tokens) {
+        return tokenService.verificar(tokens.jwTtoken()).getId();
+    }
+
+    private Usuario guardar(String email) {
+        return usuarioRepository.save(new Usuario(new DatosUsuario("usuario", email, "clave"), passwordEncoder));
+    }
+}
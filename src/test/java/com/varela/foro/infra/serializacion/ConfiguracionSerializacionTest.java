@@ -0,0 +1,83 @@
+package com.varela.foro.infra.serializacion;
+
+import com.varela.foro.infra.security.ServicioSesiones;
+import com.varela.foro.modelo.topico.DatosResultadoModeracion;
+import com.varela.foro.modelo.usuario.DatosListadoUsuarios;
+import com.varela.foro.modelo.usuario.DatosUsuario;
+import com.varela.foro.modelo.usuario.Usuario;
+import com.varela.foro.modelo.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConfiguracionSerializacionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioSesiones servicioSesiones;
+
+    private String autorizacion;
+    private Long usuarioId;
+
+    @BeforeEach
+    void iniciarSesion() {
+        var usuario = usuarioRepository.save(new Usuario(new DatosUsuario("cliente", UUID.randomUUID() + "@foro.com", "clave"),
+                NoOpPasswordEncoder.getInstance()));
+        usuarioId = usuario.getId();
+        autorizacion = "Bearer " + servicioSesiones.iniciar(usuario).jwTtoken();
+    }
+
+    @Test
+    void sinAcceptOConComodinRespondeJson() throws Exception {
+        mockMvc.perform(get("/usuario/batch").param("ids", String.valueOf(usuarioId)).header("Authorization", autorizacion))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/topico/batch").param("ids", "1").header("Authorization", autorizacion).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/curso").header("Authorization", autorizacion))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void sirveProtobufSoloSiSePideYPublicaSuEsquema() throws Exception {
+        mockMvc.perform(get("/usuario").header("Authorization", autorizacion).accept(ProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        mockMvc.perform(get("/esquemas/usuario.proto").header("Authorization", autorizacion))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("message DatosPagina")))
+                .andExpect(content().string(containsString("= 1;")));
+    }
+
+    @Test
+    void noSeOfreceParaRecordsConMapas() {
+        var convertidor = new ProtobufHttpMessageConverter();
+
+        assertThat(convertidor.canWrite(DatosResultadoModeracion.class, DatosResultadoModeracion.class, MediaType.ALL)).isFalse();
+        assertThat(convertidor.canWrite(DatosListadoUsuarios.class, DatosListadoUsuarios.class, MediaType.ALL)).isTrue();
+    }
+}
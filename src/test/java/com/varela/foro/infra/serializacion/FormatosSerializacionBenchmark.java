@@ -0,0 +1,114 @@
+package com.varela.foro.infra.serializacion;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.varela.foro.modelo.DatosPagina;
+import com.varela.foro.modelo.StatusTopico;
+import com.varela.foro.modelo.topico.DatosListadoTopico;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el tamaño y el tiempo de serialización de una página de tópicos en cada formato de respuesta.
+ * Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class FormatosSerializacionBenchmark {
+
+    private static final int ITERACIONES = 2_000;
+
+    interface Serializador {
+        byte[] serializar() throws IOException;
+    }
+
+    @Test
+    void compararFormatos() throws IOException {
+        var contenido = new ArrayList<DatosListadoTopico>();
+        for (long i = 1; i <= 10; i++) {
+            contenido.add(new DatosListadoTopico(i, "Titulo del topico " + i,
+                    "Mensaje del topico numero " + i + " con algo de texto para parecerse a un mensaje real del foro.",
+                    LocalDateTime.of(2024, 1, 1, 10, 0).plusHours(i), StatusTopico.NO_RESPONDIDO, "autor" + i, "Spring Boot", "Backend"));
+        }
+        var pagina = new PageImpl<>(contenido, PageRequest.of(0, 10), 1_000);
+        var compacta = new DatosPagina<>(pagina);
+        var tipoCompacta = new TypeReference<DatosPagina<DatosListadoTopico>>() {
+        }.getType();
+
+        var json = new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        var cbor = new CBORMapper();
+        cbor.registerModule(new JavaTimeModule());
+        var protobuf = new ProtobufHttpMessageConverter();
+
+        Map<String, Serializador> formatos = new LinkedHashMap<>();
+        formatos.put("json Page", () -> json.writeValueAsBytes(pagina));
+        formatos.put("json compacto", () -> json.writeValueAsBytes(compacta));
+        formatos.put("cbor compacto", () -> cbor.writeValueAsBytes(compacta));
+        formatos.put("protobuf compacto", () -> {
+            var salida = new ByteArrayOutputStream();
+            protobuf.write(compacta, tipoCompacta, null, mensaje(salida));
+            return salida.toByteArray();
+        });
+
+        Map<String, Integer> tamanos = new LinkedHashMap<>();
+        System.out.printf("%-20s %10s %10s %12s%n", "formato", "bytes", "gzip", "us/op");
+        for (var formato : formatos.entrySet()) {
+            byte[] bytes = formato.getValue().serializar();
+            for (int i = 0; i < ITERACIONES; i++) {
+                formato.getValue().serializar();
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACIONES; i++) {
+                formato.getValue().serializar();
+            }
+            double microsegundos = (System.nanoTime() - inicio) / 1_000.0 / ITERACIONES;
+            tamanos.put(formato.getKey(), bytes.length);
+            System.out.printf("%-20s %10d %10d %12.2f%n", formato.getKey(), bytes.length, gzip(bytes).length, microsegundos);
+        }
+
+        assertThat(tamanos.get("json compacto")).isLessThan(tamanos.get("json Page"));
+        assertThat(tamanos.get("protobuf compacto")).isLessThan(tamanos.get("cbor compacto"));
+        assertThat(tamanos.get("cbor compacto")).isLessThan(tamanos.get("json compacto"));
+    }
+
+    private static HttpOutputMessage mensaje(OutputStream salida) {
+        var cabeceras = new HttpHeaders();
+        return new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return salida;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return cabeceras;
+            }
+        };
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var salida = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(salida)) {
+            gzip.write(bytes);
+        }
+        return salida.toByteArray();
+    }
+}
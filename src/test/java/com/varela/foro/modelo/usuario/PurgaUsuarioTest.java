@@ -0,0 +1,35 @@
+package com.varela.foro.modelo.usuario;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PurgaUsuarioTest {
+
+    @Test
+    void acumulaLosLotesHastaCompletarse() {
+        var purga = new PurgaUsuario(7L);
+        assertThat(purga.getEstado()).isEqualTo(EstadoPurga.PENDIENTE);
+
+        purga.iniciar();
+        purga.registrarLote(500);
+        purga.registrarLote(120);
+        purga.completar();
+
+        assertThat(purga.getEstado()).isEqualTo(EstadoPurga.COMPLETADA);
+        assertThat(purga.getFilasEliminadas()).isEqualTo(620L);
+        assertThat(purga.getLotesProcesados()).isEqualTo(2);
+        assertThat(purga.getFechaActualizacion()).isNotNull();
+    }
+
+    @Test
+    void recortaElMotivoDelFalloAlTamanoDeLaColumna() {
+        var purga = new PurgaUsuario(7L);
+        purga.iniciar();
+
+        purga.fallar("x".repeat(300));
+
+        assertThat(purga.getEstado()).isEqualTo(EstadoPurga.FALLIDA);
+        assertThat(purga.getError()).hasSize(255);
+    }
+}
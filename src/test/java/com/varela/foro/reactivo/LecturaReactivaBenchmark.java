@@ -0,0 +1,124 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.ForoApplication;
+import com.varela.foro.infra.security.TokenService;
+import com.varela.foro.modelo.usuario.Usuario;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de las lecturas: TopicoController (servlet + JPA) frente a la lectura reactiva (WebFlux + R2DBC).
+ * Ambas aplicaciones corren en la misma JVM contra la misma base de datos H2 en memoria, con la misma concurrencia,
+ * así que comparten hardware. Se ejecuta con: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = ForoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.org.springframework.security=INFO")
+@ActiveProfiles("test")
+class LecturaReactivaBenchmark {
+
+    private static final int TOPICOS = 500;
+
+    private static final int CALENTAMIENTO = 1_000;
+
+    private static final int PETICIONES = 5_000;
+
+    private static final int CONCURRENCIA = 64;
+
+    @LocalServerPort
+    private int puertoServlet;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void compararServletYReactivo() throws Exception {
+        jdbcTemplate.update("INSERT INTO curso (nombre, categoria) VALUES ('Carga', 'Backend')");
+        Long cursoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM curso", Long.class);
+        jdbcTemplate.update("INSERT INTO usuario (nombre, email, contrasena, activo) VALUES ('carga', 'carga@foro.com', 'x', TRUE)");
+        Long usuarioId = jdbcTemplate.queryForObject("SELECT id FROM usuario WHERE email = 'carga@foro.com'", Long.class);
+        for (int i = 0; i < TOPICOS; i++) {
+            jdbcTemplate.update("INSERT INTO topico (titulo, mensaje, fecha_creacion, status, autor_id, curso_id) VALUES (?, ?, ?, 0, ?, ?)",
+                    "Carga " + i, "Mensaje de carga " + i, Timestamp.valueOf(LocalDateTime.now()), usuarioId, cursoId);
+        }
+        long primerTopico = jdbcTemplate.queryForObject("SELECT MIN(id) FROM topico WHERE titulo LIKE 'Carga %'", Long.class);
+        String token = "Bearer " + tokenService.generarToken(new Usuario(usuarioId, "carga", "carga@foro.com", null, true, null, null, false));
+
+        try (var reactiva = LecturaReactivaApplication.iniciar("--server.port=0",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///foro?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa")) {
+            int puertoReactivo = ((WebServerApplicationContext) reactiva).getWebServer().getPort();
+
+            System.out.printf("%-28s %10s %10s %10s%n", "escenario", "req/s", "p50 ms", "p99 ms");
+            for (int puerto : new int[]{puertoServlet, puertoReactivo}) {
+                String nombre = puerto == puertoServlet ? "servlet" : "reactivo";
+                medir(nombre + " GET /topico", token, i -> "http://localhost:" + puerto + "/topico?historico=true&size=20");
+                medir(nombre + " GET /topico/{id}", token,
+                        i -> "http://localhost:" + puerto + "/topico/" + (primerTopico + ThreadLocalRandom.current().nextInt(TOPICOS)));
+            }
+        }
+    }
+
+    private void medir(String escenario, String token, IntFunction<String> url) throws InterruptedException {
+        lanzar(CALENTAMIENTO, token, url);
+        long inicio = System.nanoTime();
+        long[] latencias = lanzar(PETICIONES, token, url);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        Arrays.sort(latencias);
+        System.out.printf("%-28s %10.0f %10.2f %10.2f%n", escenario, PETICIONES / segundos,
+                latencias[latencias.length / 2] / 1e6, latencias[(int) (latencias.length * 0.99)] / 1e6);
+    }
+
+    /**
+     * Lanza las peticiones con como máximo CONCURRENCIA en vuelo y devuelve la latencia de cada una en nanosegundos.
+     */
+    private long[] lanzar(int peticiones, String token, IntFunction<String> url) throws InterruptedException {
+        long[] latencias = new long[peticiones];
+        var enVuelo = new Semaphore(CONCURRENCIA);
+        var errores = new AtomicInteger();
+        var futuros = new CompletableFuture<?>[peticiones];
+        for (int i = 0; i < peticiones; i++) {
+            enVuelo.acquire();
+            int indice = i;
+            long inicio = System.nanoTime();
+            var peticion = HttpRequest.newBuilder(URI.create(url.apply(i))).header("Authorization", token).build();
+            futuros[i] = cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((respuesta, error) -> {
+                        latencias[indice] = System.nanoTime() - inicio;
+                        if (error != null || respuesta.statusCode() != 200) {
+                            errores.incrementAndGet();
+                        }
+                        enVuelo.release();
+                    });
+        }
+        CompletableFuture.allOf(futuros).join();
+        assertThat(errores.get()).isZero();
+        return latencias;
+    }
+}
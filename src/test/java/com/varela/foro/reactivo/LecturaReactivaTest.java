@@ -0,0 +1,127 @@
+package com.varela.foro.reactivo;
+
+import com.varela.foro.infra.security.TokenService;
+import com.varela.foro.modelo.usuario.Usuario;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@SpringBootTest(classes = LecturaReactivaApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                LecturaReactivaApplication.CONFIGURACION,
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///lectura?options=MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa"
+        })
+class LecturaReactivaTest {
+
+    private static final String URL_JDBC = "jdbc:h2:mem:lectura;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static long topicoId;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private RevocacionReactiva revocacionReactiva;
+
+    /**
+     * La lectura reactiva no migra el esquema: se prepara la base de datos H2 por JDBC antes de arrancar el contexto.
+     */
+    @BeforeAll
+    static void prepararBaseDeDatos() {
+        var dataSource = new DriverManagerDataSource(URL_JDBC, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        var jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO curso (id, nombre, categoria) VALUES (1, 'Java', 'Backend')");
+        jdbc.update("INSERT INTO usuario (id, nombre, email, contrasena, activo) VALUES (1, 'Ana', 'ana@foro.com', 'x', TRUE)");
+        jdbc.update("INSERT INTO usuario (id, nombre, email, contrasena, activo) VALUES (2, 'Luis', 'luis@foro.com', 'x', FALSE)");
+        jdbc.update("INSERT INTO topico (id, titulo, mensaje, fecha_creacion, status, autor_id, curso_id) VALUES (1, 'Reactivo', 'Hola', ?, 0, 1, 1)",
+                Timestamp.valueOf(LocalDateTime.now()));
+        jdbc.update("INSERT INTO topico (id, titulo, mensaje, fecha_creacion, status, autor_id, curso_id) VALUES (2, 'Viejo', 'Hola', ?, 3, 1, 1)",
+                Timestamp.valueOf(LocalDateTime.now().minusYears(2)));
+        jdbc.update("INSERT INTO jti_revocado (jti, fecha_expiracion, fecha_revocacion) VALUES ('revocado-al-arrancar', ?, ?)",
+                Timestamp.valueOf(LocalDateTime.now().plusHours(1)), Timestamp.valueOf(LocalDateTime.now()));
+        topicoId = 1;
+    }
+
+    private String token(Long id, String email) {
+        var usuario = new Usuario(id, null, email, null, true, null, null, false);
+        return "Bearer " + tokenService.generarToken(usuario);
+    }
+
+    private String token(Long id, String email, String jti) {
+        var usuario = new Usuario(id, null, email, null, true, null, null, false);
+        return "Bearer " + tokenService.generarToken(usuario, jti);
+    }
+
+    @Test
+    void listaYBuscaTopicosConLosMismosRecordsQueLaApiServlet() {
+        var token = token(1L, "ana@foro.com");
+        webTestClient.get().uri("/topico").header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].titulo").isEqualTo("Reactivo")
+                .jsonPath("$.content[0].nombreCurso").isEqualTo("Java");
+        webTestClient.get().uri("/topico?historico=true&sort=titulo,desc").header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(2)
+                .jsonPath("$.content[0].titulo").isEqualTo("Viejo")
+                .jsonPath("$.content[0].status").isEqualTo("CERRADO");
+        webTestClient.get().uri("/topico/{id}", topicoId).header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.autor").isEqualTo("Ana")
+                .jsonPath("$.status").isEqualTo("NO_RESPONDIDO");
+        webTestClient.get().uri("/topico/999").header("Authorization", token).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void soloListaUsuariosActivos() {
+        var token = token(1L, "ana@foro.com");
+        webTestClient.get().uri("/usuario").header("Authorization", token).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].email").isEqualTo("ana@foro.com");
+        webTestClient.get().uri("/usuario/2").header("Authorization", token).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void rechazaPeticionesSinTokenOConUsuarioDesactivado() {
+        webTestClient.get().uri("/topico").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/topico").header("Authorization", token(2L, "luis@foro.com")).exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/topico?sort=contrasena").header("Authorization", token(1L, "ana@foro.com")).exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void rechazaLosTokensRevocadosTrasSincronizar() {
+        webTestClient.get().uri("/topico").header("Authorization", token(1L, "ana@foro.com", "revocado-al-arrancar")).exchange()
+                .expectStatus().isUnauthorized();
+
+        var token = token(1L, "ana@foro.com", "revocado-despues");
+        webTestClient.get().uri("/topico").header("Authorization", token).exchange().expectStatus().isOk();
+        new JdbcTemplate(new DriverManagerDataSource(URL_JDBC, "sa", ""))
+                .update("INSERT INTO jti_revocado (jti, fecha_expiracion, fecha_revocacion) VALUES ('revocado-despues', ?, ?)",
+                        Timestamp.valueOf(LocalDateTime.now().plusHours(1)), Timestamp.valueOf(LocalDateTime.now()));
+        revocacionReactiva.sincronizar();
+        webTestClient.get().uri("/topico").header("Authorization", token).exchange().expectStatus().isUnauthorized();
+    }
+}